@@ -56,14 +56,19 @@ import org.openpdf.text.error_messages.MessageLocalization;
 import java.awt.Color;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.w3c.dom.Node;
 
 /**
@@ -176,7 +181,12 @@ public class AcroFields {
         if (writer instanceof PdfStamperImp) {
             append = ((PdfStamperImp) writer).isAppend();
         }
-        fill();
+        if (reader.isLazyAcroFields()) {
+            FieldIndex index = reader.getAcroFieldsIndex();
+            fields = new LazyFields(index == null ? new FieldIndex(reader) : index);
+        } else {
+            fill();
+        }
     }
 
     public static Object[] splitDAelements(String da) {
@@ -303,70 +313,7 @@ public class AcroFields {
                     PdfReader.releaseLastXrefPartial(annots.getAsIndirectObject(j));
                     continue;
                 }
-                PdfDictionary widget = annot;
-                PdfDictionary dic = new PdfDictionary();
-                dic.putAll(annot);
-                String name = "";
-                PdfDictionary value = null;
-                PdfObject lastV = null;
-                int lastIDRNumber = -1;
-                PdfIndirectReference indirectObject = annots.getAsIndirectObject(j);
-                if (indirectObject != null) {
-                    lastIDRNumber = indirectObject.getNumber();
-                }
-                PdfIndirectReference parentRef = null;
-
-                while (annot != null) {
-                    dic.mergeDifferent(annot);
-                    PdfString t = annot.getAsString(PdfName.T);
-                    if (t != null) {
-                        name = t.toUnicodeString() + "." + name;
-                    }
-                    if (lastV == null && annot.get(PdfName.V) != null) {
-                        lastV = PdfReader.getPdfObjectRelease(annot.get(PdfName.V));
-                    }
-                    if (value == null && t != null) {
-                        value = annot;
-                        if (annot.get(PdfName.V) == null && lastV != null) {
-                            value.put(PdfName.V, lastV);
-                        }
-                    }
-                    int parentIDRNumber = -1;
-                    PdfIndirectReference asIndirectObject = annot.getAsIndirectObject(PdfName.PARENT);
-                    if (asIndirectObject != null) {
-                        parentIDRNumber = asIndirectObject.getNumber();
-                        parentRef = asIndirectObject;
-                    }
-                    if (parentIDRNumber != -1 && lastIDRNumber != parentIDRNumber) {
-                        annot = annot.getAsDict(PdfName.PARENT);
-                        lastIDRNumber = parentIDRNumber;
-                    } else {
-                        annot = null;
-                    }
-                }
-                if (name.length() > 0) {
-                    name = name.substring(0, name.length() - 1);
-                }
-                Item item = fields.get(name);
-                if (item == null) {
-                    if (parentRef == null) {
-                        //when there is no /Parent ref the item reference will be used
-                        parentRef = indirectObject;
-                    }
-                    item = new Item(parentRef);
-                    fields.put(name, item);
-                }
-                if (value == null) {
-                    item.addValue(widget);
-                } else {
-                    item.addValue(value);
-                }
-                item.addWidget(widget);
-                item.addWidgetRef(annots.getAsIndirectObject(j)); // must be a reference
-                dic.mergeDifferent(top);
-                item.addMerged(dic);
-                item.addPage(k);
-                item.addTabOrder(j);
+                addWidget(fields, top, annot, annots.getAsIndirectObject(j), k, j);
             }
         }
         // some tools produce invisible signatures without an entry in the page annotation array
@@ -390,8 +337,6 @@ public class AcroFields {
             if (kids != null) {
                 continue;
             }
-            PdfDictionary dic = new PdfDictionary();
-            dic.putAll(annot);
             PdfString t = annot.getAsString(PdfName.T);
             if (t == null) {
                 continue;
@@ -400,15 +345,130 @@ public class AcroFields {
             if (fields.containsKey(name)) {
                 continue;
             }
-            Item item = new Item(annotRef);
-            fields.put(name, item);
-            item.addValue(dic);
-            item.addWidget(dic);
-            item.addWidgetRef(arrfds.getAsIndirectObject(j)); // must be a reference
-            item.addMerged(dic);
-            item.addPage(-1);
-            item.addTabOrder(-1);
+            addSingleLevelWidget(fields, annot, annotRef, name);
+        }
+    }
+
+    /**
+     * Merges a widget with its parent fields and adds it to the field it belongs to.
+     *
+     * @param items     the fields, by fully qualified name
+     * @param top       the AcroForm dictionary
+     * @param annot     the widget
+     * @param widgetRef the reference of the widget in the annotations of its page
+     * @param page      the page of the widget
+     * @param tabOrder  the position of the widget in the annotations of its page
+     */
+    private static void addWidget(Map<String, Item> items, PdfDictionary top, PdfDictionary annot,
+            PdfIndirectReference widgetRef, int page, int tabOrder) {
+        PdfDictionary widget = annot;
+        PdfDictionary dic = new PdfDictionary();
+        dic.putAll(annot);
+        String name = "";
+        PdfDictionary value = null;
+        PdfObject lastV = null;
+        int lastIDRNumber = -1;
+        PdfIndirectReference indirectObject = widgetRef;
+        if (indirectObject != null) {
+            lastIDRNumber = indirectObject.getNumber();
+        }
+        PdfIndirectReference parentRef = null;
+
+        while (annot != null) {
+            dic.mergeDifferent(annot);
+            PdfString t = annot.getAsString(PdfName.T);
+            if (t != null) {
+                name = t.toUnicodeString() + "." + name;
+            }
+            if (lastV == null && annot.get(PdfName.V) != null) {
+                lastV = PdfReader.getPdfObjectRelease(annot.get(PdfName.V));
+            }
+            if (value == null && t != null) {
+                value = annot;
+                if (annot.get(PdfName.V) == null && lastV != null) {
+                    value.put(PdfName.V, lastV);
+                }
+            }
+            int parentIDRNumber = -1;
+            PdfIndirectReference asIndirectObject = annot.getAsIndirectObject(PdfName.PARENT);
+            if (asIndirectObject != null) {
+                parentIDRNumber = asIndirectObject.getNumber();
+                parentRef = asIndirectObject;
+            }
+            if (parentIDRNumber != -1 && lastIDRNumber != parentIDRNumber) {
+                annot = annot.getAsDict(PdfName.PARENT);
+                lastIDRNumber = parentIDRNumber;
+            } else {
+                annot = null;
+            }
+        }
+        if (name.length() > 0) {
+            name = name.substring(0, name.length() - 1);
+        }
+        Item item = items.get(name);
+        if (item == null) {
+            if (parentRef == null) {
+                //when there is no /Parent ref the item reference will be used
+                parentRef = indirectObject;
+            }
+            item = new Item(parentRef);
+            items.put(name, item);
+        }
+        if (value == null) {
+            item.addValue(widget);
+        } else {
+            item.addValue(value);
+        }
+        item.addWidget(widget);
+        item.addWidgetRef(widgetRef); // must be a reference
+        dic.mergeDifferent(top);
+        item.addMerged(dic);
+        item.addPage(page);
+        item.addTabOrder(tabOrder);
+    }
+
+    /**
+     * Gets the fully qualified name of the field of a widget, like
+     * {@link #addWidget(Map, PdfDictionary, PdfDictionary, PdfIndirectReference, int, int)} but without merging
+     * anything.
+     */
+    private static String getWidgetFieldName(PdfDictionary annot, PdfIndirectReference widgetRef) {
+        StringBuilder name = new StringBuilder();
+        int lastIDRNumber = widgetRef == null ? -1 : widgetRef.getNumber();
+        while (annot != null) {
+            PdfString t = annot.getAsString(PdfName.T);
+            if (t != null) {
+                name.insert(0, '.').insert(0, t.toUnicodeString());
+            }
+            PdfIndirectReference parent = annot.getAsIndirectObject(PdfName.PARENT);
+            if (parent != null && lastIDRNumber != parent.getNumber()) {
+                annot = annot.getAsDict(PdfName.PARENT);
+                lastIDRNumber = parent.getNumber();
+            } else {
+                annot = null;
+            }
         }
+        if (name.length() > 0) {
+            name.setLength(name.length() - 1);
+        }
+        return name.toString();
+    }
+
+    /**
+     * Adds an invisible signature that is only listed in the /Fields of the AcroForm.
+     */
+    private static void addSingleLevelWidget(Map<String, Item> items, PdfDictionary annot,
+            PdfIndirectReference annotRef, String name) {
+        PdfDictionary dic = new PdfDictionary();
+        dic.putAll(annot);
+        Item item = new Item(annotRef);
+        items.put(name, item);
+        item.addValue(dic);
+        item.addWidget(dic);
+        item.addWidgetRef(annotRef); // must be a reference
+        item.addMerged(dic);
+        item.addPage(-1);
+        item.addTabOrder(-1);
     }
 
     /**
@@ -3146,4 +3206,282 @@ public class AcroFields {
         }
     }
 
+
+    /**
+     * The fully qualified names of the fields of a document, with the object number of each widget. It is what
+     * {@link PdfReader#setLazyAcroFields(boolean) lazy} <CODE>AcroFields</CODE> start from: the merged {@link Item} of a
+     * field is only built when the field is used. An index holds no object of the document, so the index of a
+     * template can be shared by the readers of all its copies, see {@link PdfReader#setAcroFieldsIndex(FieldIndex)}.
+     */
+    public static final class FieldIndex {
+
+        /**
+         * The widgets of each field, as pairs of page number and widget. The widget is the object number of its
+         * indirect reference, which stays valid when other widgets are removed from the page, or the complement of its
+         * position in the annotations of the page if it is a direct object. A page number of -1 stands for an
+         * invisible signature only listed in the /Fields of the AcroForm.
+         */
+        private final Map<String, int[]> widgets = new HashMap<>();
+
+        /**
+         * Indexes the fields of a document.
+         *
+         * @param reader the document
+         */
+        public FieldIndex(PdfReader reader) {
+            PdfDictionary top = (PdfDictionary) PdfReader.getPdfObjectReleaseNullConverting(
+                    reader.getCatalog().get(PdfName.ACROFORM));
+            if (top == null) {
+                return;
+            }
+            PdfArray arrfds = (PdfArray) PdfReader.getPdfObjectRelease(top.get(PdfName.FIELDS));
+            if (arrfds == null || arrfds.size() == 0) {
+                return;
+            }
+            for (int k = 1; k <= reader.getNumberOfPages(); ++k) {
+                PdfDictionary page = reader.getPageNRelease(k);
+                Object o = PdfReader.getPdfObjectRelease(page.get(PdfName.ANNOTS), page);
+                PdfArray annots = (o instanceof PdfArray) ? (PdfArray) o : null;
+                if (annots == null) {
+                    continue;
+                }
+                for (int j = 0; j < annots.size(); ++j) {
+                    PdfDictionary annot = annots.getAsDict(j);
+                    PdfIndirectReference annotRef = annots.getAsIndirectObject(j);
+                    if (annot != null && PdfName.WIDGET.equals(annot.getAsName(PdfName.SUBTYPE))) {
+                        add(getWidgetFieldName(annot, annotRef), k, widgetKey(annotRef, j));
+                    }
+                    PdfReader.releaseLastXrefPartial(annotRef);
+                }
+            }
+            PdfNumber sigFlags = top.getAsNumber(PdfName.SIGFLAGS);
+            if (sigFlags == null || (sigFlags.intValue() & 1) != 1) {
+                return;
+            }
+            for (int j = 0; j < arrfds.size(); ++j) {
+                PdfDictionary annot = arrfds.getAsDict(j);
+                PdfIndirectReference annotRef = arrfds.getAsIndirectObject(j);
+                if (annot != null && PdfName.WIDGET.equals(annot.getAsName(PdfName.SUBTYPE))
+                        && PdfReader.getPdfObjectRelease(annot.get(PdfName.KIDS)) == null) {
+                    PdfString t = annot.getAsString(PdfName.T);
+                    if (t != null && !widgets.containsKey(t.toUnicodeString())) {
+                        add(t.toUnicodeString(), -1, widgetKey(annotRef, j));
+                    }
+                }
+                PdfReader.releaseLastXrefPartial(annotRef);
+            }
+        }
+
+        private static int widgetKey(PdfIndirectReference ref, int position) {
+            return ref == null ? ~position : ref.getNumber();
+        }
+
+        /**
+         * Finds the position of a widget in an array of annotations or fields.
+         *
+         * @param array the annotations of a page or the fields of the AcroForm
+         * @param key   the widget, as stored in the index
+         * @return the position of the widget or -1 if it is no longer in the array
+         */
+        static int findWidget(PdfArray array, int key) {
+            if (key < 0) {
+                int position = ~key;
+                return position < array.size() && array.getAsIndirectObject(position) == null ? position : -1;
+            }
+            for (int k = 0; k < array.size(); ++k) {
+                PdfIndirectReference ref = array.getAsIndirectObject(k);
+                if (ref != null && ref.getNumber() == key) {
+                    return k;
+                }
+            }
+            return -1;
+        }
+
+        private void add(String name, int page, int key) {
+            int[] old = widgets.get(name);
+            int n = old == null ? 0 : old.length;
+            int[] pairs = old == null ? new int[2] : Arrays.copyOf(old, n + 2);
+            pairs[n] = page;
+            pairs[n + 1] = key;
+            widgets.put(name, pairs);
+        }
+
+        /**
+         * Gets the fully qualified names of the fields.
+         *
+         * @return the field names
+         */
+        public Set<String> getFieldNames() {
+            return Collections.unmodifiableSet(widgets.keySet());
+        }
+
+        /**
+         * Gets the number of fields.
+         *
+         * @return the number of fields
+         */
+        public int size() {
+            return widgets.size();
+        }
+
+        boolean contains(Object name) {
+            return widgets.containsKey(name);
+        }
+
+        int[] getWidgets(Object name) {
+            return widgets.get(name);
+        }
+    }
+
+    /**
+     * The fields of lazy <CODE>AcroFields</CODE>: the {@link Item} of a field is built from the index the first time it
+     * is asked for. Iterating over the keys does not build any item.
+     */
+    final class LazyFields extends AbstractMap<String, Item> {
+
+        private final FieldIndex index;
+        private final Map<String, Item> items = new HashMap<>();
+        private final Set<String> removed = new HashSet<>();
+        private PdfDictionary top;
+
+        LazyFields(FieldIndex index) {
+            this.index = index;
+        }
+
+        @Override
+        public Item get(Object key) {
+            Item item = items.get(key);
+            if (item == null && index.contains(key) && !removed.contains(key)) {
+                String name = (String) key;
+                item = load(name);
+                if (item != null) {
+                    items.put(name, item);
+                }
+            }
+            return item;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return items.containsKey(key) || index.contains(key) && !removed.contains(key);
+        }
+
+        /**
+         * @return the number of items built from the index or put so far
+         */
+        int loadedItems() {
+            return items.size();
+        }
+
+        @Override
+        public Item put(String key, Item value) {
+            Item old = get(key);
+            removed.remove(key);
+            items.put(key, value);
+            return old;
+        }
+
+        @Override
+        public Item remove(Object key) {
+            Item old = get(key);
+            items.remove(key);
+            if (key instanceof String) {
+                removed.add((String) key);
+            }
+            return old;
+        }
+
+        @Override
+        public Set<Map.Entry<String, Item>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<String, Item>> iterator() {
+                    Iterator<String> names = names().iterator();
+                    return new Iterator<>() {
+                        private String last;
+
+                        @Override
+                        public boolean hasNext() {
+                            return names.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<String, Item> next() {
+                            String name = names.next();
+                            last = name;
+                            return new AbstractMap.SimpleImmutableEntry<>(name, null) {
+                                @Override
+                                public Item getValue() {
+                                    return get(name);
+                                }
+                            };
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (last == null) {
+                                throw new IllegalStateException();
+                            }
+                            LazyFields.this.remove(last);
+                            last = null;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return names().size();
+                }
+            };
+        }
+
+        private List<String> names() {
+            List<String> names = new ArrayList<>(index.size() + items.size());
+            for (String name : index.getFieldNames()) {
+                if (!removed.contains(name)) {
+                    names.add(name);
+                }
+            }
+            for (String name : items.keySet()) {
+                if (!index.contains(name)) {
+                    names.add(name);
+                }
+            }
+            return names;
+        }
+
+        private Item load(String name) {
+            if (top == null) {
+                top = (PdfDictionary) PdfReader.getPdfObjectReleaseNullConverting(
+                        reader.getCatalog().get(PdfName.ACROFORM));
+                if (top == null) {
+                    return null;
+                }
+            }
+            Map<String, Item> found = new HashMap<>();
+            int[] widgets = index.getWidgets(name);
+            for (int k = 0; k < widgets.length; k += 2) {
+                int page = widgets[k];
+                PdfArray annots;
+                if (page > 0) {
+                    PdfDictionary pageDic = reader.getPageNRelease(page);
+                    annots = pageDic == null ? null
+                            : (PdfArray) PdfReader.getPdfObjectRelease(pageDic.get(PdfName.ANNOTS), pageDic);
+                } else {
+                    annots = (PdfArray) PdfReader.getPdfObjectRelease(top.get(PdfName.FIELDS));
+                }
+                int position = annots == null ? -1 : FieldIndex.findWidget(annots, widgets[k + 1]);
+                PdfDictionary annot = position < 0 ? null : annots.getAsDict(position);
+                if (annot == null) {
+                    continue;
+                }
+                if (page > 0) {
+                    addWidget(found, top, annot, annots.getAsIndirectObject(position), page, position);
+                } else if (!found.containsKey(name)) {
+                    addSingleLevelWidget(found, annot, annots.getAsIndirectObject(position), name);
+                }
+            }
+            return found.get(name);
+        }
+    }
 }
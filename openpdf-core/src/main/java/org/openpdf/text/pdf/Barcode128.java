@@ -606,6 +606,22 @@ public class Barcode128 extends Barcode {
         return bars;
     }
 
+    /**
+     * Gets the raw text of the bars of the code, according to the code type.
+     *
+     * @return the raw text
+     */
+    String getBarcodeRawText() {
+        if (codeType == CODE128_RAW) {
+            int idx = code.indexOf('\uffff');
+            if (idx >= 0) {
+                return code.substring(0, idx);
+            }
+            return code;
+        }
+        return getRawText(code, codeType == CODE128_UCC);
+    }
+
     /**
      * Gets the maximum area that the barcode and the text, if any, will occupy. The lower left corner is always (0,
      * 0).
@@ -636,16 +652,7 @@ public class Barcode128 extends Barcode {
             }
             fontX = font.getWidthPoint(altText != null ? altText : fullCode, size);
         }
-        if (codeType == CODE128_RAW) {
-            int idx = code.indexOf('\uffff');
-            if (idx >= 0) {
-                fullCode = code.substring(0, idx);
-            } else {
-                fullCode = code;
-            }
-        } else {
-            fullCode = getRawText(code, codeType == CODE128_UCC);
-        }
+        fullCode = getBarcodeRawText();
         int len = fullCode.length();
         float fullWidth = (len + 2) * 11 * x + 2 * x;
         fullWidth = Math.max(fullWidth, fontX);
@@ -709,17 +716,7 @@ public class Barcode128 extends Barcode {
         if (font != null) {
             fontX = font.getWidthPoint(fullCode = altText != null ? altText : fullCode, size);
         }
-        String bCode;
-        if (codeType == CODE128_RAW) {
-            int idx = code.indexOf('\uffff');
-            if (idx >= 0) {
-                bCode = code.substring(0, idx);
-            } else {
-                bCode = code;
-            }
-        } else {
-            bCode = getRawText(code, codeType == CODE128_UCC);
-        }
+        String bCode = getBarcodeRawText();
         int len = bCode.length();
         float fullWidth = (len + 2) * 11 * x + 2 * x;
         float barStartX = 0;
@@ -790,17 +787,7 @@ public class Barcode128 extends Barcode {
         int f = foreground.getRGB();
         int g = background.getRGB();
         Canvas canvas = new Canvas();
-        String bCode;
-        if (codeType == CODE128_RAW) {
-            int idx = code.indexOf('\uffff');
-            if (idx >= 0) {
-                bCode = code.substring(0, idx);
-            } else {
-                bCode = code;
-            }
-        } else {
-            bCode = getRawText(code, codeType == CODE128_UCC);
-        }
+        String bCode = getBarcodeRawText();
         int len = bCode.length();
         int fullWidth = (len + 2) * 11 + 2;
         byte[] bars = getBarsCode128Raw(bCode);
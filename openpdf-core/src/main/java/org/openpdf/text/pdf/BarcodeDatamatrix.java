@@ -57,8 +57,8 @@ import java.awt.image.MemoryImageSource;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A DataMatrix 2D barcode generator.
@@ -1005,7 +1005,7 @@ public class BarcodeDatamatrix {
 
     static class Placement {
 
-        private static final Map<Integer, short[]> cache = new HashMap<>();
+        private static final Map<Integer, short[]> cache = new ConcurrentHashMap<>();
         private int nrow;
         private int ncol;
         private short[] array;
@@ -1014,18 +1014,14 @@ public class BarcodeDatamatrix {
         }
 
         static short[] doPlacement(int nrow, int ncol) {
-            Integer key = nrow * 1000 + ncol;
-            short[] pc = cache.get(key);
-            if (pc != null) {
-                return pc;
-            }
-            Placement p = new Placement();
-            p.nrow = nrow;
-            p.ncol = ncol;
-            p.array = new short[nrow * ncol];
-            p.ecc200();
-            cache.put(key, p.array);
-            return p.array;
+            return cache.computeIfAbsent(nrow * 1000 + ncol, key -> {
+                Placement p = new Placement();
+                p.nrow = nrow;
+                p.ncol = ncol;
+                p.array = new short[nrow * ncol];
+                p.ecc200();
+                return p.array;
+            });
         }
 
         /* "module" places "chr+bit" with appropriate wrapping within array[] */
@@ -0,0 +1,325 @@
+/*
+ * Copyright 2026 OpenPDF
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * The Original Code is 'iText, a free JAVA-PDF library'.
+ *
+ * The Initial Developer of the Original Code is Bruno Lowagie. Portions created by
+ * the Initial Developer are Copyright (C) 1999, 2000, 2001, 2002 by Bruno Lowagie.
+ * All Rights Reserved.
+ * Co-Developer of the code is Paulo Soares. Portions created by the Co-Developer
+ * are Copyright (C) 2000, 2001, 2002 by Paulo Soares. All Rights Reserved.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the "GNU LIBRARY GENERAL PUBLIC LICENSE"), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/OpenPDF
+ */
+package org.openpdf.text.pdf;
+
+import java.awt.Color;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.openpdf.text.ExceptionConverter;
+import org.openpdf.text.Rectangle;
+
+/**
+ * Encodes many payloads with the same barcode settings. The settings come from a supplier of configured barcodes,
+ * called once for every payload since the barcode classes keep the state of the last code they painted:
+ * <pre>
+ * BarcodeEncoder encoder = BarcodeEncoder.pdf417(() -&gt; {
+ *     BarcodePDF417 pdf417 = new BarcodePDF417();
+ *     pdf417.setErrorLevel(5);
+ *     pdf417.setOptions(BarcodePDF417.PDF417_USE_ERROR_LEVEL);
+ *     return pdf417;
+ * });
+ * List&lt;BarcodeSymbol&gt; symbols = encoder.encodeAll(payloads, 8);
+ * </pre>
+ * An encoder is thread-safe. It keeps the symbols of the most recent payloads, so a payload that repeats is only
+ * encoded once, and the symbols are drawn as merged rectangles, see {@link BarcodeSymbol}. A {@link TemplateCache}
+ * goes one step further and writes the symbol of a repeated payload once per document as a <CODE>PdfTemplate</CODE>.
+ */
+public final class BarcodeEncoder {
+
+    /**
+     * The default number of symbols kept by an encoder.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 256;
+
+    private final Function<String, BarcodeSymbol> encoding;
+    private volatile int cacheSize = DEFAULT_CACHE_SIZE;
+    private final Map<String, BarcodeSymbol> symbols = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, BarcodeSymbol> eldest) {
+                    return size() > cacheSize;
+                }
+            });
+
+    private BarcodeEncoder(Function<String, BarcodeSymbol> encoding) {
+        this.encoding = encoding;
+    }
+
+    /**
+     * Creates an encoder of PDF417 symbols. The text of each payload is converted to bytes with the encoding Cp437
+     * and a module is drawn 1 point wide and <CODE>yHeight</CODE> points high.
+     *
+     * @param barcodes supplies a configured barcode for each payload
+     * @return the encoder
+     */
+    public static BarcodeEncoder pdf417(Supplier<? extends BarcodePDF417> barcodes) {
+        Objects.requireNonNull(barcodes, "barcodes");
+        return new BarcodeEncoder(payload -> {
+            BarcodePDF417 pdf417 = barcodes.get();
+            pdf417.setText(payload);
+            pdf417.paintCode();
+            return BarcodeSymbol.fromBitmap(pdf417.getOutBits(), pdf417.getBitColumns(), pdf417.getCodeRows(),
+                    1, pdf417.getYHeight());
+        });
+    }
+
+    /**
+     * Creates an encoder of Data Matrix symbols. The text of each payload is interpreted with the encoding
+     * ISO-8859-1, the symbol includes the whitespace border and a module is drawn 1 point square.
+     *
+     * @param barcodes supplies a configured barcode for each payload
+     * @return the encoder
+     */
+    public static BarcodeEncoder datamatrix(Supplier<? extends BarcodeDatamatrix> barcodes) {
+        Objects.requireNonNull(barcodes, "barcodes");
+        return new BarcodeEncoder(payload -> {
+            BarcodeDatamatrix datamatrix = barcodes.get();
+            byte[] text = payload.getBytes(StandardCharsets.ISO_8859_1);
+            int status = datamatrix.generate(text, 0, text.length);
+            if (status != BarcodeDatamatrix.DM_NO_ERROR) {
+                throw new IllegalArgumentException("the payload cannot be encoded, error " + status + ": " + payload);
+            }
+            int border = datamatrix.getBorder();
+            return BarcodeSymbol.fromBitmap(datamatrix.getImage(), datamatrix.getWidth() + 2 * border,
+                    datamatrix.getHeight() + 2 * border, 1, 1);
+        });
+    }
+
+    /**
+     * Creates an encoder of Code 128 symbols, interpreted according to the code type of the barcode. A module is drawn
+     * <CODE>x</CODE> points wide and the bars are <CODE>barHeight</CODE> points high. The symbols only have the bars,
+     * without the human readable text.
+     *
+     * @param barcodes supplies a configured barcode for each payload
+     * @return the encoder
+     */
+    public static BarcodeEncoder code128(Supplier<? extends Barcode128> barcodes) {
+        Objects.requireNonNull(barcodes, "barcodes");
+        return new BarcodeEncoder(payload -> {
+            Barcode128 code128 = barcodes.get();
+            code128.setCode(payload);
+            return BarcodeSymbol.fromBars(Barcode128.getBarsCode128Raw(code128.getBarcodeRawText()),
+                    code128.getX(), code128.getBarHeight());
+        });
+    }
+
+    /**
+     * Sets the number of symbols of the most recent payloads kept by the encoder. The default is
+     * {@value #DEFAULT_CACHE_SIZE}, 0 keeps none.
+     *
+     * @param cacheSize the number of symbols kept
+     */
+    public void setCacheSize(int cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("cacheSize must not be negative: " + cacheSize);
+        }
+        this.cacheSize = cacheSize;
+        synchronized (symbols) {
+            Iterator<String> eldest = symbols.keySet().iterator();
+            while (symbols.size() > cacheSize) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Encodes a payload.
+     *
+     * @param payload the payload
+     * @return the symbol
+     */
+    public BarcodeSymbol encode(String payload) {
+        Objects.requireNonNull(payload, "payload");
+        BarcodeSymbol symbol = symbols.get(payload);
+        if (symbol == null) {
+            symbol = encoding.apply(payload);
+            if (cacheSize > 0) {
+                symbols.put(payload, symbol);
+            }
+        }
+        return symbol;
+    }
+
+    /**
+     * Encodes payloads, up to {@code parallelism} at the same time. If a payload cannot be encoded the remaining ones
+     * are abandoned and the exception is thrown.
+     *
+     * @param payloads    the payloads
+     * @param parallelism the maximum number of payloads encoded at the same time
+     * @return the symbols, in the order of the payloads
+     */
+    public List<BarcodeSymbol> encodeAll(List<String> payloads, int parallelism) {
+        Objects.requireNonNull(payloads, "payloads");
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
+        }
+        int n = payloads.size();
+        BarcodeSymbol[] result = new BarcodeSymbol[n];
+        if (parallelism == 1 || n < 2) {
+            for (int k = 0; k < n; ++k) {
+                result[k] = encode(payloads.get(k));
+            }
+            return Arrays.asList(result);
+        }
+        AtomicInteger next = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>();
+        try (ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < Math.min(parallelism, n); w++) {
+                workers.add(exec.submit(() -> {
+                    try {
+                        for (int k = next.getAndIncrement(); k < n; k = next.getAndIncrement()) {
+                            result[k] = encode(payloads.get(k));
+                        }
+                    } catch (RuntimeException e) {
+                        // stop the other workers
+                        next.set(n);
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+        }
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (ExecutionException ee) {
+                if (ee.getCause() instanceof RuntimeException re) {
+                    throw re;
+                }
+                throw new ExceptionConverter(ee);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new ExceptionConverter(ie);
+            }
+        }
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Creates a cache of templates for one document.
+     *
+     * @param cb        the <CODE>PdfContentByte</CODE> to create the templates, usually the direct content of the
+     *                  writer
+     * @param color     the color of the symbols. It can be <CODE>null</CODE>
+     * @param cacheSize the number of templates of the most recent payloads kept
+     * @return the template cache
+     */
+    public TemplateCache newTemplateCache(PdfContentByte cb, Color color, int cacheSize) {
+        Objects.requireNonNull(cb, "cb");
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("cacheSize must be at least 1: " + cacheSize);
+        }
+        return new TemplateCache(cb, color, cacheSize);
+    }
+
+    /**
+     * The symbols of one document as templates: a payload that repeats is placed again from the same template instead
+     * of being drawn again. Like the document it belongs to, a template cache is not thread-safe.
+     */
+    public final class TemplateCache {
+
+        private final PdfContentByte cb;
+        private final Color color;
+        private final Map<String, PdfTemplate> templates;
+
+        private TemplateCache(PdfContentByte cb, Color color, int cacheSize) {
+            this.cb = cb;
+            this.color = color;
+            this.templates = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PdfTemplate> eldest) {
+                    return size() > cacheSize;
+                }
+            };
+        }
+
+        /**
+         * Gets the template of a payload, encoding it if it is not in the cache.
+         *
+         * @param payload the payload
+         * @return the template
+         */
+        public PdfTemplate getTemplate(String payload) {
+            PdfTemplate tp = templates.get(payload);
+            if (tp == null) {
+                tp = encode(payload).createTemplate(cb, color);
+                templates.put(payload, tp);
+            }
+            return tp;
+        }
+
+        /**
+         * Places the symbol of a payload with its lower left corner at (x, y).
+         *
+         * @param canvas  the <CODE>PdfContentByte</CODE> where the symbol will be placed
+         * @param payload the payload
+         * @param x       the x coordinate of the lower left corner
+         * @param y       the y coordinate of the lower left corner
+         * @return the dimensions the symbol occupies
+         */
+        public Rectangle place(PdfContentByte canvas, String payload, float x, float y) {
+            PdfTemplate tp = getTemplate(payload);
+            canvas.addTemplate(tp, x, y);
+            return new Rectangle(x, y, x + tp.getWidth(), y + tp.getHeight());
+        }
+    }
+}
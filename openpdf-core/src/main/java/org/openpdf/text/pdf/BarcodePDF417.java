@@ -632,11 +632,25 @@ public class BarcodePDF417 {
         setDefaultParameters();
     }
 
+    /**
+     * The text compaction type and value of every byte, see {@link #computeTextTypeAndValue(char)}.
+     */
+    private static final int[] TEXT_TYPES = new int[256];
+
+    static {
+        for (char c = 0; c < TEXT_TYPES.length; ++c) {
+            TEXT_TYPES[c] = computeTextTypeAndValue(c);
+        }
+    }
+
     private static int getTextTypeAndValue(byte[] input, int maxLength, int idx) {
         if (idx >= maxLength) {
             return 0;
         }
-        char c = (char) (input[idx] & 0xff);
+        return TEXT_TYPES[input[idx] & 0xff];
+    }
+
+    private static int computeTextTypeAndValue(char c) {
         if (c >= 'A' && c <= 'Z') {
             return (ALPHA + c - 'A');
         }
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2026 OpenPDF
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * The Original Code is 'iText, a free JAVA-PDF library'.
+ *
+ * The Initial Developer of the Original Code is Bruno Lowagie. Portions created by
+ * the Initial Developer are Copyright (C) 1999, 2000, 2001, 2002 by Bruno Lowagie.
+ * All Rights Reserved.
+ * Co-Developer of the code is Paulo Soares. Portions created by the Co-Developer
+ * are Copyright (C) 2000, 2001, 2002 by Paulo Soares. All Rights Reserved.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the "GNU LIBRARY GENERAL PUBLIC LICENSE"), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/OpenPDF
+ */
+package org.openpdf.text.pdf;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import org.openpdf.text.Rectangle;
+
+/**
+ * An encoded barcode: the dark modules of a symbol, already merged into as few rectangles as possible. Each row is
+ * split in runs of dark modules and a run that repeats unchanged in the rows below it becomes a single rectangle, so a
+ * Code 128 symbol is one rectangle per bar and the tall rows of a PDF417 symbol cost one rectangle per run instead of
+ * one per module.
+ * <p>
+ * A symbol is immutable and can be drawn any number of times, from any thread, in any <CODE>PdfContentByte</CODE>.
+ * Symbols are made by a {@link BarcodeEncoder}.
+ */
+public final class BarcodeSymbol {
+
+    private final int columns;
+    private final int rows;
+    private final float moduleWidth;
+    private final float moduleHeight;
+    /**
+     * The rectangles as (column, row, width, height) in modules, with row 0 at the top of the symbol.
+     */
+    private final int[] rectangles;
+
+    private BarcodeSymbol(int columns, int rows, float moduleWidth, float moduleHeight, int[] rectangles) {
+        this.columns = columns;
+        this.rows = rows;
+        this.moduleWidth = moduleWidth;
+        this.moduleHeight = moduleHeight;
+        this.rectangles = rectangles;
+    }
+
+    /**
+     * Creates a symbol from a bitmap in the format of {@link BarcodePDF417#getOutBits()} and
+     * {@link BarcodeDatamatrix#getImage()}: 8 modules a byte with the high-order bit first, 1 for dark, and each row
+     * aligned at a byte boundary.
+     *
+     * @param bits         the bitmap
+     * @param columns      the number of modules of a row
+     * @param rows         the number of rows
+     * @param moduleWidth  the default width of a module
+     * @param moduleHeight the default height of a module
+     * @return the symbol
+     */
+    static BarcodeSymbol fromBitmap(byte[] bits, int columns, int rows, float moduleWidth, float moduleHeight) {
+        int stride = (columns + 7) / 8;
+        RectangleMerger merger = new RectangleMerger();
+        for (int row = 0; row < rows; ++row) {
+            int p = row * stride;
+            int start = -1;
+            for (int column = 0; column <= columns; ++column) {
+                boolean dark = column < columns && (bits[p + column / 8] & (0x80 >> (column & 7))) != 0;
+                if (dark && start < 0) {
+                    start = column;
+                } else if (!dark && start >= 0) {
+                    merger.addRun(start, column);
+                    start = -1;
+                }
+            }
+            merger.endRow();
+        }
+        return new BarcodeSymbol(columns, rows, moduleWidth, moduleHeight, merger.getRectangles());
+    }
+
+    /**
+     * Creates a one row symbol from the widths of alternating bars and spaces, starting with a bar, like
+     * {@link Barcode128#getBarsCode128Raw(String)}.
+     *
+     * @param bars         the widths of the bars and spaces, in modules
+     * @param moduleWidth  the default width of a module
+     * @param moduleHeight the default height of the bars
+     * @return the symbol
+     */
+    static BarcodeSymbol fromBars(byte[] bars, float moduleWidth, float moduleHeight) {
+        RectangleMerger merger = new RectangleMerger();
+        int column = 0;
+        boolean bar = true;
+        for (byte width : bars) {
+            if (bar) {
+                merger.addRun(column, column + width);
+            }
+            bar = !bar;
+            column += width;
+        }
+        merger.endRow();
+        return new BarcodeSymbol(column, 1, moduleWidth, moduleHeight, merger.getRectangles());
+    }
+
+    /**
+     * Gets the number of modules of a row.
+     *
+     * @return the number of modules of a row
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Gets the number of rows.
+     *
+     * @return the number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the number of rectangles drawn for the symbol.
+     *
+     * @return the number of rectangles
+     */
+    public int getRectangleCount() {
+        return rectangles.length / 4;
+    }
+
+    int[] getRectangles() {
+        return rectangles.clone();
+    }
+
+    /**
+     * Gets the size of the symbol drawn with the default module size.
+     *
+     * @return the size of the symbol
+     */
+    public Rectangle getSize() {
+        return new Rectangle(columns * moduleWidth, rows * moduleHeight);
+    }
+
+    /**
+     * Draws the symbol with the default module size, the one of the barcode that encoded it. The lower left corner of
+     * the symbol is placed at (x, y) and it is filled with the current fill color.
+     *
+     * @param cb the <CODE>PdfContentByte</CODE> where the symbol will be drawn
+     * @param x  the x coordinate of the lower left corner
+     * @param y  the y coordinate of the lower left corner
+     * @return the dimensions the symbol occupies
+     */
+    public Rectangle draw(PdfContentByte cb, float x, float y) {
+        return draw(cb, x, y, moduleWidth, moduleHeight);
+    }
+
+    /**
+     * Draws the symbol as one path filled with the current fill color. The lower left corner of the symbol is placed
+     * at (x, y).
+     *
+     * @param cb           the <CODE>PdfContentByte</CODE> where the symbol will be drawn
+     * @param x            the x coordinate of the lower left corner
+     * @param y            the y coordinate of the lower left corner
+     * @param moduleWidth  the width of a module
+     * @param moduleHeight the height of a module
+     * @return the dimensions the symbol occupies
+     */
+    public Rectangle draw(PdfContentByte cb, float x, float y, float moduleWidth, float moduleHeight) {
+        for (int k = 0; k < rectangles.length; k += 4) {
+            cb.rectangle(x + rectangles[k] * moduleWidth,
+                    y + (rows - rectangles[k + 1] - rectangles[k + 3]) * moduleHeight,
+                    rectangles[k + 2] * moduleWidth, rectangles[k + 3] * moduleHeight);
+        }
+        if (rectangles.length > 0) {
+            cb.fill();
+        }
+        return new Rectangle(x, y, x + columns * moduleWidth, y + rows * moduleHeight);
+    }
+
+    /**
+     * Creates a template with the symbol drawn with the default module size.
+     *
+     * @param cb    the <CODE>PdfContentByte</CODE> to create the template. It serves no other use
+     * @param color the color of the symbol. It can be <CODE>null</CODE>
+     * @return the template
+     */
+    public PdfTemplate createTemplate(PdfContentByte cb, Color color) {
+        PdfTemplate tp = cb.createTemplate(columns * moduleWidth, rows * moduleHeight);
+        if (color != null) {
+            tp.setColorFill(color);
+        }
+        draw(tp, 0, 0);
+        return tp;
+    }
+
+    /**
+     * Merges the runs of dark modules of each row with the identical runs of the rows above it.
+     */
+    private static final class RectangleMerger {
+
+        private final List<int[]> done = new ArrayList<>();
+        /**
+         * The rectangles still open, as (start, end, first row, height), in the order of their start column.
+         */
+        private List<int[]> open = new ArrayList<>();
+        private List<int[]> current = new ArrayList<>();
+        private int openPtr;
+        private int row;
+
+        void addRun(int start, int end) {
+            while (openPtr < open.size() && open.get(openPtr)[0] < start) {
+                done.add(open.get(openPtr++));
+            }
+            if (openPtr < open.size() && open.get(openPtr)[0] == start && open.get(openPtr)[1] == end) {
+                int[] rect = open.get(openPtr++);
+                ++rect[3];
+                current.add(rect);
+            } else {
+                current.add(new int[]{start, end, row, 1});
+            }
+        }
+
+        void endRow() {
+            while (openPtr < open.size()) {
+                done.add(open.get(openPtr++));
+            }
+            List<int[]> t = open;
+            open = current;
+            current = t;
+            current.clear();
+            openPtr = 0;
+            ++row;
+        }
+
+        int[] getRectangles() {
+            done.addAll(open);
+            open.clear();
+            int[] rectangles = new int[done.size() * 4];
+            int p = 0;
+            for (int[] rect : done) {
+                rectangles[p++] = rect[0];
+                rectangles[p++] = rect[2];
+                rectangles[p++] = rect[1] - rect[0];
+                rectangles[p++] = rect[3];
+            }
+            done.clear();
+            return rectangles;
+        }
+    }
+}
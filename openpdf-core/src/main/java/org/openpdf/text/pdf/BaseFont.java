@@ -50,16 +50,21 @@
 package org.openpdf.text.pdf;
 
 import org.openpdf.text.DocumentException;
+import org.openpdf.text.ExceptionConverter;
 import org.openpdf.text.error_messages.MessageLocalization;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Base class for the several font types supported
@@ -328,6 +333,26 @@ public abstract class BaseFont {
      */
     protected static ConcurrentHashMap<String, BaseFont> fontCache = new ConcurrentHashMap<>(
             500, 0.85f, 64);
+    /**
+     * The fonts being built for the cache, so that concurrent requests for the same font wait for a single build.
+     */
+    private static final ConcurrentHashMap<String, CompletableFuture<BaseFont>> fontBuilds = new ConcurrentHashMap<>();
+    /**
+     * The size and the last use of the fonts in the cache.
+     */
+    private static final ConcurrentHashMap<String, FontCacheEntry> fontCacheEntries = new ConcurrentHashMap<>();
+    /**
+     * Guards the changes of <CODE>fontCacheEntries</CODE>, the retained size and the limits.
+     */
+    private static final Object fontCacheLock = new Object();
+    private static final AtomicLong fontCacheClock = new AtomicLong();
+    private static final AtomicLong fontCacheHits = new AtomicLong();
+    private static final AtomicLong fontCacheBuilds = new AtomicLong();
+    private static final AtomicLong fontCacheWaits = new AtomicLong();
+    private static long fontCacheEvictions;
+    private static long fontCacheRetainedBytes;
+    private static int fontCacheMaxEntries;
+    private static long fontCacheMaxBytes;
 
     static {
         BuiltinFonts14.put(COURIER, PdfName.COURIER);
@@ -719,16 +744,53 @@ public abstract class BaseFont {
         } else if (encoding.equals(IDENTITY_H) || encoding.equals(IDENTITY_V)) {
             embedded = true;
         }
-        BaseFont fontFound = null;
-        BaseFont fontBuilt = null;
+        if (!cached) {
+            return buildFont(name, nameBase, encoding, embedded, ttfAfm, pfb, noThrow, forceRead, isBuiltinFonts14,
+                    isCJKFont);
+        }
         String key = name + "\n" + encoding + "\n" + embedded;
-        if (cached) {
-            fontFound = fontCache.get(key);
+        BaseFont fontFound = getCachedFont(key, name);
+        if (fontFound != null) {
+            return fontFound;
+        }
+        CompletableFuture<BaseFont> build = new CompletableFuture<>();
+        CompletableFuture<BaseFont> running = fontBuilds.putIfAbsent(key, build);
+        if (running != null) {
+            fontCacheWaits.incrementAndGet();
+            fontFound = awaitFontBuild(running);
             if (fontFound != null) {
                 LayoutProcessor.loadFont(fontFound, name);
                 return fontFound;
             }
+            // the font was not recognized by the other build, build it again to honor noThrow
+            return buildFont(name, nameBase, encoding, embedded, ttfAfm, pfb, noThrow, forceRead, isBuiltinFonts14,
+                    isCJKFont);
+        }
+        try {
+            // another build may have finished between the lookup and the registration of this one
+            fontFound = getCachedFont(key, name);
+            if (fontFound == null) {
+                BaseFont fontBuilt = buildFont(name, nameBase, encoding, embedded, ttfAfm, pfb, noThrow, forceRead,
+                        isBuiltinFonts14, isCJKFont);
+                fontCacheBuilds.incrementAndGet();
+                if (fontBuilt != null) {
+                    fontFound = cacheFont(key, fontBuilt, isBuiltinFonts14);
+                }
+            }
+            build.complete(fontFound);
+            return fontFound;
+        } catch (Throwable t) {
+            build.completeExceptionally(t);
+            throw t;
+        } finally {
+            fontBuilds.remove(key, build);
         }
+    }
+
+    private static BaseFont buildFont(String name, String nameBase, String encoding, boolean embedded, byte[] ttfAfm,
+            byte[] pfb, boolean noThrow, boolean forceRead, boolean isBuiltinFonts14, boolean isCJKFont)
+            throws DocumentException, IOException {
+        BaseFont fontBuilt;
         if (isBuiltinFonts14 || name.toLowerCase().endsWith(".afm")
                 || name.toLowerCase().endsWith(".pfm")) {
             fontBuilt = new Type1Font(name, encoding, embedded, ttfAfm, pfb,
@@ -754,13 +816,177 @@ public abstract class BaseFont {
             throw new DocumentException(MessageLocalization.getComposedMessage(
                     "font.1.with.2.is.not.recognized", name, encoding));
         }
-        if (cached) {
-            fontCache.putIfAbsent(key, fontBuilt);
-            return fontCache.get(key);
-        }
         return fontBuilt;
     }
 
+    private static BaseFont getCachedFont(String key, String name) {
+        BaseFont font = fontCache.get(key);
+        if (font == null) {
+            return null;
+        }
+        fontCacheHits.incrementAndGet();
+        FontCacheEntry entry = fontCacheEntries.get(key);
+        if (entry != null) {
+            entry.lastUsed = fontCacheClock.incrementAndGet();
+        }
+        LayoutProcessor.loadFont(font, name);
+        return font;
+    }
+
+    private static BaseFont awaitFontBuild(CompletableFuture<BaseFont> build) throws DocumentException, IOException {
+        try {
+            return build.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof DocumentException de) {
+                throw de;
+            }
+            if (cause instanceof IOException ioe) {
+                throw ioe;
+            }
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new ExceptionConverter((Exception) cause);
+        }
+    }
+
+    /**
+     * Adds a font to the cache unless another font was added with the same key, and evicts the least recently used
+     * fonts that don't fit the limits.
+     *
+     * @return the font in the cache
+     */
+    private static BaseFont cacheFont(String key, BaseFont font, boolean builtin) {
+        synchronized (fontCacheLock) {
+            BaseFont existing = fontCache.putIfAbsent(key, font);
+            if (existing != null) {
+                return existing;
+            }
+            FontCacheEntry entry = new FontCacheEntry(font.estimateRetainedSize(), !builtin);
+            entry.lastUsed = fontCacheClock.incrementAndGet();
+            FontCacheEntry old = fontCacheEntries.put(key, entry);
+            if (old != null) {
+                fontCacheRetainedBytes -= old.size;
+            }
+            fontCacheRetainedBytes += entry.size;
+            evictFonts();
+            return font;
+        }
+    }
+
+    /**
+     * Removes the least recently used fonts, except the 14 built-in fonts, until the cache fits its limits. Must be
+     * called with <CODE>fontCacheLock</CODE> held.
+     */
+    private static void evictFonts() {
+        // fonts removed from fontCache directly no longer count
+        fontCacheEntries.keySet().removeIf(key -> {
+            if (fontCache.containsKey(key)) {
+                return false;
+            }
+            fontCacheRetainedBytes -= fontCacheEntries.get(key).size;
+            return true;
+        });
+        while (true) {
+            int evictable = 0;
+            String eldest = null;
+            long eldestUse = Long.MAX_VALUE;
+            for (Map.Entry<String, FontCacheEntry> e : fontCacheEntries.entrySet()) {
+                FontCacheEntry entry = e.getValue();
+                if (entry.evictable) {
+                    ++evictable;
+                    if (entry.lastUsed < eldestUse) {
+                        eldestUse = entry.lastUsed;
+                        eldest = e.getKey();
+                    }
+                }
+            }
+            boolean overEntries = fontCacheMaxEntries > 0 && evictable > fontCacheMaxEntries;
+            boolean overBytes = fontCacheMaxBytes > 0 && fontCacheRetainedBytes > fontCacheMaxBytes;
+            if (eldest == null || !(overEntries || overBytes)) {
+                return;
+            }
+            fontCacheRetainedBytes -= fontCacheEntries.remove(eldest).size;
+            fontCache.remove(eldest);
+            ++fontCacheEvictions;
+        }
+    }
+
+    /**
+     * Limits the fonts kept by <CODE>createFont</CODE> when the font is cached. When a limit is exceeded, the least
+     * recently used fonts are removed from the cache; fonts in use keep working, they are just created again the next
+     * time they are requested. The 14 built-in fonts are never removed and don't count for <CODE>maxFonts</CODE>.
+     * <p>
+     * The size of a font is an estimate of the memory it retains, mainly the font file if it is held in memory and
+     * the character and width tables. By default the cache is unbounded.
+     *
+     * @param maxFonts the maximum number of fonts in the cache, 0 for no limit
+     * @param maxBytes the maximum estimated size of the fonts in the cache, 0 for no limit
+     */
+    public static void setFontCacheLimits(int maxFonts, long maxBytes) {
+        synchronized (fontCacheLock) {
+            fontCacheMaxEntries = Math.max(0, maxFonts);
+            fontCacheMaxBytes = Math.max(0, maxBytes);
+            evictFonts();
+        }
+    }
+
+    /**
+     * Gets the statistics of the font cache.
+     *
+     * @return a snapshot of the font cache statistics
+     */
+    public static FontCacheStatistics getFontCacheStatistics() {
+        synchronized (fontCacheLock) {
+            return new FontCacheStatistics(fontCache.size(), fontCacheRetainedBytes, fontCacheHits.get(),
+                    fontCacheBuilds.get(), fontCacheWaits.get(), fontCacheEvictions);
+        }
+    }
+
+    /**
+     * Estimates the memory retained by this font, used to limit the size of the font cache.
+     *
+     * @return the estimated size in bytes
+     * @see #setFontCacheLimits(int, long)
+     */
+    protected long estimateRetainedSize() {
+        return 16 * 1024;
+    }
+
+    /**
+     * A snapshot of the font cache statistics.
+     *
+     * @param entries       the number of fonts in the cache
+     * @param retainedBytes the estimated memory retained by the fonts in the cache
+     * @param hits          the number of fonts returned from the cache
+     * @param builds        the number of fonts built for the cache
+     * @param waits         the number of requests that waited for another thread building the same font
+     * @param evictions     the number of fonts removed to honor the cache limits
+     */
+    public record FontCacheStatistics(int entries, long retainedBytes, long hits, long builds, long waits,
+            long evictions) {
+
+    }
+
+    private static final class FontCacheEntry {
+
+        final long size;
+        final boolean evictable;
+        volatile long lastUsed;
+
+        FontCacheEntry(long size, boolean evictable) {
+            this.size = size;
+            this.evictable = evictable;
+        }
+    }
+
     /**
      * Creates a font based on an existing document font. The created font font may not behave as expected, depending on
      * the encoding or subset.
@@ -51,12 +51,14 @@ package org.openpdf.text.pdf;
 import java.io.IOException;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.IntPredicate;
 
 /**
  * This Class subsets a CFF Type Font. The subset is preformed for CID fonts and NON CID fonts. The Charstring is
@@ -98,13 +100,13 @@ public class CFFFontSubset extends CFFFont {
     static final byte RETURN_OP = 11;
 
     /**
-     * A HashMap containing the glyphs used in the text after being converted to glyph number by the CMap
+     * A BitSet containing the glyphs used in the text after being converted to glyph number by the CMap
      */
-    HashMap<Integer, int[]> GlyphsUsed;
+    BitSet GlyphsUsed;
     /**
-     * The GlyphsUsed keys as an ArrayList
+     * The GlyphsUsed glyphs in ascending order
      */
-    ArrayList<Integer> glyphsInList;
+    int[] glyphsInList;
     /**
      * A HashMap for keeping the FDArrays being used by the font
      */
@@ -173,11 +175,24 @@ public class CFFFontSubset extends CFFFont {
      * @param GlyphsUsed - a HashMap that contains the glyph used in the subset
      */
     public CFFFontSubset(RandomAccessFileOrArray rf, HashMap<Integer, int[]> GlyphsUsed) {
+        this(rf, GlyphsUsed.keySet().stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * C'tor for CFFFontSubset
+     *
+     * @param rf         - The font file
+     * @param glyphsUsed - the glyphs used in the subset, in any order
+     */
+    public CFFFontSubset(RandomAccessFileOrArray rf, int[] glyphsUsed) {
         // Use CFFFont c'tor in order to parse the font file.
         super(rf);
-        this.GlyphsUsed = GlyphsUsed;
+        GlyphsUsed = new BitSet();
+        for (int glyph : glyphsUsed) {
+            GlyphsUsed.set(glyph);
+        }
         //Put the glyphs into a list
-        glyphsInList = new ArrayList<>(GlyphsUsed.keySet());
+        glyphsInList = GlyphsUsed.stream().toArray();
 
         for (int i = 0; i < fonts.length; ++i) {
             // Read the number of glyphs in the font
@@ -326,9 +341,7 @@ public class CFFFontSubset extends CFFFont {
     protected void BuildFDArrayUsed(int Font) {
         int[] FDSelect = fonts[Font].FDSelect;
         // For each glyph used
-        for (Object o : glyphsInList) {
-            // Pop the glyphs index
-            int glyph = (Integer) o;
+        for (int glyph : glyphsInList) {
             // Pop the glyph's FD
             int FD = FDSelect[glyph];
             // Put the FD index into the FDArrayUsed HashMap
@@ -541,8 +554,7 @@ public class CFFFontSubset extends CFFFont {
         int LBias = CalcBias(SubrOffset, Font);
 
         // For each glyph used find its GID, start & end pos
-        for (Object o : glyphsInList) {
-            int glyph = (Integer) o;
+        for (int glyph : glyphsInList) {
             int Start = fonts[Font].charstringsOffsets[glyph];
             int End = fonts[Font].charstringsOffsets[glyph + 1];
 
@@ -930,6 +942,25 @@ public class CFFFontSubset extends CFFFont {
      */
     protected byte[] BuildNewIndex(int[] Offsets, Map<Integer, int[]> Used, byte OperatorForUnusedEntries)
             throws IOException {
+        return BuildNewIndex(Offsets, (IntPredicate) Used::containsKey, OperatorForUnusedEntries);
+    }
+
+    /**
+     * Function builds the new offset array, object array and assembles the index. used for creating the glyph and subrs
+     * subsetted index
+     *
+     * @param Offsets                  the offset array of the original index
+     * @param Used                     the bitset of the used objects
+     * @param OperatorForUnusedEntries the operator inserted into the data stream for unused entries
+     * @return the new index subset version
+     * @throws IOException on error
+     */
+    protected byte[] BuildNewIndex(int[] Offsets, BitSet Used, byte OperatorForUnusedEntries) throws IOException {
+        return BuildNewIndex(Offsets, (IntPredicate) Used::get, OperatorForUnusedEntries);
+    }
+
+    private byte[] BuildNewIndex(int[] Offsets, IntPredicate Used, byte OperatorForUnusedEntries)
+            throws IOException {
         int unusedCount = 0;
         int Offset = 0;
         int[] NewOffsets = new int[Offsets.length];
@@ -938,7 +969,7 @@ public class CFFFontSubset extends CFFFont {
             NewOffsets[i] = Offset;
             // If the object in the offset is also present in the used
             // HashMap then increment the offset var by its size
-            if (Used.containsKey(i)) {
+            if (Used.test(i)) {
                 if (Offsets.length > i + 1) {
                     Offset += Offsets[i + 1] - Offsets[i];
                 }
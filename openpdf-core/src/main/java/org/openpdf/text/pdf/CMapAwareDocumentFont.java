@@ -48,8 +48,7 @@ package org.openpdf.text.pdf;
 
 import org.openpdf.text.error_messages.MessageLocalization;
 import org.openpdf.text.pdf.fonts.cmaps.CMap;
-import org.openpdf.text.pdf.fonts.cmaps.CMapParser;
-import java.io.ByteArrayInputStream;
+import org.openpdf.text.pdf.fonts.cmaps.CMapCache;
 import java.io.IOException;
 
 /**
@@ -100,7 +99,8 @@ public class CMapAwareDocumentFont extends DocumentFont {
     }
 
     /**
-     * Parses the ToUnicode entry, if present, and constructs a CMap for it
+     * Parses the ToUnicode entry, if present, and constructs a CMap for it. Streams with the same content share one
+     * CMap, from the {@linkplain CMapCache#getShared() shared cache}.
      *
      * @since 2.1.7
      */
@@ -113,9 +113,7 @@ public class CMapAwareDocumentFont extends DocumentFont {
                 byte[] touni = PdfReader.getStreamBytes((PRStream) PdfReader
                         .getPdfObjectRelease(toUni));
 
-                CMapParser cmapParser = new CMapParser();
-                toUnicodeCmap = cmapParser
-                        .parse(new ByteArrayInputStream(touni));
+                toUnicodeCmap = CMapCache.getShared().parse(touni);
             } catch (IOException e) {
                 throw new Error("Unable to process ToUnicode map - "
                         + e.getMessage(), e);
@@ -56,9 +56,7 @@ import java.awt.font.GlyphVector;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Each font in the document will have an instance of this class where the characters used will be represented.
@@ -100,7 +98,7 @@ class FontDetails {
      * The map used with double byte encodings. The key is Integer(glyph) and the value is int[]{glyph, width, Unicode
      * code}
      */
-    HashMap<Integer, int[]> longTag;
+    IntObjectHashtable<int[]> longTag;
     /**
      * IntHashtable with CIDs of CJK glyphs that are used in the text.
      */
@@ -116,7 +114,7 @@ class FontDetails {
     /**
      * Contain glyphs that used but missing in Cmap. the value is int[]{glyph, Unicode code}
      */
-    private Map<Integer, int[]> fillerCmap;
+    private IntObjectHashtable<int[]> fillerCmap;
 
 
     /**
@@ -142,19 +140,19 @@ class FontDetails {
                 cjkFont = (CJKFont) baseFont;
                 break;
             case BaseFont.FONT_TYPE_TTUNI:
-                longTag = new HashMap<>();
-                fillerCmap = new HashMap<>();
+                longTag = new IntObjectHashtable<>();
+                fillerCmap = new IntObjectHashtable<>();
                 ttu = (TrueTypeFontUnicode) baseFont;
                 symbolic = baseFont.isFontSpecific();
                 break;
         }
     }
 
-    Map<Integer, int[]> getFillerCmap() {
+    IntObjectHashtable<int[]> getFillerCmap() {
         return fillerCmap;
     }
 
-    void putFillerCmap(Integer key, int[] value) {
+    void putFillerCmap(int key, int[] value) {
         fillerCmap.put(key, value);
     }
 
@@ -297,10 +295,11 @@ class FontDetails {
                 continue;
             }
             // common glyph searching
-            int[] metrics = ttu.getMetricsTT(baseCp);
-            if (metrics != null) {
-                int m0 = metrics[0];
-                longTag.computeIfAbsent(m0, key -> new int[]{m0, metrics[1], baseCp});
+            int m0 = ttu.getGlyphTT(baseCp);
+            if (m0 >= 0) {
+                if (!longTag.containsKey(m0)) {
+                    longTag.put(m0, new int[]{m0, ttu.getWidthTT(baseCp), baseCp});
+                }
                 glyph[i++] = m0;
             }
 
@@ -336,8 +335,9 @@ class FontDetails {
         }
 
         int glyphCode = format14Metrics[0];
-        Integer gl = glyphCode;
-        longTag.computeIfAbsent(gl, k -> new int[]{glyphCode, format14Metrics[1], baseCp, vsCp});
+        if (!longTag.containsKey(glyphCode)) {
+            longTag.put(glyphCode, new int[]{glyphCode, format14Metrics[1], baseCp, vsCp});
+        }
         return new IVSResult(true, glyphCode, vsCharCount);
     }
 
@@ -408,13 +408,12 @@ class FontDetails {
             }
             codePoints.add(code);
 
-            Integer codeKey = code;
-            if (!longTag.containsKey(codeKey)) {
+            if (!longTag.containsKey(code)) {
                 int glyphWidth = ttu.getGlyphWidth(code);
                 Integer charCode = ttu.getCharacterCode(code);
                 int[] metrics = charCode != null ? new int[]{code, glyphWidth, charCode} : new int[]{
                         code, glyphWidth};
-                longTag.put(codeKey, metrics);
+                longTag.put(code, metrics);
             }
         }
         return getBytesFromCodePoints(codePoints);
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2026 OpenPDF
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * The Original Code is 'iText, a free JAVA-PDF library'.
+ *
+ * The Initial Developer of the Original Code is Bruno Lowagie. Portions created by
+ * the Initial Developer are Copyright (C) 1999, 2000, 2001, 2002 by Bruno Lowagie.
+ * All Rights Reserved.
+ * Co-Developer of the code is Paulo Soares. Portions created by the Co-Developer
+ * are Copyright (C) 2000, 2001, 2002 by Paulo Soares. All Rights Reserved.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the "GNU LIBRARY GENERAL PUBLIC LICENSE"), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/OpenPDF
+ */
+
+package org.openpdf.text.pdf;
+
+import org.openpdf.text.error_messages.MessageLocalization;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of embedded font subsets that can be shared by any number of documents.
+ * <p>
+ * Subsetting a TrueType or CFF font and compressing the result is the most expensive part of closing a document that
+ * embeds fonts. When many documents use the same glyphs of the same fonts, for instance a batch of invoices, the
+ * subset only needs to be built once. Set the same cache on every <CODE>PdfWriter</CODE> with
+ * {@link PdfWriter#setFontSubsetCache(FontSubsetCache)} and the finished font program, the widths array and the
+ * ToUnicode CMap are reused whenever a font is written with exactly the same glyphs and options as before.
+ * <p>
+ * The cache holds at most {@link #getMaxBytes()} bytes of font data and discards the least recently used subsets
+ * first. It is thread-safe.
+ */
+public class FontSubsetCache {
+
+    /**
+     * The default maximum size of the cached font data, 32 MB.
+     */
+    public static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+
+    private final long maxBytes;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long currentBytes;
+
+    private long hits;
+
+    private long misses;
+
+    /**
+     * Creates a cache holding at most {@link #DEFAULT_MAX_BYTES} bytes of font data.
+     */
+    public FontSubsetCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Creates a cache holding at most <CODE>maxBytes</CODE> bytes of font data.
+     *
+     * @param maxBytes the maximum size of the cached font data
+     */
+    public FontSubsetCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException(
+                    MessageLocalization.getComposedMessage("the.cache.size.must.be.positive.found.1", maxBytes));
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    synchronized Entry get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            ++misses;
+        } else {
+            ++hits;
+        }
+        return entry;
+    }
+
+    synchronized void put(Key key, Entry entry) {
+        long size = key.size() + entry.size();
+        if (size > maxBytes) {
+            return;
+        }
+        Entry old = entries.put(key, entry);
+        if (old != null) {
+            currentBytes -= key.size() + old.size();
+        }
+        currentBytes += size;
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && it.hasNext()) {
+            Map.Entry<Key, Entry> eldest = it.next();
+            currentBytes -= eldest.getKey().size() + eldest.getValue().size();
+            it.remove();
+        }
+    }
+
+    /**
+     * Gets the maximum size of the cached font data.
+     *
+     * @return the maximum size in bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Gets the size of the cached font data.
+     *
+     * @return the size in bytes
+     */
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    /**
+     * Gets the number of cached subsets.
+     *
+     * @return the number of cached subsets
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the number of fonts written from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of fonts that had to be subset because they were not in the cache.
+     *
+     * @return the number of cache misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Removes all subsets from the cache.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    /**
+     * Identifies a subset: the font file, the options that change the written font and every glyph with its width
+     * and Unicode mapping.
+     */
+    static final class Key {
+
+        private final String font;
+        private final int[] glyphs;
+        private final int hash;
+
+        /**
+         * @param font   the identity of the font and its options
+         * @param glyphs the glyph data, compared in full
+         */
+        Key(String font, int[] glyphs) {
+            this.font = font;
+            this.glyphs = glyphs;
+            this.hash = 31 * font.hashCode() + Arrays.hashCode(glyphs);
+        }
+
+        long size() {
+            return 2L * font.length() + 4L * glyphs.length;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Key other && hash == other.hash && font.equals(other.font)
+                    && Arrays.equals(glyphs, other.glyphs);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * The written parts of a font subset.
+     *
+     * @param subsetPrefix the subset prefix of the font name
+     * @param fontProgram  the embedded font program, <CODE>null</CODE> if the font is not embedded
+     * @param widths       the widths array of a CIDFont, <CODE>null</CODE> if not needed
+     * @param toUnicode    the ToUnicode CMap, <CODE>null</CODE> if not needed
+     */
+    record Entry(String subsetPrefix, StreamData fontProgram, String widths, StreamData toUnicode) {
+
+        long size() {
+            long size = 2L * subsetPrefix.length();
+            if (fontProgram != null) {
+                size += fontProgram.content().length;
+            }
+            if (widths != null) {
+                size += 2L * widths.length();
+            }
+            if (toUnicode != null) {
+                size += toUnicode.content().length;
+            }
+            return size;
+        }
+    }
+
+    /**
+     * The content and the dictionary of a finished, usually compressed, stream. A new <CODE>PdfStream</CODE> is
+     * created for every document so that no document writes to an object owned by another.
+     *
+     * @param content    the stream content as written
+     * @param dictionary the stream dictionary
+     * @param compressed whether the content is compressed
+     */
+    record StreamData(byte[] content, PdfDictionary dictionary, boolean compressed) {
+
+        static StreamData of(PdfStream stream) {
+            if (stream == null) {
+                return null;
+            }
+            byte[] content = stream.streamBytes != null ? stream.streamBytes.toByteArray() : stream.bytes;
+            PdfDictionary dictionary = new PdfDictionary();
+            dictionary.putAll(stream);
+            return new StreamData(content, dictionary, stream.compressed);
+        }
+
+        PdfStream toStream() {
+            PdfStream stream = new PdfStream(content);
+            stream.putAll(dictionary);
+            stream.compressed = compressed;
+            return stream;
+        }
+    }
+}
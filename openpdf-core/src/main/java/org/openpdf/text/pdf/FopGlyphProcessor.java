@@ -34,19 +34,29 @@ public class FopGlyphProcessor {
 
     public static byte[] convertToBytesWithGlyphs(BaseFont font, String text, String fileName,
             Map<Integer, int[]> longTag, String language) throws UnsupportedEncodingException {
+        IntObjectHashtable<int[]> glyphs = new IntObjectHashtable<>();
+        byte[] bytes = convertToBytesWithGlyphs(font, text, fileName, glyphs, language);
+        for (int glyph : glyphs.getKeys()) {
+            longTag.putIfAbsent(glyph, glyphs.get(glyph));
+        }
+        return bytes;
+    }
+
+    public static byte[] convertToBytesWithGlyphs(BaseFont font, String text, String fileName,
+            IntObjectHashtable<int[]> longTag, String language) throws UnsupportedEncodingException {
         TrueTypeFontUnicode ttu = (TrueTypeFontUnicode) font;
         IntBuffer charBuffer = IntBuffer.allocate(text.length());
         IntBuffer glyphBuffer = IntBuffer.allocate(text.length());
         int textLength = text.length();
         for (char c : text.toCharArray()) {
-            int[] metrics = ttu.getMetricsTT(c);
-            // metrics will be null in case glyph not defined in TTF font, skip these characters.
-            if (metrics == null) {
+            int glyph = ttu.getGlyphTT(c);
+            // the glyph will be -1 in case it is not defined in TTF font, skip these characters.
+            if (glyph < 0) {
                 textLength--;
                 continue;
             }
             charBuffer.put(c);
-            glyphBuffer.put(metrics[0]);
+            glyphBuffer.put(glyph);
         }
         charBuffer.limit(textLength);
         glyphBuffer.limit(textLength);
@@ -68,7 +78,7 @@ public class FopGlyphProcessor {
 
         for (int i = 0; i < limit; i++) {
             charEncodedGlyphCodes[i] = (char) processedChars[i];
-            Integer glyphCode = processedChars[i];
+            int glyphCode = processedChars[i];
             if (!longTag.containsKey(glyphCode)) {
                 int sourceIdx = i;
                 if (associations != null && i < associations.size()) {
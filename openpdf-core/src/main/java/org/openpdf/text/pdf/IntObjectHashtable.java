@@ -0,0 +1,244 @@
+/*
+ * Copyright 2026 OpenPDF
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * The Original Code is 'iText, a free JAVA-PDF library'.
+ *
+ * The Initial Developer of the Original Code is Bruno Lowagie. Portions created by
+ * the Initial Developer are Copyright (C) 1999, 2000, 2001, 2002 by Bruno Lowagie.
+ * All Rights Reserved.
+ * Co-Developer of the code is Paulo Soares. Portions created by the Co-Developer
+ * are Copyright (C) 2000, 2001, 2002 by Paulo Soares. All Rights Reserved.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the "GNU LIBRARY GENERAL PUBLIC LICENSE"), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/OpenPDF
+ */
+
+package org.openpdf.text.pdf;
+
+import java.util.Arrays;
+
+/**
+ * A hash map with primitive <CODE>int</CODE> keys and object values, used to track glyphs while a document is
+ * written without boxing every glyph index.
+ * <p>
+ * The keys and values are kept in two parallel arrays with open addressing and linear probing, so adding an entry
+ * allocates nothing until the table grows. <CODE>null</CODE> values are allowed. Entries can't be removed, which
+ * matches how glyphs are collected: they are only ever added until the font is written. {@link #toOrderedKeys()}
+ * gives the keys in ascending order for subsetting and for writing sorted widths and CMaps.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <V> the type of the values
+ */
+public class IntObjectHashtable<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] keys;
+
+    private Object[] values;
+
+    private boolean[] used;
+
+    private int count;
+
+    private int threshold;
+
+    /**
+     * Creates an empty map.
+     */
+    public IntObjectHashtable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty map that can hold <CODE>expectedSize</CODE> entries before it has to grow.
+     *
+     * @param expectedSize the expected number of entries
+     */
+    public IntObjectHashtable(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        used = new boolean[capacity];
+        threshold = capacity * 3 / 4;
+    }
+
+    private int indexOf(int key) {
+        int mask = keys.length - 1;
+        int hash = key * 0x9E3779B9;
+        int index = (hash ^ hash >>> 16) & mask;
+        while (used[index] && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Checks if the map has no entries.
+     *
+     * @return <CODE>true</CODE> if the map is empty
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Checks if the map has an entry for a key, even if its value is <CODE>null</CODE>.
+     *
+     * @param key the key
+     * @return <CODE>true</CODE> if the key is present
+     */
+    public boolean containsKey(int key) {
+        return used[indexOf(key)];
+    }
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key the key
+     * @return the value or <CODE>null</CODE> if the key is not present
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        return (V) values[indexOf(key)];
+    }
+
+    /**
+     * Sets the value of a key.
+     *
+     * @param key   the key
+     * @param value the value, may be <CODE>null</CODE>
+     * @return the previous value or <CODE>null</CODE> if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        int index = indexOf(key);
+        if (used[index]) {
+            V old = (V) values[index];
+            values[index] = value;
+            return old;
+        }
+        keys[index] = key;
+        values[index] = value;
+        used[index] = true;
+        if (++count > threshold) {
+            rehash();
+        }
+        return null;
+    }
+
+    /**
+     * Sets the value of a key only if the key is not present yet.
+     *
+     * @param key   the key
+     * @param value the value, may be <CODE>null</CODE>
+     * @return <CODE>true</CODE> if the entry was added
+     */
+    public boolean putIfAbsent(int key, V value) {
+        if (containsKey(key)) {
+            return false;
+        }
+        put(key, value);
+        return true;
+    }
+
+    private void rehash() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(keys.length << 1);
+        for (int k = 0; k < oldKeys.length; ++k) {
+            if (oldUsed[k]) {
+                int index = indexOf(oldKeys[k]);
+                keys[index] = oldKeys[k];
+                values[index] = oldValues[k];
+                used[index] = true;
+            }
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        Arrays.fill(used, false);
+        count = 0;
+    }
+
+    /**
+     * Gets the keys in no particular order.
+     *
+     * @return a new array with the keys
+     */
+    public int[] getKeys() {
+        int[] res = new int[count];
+        int ptr = 0;
+        for (int k = 0; k < keys.length; ++k) {
+            if (used[k]) {
+                res[ptr++] = keys[k];
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Gets the keys in ascending order.
+     *
+     * @return a new array with the sorted keys
+     */
+    public int[] toOrderedKeys() {
+        int[] res = getKeys();
+        Arrays.sort(res);
+        return res;
+    }
+}
@@ -87,6 +87,17 @@ public class MappedRandomAccessFile implements AutoCloseable {
 
     }
 
+    /**
+     * Constructs a new MappedRandomAccessFile that shares the mapping of <CODE>other</CODE> but keeps its own file
+     * pointer. The file is not mapped again and closing the new instance does not close the channel of
+     * <CODE>other</CODE>.
+     *
+     * @param other the file whose mapping is shared
+     */
+    public MappedRandomAccessFile(MappedRandomAccessFile other) {
+        this.mappedByteBuffer = other.mappedByteBuffer.duplicate();
+    }
+
     /**
      * initializes the channel and mapped bytebuffer
      *
@@ -57,14 +57,28 @@ import org.openpdf.text.utils.PdfBatch.BatchResult;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import java.util.function.Consumer;
+import java.util.function.IntFunction;
 
 /**
  * The PdfBatchUtils class provides high-level utilities for performing common PDF operations—such as merging, watermarking, encrypting, and splitting—in batch mode 
@@ -73,6 +87,9 @@ import java.util.function.Consumer;
  */
 public final class PdfBatchUtils {
 
+    /** The maximum number of bytes of shared stream data kept while splitting. */
+    static final long SPLIT_SHARED_STREAM_BYTES = 64L * 1024 * 1024;
+
     private PdfBatchUtils() {}
 
     // ------------------------- Common job records -------------------------
@@ -117,12 +134,93 @@ public final class PdfBatchUtils {
         return output;
     }
 
+    /**
+     * Merge one set of inputs into a single output file, opening and parsing the next {@code prefetch} inputs on
+     * virtual threads while the pages of the current one are copied. At most {@code prefetch + 1} readers are open at
+     * any time, and each reader is freed as soon as its pages are copied.
+     */
+    public static Path merge(List<Path> inputs, Path output, int prefetch) throws IOException, DocumentException {
+        Objects.requireNonNull(inputs, "inputs");
+        Objects.requireNonNull(output, "output");
+        if (prefetch < 1) {
+            throw new IllegalArgumentException("prefetch must be at least 1: " + prefetch);
+        }
+        Files.createDirectories(output.getParent());
+
+        Deque<Future<PdfReader>> pending = new ArrayDeque<>(prefetch);
+        try (ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor();
+                var fos = new FileOutputStream(output.toFile())) {
+            Iterator<Path> next = inputs.iterator();
+            try {
+                Document doc = new Document();
+                PdfCopy copy = new PdfCopy(doc, fos);
+                doc.open();
+                while (pending.size() < prefetch && next.hasNext()) {
+                    pending.add(openReader(exec, next.next()));
+                }
+                while (!pending.isEmpty()) {
+                    PdfReader reader = awaitReader(pending.poll());
+                    if (next.hasNext()) {
+                        pending.add(openReader(exec, next.next()));
+                    }
+                    try (reader) {
+                        int n = reader.getNumberOfPages();
+                        for (int i = 1; i <= n; i++) {
+                            copy.addPage(copy.getImportedPage(reader, i));
+                        }
+                        copy.freeReader(reader);
+                    }
+                }
+                doc.close();
+            } finally {
+                // don't leave readers behind when a merge fails
+                for (Future<PdfReader> f : pending) {
+                    f.cancel(true);
+                    if (f.state() == Future.State.SUCCESS) {
+                        f.resultNow().close();
+                    }
+                }
+            }
+        }
+        return output;
+    }
+
+    private static Future<PdfReader> openReader(ExecutorService exec, Path in) {
+        return exec.submit(() -> new PdfReader(Files.readAllBytes(in)));
+    }
+
+    private static PdfReader awaitReader(Future<PdfReader> future) throws IOException {
+        try {
+            return future.get();
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            if (cause instanceof IOException ioe) {
+                throw ioe;
+            }
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IOException(cause);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(ie.getMessage());
+        }
+    }
+
     /** Batch merge. */
     public static BatchResult<Path> batchMerge(List<MergeJob> jobs, Consumer<Path> onSuccess, Consumer<Throwable> onFailure) {
         return PdfBatch.run(jobs.stream().map(job -> (Callable<Path>) () -> merge(job.inputs, job.output)).toList(),
                 onSuccess, onFailure);
     }
 
+    /** Batch merge, prefetching the inputs of each job as in {@link #merge(List, Path, int)}. */
+    public static BatchResult<Path> batchMerge(List<MergeJob> jobs, int prefetch, Consumer<Path> onSuccess,
+            Consumer<Throwable> onFailure) {
+        return PdfBatch.run(
+                jobs.stream().map(job -> (Callable<Path>) () -> merge(job.inputs, job.output, prefetch)).toList(),
+                onSuccess, onFailure);
+    }
+
     // ------------------------- Watermark -------------------------
 
     /** Watermark one PDF with text on every page (centered, diagonal). */
@@ -191,25 +289,167 @@ public final class PdfBatchUtils {
 
     // ------------------------- Split -------------------------
 
-    /** Split one PDF to per-page PDFs. */
+    /** Split one PDF to per-page PDFs, one page after the other. */
     public static List<Path> split(Path input, Path outputDir, String baseName) throws IOException, DocumentException {
+        return split(input, outputDir, baseName, 1);
+    }
+
+    /** Split one PDF to per-page PDFs, writing up to {@code parallelism} pages at the same time. */
+    public static List<Path> split(Path input, Path outputDir, String baseName, int parallelism)
+            throws IOException, DocumentException {
         Files.createDirectories(outputDir);
-        List<Path> outputs = new ArrayList<>();
-        try (PdfReader reader = new PdfReader(Files.readAllBytes(input))) {
-            int n = reader.getNumberOfPages();
-            for (int i = 1; i <= n; i++) {
-                Path out = outputDir.resolve(baseName + "_page" + i + ".pdf");
-                try (var fos = new FileOutputStream(out.toFile())) {
-                    Document doc = new Document(reader.getPageSizeWithRotation(i));
-                    PdfCopy copy = new PdfCopy(doc, fos);
-                    doc.open();
-                    copy.addPage(copy.getImportedPage(reader, i));
-                    doc.close();
+        return split(input, parallelism, page -> outputDir.resolve(baseName + "_page" + page + ".pdf"));
+    }
+
+    /**
+     * Split one PDF to one file per page, writing up to {@code parallelism} pages at the same time.
+     * <p>
+     * The input is memory-mapped and parsed once with a {@link SharedPdfReader}; every worker copies pages through its
+     * own light reader over the parsed source. The data of streams used by more than one page, typically fonts and
+     * images, is read and decrypted once and then written from the same bytes into every output that needs it (up to
+     * {@value #SPLIT_SHARED_STREAM_BYTES} bytes in total). The dictionaries around that data are still written per
+     * output because each file numbers its objects independently.
+     *
+     * @param input       the PDF to split
+     * @param parallelism the maximum number of pages written at the same time
+     * @param output      gives the output file of a page, called with 1-based page numbers
+     * @return the output files in page order
+     */
+    public static List<Path> split(Path input, int parallelism, IntFunction<Path> output)
+            throws IOException, DocumentException {
+        Objects.requireNonNull(input, "input");
+        Objects.requireNonNull(output, "output");
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
+        }
+        try (SharedPdfReader source = new SharedPdfReader(input.toString())) {
+            int n = source.getNumberOfPages();
+            Path[] outputs = new Path[n];
+            SharedStreams streams = new SharedStreams(SPLIT_SHARED_STREAM_BYTES);
+            AtomicInteger nextPage = new AtomicInteger(1);
+            List<Future<?>> workers = new ArrayList<>();
+            try (ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int w = 0; w < Math.min(parallelism, n); w++) {
+                    workers.add(exec.submit(() -> {
+                        PdfReader reader = source.newReader();
+                        try {
+                            for (int page = nextPage.getAndIncrement(); page <= n; page = nextPage.getAndIncrement()) {
+                                outputs[page - 1] = writePage(reader, page, output.apply(page), streams);
+                            }
+                        } catch (Exception e) {
+                            // stop the other workers
+                            nextPage.set(n + 1);
+                            throw e;
+                        } finally {
+                            reader.close();
+                        }
+                        return null;
+                    }));
+                }
+            }
+            for (Future<?> worker : workers) {
+                awaitWorker(worker);
+            }
+            return Arrays.asList(outputs);
+        }
+    }
+
+    private static Path writePage(PdfReader reader, int page, Path out, SharedStreams streams)
+            throws IOException, DocumentException {
+        try (var fos = new FileOutputStream(out.toFile())) {
+            Document doc = new Document(reader.getPageSizeWithRotation(page));
+            PdfCopy copy = new SharedStreamCopy(doc, fos, streams);
+            doc.open();
+            copy.addPage(copy.getImportedPage(reader, page));
+            doc.close();
+        }
+        return out;
+    }
+
+    private static void awaitWorker(Future<?> future) throws IOException, DocumentException {
+        try {
+            future.get();
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            if (cause instanceof IOException ioe) {
+                throw ioe;
+            }
+            if (cause instanceof DocumentException de) {
+                throw de;
+            }
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IOException(cause);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(ie.getMessage());
+        }
+    }
+
+    /**
+     * The raw data of the streams that were copied into more than one split output, keyed by object number and
+     * generation. A stream is remembered the first time it is copied and its data is kept from the second time on.
+     */
+    private static final class SharedStreams {
+
+        private final Set<Long> seen = ConcurrentHashMap.newKeySet();
+        private final ConcurrentHashMap<Long, byte[]> data = new ConcurrentHashMap<>();
+        private final AtomicLong retained = new AtomicLong();
+        private final long maxBytes;
+
+        SharedStreams(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        /** Returns the raw data of a stream, or null if it should be copied the usual way. */
+        byte[] get(PRStream stream) throws IOException {
+            if (stream.getObjNum() == 0) {
+                return null;
+            }
+            long key = ((long) stream.getObjNum() << 32) | stream.getObjGen();
+            byte[] b = data.get(key);
+            if (b != null || seen.add(key)) {
+                return b;
+            }
+            b = PdfReader.getStreamBytesRaw(stream);
+            if (retained.addAndGet(b.length) <= maxBytes) {
+                byte[] other = data.putIfAbsent(key, b);
+                if (other != null) {
+                    retained.addAndGet(-b.length);
+                    return other;
+                }
+            } else {
+                retained.addAndGet(-b.length);
+            }
+            return b;
+        }
+    }
+
+    /** A PdfCopy that writes shared stream data from the bytes kept in {@link SharedStreams}. */
+    private static final class SharedStreamCopy extends PdfCopy {
+
+        private final SharedStreams streams;
+
+        SharedStreamCopy(Document document, FileOutputStream os, SharedStreams streams) throws DocumentException {
+            super(document, os);
+            this.streams = streams;
+        }
+
+        @Override
+        protected PdfStream copyStream(PRStream in) throws IOException, BadPdfFormatException {
+            byte[] raw = streams.get(in);
+            if (raw == null) {
+                return super.copyStream(in);
+            }
+            PdfStream out = new PdfStream(raw);
+            for (PdfName key : in.getKeys()) {
+                if (!PdfName.LENGTH.equals(key)) {
+                    out.put(key, copyObject(in.get(key)));
                 }
-                outputs.add(out);
             }
+            return out;
         }
-        return outputs;
     }
 
     /** Batch split. */
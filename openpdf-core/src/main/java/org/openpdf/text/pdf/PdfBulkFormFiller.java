@@ -0,0 +1,524 @@
+/*
+ * Copyright 2026 OpenPDF
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * The Original Code is 'iText, a free JAVA-PDF library'.
+ *
+ * The Initial Developer of the Original Code is Bruno Lowagie. Portions created by
+ * the Initial Developer are Copyright (C) 1999, 2000, 2001, 2002 by Bruno Lowagie.
+ * All Rights Reserved.
+ * Co-Developer of the code is Paulo Soares. Portions created by the Co-Developer
+ * are Copyright (C) 2000, 2001, 2002 by Paulo Soares. All Rights Reserved.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the "GNU LIBRARY GENERAL PUBLIC LICENSE"), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/OpenPDF
+ */
+
+package org.openpdf.text.pdf;
+
+import org.openpdf.text.DocumentException;
+import org.openpdf.text.ExceptionConverter;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Fills one form template with a large number of data sets.
+ * <p>
+ * The records are read one at a time from an XFDF stream (see {@link XfdfReader#readRecords(InputStream, Consumer)}),
+ * a CSV file or any iterator of {@link FieldReader}s, and handed to a pool of workers through a bounded queue: the
+ * source is never read further ahead than the queue capacity, so a data file much larger than the heap can be
+ * processed. Every worker fills its records into its own reader over the template, which is parsed only once (see
+ * {@link SharedPdfReader}), and writes the filled form to the output chosen for the record.
+ *
+ * <pre>
+ * try (SharedPdfReader template = new SharedPdfReader("form.pdf");
+ *         InputStream xfdf = new BufferedInputStream(new FileInputStream("export.xfdf"))) {
+ *     PdfBulkFormFiller filler = new PdfBulkFormFiller(template);
+ *     filler.setFormFlattening(true);
+ *     PdfBulkFormFiller.Metrics metrics = filler.fillXfdf(xfdf,
+ *             (index, record) -&gt; new FileOutputStream("out/form" + index + ".pdf"));
+ * }
+ * </pre>
+ * <p>
+ * A record that cannot be filled or written does not stop the run: it is counted as failed and reported to the
+ * {@linkplain #setFailureHandler(BiConsumer) failure handler}. An error reading the source stops the run once the
+ * records already queued are done. A failure handler that throws, or an <CODE>Error</CODE> in a worker, stops the run
+ * right away: no further record is read or filled and the exception is thrown by the fill method.
+ */
+public class PdfBulkFormFiller {
+
+    private static final Job END = new Job(-1, null);
+
+    private final SharedPdfReader template;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 64;
+    private boolean formFlattening;
+    private BiConsumer<Long, Throwable> failureHandler;
+    private volatile Run current;
+
+    /**
+     * Creates a form filler.
+     *
+     * @param template the form to fill
+     */
+    public PdfBulkFormFiller(SharedPdfReader template) {
+        this.template = Objects.requireNonNull(template, "template");
+    }
+
+    /**
+     * Sets the number of records filled at the same time. Defaults to the number of processors.
+     *
+     * @param parallelism the number of workers
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets how many records read from the source can wait for a worker. Defaults to 64.
+     *
+     * @param queueCapacity the capacity of the queue between the source and the workers
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be at least 1: " + queueCapacity);
+        }
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Determines if the fields are flattened in the filled forms.
+     *
+     * @param formFlattening <CODE>true</CODE> to flatten the fields
+     * @see PdfStamper#setFormFlattening(boolean)
+     */
+    public void setFormFlattening(boolean formFlattening) {
+        this.formFlattening = formFlattening;
+    }
+
+    /**
+     * Sets what is told about records that could not be filled. It is called from the worker threads, with the index
+     * of the record and the error. A handler that throws stops the run, see the class description.
+     *
+     * @param failureHandler the failure handler, or <CODE>null</CODE>
+     */
+    public void setFailureHandler(BiConsumer<Long, Throwable> failureHandler) {
+        this.failureHandler = failureHandler;
+    }
+
+    /**
+     * Fills the records of an XFDF stream, one record per <CODE>fields</CODE> element.
+     *
+     * @param xfdf    the XFDF stream. It is not closed
+     * @param outputs opens the output of each record
+     * @return the counters of the run
+     * @throws IOException if the source cannot be read
+     */
+    public Metrics fillXfdf(InputStream xfdf, RecordOutput outputs) throws IOException {
+        return run(queue -> XfdfReader.readRecords(xfdf, queue), outputs);
+    }
+
+    /**
+     * Fills the records of a CSV file. The first line holds the fully qualified field names; every other line is a
+     * record. Values may be quoted with <CODE>"</CODE>, and quoted values may hold separators, quotes written twice
+     * and line breaks. Empty values leave the field of the template unchanged.
+     *
+     * @param csv     the CSV file. It is not closed
+     * @param outputs opens the output of each record
+     * @return the counters of the run
+     * @throws IOException if the source cannot be read
+     */
+    public Metrics fillCsv(Reader csv, RecordOutput outputs) throws IOException {
+        return run(queue -> readCsv(csv, queue), outputs);
+    }
+
+    /**
+     * Fills the records of FDF files. Each FDF file holds one record and is only read when a worker is about to need
+     * it.
+     *
+     * @param fdfFiles the FDF files
+     * @param outputs  opens the output of each record
+     * @return the counters of the run
+     * @throws IOException if an FDF file cannot be read
+     */
+    public Metrics fillFdf(Iterable<Path> fdfFiles, RecordOutput outputs) throws IOException {
+        return run(queue -> {
+            for (Path fdfFile : fdfFiles) {
+                queue.accept(readFdf(fdfFile));
+            }
+        }, outputs);
+    }
+
+    /**
+     * Fills records from any source.
+     *
+     * @param records the records
+     * @param outputs opens the output of each record
+     * @return the counters of the run
+     * @throws IOException if the source cannot be read
+     */
+    public Metrics fill(Iterable<? extends FieldReader> records, RecordOutput outputs) throws IOException {
+        return run(queue -> records.forEach(queue), outputs);
+    }
+
+    /**
+     * Gets the counters of the run in progress, or of the last run.
+     *
+     * @return the counters, or <CODE>null</CODE> if nothing was filled yet
+     */
+    public Metrics getMetrics() {
+        Run run = current;
+        return run == null ? null : run.snapshot();
+    }
+
+    private Metrics run(RecordSource source, RecordOutput outputs) throws IOException {
+        Objects.requireNonNull(outputs, "outputs");
+        Run run = new Run();
+        current = run;
+        BlockingQueue<Job> queue = new ArrayBlockingQueue<>(queueCapacity);
+        Exception sourceFailure = null;
+        run.workers.set(parallelism);
+        try (ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < parallelism; w++) {
+                exec.submit(() -> work(queue, outputs, run));
+            }
+            try {
+                source.read(record -> {
+                    if (run.abort.get() != null || !put(queue, new Job(run.records.get(), record), run)) {
+                        throw new RunStoppedException();
+                    }
+                    run.records.incrementAndGet();
+                });
+            } catch (IOException | RuntimeException e) {
+                sourceFailure = e;
+            } finally {
+                for (int w = 0; w < parallelism; w++) {
+                    if (!put(queue, END, run)) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            run.end = System.nanoTime();
+        }
+        Throwable abort = run.abort.get();
+        if (abort instanceof RuntimeException re) {
+            throw re;
+        }
+        if (abort instanceof Error error) {
+            throw error;
+        }
+        if (abort != null) {
+            throw new ExceptionConverter((Exception) abort);
+        }
+        if (sourceFailure instanceof IOException ioe) {
+            throw ioe;
+        }
+        if (sourceFailure != null && !(sourceFailure instanceof RunStoppedException)) {
+            throw (RuntimeException) sourceFailure;
+        }
+        return run.snapshot();
+    }
+
+    /**
+     * Queues a job, waiting for room as long as there are workers to take it.
+     *
+     * @return <CODE>false</CODE> if all the workers are gone and the job was not queued
+     */
+    private static boolean put(BlockingQueue<Job> queue, Job job, Run run) {
+        try {
+            while (!queue.offer(job, 100, TimeUnit.MILLISECONDS)) {
+                if (run.workers.get() == 0) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExceptionConverter(e);
+        }
+    }
+
+    private void work(BlockingQueue<Job> queue, RecordOutput outputs, Run run) {
+        try {
+            while (run.abort.get() == null) {
+                Job job;
+                try {
+                    job = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (job == END) {
+                    return;
+                }
+                try {
+                    run.bytes.add(fill(job, outputs));
+                    run.filled.increment();
+                } catch (Exception e) {
+                    run.failed.increment();
+                    BiConsumer<Long, Throwable> handler = failureHandler;
+                    if (handler != null) {
+                        try {
+                            handler.accept(job.index, e);
+                        } catch (Throwable t) {
+                            run.abort.compareAndSet(null, t);
+                        }
+                    }
+                }
+            }
+        } catch (Throwable t) {
+            run.abort.compareAndSet(null, t);
+        } finally {
+            run.workers.decrementAndGet();
+        }
+    }
+
+    private long fill(Job job, RecordOutput outputs) throws IOException, DocumentException {
+        PdfReader reader = template.newReader();
+        try {
+            OutputStreamCounter out = new OutputStreamCounter(outputs.open(job.index, job.record));
+            try (out) {
+                PdfStamper stamper = new PdfStamper(reader, out);
+                stamper.getAcroFields().setFields(job.record);
+                stamper.setFormFlattening(formFlattening);
+                stamper.close();
+            }
+            return out.getCounter();
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads the values of an FDF file, which holds the fields themselves rather than their values.
+     */
+    private static FieldReader readFdf(Path fdfFile) throws IOException {
+        FdfReader fdf = new FdfReader(fdfFile.toString());
+        Map<String, String> fields = new HashMap<>();
+        for (String name : fdf.getAllFields().keySet()) {
+            String value = fdf.getFieldValue(name);
+            if (value != null) {
+                fields.put(name, value);
+            }
+        }
+        return new MapFieldReader(fields);
+    }
+
+    private static void readCsv(Reader csv, Consumer<FieldReader> queue) throws IOException {
+        BufferedReader in = csv instanceof BufferedReader ? (BufferedReader) csv : new BufferedReader(csv);
+        List<String> names = new ArrayList<>();
+        if (!readCsvLine(in, names)) {
+            return;
+        }
+        List<String> values = new ArrayList<>();
+        while (readCsvLine(in, values)) {
+            Map<String, String> fields = new LinkedHashMap<>();
+            for (int k = 0; k < Math.min(names.size(), values.size()); ++k) {
+                if (!values.get(k).isEmpty()) {
+                    fields.put(names.get(k), values.get(k));
+                }
+            }
+            queue.accept(new MapFieldReader(fields));
+        }
+    }
+
+    /**
+     * Reads one CSV record, which may span several lines when a quoted value holds line breaks.
+     *
+     * @return <CODE>false</CODE> at the end of the file
+     */
+    private static boolean readCsvLine(BufferedReader in, List<String> values) throws IOException {
+        values.clear();
+        int c = in.read();
+        if (c == -1) {
+            return false;
+        }
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    break;
+                }
+                if (c == '"') {
+                    in.mark(1);
+                    if (in.read() == '"') {
+                        value.append('"');
+                    } else {
+                        in.reset();
+                        quoted = false;
+                    }
+                } else {
+                    value.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    in.mark(1);
+                    if (in.read() != '\n') {
+                        in.reset();
+                    }
+                }
+                break;
+            } else {
+                value.append((char) c);
+            }
+            c = in.read();
+        }
+        values.add(value.toString());
+        return true;
+    }
+
+    /**
+     * Opens the output of a filled form.
+     */
+    @FunctionalInterface
+    public interface RecordOutput {
+
+        /**
+         * Opens the output of a record. The stream is closed once the form is written.
+         *
+         * @param index  the index of the record in the source, from 0
+         * @param record the record
+         * @return the output of the filled form
+         * @throws IOException on error
+         */
+        OutputStream open(long index, FieldReader record) throws IOException;
+    }
+
+    /**
+     * The counters of a run.
+     *
+     * @param records          the number of records read from the source
+     * @param filled           the number of forms filled and written
+     * @param failed           the number of records that could not be filled or written
+     * @param bytesWritten     the number of bytes of the filled forms
+     * @param elapsed          the time since the run started, or the duration of a finished run
+     * @param recordsPerSecond the number of forms filled per second
+     */
+    public record Metrics(long records, long filled, long failed, long bytesWritten, Duration elapsed,
+            double recordsPerSecond) {
+    }
+
+    @FunctionalInterface
+    private interface RecordSource {
+
+        void read(Consumer<FieldReader> queue) throws IOException;
+    }
+
+    private record Job(long index, FieldReader record) {
+    }
+
+    /**
+     * Thrown to the record source to stop reading once the run is stopped.
+     */
+    private static final class RunStoppedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        RunStoppedException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final class Run {
+
+        private final long start = System.nanoTime();
+        private volatile long end;
+        private final AtomicLong records = new AtomicLong();
+        private final AtomicInteger workers = new AtomicInteger();
+        /**
+         * What stopped the run: an exception thrown by the failure handler or an error in a worker.
+         */
+        private final AtomicReference<Throwable> abort = new AtomicReference<>();
+        private final LongAdder filled = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+
+        Metrics snapshot() {
+            long stop = end == 0 ? System.nanoTime() : end;
+            long count = filled.sum();
+            long elapsed = stop - start;
+            return new Metrics(records.get(), count, failed.sum(), bytes.sum(), Duration.ofNanos(elapsed),
+                    elapsed <= 0 ? 0 : count * 1e9 / elapsed);
+        }
+    }
+
+    private record MapFieldReader(Map<String, String> fields) implements FieldReader {
+
+        @Override
+        public Map<String, String> getAllFields() {
+            return fields;
+        }
+
+        @Override
+        public String getFieldValue(String fieldKey) {
+            return fields.get(fieldKey);
+        }
+
+        @Override
+        public List<String> getListValues(String fieldKey) {
+            return null;
+        }
+    }
+}
@@ -426,7 +426,7 @@ public class PdfContentByte {
             throw new RuntimeException(
                     MessageLocalization.getComposedMessage("inconsistent.writers.are.you.mixing.two.documents"));
         }
-        content.append(other.content);
+        content.append(other.getInternalBuffer());
     }
 
     /**
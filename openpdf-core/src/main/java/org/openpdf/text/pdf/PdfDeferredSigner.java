@@ -0,0 +1,411 @@
+/*
+ * Copyright 2026 OpenPDF
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * The Original Code is 'iText, a free JAVA-PDF library'.
+ *
+ * The Initial Developer of the Original Code is Bruno Lowagie. Portions created by
+ * the Initial Developer are Copyright (C) 1999, 2000, 2001, 2002 by Bruno Lowagie.
+ * All Rights Reserved.
+ * Co-Developer of the code is Paulo Soares. Portions created by the Co-Developer
+ * are Copyright (C) 2000, 2001, 2002 by Paulo Soares. All Rights Reserved.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the "GNU LIBRARY GENERAL PUBLIC LICENSE"), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/OpenPDF
+ */
+
+package org.openpdf.text.pdf;
+
+import org.openpdf.text.DocumentException;
+import org.openpdf.text.error_messages.MessageLocalization;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Signs documents in two phases, for signatures computed elsewhere (typically by a remote HSM) in batches.
+ * <p>
+ * {@link #prepare(PdfReader, OutputStream)} writes the document with an empty, zero filled /Contents and returns a
+ * {@link PreparedSignature}: the digest of the /ByteRange of the document and where the signature goes. Nothing of
+ * the document is kept in memory afterwards. Once the CMS signatures of a batch of digests are known,
+ * {@link #inject(Path, PreparedSignature, byte[])} writes each one in place in its prepared document. The prepared
+ * state can be serialized with {@link PreparedSignature#toBytes()}, so the second phase may run in another process.
+ *
+ * <pre>
+ * PdfDeferredSigner signer = new PdfDeferredSigner("SHA-256", 8192, sap -&gt; sap.setReason("Approved"));
+ * List&lt;PreparedSignature&gt; prepared = signer.prepareAll(inputs, outputs);
+ * List&lt;byte[]&gt; signatures = hsm.sign(prepared.stream().map(PreparedSignature::getDigest).toList());
+ * PdfDeferredSigner.injectAll(outputs, prepared, signatures);
+ * </pre>
+ * <p>
+ * The signatures are appended as a new revision, with the /Adobe.PPKLite filter and the /adbe.pkcs7.detached
+ * subfilter unless the appearance callback sets another crypto dictionary.
+ */
+public class PdfDeferredSigner {
+
+    private final String digestAlgorithm;
+    private final int contentsSize;
+    private final Consumer<PdfSignatureAppearance> appearance;
+
+    /**
+     * Creates a deferred signer.
+     *
+     * @param digestAlgorithm the digest algorithm of the signatures, as accepted by {@link MessageDigest}
+     * @param contentsSize    the number of bytes reserved for each CMS signature
+     * @param appearance      sets up the signature of each document: reason, location, field, visible appearance
+     *                        and so on. May be <CODE>null</CODE>
+     */
+    public PdfDeferredSigner(String digestAlgorithm, int contentsSize, Consumer<PdfSignatureAppearance> appearance) {
+        if (contentsSize <= 0) {
+            throw new IllegalArgumentException(
+                    MessageLocalization.getComposedMessage("the.reserved.signature.size.must.be.positive.found.1",
+                            contentsSize));
+        }
+        newDigest(digestAlgorithm);
+        this.digestAlgorithm = digestAlgorithm;
+        this.contentsSize = contentsSize;
+        this.appearance = appearance;
+    }
+
+    private static MessageDigest newDigest(String digestAlgorithm) {
+        try {
+            return MessageDigest.getInstance(digestAlgorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes a document ready to be signed, computing its digest while it is written.
+     *
+     * @param reader the original document. It cannot be reused
+     * @param os     the output of the prepared document. It is closed when the document is complete
+     * @return the digest to sign and where to write the signature
+     * @throws DocumentException on error
+     * @throws IOException       on error
+     */
+    public PreparedSignature prepare(PdfReader reader, OutputStream os) throws DocumentException, IOException {
+        OutputStreamCounter counter = new OutputStreamCounter(os);
+        PdfStamper stp = PdfStamper.createSignature(reader, counter, null, true, newDigest(digestAlgorithm));
+        PdfSignatureAppearance sap = stp.getSignatureAppearance();
+        if (appearance != null) {
+            appearance.accept(sap);
+        }
+        if (sap.getSignDate() == null) {
+            sap.setSignDate(sap.getSignDateNullSafe());
+        }
+        if (sap.getCryptoDictionary() == null) {
+            PdfSignature dic = new PdfSignature(PdfName.ADOBE_PPKLITE, PdfName.ADBE_PKCS7_DETACHED);
+            dic.setDate(new PdfDate(sap.getSignDate()));
+            sap.setCryptoDictionary(dic);
+        }
+        Map<PdfName, Integer> exclusionSizes = new HashMap<>();
+        exclusionSizes.put(PdfName.CONTENTS, contentsSize * 2 + 2);
+        sap.preClose(exclusionSizes);
+        PdfLiteral contents = sap.getExclusionLocation(PdfName.CONTENTS);
+        byte[] digest = sap.getDocumentDigest();
+        PdfDictionary update = new PdfDictionary();
+        update.put(PdfName.CONTENTS, new PdfString(new byte[contentsSize]).setHexWriting(true));
+        sap.close(update);
+        return new PreparedSignature(digestAlgorithm, digest, contents.getPosition(), contents.getPosLength(),
+                counter.getCounter());
+    }
+
+    /**
+     * Writes a document ready to be signed. The output is deleted if the document can't be prepared.
+     *
+     * @param input  the original document
+     * @param output the prepared document
+     * @return the digest to sign and where to write the signature
+     * @throws DocumentException on error
+     * @throws IOException       on error
+     */
+    public PreparedSignature prepare(Path input, Path output) throws DocumentException, IOException {
+        try (PdfReader reader = new PdfReader(input.toString())) {
+            try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(output))) {
+                return prepare(reader, os);
+            } catch (Throwable t) {
+                try {
+                    Files.deleteIfExists(output);
+                } catch (IOException e) {
+                    t.addSuppressed(e);
+                }
+                throw t;
+            }
+        }
+    }
+
+    /**
+     * Writes a batch of documents ready to be signed.
+     *
+     * @param inputs  the original documents
+     * @param outputs the prepared documents, in the order of <CODE>inputs</CODE>
+     * @return the digests to sign and where to write the signatures, in the order of <CODE>inputs</CODE>
+     * @throws DocumentException on error
+     * @throws IOException       on error
+     */
+    public List<PreparedSignature> prepareAll(List<Path> inputs, List<Path> outputs)
+            throws DocumentException, IOException {
+        checkBatchSize(inputs.size(), outputs.size());
+        List<PreparedSignature> prepared = new ArrayList<>(inputs.size());
+        for (int k = 0; k < inputs.size(); ++k) {
+            prepared.add(prepare(inputs.get(k), outputs.get(k)));
+        }
+        return prepared;
+    }
+
+    /**
+     * Writes a CMS signature in place in a prepared document.
+     *
+     * @param prepared  the prepared document
+     * @param signature the state returned when the document was prepared
+     * @param cms       the encoded CMS signature
+     * @throws DocumentException if the file is not the prepared document
+     * @throws IOException       on error
+     */
+    public static void inject(Path prepared, PreparedSignature signature, byte[] cms)
+            throws DocumentException, IOException {
+        byte[] contents = encodeContents(signature, cms);
+        try (RandomAccessFile raf = new RandomAccessFile(prepared.toFile(), "rw")) {
+            if (raf.length() != signature.getDocumentLength()
+                    || signature.getContentsOffset() + contents.length > raf.length()) {
+                throw notPrepared();
+            }
+            raf.seek(signature.getContentsOffset());
+            int first = raf.read();
+            raf.seek(signature.getContentsOffset() + signature.getContentsLength() - 1);
+            int last = raf.read();
+            if (first != '<' || last != '>') {
+                throw notPrepared();
+            }
+            raf.seek(signature.getContentsOffset());
+            raf.write(contents);
+        }
+    }
+
+    /**
+     * Writes a CMS signature in place in a prepared document held in memory.
+     *
+     * @param prepared  the prepared document, modified in place
+     * @param signature the state returned when the document was prepared
+     * @param cms       the encoded CMS signature
+     * @throws DocumentException if the bytes are not the prepared document
+     */
+    public static void inject(byte[] prepared, PreparedSignature signature, byte[] cms) throws DocumentException {
+        byte[] contents = encodeContents(signature, cms);
+        if (prepared.length != signature.getDocumentLength()
+                || signature.getContentsOffset() + contents.length > prepared.length) {
+            throw notPrepared();
+        }
+        int offset = (int) signature.getContentsOffset();
+        if (prepared[offset] != '<' || prepared[offset + contents.length - 1] != '>') {
+            throw notPrepared();
+        }
+        System.arraycopy(contents, 0, prepared, offset, contents.length);
+    }
+
+    /**
+     * Writes the CMS signatures of a batch in place in their prepared documents.
+     *
+     * @param prepared   the prepared documents
+     * @param signatures the states returned when the documents were prepared, in the same order
+     * @param cms        the encoded CMS signatures, in the same order
+     * @throws DocumentException if a file is not the prepared document
+     * @throws IOException       on error
+     */
+    public static void injectAll(List<Path> prepared, List<PreparedSignature> signatures, List<byte[]> cms)
+            throws DocumentException, IOException {
+        checkBatchSize(prepared.size(), signatures.size());
+        checkBatchSize(prepared.size(), cms.size());
+        for (int k = 0; k < prepared.size(); ++k) {
+            inject(prepared.get(k), signatures.get(k), cms.get(k));
+        }
+    }
+
+    private static byte[] encodeContents(PreparedSignature signature, byte[] cms) {
+        int reserved = (signature.getContentsLength() - 2) / 2;
+        if (cms.length > reserved) {
+            throw new IllegalArgumentException(MessageLocalization.getComposedMessage(
+                    "the.key.1.is.too.big.is.2.reserved.3", PdfName.CONTENTS.toString(),
+                    String.valueOf(cms.length * 2 + 2), String.valueOf(signature.getContentsLength())));
+        }
+        ByteBuffer bf = new ByteBuffer(signature.getContentsLength());
+        bf.append('<');
+        for (byte b : cms) {
+            bf.appendHex(b);
+        }
+        for (int k = cms.length; k < reserved; ++k) {
+            bf.append('0').append('0');
+        }
+        bf.append('>');
+        return bf.toByteArray();
+    }
+
+    private static DocumentException notPrepared() {
+        return new DocumentException(
+                MessageLocalization.getComposedMessage("the.document.does.not.match.the.prepared.signature"));
+    }
+
+    private static void checkBatchSize(int expected, int size) {
+        if (expected != size) {
+            throw new IllegalArgumentException(
+                    MessageLocalization.getComposedMessage("the.batch.has.1.documents.and.2.entries", expected, size));
+        }
+    }
+
+    /**
+     * The state of a prepared document: the digest to sign and where its signature goes. It holds no part of the
+     * document.
+     */
+    public static final class PreparedSignature {
+
+        private static final int VERSION = 1;
+
+        private final String digestAlgorithm;
+        private final byte[] digest;
+        private final long contentsOffset;
+        private final int contentsLength;
+        private final long documentLength;
+
+        PreparedSignature(String digestAlgorithm, byte[] digest, long contentsOffset, int contentsLength,
+                long documentLength) {
+            this.digestAlgorithm = digestAlgorithm;
+            this.digest = digest;
+            this.contentsOffset = contentsOffset;
+            this.contentsLength = contentsLength;
+            this.documentLength = documentLength;
+        }
+
+        /**
+         * Reads a state written by {@link #toBytes()}.
+         *
+         * @param state the serialized state
+         * @return the state
+         */
+        public static PreparedSignature fromBytes(byte[] state) {
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(state))) {
+                if (in.readUnsignedByte() != VERSION) {
+                    throw invalidState(null);
+                }
+                String digestAlgorithm = in.readUTF();
+                byte[] digest = new byte[in.readUnsignedShort()];
+                in.readFully(digest);
+                PreparedSignature signature = new PreparedSignature(digestAlgorithm, digest, in.readLong(),
+                        in.readInt(), in.readLong());
+                if (in.read() != -1 || signature.contentsOffset < 0 || signature.contentsLength < 2) {
+                    throw invalidState(null);
+                }
+                return signature;
+            } catch (IOException e) {
+                throw invalidState(e);
+            }
+        }
+
+        private static IllegalArgumentException invalidState(IOException cause) {
+            return new IllegalArgumentException(
+                    MessageLocalization.getComposedMessage("the.prepared.signature.state.is.invalid"), cause);
+        }
+
+        /**
+         * Serializes this state, to inject the signature in another process.
+         *
+         * @return the serialized state
+         */
+        public byte[] toBytes() {
+            ByteArrayOutputStream bout = new ByteArrayOutputStream(64 + digest.length);
+            try (DataOutputStream out = new DataOutputStream(bout)) {
+                out.writeByte(VERSION);
+                out.writeUTF(digestAlgorithm);
+                out.writeShort(digest.length);
+                out.write(digest);
+                out.writeLong(contentsOffset);
+                out.writeInt(contentsLength);
+                out.writeLong(documentLength);
+            } catch (IOException e) {
+                // a ByteArrayOutputStream does not throw
+                throw new IllegalStateException(e);
+            }
+            return bout.toByteArray();
+        }
+
+        /**
+         * @return the digest algorithm
+         */
+        public String getDigestAlgorithm() {
+            return digestAlgorithm;
+        }
+
+        /**
+         * @return the digest of the /ByteRange of the prepared document, to be signed
+         */
+        public byte[] getDigest() {
+            return digest.clone();
+        }
+
+        /**
+         * @return the position of the /Contents hex string in the prepared document
+         */
+        public long getContentsOffset() {
+            return contentsOffset;
+        }
+
+        /**
+         * @return the length of the /Contents hex string, brackets included
+         */
+        public int getContentsLength() {
+            return contentsLength;
+        }
+
+        /**
+         * @return the length of the prepared document
+         */
+        public long getDocumentLength() {
+            return documentLength;
+        }
+    }
+}
@@ -54,6 +54,7 @@ import org.openpdf.text.ExceptionConverter;
 import org.openpdf.text.error_messages.MessageLocalization;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * <CODE>PdfPages</CODE> is the PDF Pages-object.
@@ -67,10 +68,16 @@ import java.util.ArrayList;
 
 public class PdfPages {
 
+    /**
+     * The default number of kids of a node in the page tree.
+     */
+    static final int DEFAULT_FAN_OUT = 10;
+
     private final ArrayList<PdfIndirectReference> pages = new ArrayList<>();
     private final ArrayList<PdfIndirectReference> parents = new ArrayList<>();
     private final PdfWriter writer;
-    private int leafSize = 10;
+    private int leafSize = DEFAULT_FAN_OUT;
+    private int fanOut = DEFAULT_FAN_OUT;
     private PdfIndirectReference topParent;
 
     // constructors
@@ -110,54 +117,81 @@ public class PdfPages {
         }
     }
 
+    /**
+     * Sets the maximum number of kids of each node in the page tree. A larger fan-out gives a shallower tree, which is
+     * faster to navigate in documents with a huge number of pages. It must be set before the first page is added.
+     *
+     * @param fanOut the maximum number of kids, at least 2
+     */
+    void setFanOut(int fanOut) {
+        if (fanOut < 2) {
+            throw new IllegalArgumentException(
+                    MessageLocalization.getComposedMessage("the.page.tree.fan.out.must.be.at.least.2.found.1", fanOut));
+        }
+        if (!pages.isEmpty()) {
+            throw new IllegalStateException(
+                    MessageLocalization.getComposedMessage("the.page.tree.fan.out.must.be.set.before.the.first.page"));
+        }
+        this.fanOut = fanOut;
+        // in linear mode all the pages stay in a single leaf
+        if (leafSize < Integer.MAX_VALUE) {
+            leafSize = fanOut;
+        }
+    }
+
+    int getFanOut() {
+        return fanOut;
+    }
+
     // returns the top parent to include in the catalog
     PdfIndirectReference writePageTree() throws IOException {
         if (pages.isEmpty()) {
             throw new IOException(MessageLocalization.getComposedMessage("the.document.has.no.pages"));
         }
-        int leaf = 1;
-        ArrayList<PdfIndirectReference> tParents = parents;
-        ArrayList<PdfIndirectReference> tPages = pages;
-        ArrayList<PdfIndirectReference> nextParents = new ArrayList<>();
-        while (true) {
-            leaf *= leafSize;
-            int stdCount = leafSize;
-            int rightCount = tPages.size() % leafSize;
-            if (rightCount == 0) {
-                rightCount = leafSize;
-            }
-            for (int p = 0; p < tParents.size(); ++p) {
-                int count;
-                int thisLeaf = leaf;
-                if (p == tParents.size() - 1) {
-                    count = rightCount;
-                    thisLeaf = pages.size() % leaf;
-                    if (thisLeaf == 0) {
-                        thisLeaf = leaf;
-                    }
-                } else {
-                    count = stdCount;
-                }
-                PdfDictionary top = new PdfDictionary(PdfName.PAGES);
-                top.put(PdfName.COUNT, new PdfNumber(thisLeaf));
-                PdfArray kids = new PdfArray(tPages.subList(p * stdCount, p * stdCount + count));
-                top.put(PdfName.KIDS, kids);
-                if (tParents.size() > 1) {
-                    if ((p % leafSize) == 0) {
-                        nextParents.add(writer.getPdfIndirectReference());
-                    }
-                    top.put(PdfName.PARENT, nextParents.get(p / leafSize));
+        // the leaves were allocated while the pages were added, each one holds up to leafSize pages
+        List<PdfIndirectReference> level = parents;
+        List<PdfArray> levelKids = new ArrayList<>(level.size());
+        int[] levelCounts = new int[level.size()];
+        for (int p = 0; p < level.size(); ++p) {
+            int start = p * leafSize;
+            int end = Math.min(start + leafSize, pages.size());
+            levelKids.add(new PdfArray(pages.subList(start, end)));
+            levelCounts[p] = end - start;
+        }
+        while (level.size() > 1) {
+            // spread the nodes evenly over the parents, so that all the branches have about the same size
+            int nodes = level.size();
+            int groups = (nodes + fanOut - 1) / fanOut;
+            List<PdfIndirectReference> nextLevel = new ArrayList<>(groups);
+            List<PdfArray> nextKids = new ArrayList<>(groups);
+            int[] nextCounts = new int[groups];
+            for (int g = 0; g < groups; ++g) {
+                int start = (int) ((long) g * nodes / groups);
+                int end = (int) ((long) (g + 1) * nodes / groups);
+                PdfIndirectReference parent = writer.getPdfIndirectReference();
+                PdfArray kids = new PdfArray();
+                for (int p = start; p < end; ++p) {
+                    PdfDictionary node = new PdfDictionary(PdfName.PAGES);
+                    node.put(PdfName.COUNT, new PdfNumber(levelCounts[p]));
+                    node.put(PdfName.KIDS, levelKids.get(p));
+                    node.put(PdfName.PARENT, parent);
+                    writer.addToBody(node, level.get(p));
+                    kids.add(level.get(p));
+                    nextCounts[g] += levelCounts[p];
                 }
-                writer.addToBody(top, tParents.get(p));
-            }
-            if (tParents.size() == 1) {
-                topParent = tParents.get(0);
-                return topParent;
+                nextLevel.add(parent);
+                nextKids.add(kids);
             }
-            tPages = tParents;
-            tParents = nextParents;
-            nextParents = new ArrayList<>();
+            level = nextLevel;
+            levelKids = nextKids;
+            levelCounts = nextCounts;
         }
+        PdfDictionary top = new PdfDictionary(PdfName.PAGES);
+        top.put(PdfName.COUNT, new PdfNumber(levelCounts[0]));
+        top.put(PdfName.KIDS, levelKids.get(0));
+        topParent = level.get(0);
+        writer.addToBody(top, topParent);
+        return topParent;
     }
 
     void setLinearMode(PdfIndirectReference topParent) {
@@ -170,7 +204,7 @@ public class PdfPages {
             parents.clear();
             parents.add(topParent);
         }
-        leafSize = 10000000;
+        leafSize = Integer.MAX_VALUE;
     }
 
     int reorderPages(int[] order) throws DocumentException {
@@ -154,6 +154,11 @@ public class PdfReader implements PdfViewerPreferences, Closeable {
      * Holds value of property appendable.
      */
     private boolean appendable;
+    /**
+     * Whether the <CODE>AcroFields</CODE> of this document build the merged item of a field only when it is used.
+     */
+    private boolean lazyAcroFields;
+    private AcroFields.FieldIndex acroFieldsIndex;
     // Track how deeply nested the current object is, so
     // we know when to return an individual null or boolean, or
     // reuse one of the static ones.
@@ -330,6 +335,8 @@ public class PdfReader implements PdfViewerPreferences, Closeable {
         this.cryptoRef = (PRIndirectReference) duplicatePdfObject(reader.cryptoRef,
                 this);
         this.ownerPasswordUsed = reader.ownerPasswordUsed;
+        this.lazyAcroFields = reader.lazyAcroFields;
+        this.acroFieldsIndex = reader.acroFieldsIndex;
     }
 
     static int getPageRotation(PdfDictionary page) {
@@ -2847,6 +2854,34 @@ public class PdfReader implements PdfViewerPreferences, Closeable {
         return xrefObj.size();
     }
 
+    /**
+     * Checks if an object number refers to an object in use, without reading the object. In partial mode this only
+     * looks at the cross-reference table, so all the object numbers of a large file can be listed cheaply and the
+     * objects read later, when they are needed.
+     *
+     * @param idx the object number
+     * @return <CODE>true</CODE> if {@link #getPdfObject(int)} can return an object for this number
+     */
+    public boolean isObjectInUse(int idx) {
+        if (idx < 0 || idx >= xrefObj.size()) {
+            return false;
+        }
+        if (xrefObj.get(idx) != null) {
+            return true;
+        }
+        if (!partial || xref == null || idx * 2 + 1 >= xref.length) {
+            return false;
+        }
+        int pos = xref[idx * 2];
+        if (pos < 0) {
+            return false;
+        }
+        if (xref[idx * 2 + 1] > 0) {
+            pos = objStmToOffset.get(xref[idx * 2 + 1]);
+        }
+        return pos != 0;
+    }
+
     /**
      * Gets the byte address of the %%EOF marker.
      *
@@ -3548,6 +3583,52 @@ public class PdfReader implements PdfViewerPreferences, Closeable {
         return new AcroFields(this, null);
     }
 
+    /**
+     * Makes the <CODE>AcroFields</CODE> of this document, from {@link #getAcroFields()} or
+     * {@link PdfStamper#getAcroFields()}, lazy: they only index the fully qualified field names when they are created,
+     * and build the merged {@link AcroFields.Item} of a field the first time it is used. Setting a few fields of a large
+     * form is then much cheaper. Iterating over all the fields builds all the items, as before.
+     *
+     * @param lazyAcroFields <CODE>true</CODE> to create lazy <CODE>AcroFields</CODE>
+     */
+    public void setLazyAcroFields(boolean lazyAcroFields) {
+        this.lazyAcroFields = lazyAcroFields;
+    }
+
+    /**
+     * Gets whether the <CODE>AcroFields</CODE> of this document are lazy.
+     *
+     * @return <CODE>true</CODE> if the <CODE>AcroFields</CODE> are lazy
+     * @see #setLazyAcroFields(boolean)
+     */
+    public boolean isLazyAcroFields() {
+        return lazyAcroFields;
+    }
+
+    /**
+     * Sets the field index the lazy <CODE>AcroFields</CODE> of this document start from, instead of indexing the
+     * document again. The index must have been made from the same document, typically a template read many times.
+     * Setting an index makes the <CODE>AcroFields</CODE> lazy.
+     *
+     * @param acroFieldsIndex the field index, or <CODE>null</CODE> to index the document when needed
+     * @see #setLazyAcroFields(boolean)
+     */
+    public void setAcroFieldsIndex(AcroFields.FieldIndex acroFieldsIndex) {
+        this.acroFieldsIndex = acroFieldsIndex;
+        if (acroFieldsIndex != null) {
+            lazyAcroFields = true;
+        }
+    }
+
+    /**
+     * Gets the field index set with {@link #setAcroFieldsIndex(AcroFields.FieldIndex)}.
+     *
+     * @return the field index or <CODE>null</CODE>
+     */
+    public AcroFields.FieldIndex getAcroFieldsIndex() {
+        return acroFieldsIndex;
+    }
+
     /**
      * Gets the global document JavaScript.
      *
@@ -3894,6 +3975,24 @@ public class PdfReader implements PdfViewerPreferences, Closeable {
          */
         private List<PdfDictionary> pageInh;
         private boolean keepPages;
+        /**
+         * Object numbers of the pages found while walking the page tree in partial reading, 0 if not found yet. The
+         * index is filled as the tree is walked, so a page whose position was seen before is found without walking
+         * the tree again.
+         */
+        private int[] pageIndex;
+        /**
+         * Position in inheritedAttributes of the attributes each page in pageIndex inherits from its ancestors.
+         */
+        private int[] pageIndexInherited;
+        /**
+         * The attributes inherited by the pages in pageIndex, one entry per page tree node.
+         */
+        private List<PdfDictionary> inheritedAttributes;
+        /**
+         * The /Count of the page tree nodes read in partial reading, keyed by object number.
+         */
+        private IntHashtable pageNodeCounts;
 
         private PageRefs(PdfReader reader) {
             this.reader = reader;
@@ -4078,6 +4177,7 @@ public class PdfReader implements PdfViewerPreferences, Closeable {
             } else {
                 ++sizep;
                 lastPageRead = -1;
+                clearPageIndex();
                 if (pageNum >= size()) {
                     refsp.put(size(), ref.getNumber());
                 } else {
@@ -4189,6 +4289,19 @@ public class PdfReader implements PdfViewerPreferences, Closeable {
         }
 
         protected PRIndirectReference getSinglePage(int n) {
+            if (pageIndex == null) {
+                pageIndex = new int[size()];
+                pageIndexInherited = new int[size()];
+                inheritedAttributes = new ArrayList<>();
+                pageNodeCounts = new IntHashtable();
+            } else if (pageIndex[n] != 0) {
+                PRIndirectReference ref = new PRIndirectReference(reader, pageIndex[n]);
+                PdfDictionary dic = (PdfDictionary) getPdfObject(ref);
+                if (dic != null) {
+                    dic.mergeDifferent(inheritedAttributes.get(pageIndexInherited[n]));
+                    return ref;
+                }
+            }
             PdfDictionary acc = new PdfDictionary();
             PdfDictionary top = reader.rootPages;
             int base = 0;
@@ -4199,9 +4312,31 @@ public class PdfReader implements PdfViewerPreferences, Closeable {
                         acc.put(pageInhCandidate, obj);
                     }
                 }
+                int inherited = -1;
                 PdfArray kids = (PdfArray) PdfReader.getPdfObjectRelease(top.get(PdfName.KIDS));
                 for (PdfObject pdfObject : kids.getElements()) {
                     PRIndirectReference ref = (PRIndirectReference) pdfObject;
+                    int number = ref.getNumber();
+                    // the pages and the counts of the page tree nodes seen before don't have to be read again
+                    if (base < pageIndex.length && pageIndex[base] == number) {
+                        if (n == base) {
+                            PdfDictionary dic = (PdfDictionary) getPdfObject(ref);
+                            dic.mergeDifferent(acc);
+                            return ref;
+                        }
+                        ++base;
+                        continue;
+                    }
+                    if (pageNodeCounts.containsKey(number)) {
+                        int acn = pageNodeCounts.get(number);
+                        if (n < base + acn) {
+                            top = (PdfDictionary) getPdfObject(ref);
+                            reader.releaseLastXrefPartial();
+                            break;
+                        }
+                        base += acn;
+                        continue;
+                    }
                     PdfDictionary dic = (PdfDictionary) getPdfObject(ref);
                     int last = reader.lastXrefPartial;
                     PdfObject count = getPdfObjectRelease(dic.get(PdfName.COUNT));
@@ -4210,6 +4345,20 @@ public class PdfReader implements PdfViewerPreferences, Closeable {
                     if (count != null && count.type() == PdfObject.NUMBER) {
                         acn = ((PdfNumber) count).intValue();
                     }
+                    if (count == null) {
+                        if (base < pageIndex.length) {
+                            if (inherited == -1) {
+                                PdfDictionary attributes = new PdfDictionary();
+                                attributes.putAll(acc);
+                                inheritedAttributes.add(attributes);
+                                inherited = inheritedAttributes.size() - 1;
+                            }
+                            pageIndex[base] = number;
+                            pageIndexInherited[base] = inherited;
+                        }
+                    } else {
+                        pageNodeCounts.put(number, acn);
+                    }
                     if (n < base + acn) {
                         if (count == null) {
                             dic.mergeDifferent(acc);
@@ -4225,6 +4374,17 @@ public class PdfReader implements PdfViewerPreferences, Closeable {
             }
         }
 
+        /**
+         * Forgets the page positions found by {@link #getSinglePage(int)}, to be called when pages are added or
+         * removed.
+         */
+        private void clearPageIndex() {
+            pageIndex = null;
+            pageIndexInherited = null;
+            inheritedAttributes = null;
+            pageNodeCounts = null;
+        }
+
         private void selectPages(List<Integer> pagesToKeep) {
             IntHashtable pg = new IntHashtable();
             List<Integer> finalPages = new ArrayList<>();
@@ -4273,6 +4433,7 @@ public class PdfReader implements PdfViewerPreferences, Closeable {
             topPages.put(PdfName.KIDS, kids);
             refsp = null;
             refsn = newPageRefs;
+            clearPageIndex();
         }
     }
 
@@ -184,6 +184,16 @@ public class PdfSignatureAppearance {
     private ByteBuffer sigout;
     private OutputStream originalout;
     private File tempFile;
+    /**
+     * The original length of <CODE>tempFile</CODE> when the signature is appended to the original file in place, -1
+     * otherwise.
+     */
+    private long inPlaceLength = -1;
+    /**
+     * The output of the document when its digest is computed while it is written, or <CODE>null</CODE>.
+     */
+    private SignatureDigestOutputStream digestOut;
+    private byte[] documentDigest;
     private PdfDictionary cryptoDictionary;
     private PdfStamper stamper;
     private boolean preClosed = false;
@@ -1034,6 +1044,35 @@ public class PdfSignatureAppearance {
         this.tempFile = tempFile;
     }
 
+    void setInPlaceLength(long inPlaceLength) {
+        this.inPlaceLength = inPlaceLength;
+    }
+
+    void setDigestOut(SignatureDigestOutputStream digestOut) {
+        this.digestOut = digestOut;
+    }
+
+    /**
+     * Gets the space reserved in <CODE>preClose()</CODE> for a key of the signature dictionary.
+     *
+     * @param key the key
+     * @return the placeholder, positioned in the document, or <CODE>null</CODE>
+     */
+    PdfLiteral getExclusionLocation(PdfName key) {
+        return exclusionLocations == null ? null : exclusionLocations.get(key);
+    }
+
+    /**
+     * Gets the digest of the signed byte ranges of the document, when it was computed while the document was written.
+     * See {@link PdfStamper#createSignature(PdfReader, OutputStream, String, boolean, java.security.MessageDigest)}.
+     *
+     * @return the digest or <CODE>null</CODE> if the signature was not created with a digest or <CODE>preClose()</CODE>
+     * was not called yet
+     */
+    public byte[] getDocumentDigest() {
+        return documentDigest == null ? null : documentDigest.clone();
+    }
+
     /**
      * Gets a new signature fied name that doesn't clash with any existing name.
      *
@@ -1100,6 +1139,10 @@ public class PdfSignatureAppearance {
             throw new DocumentException(
                     MessageLocalization.getComposedMessage("document.already.pre.closed"));
         }
+        if (digestOut != null && cryptoDictionary == null) {
+            throw new DocumentException(
+                    MessageLocalization.getComposedMessage("a.digest.computed.while.writing.requires.an.external.signature"));
+        }
         preClosed = true;
         AcroFields af = writer.getAcroFields();
         String name = getFieldName();
@@ -1247,7 +1290,11 @@ public class PdfSignatureAppearance {
             if (signatureEvent != null) {
                 signatureEvent.getSignatureDictionary(cryptoDictionary);
             }
-            writer.addToBody(cryptoDictionary, refSig, false);
+            if (digestOut == null) {
+                writer.addToBody(cryptoDictionary, refSig, false);
+            } else {
+                writer.addSignatureLast(cryptoDictionary, refSig, digestOut);
+            }
         }
         if (certificationLevel >= 0) {
             // add DocMDP entry to root
@@ -1273,7 +1320,18 @@ public class PdfSignatureAppearance {
             range[k] -= range[k - 1];
         }
 
-        if (tempFile == null) {
+        if (digestOut != null) {
+            range[range.length - 1] = digestOut.getLength() - range[range.length - 2];
+            ByteBuffer bf = new ByteBuffer();
+            bf.append('[');
+            for (long i : range) {
+                bf.append(i).append(' ');
+            }
+            bf.append(']');
+            System.arraycopy(bf.getBuffer(), 0, digestOut.getTail().getBuffer(),
+                    (int) (byteRangePosition - digestOut.getTailStart()), bf.size());
+            documentDigest = digestOut.digestTail(range);
+        } else if (tempFile == null) {
             bout = sigout.getBuffer();
             boutLen = sigout.size();
             range[range.length - 1] = boutLen - range[range.length - 2];
@@ -1302,9 +1360,13 @@ public class PdfSignatureAppearance {
                     raf.close();
                 } catch (Exception ee) {
                 }
-                try {
-                    tempFile.delete();
-                } catch (Exception ee) {
+                if (inPlaceLength >= 0) {
+                    PdfStamper.truncateInPlace(tempFile, inPlaceLength);
+                } else {
+                    try {
+                        tempFile.delete();
+                    } catch (Exception ee) {
+                    }
                 }
                 throw e;
             }
@@ -1324,6 +1386,7 @@ public class PdfSignatureAppearance {
      * @throws IOException       on error
      */
     public void close(PdfDictionary update) throws IOException, DocumentException {
+        boolean closed = false;
         try {
             if (!preClosed) {
                 throw new DocumentException(
@@ -1347,7 +1410,10 @@ public class PdfSignatureAppearance {
                                     "the.key.1.is.too.big.is.2.reserved.3", key.toString(),
                                     String.valueOf(bf.size()), String.valueOf(lit.getPosLength())));
                 }
-                if (tempFile == null) {
+                if (digestOut != null) {
+                    System.arraycopy(bf.getBuffer(), 0, digestOut.getTail().getBuffer(),
+                            (int) (lit.getPosition() - digestOut.getTailStart()), bf.size());
+                } else if (tempFile == null) {
                     System.arraycopy(bf.getBuffer(), 0, bout, (int) lit.getPosition(),
                             bf.size());
                 } else {
@@ -1360,7 +1426,9 @@ public class PdfSignatureAppearance {
                         MessageLocalization
                                 .getComposedMessage("the.update.dictionary.has.less.keys.than.required"));
             }
-            if (tempFile == null) {
+            if (digestOut != null) {
+                digestOut.writeTail();
+            } else if (tempFile == null) {
                 originalout.write(bout, 0, boutLen);
             } else {
                 if (originalout != null) {
@@ -1378,12 +1446,16 @@ public class PdfSignatureAppearance {
                     }
                 }
             }
+            closed = true;
         } finally {
             if (tempFile != null) {
                 try {
                     raf.close();
                 } catch (Exception ee) {
                 }
+                if (!closed && inPlaceLength >= 0) {
+                    PdfStamper.truncateInPlace(tempFile, inPlaceLength);
+                }
                 if (originalout != null) {
                     try {
                         tempFile.delete();
@@ -1427,8 +1499,14 @@ public class PdfSignatureAppearance {
      * <p>
      *
      * @return the document bytes that are hashable
+     * @throws IllegalStateException if the digest was computed while the document was written, as the bytes are no
+     *                               longer available. Use {@link #getDocumentDigest()} instead
      */
     public InputStream getRangeStream() {
+        if (digestOut != null) {
+            throw new IllegalStateException(
+                    MessageLocalization.getComposedMessage("the.range.stream.is.not.available.use.the.document.digest"));
+        }
         return new PdfSignatureAppearance.RangeStream(raf, bout, range);
     }
 
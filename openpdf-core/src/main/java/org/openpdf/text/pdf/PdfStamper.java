@@ -62,7 +62,9 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.nio.file.Files;
+import java.security.MessageDigest;
 import java.security.SignatureException;
 import java.security.cert.Certificate;
 import java.util.Calendar;
@@ -90,6 +92,11 @@ public class PdfStamper
     private boolean hasSignature;
     private PdfSignatureAppearance sigApp;
     private boolean cleanMetadata = false;
+    /**
+     * The file the new revision is appended to in place, or <CODE>null</CODE>.
+     */
+    private File inPlaceFile;
+    private long inPlaceLength;
 
     /**
      * Starts the process of adding extra content to an existing PDF document.
@@ -132,6 +139,83 @@ public class PdfStamper
         stamper = new PdfStamperImp(reader, os, pdfVersion, append);
     }
 
+    private PdfStamper(PdfReader reader, File file) throws DocumentException, IOException {
+        inPlaceFile = file;
+        inPlaceLength = file.length();
+        FileOutputStream fout = new FileOutputStream(file, true);
+        try {
+            stamper = new PdfStamperImp(reader, fout, null, true, true);
+        } catch (IOException | RuntimeException e) {
+            fout.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Starts the process of adding a new revision to an existing PDF file, in place. The original file is opened for
+     * writing and, when the stamper is closed, only the new and changed objects, the cross-reference section and the
+     * trailer are appended at its end. Nothing of the original document is copied, so the cost of a small change does
+     * not depend on the size of the file.
+     * <p>
+     * If closing fails, the file is truncated back to its original length.
+     *
+     * @param reader the original document, read from a file that is not modified by anybody else until the stamper
+     *               is closed. It cannot be reused
+     * @return a <CODE>PdfStamper</CODE> appending to the file of <CODE>reader</CODE>
+     * @throws DocumentException if the reader was not read from a local file or the file changed since it was read
+     * @throws IOException       on error
+     */
+    public static PdfStamper appendInPlace(PdfReader reader) throws DocumentException, IOException {
+        RandomAccessFileOrArray rf = reader.tokens.getFile();
+        if (rf.filename == null || rf.getStartOffset() != 0) {
+            throw new DocumentException(
+                    MessageLocalization.getComposedMessage("append.in.place.requires.a.document.read.from.a.file"));
+        }
+        File file = new File(rf.filename);
+        if (file.length() != reader.getFileLength()) {
+            throw new DocumentException(
+                    MessageLocalization.getComposedMessage("the.file.1.was.modified.after.it.was.read", rf.filename));
+        }
+        return new PdfStamper(reader, file);
+    }
+
+    /**
+     * Applies a digital signature to a PDF file as a new revision appended in place, see
+     * {@link #appendInPlace(PdfReader)}. The /ByteRange of the signature covers the original file and the appended
+     * revision. The returned PdfStamper can be used normally as the signature is only applied when closing.
+     *
+     * @param reader the original document, read from a file. It cannot be reused
+     * @return a <CODE>PdfStamper</CODE>
+     * @throws DocumentException if the reader was not read from a local file or the file changed since it was read
+     * @throws IOException       on error
+     */
+    public static PdfStamper createSignatureInPlace(PdfReader reader) throws DocumentException, IOException {
+        PdfStamper stp = appendInPlace(reader);
+        stp.sigApp = new PdfSignatureAppearance(stp.stamper);
+        stp.sigApp.setTempFile(stp.inPlaceFile);
+        stp.sigApp.setInPlaceLength(stp.inPlaceLength);
+        stp.sigApp.setStamper(stp);
+        stp.hasSignature = true;
+        removeNeedAppearances(stp);
+        return stp;
+    }
+
+    /**
+     * Truncates a file appended to in place back to its original length, after a failure.
+     *
+     * @param file   the file
+     * @param length the original length
+     */
+    static void truncateInPlace(File file, long length) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            if (raf.length() > length) {
+                raf.setLength(length);
+            }
+        } catch (IOException e) {
+            // the original error is more useful than this one
+        }
+    }
+
     /**
      * Applies a digital signature to a document, possibly as a new revision, making possible multiple signatures. The
      * returned PdfStamper can be used normally as the signature is only applied when closing.
@@ -190,14 +274,64 @@ public class PdfStamper
         stp.sigApp.setOriginalout(os);
         stp.sigApp.setStamper(stp);
         stp.hasSignature = true;
-        PdfDictionary catalog = reader.getCatalog();
+        removeNeedAppearances(stp);
+        return stp;
+    }
+
+    /**
+     * Applies an external digital signature to a document, computing the digest of the document while it is written.
+     * <p>
+     * With {@link #createSignature(PdfReader, OutputStream, String, File, boolean)} the whole document is kept in
+     * memory or in a temporary file, and read again to compute its digest. Here everything in front of the signature
+     * dictionary is digested and written to <CODE>os</CODE> directly; only the signature dictionary, the
+     * cross-reference section and the trailer are kept in memory until the signature is inserted. The memory needed
+     * does not depend on the size of the document.
+     * <p>
+     * Only external signatures are supported. A possible use is:
+     * </p>
+     * <pre>
+     * PdfStamper stp = PdfStamper.createSignature(reader, out, null, true, MessageDigest.getInstance("SHA-256"));
+     * PdfSignatureAppearance sap = stp.getSignatureAppearance();
+     * sap.setCryptoDictionary(dic);
+     * sap.preClose(exclusionSizes);
+     * byte[] contents = sign(sap.getDocumentDigest());
+     * PdfDictionary update = new PdfDictionary();
+     * update.put(PdfName.CONTENTS, new PdfString(contents).setHexWriting(true));
+     * sap.close(update);
+     * </pre>
+     *
+     * @param reader     the original document
+     * @param os         the output stream, closed by {@link PdfSignatureAppearance#close(PdfDictionary)}
+     * @param pdfVersion the new pdf version or '\0' to keep the same version as the original document
+     * @param append     if <CODE>true</CODE> the signature and all the other content will be added as a new revision
+     *                   thus not invalidating existing signatures
+     * @param digest     the digest to update with the signed byte ranges of the document, see
+     *                   {@link PdfSignatureAppearance#getDocumentDigest()}
+     * @return a <CODE>PdfStamper</CODE>
+     * @throws DocumentException on error
+     * @throws IOException       on error
+     */
+    public static PdfStamper createSignature(PdfReader reader, OutputStream os, String pdfVersion, boolean append,
+            MessageDigest digest) throws DocumentException, IOException {
+        SignatureDigestOutputStream digestOut = new SignatureDigestOutputStream(os, digest);
+        PdfStamper stp = new PdfStamper(reader, digestOut, pdfVersion, append);
+        stp.sigApp = new PdfSignatureAppearance(stp.stamper);
+        stp.sigApp.setDigestOut(digestOut);
+        stp.sigApp.setOriginalout(os);
+        stp.sigApp.setStamper(stp);
+        stp.hasSignature = true;
+        removeNeedAppearances(stp);
+        return stp;
+    }
+
+    private static void removeNeedAppearances(PdfStamper stp) {
+        PdfDictionary catalog = stp.stamper.reader.getCatalog();
         PdfDictionary acroForm = (PdfDictionary) PdfReader.getPdfObjectNullConverting(catalog.get(PdfName.ACROFORM),
                 catalog);
         if (acroForm != null) {
             acroForm.remove(PdfName.NEEDAPPEARANCES);
             stp.stamper.markUsed(acroForm);
         }
-        return stp;
     }
 
     /**
@@ -359,6 +493,27 @@ public class PdfStamper
      * @throws IOException       on error
      */
     public void close() throws DocumentException, IOException {
+        if (inPlaceFile == null) {
+            closeDocument();
+            return;
+        }
+        boolean closed = false;
+        try {
+            closeDocument();
+            closed = true;
+        } finally {
+            if (!closed) {
+                try {
+                    stamper.getOs().close();
+                } catch (IOException e) {
+                    // the original error is more useful than this one
+                }
+                truncateInPlace(inPlaceFile, inPlaceLength);
+            }
+        }
+    }
+
+    private void closeDocument() throws DocumentException, IOException {
         if (!hasSignature) {
             if (cleanMetadata && stamper.xmpMetadata == null) {
                 ByteArrayOutputStream baos = new ByteArrayOutputStream();
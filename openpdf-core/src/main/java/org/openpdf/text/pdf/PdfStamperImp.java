@@ -106,6 +106,13 @@ class PdfStamperImp extends PdfWriter {
     private Calendar modificationDate = null;
     private boolean updateMetadata = true;
     private boolean updateDocInfo = true;
+    /**
+     * A signature dictionary written as the last object of the body, see
+     * {@link #addSignatureLast(PdfDictionary, PdfIndirectReference, SignatureDigestOutputStream)}.
+     */
+    private PdfDictionary lastSignature;
+    private PdfIndirectReference lastSignatureRef;
+    private SignatureDigestOutputStream signatureDigestOut;
 
     /**
      * Creates new PdfStamperImp.
@@ -119,6 +126,23 @@ class PdfStamperImp extends PdfWriter {
      */
     PdfStamperImp(PdfReader reader, OutputStream os, String pdfVersion, boolean append)
             throws DocumentException, IOException {
+        this(reader, os, pdfVersion, append, false);
+    }
+
+    /**
+     * Creates new PdfStamperImp.
+     *
+     * @param reader     the read PDF
+     * @param os         the output destination
+     * @param pdfVersion the new pdf version or '\0' to keep the same version as the original document
+     * @param append     if <CODE>true</CODE> appends the document changes as a new revision
+     * @param inPlace    if <CODE>true</CODE>, <CODE>os</CODE> appends to the end of the file the reader was read from,
+     *                   and the original document is not copied to it
+     * @throws DocumentException on error
+     * @throws IOException       on error
+     */
+    PdfStamperImp(PdfReader reader, OutputStream os, String pdfVersion, boolean append, boolean inPlace)
+            throws DocumentException, IOException {
         super(new PdfDocument(), os);
         if (!reader.isOpenedWithFullPermissions()) {
             throw new BadPasswordException(
@@ -141,13 +165,18 @@ class PdfStamperImp extends PdfWriter {
                 crypto = new PdfEncryption(reader.getDecrypt());
             }
             pdf_version.setAppendmode(true);
-            file.reOpen();
-            byte[] buf = new byte[8192];
-            int n;
-            while ((n = file.read(buf)) > 0) {
-                this.os.write(buf, 0, n);
+            if (inPlace) {
+                // the original bytes are already in front of the new revision
+                this.os.counter = reader.getFileLength();
+            } else {
+                file.reOpen();
+                byte[] buf = new byte[8192];
+                int n;
+                while ((n = file.read(buf)) > 0) {
+                    this.os.write(buf, 0, n);
+                }
+                file.close();
             }
-            file.close();
             prevxref = reader.getLastXref();
             reader.setAppendable(true);
         } else {
@@ -433,6 +462,11 @@ class PdfStamperImp extends PdfWriter {
         } else {
             infoRef = addToBody(info, false).getIndirectReference();
         }
+        if (lastSignature != null) {
+            os.flush();
+            signatureDigestOut.holdTail();
+            addToBody(lastSignature, lastSignatureRef, false);
+        }
         // write the cross-reference table of the body
         body.writeCrossReferenceTable(os, root, infoRef, encryption, fileID, prevxref);
         os.write(getISOBytes("startxref\n"));
@@ -1713,6 +1747,21 @@ class PdfStamperImp extends PdfWriter {
         sigFlags |= f;
     }
 
+    /**
+     * Writes a signature dictionary when the document is closed, after all the other objects. Only the
+     * cross-reference section and the trailer follow it, so the digest of everything in front of it can be computed
+     * before its /ByteRange is known.
+     *
+     * @param signature the signature dictionary
+     * @param ref       the reference of the signature dictionary
+     * @param digestOut the output of the document, told where the signature dictionary starts
+     */
+    void addSignatureLast(PdfDictionary signature, PdfIndirectReference ref, SignatureDigestOutputStream digestOut) {
+        lastSignature = signature;
+        lastSignatureRef = ref;
+        signatureDigestOut = digestOut;
+    }
+
     /**
      * Always throws an <code>UnsupportedOperationException</code>.
      *
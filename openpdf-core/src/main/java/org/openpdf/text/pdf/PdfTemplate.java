@@ -49,8 +49,11 @@
 
 package org.openpdf.text.pdf;
 
+import org.openpdf.text.ExceptionConverter;
 import org.openpdf.text.Rectangle;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Implements the form XObject.
@@ -84,6 +87,24 @@ public class PdfTemplate extends PdfContentByte {
 
     protected PdfOCG layer;
 
+    /**
+     * The file holding the content moved out of memory by {@link #spill(SpillFile)}, <CODE>null</CODE> if all the
+     * content is in memory.
+     */
+    private SpillFile spillFile;
+
+    /**
+     * The parts of the spill file holding the content, in order.
+     */
+    private List<SpilledPart> spilledParts;
+
+    private int spillLength;
+
+    /**
+     * The writer that counts the content in memory against its memory budget, <CODE>null</CODE> if none.
+     */
+    private PdfWriter memoryHolder;
+
     /**
      * Creates a <CODE>PdfTemplate</CODE>.
      */
@@ -91,6 +112,7 @@ public class PdfTemplate extends PdfContentByte {
     protected PdfTemplate() {
         super(null);
         type = TYPE_TEMPLATE;
+        content = new ContentBuffer();
     }
 
     /**
@@ -102,6 +124,7 @@ public class PdfTemplate extends PdfContentByte {
     PdfTemplate(PdfWriter wr) {
         super(wr);
         type = TYPE_TEMPLATE;
+        content = new ContentBuffer();
         pageResources = new PageResources();
         pageResources.addDefaultColor(wr.getDefaultColorspace());
         thisReference = writer.getPdfIndirectReference();
@@ -255,6 +278,137 @@ public class PdfTemplate extends PdfContentByte {
         return new PdfFormXObject(this, compressionLevel);
     }
 
+    /**
+     * Moves the content written so far to a spill file. Content added afterward is kept in memory and follows the
+     * spilled content.
+     *
+     * @param file the file to write to
+     * @return the number of bytes moved out of memory
+     * @throws IOException on error
+     */
+    int spill(SpillFile file) throws IOException {
+        int count = content.size();
+        if (count == 0) {
+            return 0;
+        }
+        long offset = file.write(content);
+        if (spilledParts == null) {
+            spilledParts = new ArrayList<>();
+        }
+        int last = spilledParts.size() - 1;
+        if (last >= 0 && spilledParts.get(last).end() == offset) {
+            // the part follows the previous one in the file
+            SpilledPart previous = spilledParts.get(last);
+            spilledParts.set(last, new SpilledPart(previous.offset(), previous.length() + count));
+        } else {
+            spilledParts.add(new SpilledPart(offset, count));
+        }
+        spillLength += count;
+        spillFile = file;
+        setContent(new ContentBuffer());
+        return count;
+    }
+
+    /**
+     * Gets the number of bytes of content held in memory.
+     *
+     * @return the size of the content not spilled
+     */
+    int memorySize() {
+        return content.size();
+    }
+
+    /**
+     * Counts the content held in memory against the memory budget of a writer, until the template is written.
+     *
+     * @param holder the writer, <CODE>null</CODE> to stop counting
+     */
+    void setMemoryHolder(PdfWriter holder) {
+        if (memoryHolder != null) {
+            memoryHolder.residentTemplateBytes -= content.size();
+        }
+        memoryHolder = holder;
+        if (holder != null) {
+            holder.residentTemplateBytes += content.size();
+        }
+    }
+
+    private void setContent(ByteBuffer buf) {
+        if (memoryHolder != null) {
+            memoryHolder.residentTemplateBytes += buf.size() - content.size();
+        }
+        content = buf;
+    }
+
+    private void readSpilledContent(ByteBuffer buf) {
+        try {
+            for (SpilledPart part : spilledParts) {
+                spillFile.read(part.offset(), part.length(), buf);
+            }
+        } catch (IOException e) {
+            throw new ExceptionConverter(e);
+        }
+    }
+
+    private void freeSpilledContent() {
+        if (spillFile == null) {
+            return;
+        }
+        for (SpilledPart part : spilledParts) {
+            spillFile.free(part.offset(), part.length());
+        }
+        spillFile = null;
+        spilledParts = null;
+        spillLength = 0;
+    }
+
+    private void restoreSpilledContent() {
+        if (spillFile == null) {
+            return;
+        }
+        ByteBuffer buf = new ContentBuffer(spillLength + content.size());
+        readSpilledContent(buf);
+        buf.append(content);
+        freeSpilledContent();
+        setContent(buf);
+    }
+
+    @Override
+    public ByteBuffer getInternalBuffer() {
+        restoreSpilledContent();
+        return super.getInternalBuffer();
+    }
+
+    @Override
+    public byte[] toPdf(PdfWriter writer) {
+        if (spillFile == null) {
+            return super.toPdf(writer);
+        }
+        // don't bring the content back to memory for good, the template is usually written only once
+        sanityCheck();
+        ByteBuffer buf = new ByteBuffer(spillLength + content.size());
+        readSpilledContent(buf);
+        buf.append(content);
+        return buf.toByteArray();
+    }
+
+    @Override
+    public String toString() {
+        restoreSpilledContent();
+        return super.toString();
+    }
+
+    @Override
+    int size() {
+        return spillFile == null ? super.size() : spillLength + super.size();
+    }
+
+    @Override
+    public void reset(boolean validateContent) {
+        freeSpilledContent();
+        super.reset(validateContent);
+    }
+
     /**
      * Gets a duplicate of this <CODE>PdfTemplate</CODE>. All the members are copied by reference but the buffer stays
      * different.
@@ -304,4 +458,61 @@ public class PdfTemplate extends PdfContentByte {
         this.group = group;
     }
 
-}
\ No newline at end of file
+
+    /**
+     * A part of the spill file holding content of the template.
+     */
+    private record SpilledPart(long offset, int length) {
+
+        long end() {
+            return offset + length;
+        }
+    }
+
+    /**
+     * The content of the template. Its size is counted against the memory budget of the writer holding the template.
+     */
+    private final class ContentBuffer extends ByteBuffer {
+
+        ContentBuffer() {
+        }
+
+        ContentBuffer(int size) {
+            super(size);
+        }
+
+        @Override
+        public ByteBuffer append_i(int b) {
+            super.append_i(b);
+            resized(1);
+            return this;
+        }
+
+        @Override
+        public ByteBuffer append(byte[] b, int off, int len) {
+            int before = count;
+            super.append(b, off, len);
+            resized(count - before);
+            return this;
+        }
+
+        @Override
+        public void reset() {
+            resized(-count);
+            super.reset();
+        }
+
+        @Override
+        public void setSize(int size) {
+            int before = count;
+            super.setSize(size);
+            resized(count - before);
+        }
+
+        private void resized(int delta) {
+            if (memoryHolder != null && content == this) {
+                memoryHolder.residentTemplateBytes += delta;
+            }
+        }
+    }
+}
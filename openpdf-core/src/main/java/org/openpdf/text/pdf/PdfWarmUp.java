@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 OpenPDF
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * The Original Code is 'iText, a free JAVA-PDF library'.
+ *
+ * The Initial Developer of the Original Code is Bruno Lowagie. Portions created by
+ * the Initial Developer are Copyright (C) 1999, 2000, 2001, 2002 by Bruno Lowagie.
+ * All Rights Reserved.
+ * Co-Developer of the code is Paulo Soares. Portions created by the Co-Developer
+ * are Copyright (C) 2000, 2001, 2002 by Paulo Soares. All Rights Reserved.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the "GNU LIBRARY GENERAL PUBLIC LICENSE"), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/OpenPDF
+ */
+package org.openpdf.text.pdf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.openpdf.text.Document;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Paragraph;
+
+/**
+ * Initializes the tables that OpenPDF otherwise loads when the first document is made: the names of
+ * {@link PdfName}, the encodings of {@link PdfEncodings}, the glyph list and the metrics of the default font, and
+ * the classes used to write and read a document. A server or a function that starts a new JVM can call
+ * {@link #warmUp()} while it starts, or {@link #warmUpAsync()} next to its own initialization, so that the first
+ * request does not pay for it.
+ * <p>
+ * Each step is only slow the first time it runs in a JVM; calling the warm-up again measures close to nothing.
+ */
+public final class PdfWarmUp {
+
+    private PdfWarmUp() {
+    }
+
+    /**
+     * Runs the warm-up and measures each step.
+     *
+     * @return the time taken by each step
+     * @throws IOException if the default font or the test document cannot be made
+     */
+    public static Report warmUp() throws IOException {
+        Map<String, Duration> steps = new LinkedHashMap<>();
+        long start = System.nanoTime();
+        step(steps, "PdfName", () -> PdfName.staticNames.size());
+        step(steps, "PdfEncodings", () -> PdfEncodings.convertToBytes(" ", BaseFont.WINANSI));
+        step(steps, "GlyphList", () -> GlyphList.nameToUnicode("space"));
+        step(steps, "BaseFont", BaseFont::createFont);
+        step(steps, "Document", PdfWarmUp::writeAndReadDocument);
+        return new Report(Collections.unmodifiableMap(steps), Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Runs the warm-up in the common fork-join pool.
+     *
+     * @return the report, completed with a <CODE>CompletionException</CODE> if the warm-up failed
+     */
+    public static CompletableFuture<Report> warmUpAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return warmUp();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    private static void step(Map<String, Duration> steps, String name, Step step) throws IOException {
+        long start = System.nanoTime();
+        step.run();
+        steps.put(name, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private static void writeAndReadDocument() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4);
+        PdfWriter.getInstance(document, out);
+        document.open();
+        document.add(new Paragraph("warm-up"));
+        document.close();
+        PdfReader reader = new PdfReader(out.toByteArray());
+        try {
+            reader.getPageContent(1);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private interface Step {
+
+        void run() throws IOException;
+    }
+
+    /**
+     * The time taken by the warm-up.
+     *
+     * @param steps the time taken by each step, in the order they ran
+     * @param total the time taken by the whole warm-up
+     */
+    public record Report(Map<String, Duration> steps, Duration total) {
+    }
+}
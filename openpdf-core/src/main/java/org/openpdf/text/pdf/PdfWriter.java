@@ -85,13 +85,12 @@ import java.util.Arrays;
 import java.util.Formatter;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 /**
@@ -626,6 +625,10 @@ public class PdfWriter extends DocWriter implements
      * The font number counter for the fonts in the document.
      */
     protected int fontNumber = 1;
+    /**
+     * The cache of font subsets shared with other documents, <CODE>null</CODE> if subsets are not cached.
+     */
+    private FontSubsetCache fontSubsetCache;
     /**
      * The form XObjects in this document. The key is the xref and the value is Object[]{PdfName, template}.
      */
@@ -634,6 +637,23 @@ public class PdfWriter extends DocWriter implements
      * The name counter for the form XObjects name.
      */
     protected int formXObjectsCounter = 1;
+    /**
+     * The maximum number of bytes of template content kept in memory until the templates are written, 0 for no
+     * limit.
+     */
+    private long memoryBudget;
+    /**
+     * Holds the template content moved out of memory to honor the memory budget.
+     */
+    private SpillFile spillFile;
+    /**
+     * The templates not yet written, whose content counts against the memory budget.
+     */
+    private final Set<PdfTemplate> residentTemplates = new LinkedHashSet<>();
+    /**
+     * The number of bytes of content of the resident templates held in memory, kept up to date by the templates.
+     */
+    long residentTemplateBytes;
     protected HashMap<PdfReader, PdfReaderInstance> importedPages = new HashMap<>();
     protected PdfReaderInstance currentPdfReaderInstance;
     /**
@@ -1089,6 +1109,29 @@ public class PdfWriter extends DocWriter implements
         root.setLinearMode(null);
     }
 
+    /**
+     * Use this method to set the maximum number of kids of each node in the page tree. The default is 10. The tree is
+     * balanced when the document is closed; a larger fan-out gives a shallower tree, which makes page lookups faster
+     * in documents with a huge number of pages. It must be called before the first page is added.
+     *
+     * @param fanOut the maximum number of kids of a page tree node, at least 2
+     * @throws IllegalArgumentException if <CODE>fanOut</CODE> is less than 2
+     * @throws IllegalStateException    if a page was already added
+     */
+    public void setPageTreeFanOut(int fanOut) {
+        root.setFanOut(fanOut);
+    }
+
+    /**
+     * Gets the maximum number of kids of each node in the page tree.
+     *
+     * @return the page tree fan-out
+     * @see #setPageTreeFanOut(int)
+     */
+    public int getPageTreeFanOut() {
+        return root.getFanOut();
+    }
+
     /**
      * Use this method to reorder the pages in the document. A <CODE>null</CODE> argument value only returns the number
      * of pages to process. It is advisable to issue a <CODE>Document.newPage()</CODE> before using this method.
@@ -1221,6 +1264,11 @@ public class PdfWriter extends DocWriter implements
         }
         root.addPage(page);
         currentPageNumber++;
+        try {
+            enforceMemoryBudget();
+        } catch (IOException ioe) {
+            throw new ExceptionConverter(ioe);
+        }
         return null;
     }
 
@@ -1371,7 +1419,20 @@ public class PdfWriter extends DocWriter implements
                 super.close();
             } catch (IOException ioe) {
                 throw new ExceptionConverter(ioe);
+            } finally {
+                closeSpillFile();
+            }
+        }
+    }
+
+    private void closeSpillFile() {
+        if (spillFile != null) {
+            try {
+                spillFile.close();
+            } catch (IOException ioe) {
+                // the file is deleted on exit anyway
             }
+            spillFile = null;
         }
     }
 
@@ -2095,6 +2156,27 @@ public class PdfWriter extends DocWriter implements
         this.useBrotliCompression = useBrotliCompression;
     }
 
+    /**
+     * Sets a cache of embedded font subsets. When the same cache is set on several writers, a TrueType or CFF font
+     * that is written with the same glyphs as in an earlier document is taken from the cache instead of being subset
+     * and compressed again.
+     *
+     * @param fontSubsetCache the cache, <CODE>null</CODE> to subset every font (the default)
+     */
+    public void setFontSubsetCache(FontSubsetCache fontSubsetCache) {
+        this.fontSubsetCache = fontSubsetCache;
+    }
+
+    /**
+     * Gets the cache of embedded font subsets.
+     *
+     * @return the cache, <CODE>null</CODE> if subsets are not cached
+     * @see #setFontSubsetCache(FontSubsetCache)
+     */
+    public FontSubsetCache getFontSubsetCache() {
+        return fontSubsetCache;
+    }
+
     /**
      * Adds a <CODE>BaseFont</CODE> to the document but not to the page resources. It is used for templates.
      *
@@ -2154,6 +2236,11 @@ public class PdfWriter extends DocWriter implements
                     template = null;
                 }
                 formXObjects.put(ref, new Object[]{name, template});
+                if (template != null && template.getType() == PdfTemplate.TYPE_TEMPLATE
+                        && !(ref instanceof PRIndirectReference)) {
+                    residentTemplates.add(template);
+                    template.setMemoryHolder(this);
+                }
             } else {
                 name = (PdfName) obj[0];
             }
@@ -2183,6 +2270,55 @@ public class PdfWriter extends DocWriter implements
         if (template.getType() == PdfTemplate.TYPE_TEMPLATE) {
             addToBody(template.getFormXObject(compressionLevel), template.getIndirectReference());
             objs[1] = null;
+            residentTemplates.remove(template);
+            template.setMemoryHolder(null);
+        }
+    }
+
+    /**
+     * Use this method to limit the memory used by the templates that are waiting to be written. Templates are only
+     * written when the document is closed, so that they can still be changed. When a page is finished and their
+     * content takes more than <CODE>memoryBudget</CODE> bytes, the content of the largest templates is moved to a
+     * temporary file until the document is closed. The templates can still be changed, the content is read back when
+     * needed. Use {@link #releaseTemplate(PdfTemplate)} to write a finished template at once.
+     *
+     * @param memoryBudget the maximum number of bytes of template content kept in memory, 0 for no limit (the
+     *                     default)
+     */
+    public void setMemoryBudget(long memoryBudget) {
+        this.memoryBudget = Math.max(0, memoryBudget);
+    }
+
+    /**
+     * Gets the maximum number of bytes of template content kept in memory.
+     *
+     * @return the memory budget, 0 for no limit
+     * @see #setMemoryBudget(long)
+     */
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Moves the content of the largest templates not yet written to the spill file while the content in memory is
+     * over the memory budget.
+     *
+     * @throws IOException on error
+     */
+    void enforceMemoryBudget() throws IOException {
+        if (memoryBudget <= 0 || residentTemplateBytes <= memoryBudget) {
+            return;
+        }
+        List<PdfTemplate> templates = new ArrayList<>(residentTemplates);
+        templates.sort((t1, t2) -> Integer.compare(t2.memorySize(), t1.memorySize()));
+        if (spillFile == null) {
+            spillFile = new SpillFile();
+        }
+        for (PdfTemplate template : templates) {
+            if (residentTemplateBytes <= memoryBudget) {
+                break;
+            }
+            template.spill(spillFile);
         }
     }
 
@@ -3075,12 +3211,33 @@ public class PdfWriter extends DocWriter implements
 
         private static final int OBJSINSTREAM = 200;
 
+        private static final int XREF_INITIAL_CAPACITY = 1024;
+
+        /**
+         * Type of the cross-reference entry of each object number, -1 if the number is not in the table. The entries
+         * are kept in primitive arrays indexed by object number, so that documents with millions of objects don't need
+         * an object per entry.
+         */
+        private static final byte XREF_NONE = -1;
+
         // membervariables
 
         /**
-         * array containing the cross-reference table of the normal objects.
+         * the type of the cross-reference entries, indexed by object number.
+         */
+        private byte[] xrefTypes;
+        /**
+         * the offsets of the cross-reference entries, indexed by object number.
          */
-        private final TreeSet<PdfCrossReference> xrefs;
+        private long[] xrefOffsets;
+        /**
+         * the generations of the cross-reference entries, indexed by object number.
+         */
+        private char[] xrefGenerations;
+        /**
+         * the highest object number in the cross-reference table plus one.
+         */
+        private int xrefSize;
         private final PdfWriter writer;
         private int refnum;
         /**
@@ -3100,20 +3257,50 @@ public class PdfWriter extends DocWriter implements
          * @param writer
          */
         PdfBody(PdfWriter writer) {
-            xrefs = new TreeSet<>();
-            xrefs.add(new PdfCrossReference(0, 0, GENERATION_MAX));
+            xrefTypes = new byte[XREF_INITIAL_CAPACITY];
+            Arrays.fill(xrefTypes, XREF_NONE);
+            xrefOffsets = new long[XREF_INITIAL_CAPACITY];
+            xrefGenerations = new char[XREF_INITIAL_CAPACITY];
+            putXref(0, 0, 0, GENERATION_MAX);
             position = writer.getOs().getCounter();
             refnum = 1;
             this.writer = writer;
         }
 
+        /**
+         * Sets the cross-reference entry of an object number, replacing any previous entry.
+         */
+        private void putXref(int number, int type, long offset, int generation) {
+            if (number >= xrefTypes.length) {
+                int capacity = Math.max(number + 1, xrefTypes.length * 2);
+                int oldCapacity = xrefTypes.length;
+                xrefTypes = Arrays.copyOf(xrefTypes, capacity);
+                Arrays.fill(xrefTypes, oldCapacity, capacity, XREF_NONE);
+                xrefOffsets = Arrays.copyOf(xrefOffsets, capacity);
+                xrefGenerations = Arrays.copyOf(xrefGenerations, capacity);
+            }
+            xrefTypes[number] = (byte) type;
+            xrefOffsets[number] = offset;
+            xrefGenerations[number] = (char) generation;
+            if (number >= xrefSize) {
+                xrefSize = number + 1;
+            }
+        }
+
+        private boolean hasXref(int number) {
+            return number < xrefSize && xrefTypes[number] != XREF_NONE;
+        }
+
         // methods
 
         void setRefnum(int refnum) {
             this.refnum = refnum;
         }
 
-        private PdfWriter.PdfBody.PdfCrossReference addToObjStm(PdfObject obj, int nObj) throws IOException {
+        /**
+         * Adds an object to the current object stream and returns the index of the object in the stream.
+         */
+        private int addToObjStm(PdfObject obj, int nObj) throws IOException {
             if (numObj >= OBJSINSTREAM) {
                 flushObjStm();
             }
@@ -3131,7 +3318,7 @@ public class PdfWriter extends DocWriter implements
             writer.crypto = enc;
             streamObjects.append(' ');
             index.append(nObj).append(' ').append(p).append(' ');
-            return new PdfWriter.PdfBody.PdfCrossReference(2, nObj, currentObjNum, idx);
+            return idx;
         }
 
         private void flushObjStm() throws IOException {
@@ -3181,7 +3368,9 @@ public class PdfWriter extends DocWriter implements
 
         int getIndirectReferenceNumber() {
             int n = refnum++;
-            xrefs.add(new PdfCrossReference(n, 0, GENERATION_MAX));
+            if (!hasXref(n)) {
+                putXref(n, 0, 0, GENERATION_MAX);
+            }
             return n;
         }
 
@@ -3212,20 +3401,13 @@ public class PdfWriter extends DocWriter implements
 
         PdfIndirectObject add(PdfObject object, int refNumber, boolean inObjStm) throws IOException {
             if (inObjStm && object.canBeInObjStm() && writer.isFullCompression()) {
-                PdfCrossReference pxref = addToObjStm(object, refNumber);
+                int idx = addToObjStm(object, refNumber);
                 PdfIndirectObject indirect = new PdfIndirectObject(refNumber, object, writer);
-                if (!xrefs.add(pxref)) {
-                    xrefs.remove(pxref);
-                    xrefs.add(pxref);
-                }
+                putXref(refNumber, 2, currentObjNum, idx);
                 return indirect;
             } else {
                 PdfIndirectObject indirect = new PdfIndirectObject(refNumber, object, writer);
-                PdfCrossReference pxref = new PdfCrossReference(refNumber, position);
-                if (!xrefs.add(pxref)) {
-                    xrefs.remove(pxref);
-                    xrefs.add(pxref);
-                }
+                putXref(refNumber, 1, position, 0);
                 indirect.writeTo(writer.getOs());
                 position = writer.getOs().getCounter();
                 return indirect;
@@ -3247,7 +3429,7 @@ public class PdfWriter extends DocWriter implements
          * @return a number of objects
          */
         int size() {
-            return Math.max((xrefs.last()).getRefnum() + 1, refnum);
+            return Math.max(xrefSize, refnum);
         }
 
         /**
@@ -3270,20 +3452,23 @@ public class PdfWriter extends DocWriter implements
             if (useNewXrefFormat) {
                 flushObjStm();
                 refNumber = getIndirectReferenceNumber();
-                xrefs.add(new PdfCrossReference(refNumber, position));
+                putXref(refNumber, 1, position, 0);
             }
-            PdfCrossReference entry = xrefs.first();
-            int first = entry.getRefnum();
+            int first = 0;
             int len = 0;
             ArrayList<Integer> sections = new ArrayList<>();
-            for (PdfCrossReference xref1 : xrefs) {
-                entry = xref1;
-                if (first + len == entry.getRefnum()) {
+            for (int number = 0; number < xrefSize; ++number) {
+                if (xrefTypes[number] == XREF_NONE) {
+                    continue;
+                }
+                if (len > 0 && first + len == number) {
                     ++len;
                 } else {
-                    sections.add(first);
-                    sections.add(len);
-                    first = entry.getRefnum();
+                    if (len > 0) {
+                        sections.add(first);
+                        sections.add(len);
+                    }
+                    first = number;
                     len = 1;
                 }
             }
@@ -3294,9 +3479,11 @@ public class PdfWriter extends DocWriter implements
                 int mid = 8 - (Long.numberOfLeadingZeros(position) >> 3);
                 ByteBuffer buf = new ByteBuffer();
 
-                for (PdfCrossReference xref : xrefs) {
-                    entry = xref;
-                    entry.toPdf(mid, buf);
+                for (int number = 0; number < xrefSize; ++number) {
+                    if (xrefTypes[number] != XREF_NONE) {
+                        PdfCrossReference.writeEntry(mid, buf, xrefTypes[number], xrefOffsets[number],
+                                xrefGenerations[number]);
+                    }
                 }
                 PdfStream xr = new PdfStream(buf.toByteArray());
                 xr.flateCompress(writer.getCompressionLevel());
@@ -3315,7 +3502,7 @@ public class PdfWriter extends DocWriter implements
                 writer.crypto = enc;
             } else {
                 os.write(getISOBytes("xref\n"));
-                Iterator<PdfCrossReference> i = xrefs.iterator();
+                byte[] line = new byte[PdfCrossReference.ENTRY_LENGTH];
                 for (int k = 0; k < sections.size(); k += 2) {
                     first = sections.get(k);
                     len = sections.get(k + 1);
@@ -3323,9 +3510,9 @@ public class PdfWriter extends DocWriter implements
                     os.write(getISOBytes(" "));
                     os.write(getISOBytes(String.valueOf(len)));
                     os.write('\n');
-                    while (len-- > 0) {
-                        entry = i.next();
-                        entry.toPdf(os);
+                    for (int number = first; number < first + len; ++number) {
+                        PdfCrossReference.formatEntry(line, xrefOffsets[number], xrefGenerations[number]);
+                        os.write(line);
                     }
                 }
                 // make the trailer
@@ -3347,6 +3534,11 @@ public class PdfWriter extends DocWriter implements
              */
             private static final String CROSS_REFERENCE_ENTRY_FORMAT = "%010d %05d %c \n";
 
+            /**
+             * Length in bytes of an entry of a cross-reference table.
+             */
+            static final int ENTRY_LENGTH = 20;
+
             // membervariables
             private final int type;
 
@@ -3408,9 +3600,41 @@ public class PdfWriter extends DocWriter implements
              * @throws IOException If any I/O error occurs
              */
             public void toPdf(OutputStream os) throws IOException {
+                byte[] line = new byte[ENTRY_LENGTH];
+                formatEntry(line, offset, generation);
+                os.write(line);
+            }
+
+            /**
+             * Formats a cross-reference entry like {@link #CROSS_REFERENCE_ENTRY_FORMAT} without going through a
+             * {@link Formatter}.
+             *
+             * @param line       the buffer to fill, {@link #ENTRY_LENGTH} bytes long
+             * @param offset     byte offset of the object
+             * @param generation generation number of the object
+             * @throws IOException if the offset or the generation doesn't fit in the fixed size entry
+             */
+            static void formatEntry(byte[] line, long offset, int generation) throws IOException {
                 // TODO: are generation number and 'In use' keyword bound that way?
                 final char inUse = generation == GENERATION_MAX ? 'f' : 'n';
-                os.write(getISOBytes(String.format(CROSS_REFERENCE_ENTRY_FORMAT, offset, generation, inUse)));
+                if (offset > 9_999_999_999L || offset < 0 || generation > 99_999 || generation < 0) {
+                    throw new IOException(MessageLocalization.getComposedMessage(
+                            "cross.reference.entry.with.offset.1.and.generation.2.does.not.fit.use.full.compression",
+                            offset, generation));
+                }
+                for (int k = 9; k >= 0; --k) {
+                    line[k] = (byte) ('0' + offset % 10);
+                    offset /= 10;
+                }
+                line[10] = ' ';
+                for (int k = 15; k >= 11; --k) {
+                    line[k] = (byte) ('0' + generation % 10);
+                    generation /= 10;
+                }
+                line[16] = ' ';
+                line[17] = (byte) inUse;
+                line[18] = ' ';
+                line[19] = '\n';
             }
 
             /**
@@ -3421,6 +3645,21 @@ public class PdfWriter extends DocWriter implements
              * @throws IOException on error
              */
             public void toPdf(int midSize, OutputStream os) throws IOException {
+                writeEntry(midSize, os, type, offset, generation);
+            }
+
+            /**
+             * Writes a cross-reference stream entry.
+             *
+             * @param midSize    the number of bytes of the offset field
+             * @param os         the OutputStream
+             * @param type       the entry type
+             * @param offset     byte offset of the object or number of the object stream
+             * @param generation generation number of the object or index in the object stream
+             * @throws IOException on error
+             */
+            static void writeEntry(int midSize, OutputStream os, int type, long offset, int generation)
+                    throws IOException {
                 os.write((byte) type);
                 int thisMidSize = midSize;
                 while (--thisMidSize >= 0) {
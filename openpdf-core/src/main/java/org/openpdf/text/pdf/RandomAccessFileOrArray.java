@@ -159,6 +159,10 @@ public class RandomAccessFileOrArray implements DataInput, Closeable {
         arrayIn = file.arrayIn;
         startOffset = file.startOffset;
         plainRandomAccess = file.plainRandomAccess;
+        if (file.rf != null) {
+            // share the existing mapping instead of mapping and loading the whole file again
+            rf = new MappedRandomAccessFile(file.rf);
+        }
     }
 
     public static byte[] InputStreamToArray(InputStream is) throws IOException {
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2026 OpenPDF
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * The Original Code is 'iText, a free JAVA-PDF library'.
+ *
+ * The Initial Developer of the Original Code is Bruno Lowagie. Portions created by
+ * the Initial Developer are Copyright (C) 1999, 2000, 2001, 2002 by Bruno Lowagie.
+ * All Rights Reserved.
+ * Co-Developer of the code is Paulo Soares. Portions created by the Co-Developer
+ * are Copyright (C) 2000, 2001, 2002 by Paulo Soares. All Rights Reserved.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the "GNU LIBRARY GENERAL PUBLIC LICENSE"), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/OpenPDF
+ */
+
+package org.openpdf.text.pdf;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A parsed PDF source that many threads can read from at the same time.
+ * <p>
+ * The file is memory-mapped and its header, cross-reference table, object stream index and encryption settings are
+ * read exactly once. Each call to {@link #newReader()} then returns a lightweight partial-mode {@link PdfReader} that
+ * shares the mapped bytes and the parsed cross-reference data but has its own tokeniser and its own object cache.
+ * Creating a reader does not re-parse the document and needs no locking, so a stamping or extraction service can
+ * hand one reader to every task:
+ * <pre>
+ * try (SharedPdfReader source = new SharedPdfReader("template.pdf")) {
+ *     // from any number of threads
+ *     PdfReader reader = source.newReader();
+ *     try {
+ *         PdfStamper stamper = new PdfStamper(reader, out);
+ *         ...
+ *         stamper.close();
+ *     } finally {
+ *         reader.close();
+ *     }
+ * }
+ * </pre>
+ * The readers themselves are not thread-safe; a <CODE>PdfReader</CODE> returned by this class must be used by one
+ * thread at a time, like any other reader. Objects are loaded on demand by each reader, which also means a
+ * <CODE>PdfStamper</CODE> can modify its reader without affecting the others.
+ */
+public class SharedPdfReader implements Closeable {
+
+    private final PdfReader template;
+    private volatile boolean lazyAcroFields;
+    private volatile AcroFields.FieldIndex fieldIndex;
+
+    /**
+     * Maps and parses a PDF file.
+     *
+     * @param filename the file name of the document
+     * @throws IOException on error
+     */
+    public SharedPdfReader(String filename) throws IOException {
+        this(filename, null);
+    }
+
+    /**
+     * Maps and parses a PDF file.
+     *
+     * @param filename      the file name of the document
+     * @param ownerPassword the password to read the document, or <CODE>null</CODE> for no password
+     * @throws IOException on error
+     */
+    public SharedPdfReader(String filename, byte[] ownerPassword) throws IOException {
+        this(new RandomAccessFileOrArray(filename, false, false), ownerPassword);
+    }
+
+    /**
+     * Parses a PDF document held in memory. The array is shared by all readers and must not be modified.
+     *
+     * @param pdfIn         the document as a byte array
+     * @param ownerPassword the password to read the document, or <CODE>null</CODE> for no password
+     * @throws IOException on error
+     */
+    public SharedPdfReader(byte[] pdfIn, byte[] ownerPassword) throws IOException {
+        this(new RandomAccessFileOrArray(pdfIn), ownerPassword);
+    }
+
+    private SharedPdfReader(RandomAccessFileOrArray raf, byte[] ownerPassword) throws IOException {
+        template = new PdfReader(raf, ownerPassword);
+    }
+
+    /**
+     * Returns a new reader over the shared document. This method can be called concurrently from any thread. The
+     * reader should be closed when it is no longer needed; closing it releases its own file handle only.
+     *
+     * @return a new partial-mode reader
+     */
+    public PdfReader newReader() {
+        PdfReader reader = new PdfReader(template);
+        // a partial reader marks released and removed objects in its xref table, so it needs a private copy
+        reader.xref = template.xref.clone();
+        if (lazyAcroFields) {
+            reader.setAcroFieldsIndex(getFieldIndex());
+        }
+        return reader;
+    }
+
+    /**
+     * Makes the readers returned by {@link #newReader()} create lazy <CODE>AcroFields</CODE> that all start from one
+     * field index of the document, made the first time it is needed.
+     *
+     * @param lazyAcroFields <CODE>true</CODE> to create lazy <CODE>AcroFields</CODE>
+     * @see PdfReader#setLazyAcroFields(boolean)
+     */
+    public void setLazyAcroFields(boolean lazyAcroFields) {
+        this.lazyAcroFields = lazyAcroFields;
+    }
+
+    /**
+     * Gets the field index of the document, making it the first time.
+     *
+     * @return the field index
+     */
+    public AcroFields.FieldIndex getFieldIndex() {
+        AcroFields.FieldIndex index = fieldIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = fieldIndex;
+                if (index == null) {
+                    PdfReader reader = new PdfReader(template);
+                    reader.xref = template.xref.clone();
+                    try {
+                        index = new AcroFields.FieldIndex(reader);
+                    } finally {
+                        reader.close();
+                    }
+                    fieldIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Gets the number of pages in the document.
+     *
+     * @return the number of pages in the document
+     */
+    public int getNumberOfPages() {
+        return template.getNumberOfPages();
+    }
+
+    /**
+     * Checks if the document was opened with the owner password.
+     *
+     * @return <CODE>true</CODE> if the document was opened with the owner password or if it's not encrypted,
+     * <CODE>false</CODE> if the document was opened with the user password
+     */
+    public boolean isOpenedWithFullPermissions() {
+        return template.isOpenedWithFullPermissions();
+    }
+
+    /**
+     * Releases the shared file. Readers created before remain usable until they are closed themselves.
+     */
+    @Override
+    public void close() {
+        template.close();
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026 OpenPDF
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * The Original Code is 'iText, a free JAVA-PDF library'.
+ *
+ * The Initial Developer of the Original Code is Bruno Lowagie. Portions created by
+ * the Initial Developer are Copyright (C) 1999, 2000, 2001, 2002 by Bruno Lowagie.
+ * All Rights Reserved.
+ * Co-Developer of the code is Paulo Soares. Portions created by the Co-Developer
+ * are Copyright (C) 2000, 2001, 2002 by Paulo Soares. All Rights Reserved.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the "GNU LIBRARY GENERAL PUBLIC LICENSE"), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/OpenPDF
+ */
+
+package org.openpdf.text.pdf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+
+/**
+ * The output of a signed document when its digest is computed while it is written.
+ * <p>
+ * Everything in front of the signature dictionary is digested and passed on to the final output as it is written.
+ * From {@link #holdTail()} on, the bytes are kept in memory instead: they hold the placeholders for /ByteRange and
+ * /Contents, which are only filled once the length of the document is known. The tail is the signature dictionary,
+ * the cross-reference section and the trailer, so it stays small however large the document is.
+ */
+final class SignatureDigestOutputStream extends OutputStream {
+
+    private final OutputStream out;
+    private final MessageDigest digest;
+    private long written;
+    private long tailStart = -1;
+    private ByteBuffer tail;
+
+    SignatureDigestOutputStream(OutputStream out, MessageDigest digest) {
+        this.out = out;
+        this.digest = digest;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ++written;
+        if (tail != null) {
+            tail.append((byte) b);
+        } else {
+            digest.update((byte) b);
+            out.write(b);
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        written += len;
+        if (tail != null) {
+            tail.append(b, off, len);
+        } else {
+            digest.update(b, off, len);
+            out.write(b, off, len);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (tail == null) {
+            out.flush();
+        }
+    }
+
+    /**
+     * The writer closes its output when the document is complete, but the tail is only written by
+     * {@link #writeTail()}.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    /**
+     * Stops digesting and keeps the next bytes in memory.
+     */
+    void holdTail() {
+        tailStart = written;
+        tail = new ByteBuffer();
+    }
+
+    /**
+     * @return the position of the first byte of the tail in the document
+     */
+    long getTailStart() {
+        return tailStart;
+    }
+
+    /**
+     * @return the bytes written since {@link #holdTail()}, which can be patched in place
+     */
+    ByteBuffer getTail() {
+        return tail;
+    }
+
+    /**
+     * @return the number of bytes of the document
+     */
+    long getLength() {
+        return written;
+    }
+
+    /**
+     * Digests the tail, skipping what is not covered by the signature.
+     *
+     * @param range the /ByteRange of the signature. All the excluded ranges must be in the tail
+     * @return the digest of the document
+     */
+    byte[] digestTail(long[] range) {
+        byte[] buf = tail.getBuffer();
+        for (int k = 0; k < range.length; k += 2) {
+            long start = Math.max(range[k], tailStart);
+            long end = range[k] + range[k + 1];
+            if (end > start) {
+                digest.update(buf, (int) (start - tailStart), (int) (end - start));
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Writes the tail to the final output.
+     *
+     * @throws IOException on error
+     */
+    void writeTail() throws IOException {
+        out.write(tail.getBuffer(), 0, tail.size());
+        out.flush();
+    }
+}
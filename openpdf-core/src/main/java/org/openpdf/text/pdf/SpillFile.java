@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026 OpenPDF
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * The Original Code is 'iText, a free JAVA-PDF library'.
+ *
+ * The Initial Developer of the Original Code is Bruno Lowagie. Portions created by
+ * the Initial Developer are Copyright (C) 1999, 2000, 2001, 2002 by Bruno Lowagie.
+ * All Rights Reserved.
+ * Co-Developer of the code is Paulo Soares. Portions created by the Co-Developer
+ * are Copyright (C) 2000, 2001, 2002 by Paulo Soares. All Rights Reserved.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the "GNU LIBRARY GENERAL PUBLIC LICENSE"), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/OpenPDF
+ */
+
+package org.openpdf.text.pdf;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A temporary file that holds data moved out of the heap until it is needed again. The space of the data that is
+ * freed is reused by the data written afterward. The file is deleted when it is closed.
+ */
+final class SpillFile implements Closeable {
+
+    private final Path path;
+    private final RandomAccessFile file;
+    private long length;
+    /**
+     * The freed parts of the file before its end: offset to length. Adjacent parts are merged.
+     */
+    private final TreeMap<Long, Long> free = new TreeMap<>();
+
+    SpillFile() throws IOException {
+        path = Files.createTempFile("openpdf-spill-", ".tmp");
+        path.toFile().deleteOnExit();
+        file = new RandomAccessFile(path.toFile(), "rw");
+    }
+
+    /**
+     * Writes the content of a buffer to the first freed part of the file large enough, or at the end of the file.
+     *
+     * @param buf the data to write
+     * @return the offset of the data in the file
+     * @throws IOException on error
+     */
+    long write(ByteBuffer buf) throws IOException {
+        int count = buf.size();
+        long offset = allocate(count);
+        file.seek(offset);
+        file.write(buf.getBuffer(), 0, count);
+        return offset;
+    }
+
+    private long allocate(int count) {
+        for (Map.Entry<Long, Long> part : free.entrySet()) {
+            long offset = part.getKey();
+            long available = part.getValue();
+            if (available >= count) {
+                free.remove(offset);
+                if (available > count) {
+                    free.put(offset + count, available - count);
+                }
+                return offset;
+            }
+        }
+        long offset = length;
+        length += count;
+        return offset;
+    }
+
+    /**
+     * Reads data written by {@link #write(ByteBuffer)} and appends it to a buffer.
+     *
+     * @param offset the offset returned by {@link #write(ByteBuffer)}
+     * @param count  the number of bytes to read
+     * @param buf    the buffer to append the data to
+     * @throws IOException on error
+     */
+    void read(long offset, int count, ByteBuffer buf) throws IOException {
+        byte[] data = new byte[count];
+        file.seek(offset);
+        file.readFully(data);
+        buf.append(data);
+    }
+
+    /**
+     * Frees data written by {@link #write(ByteBuffer)} that is no longer needed, so that its space can be reused.
+     *
+     * @param offset the offset returned by {@link #write(ByteBuffer)}
+     * @param count  the number of bytes to free
+     */
+    void free(long offset, long count) {
+        if (count == 0) {
+            return;
+        }
+        Map.Entry<Long, Long> before = free.lowerEntry(offset);
+        if (before != null && before.getKey() + before.getValue() == offset) {
+            free.remove(before.getKey());
+            offset = before.getKey();
+            count += before.getValue();
+        }
+        Long after = free.remove(offset + count);
+        if (after != null) {
+            count += after;
+        }
+        if (offset + count == length) {
+            length = offset;
+        } else {
+            free.put(offset, count);
+        }
+    }
+
+    /**
+     * Gets the number of bytes used in the file, up to the end of the last data not freed.
+     *
+     * @return the file length
+     */
+    long length() {
+        return length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            file.close();
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2026 OpenPDF
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * The Original Code is 'iText, a free JAVA-PDF library'.
+ *
+ * The Initial Developer of the Original Code is Bruno Lowagie. Portions created by
+ * the Initial Developer are Copyright (C) 1999, 2000, 2001, 2002 by Bruno Lowagie.
+ * All Rights Reserved.
+ * Co-Developer of the code is Paulo Soares. Portions created by the Co-Developer
+ * are Copyright (C) 2000, 2001, 2002 by Paulo Soares. All Rights Reserved.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the "GNU LIBRARY GENERAL PUBLIC LICENSE"), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/OpenPDF
+ */
+package org.openpdf.text.pdf;
+
+import java.util.Arrays;
+
+/**
+ * A character to glyph map read from the table 'cmap' of a TrueType font, with the width of each glyph.
+ * <p>
+ * The codes are stored in a two-level page table: pages of 256 consecutive codes are only allocated when one of their
+ * codes is mapped, and each page holds the glyph index and the width of its codes side by side. A lookup is two array
+ * accesses, without boxing, and a font with tens of thousands of mapped characters retains a few hundred kilobytes.
+ */
+final class TrueTypeCmap {
+
+    /**
+     * The highest code that can be mapped, the last Unicode code point.
+     */
+    public static final int MAX_CODE = 0x10FFFF;
+
+    private static final int PAGE_SHIFT = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int NO_GLYPH = -1;
+
+    /**
+     * The pages by code &gt;&gt; 8; in each page, position 2 * (code &amp; 0xff) is the glyph index, or -1 if the code
+     * is not mapped, and the position after it is the width.
+     */
+    private int[][] pages = new int[1][];
+    private int size;
+
+    /**
+     * Maps a code to a glyph. A previous mapping of the code is replaced.
+     *
+     * @param code  the character code, between 0 and {@link #MAX_CODE}
+     * @param glyph the glyph index
+     * @param width the glyph width normalized to 1000 units
+     */
+    public void put(int code, int glyph, int width) {
+        if (code < 0 || code > MAX_CODE) {
+            throw new IllegalArgumentException("Invalid character code: " + code);
+        }
+        if (glyph < 0) {
+            throw new IllegalArgumentException("Invalid glyph index: " + glyph);
+        }
+        int p = code >>> PAGE_SHIFT;
+        if (p >= pages.length) {
+            pages = Arrays.copyOf(pages, Math.max(p + 1, Math.min(pages.length * 2, (MAX_CODE >>> PAGE_SHIFT) + 1)));
+        }
+        int[] page = pages[p];
+        if (page == null) {
+            page = new int[2 * PAGE_SIZE];
+            Arrays.fill(page, NO_GLYPH);
+            pages[p] = page;
+        }
+        int i = 2 * (code & PAGE_MASK);
+        if (page[i] == NO_GLYPH) {
+            ++size;
+        }
+        page[i] = glyph;
+        page[i + 1] = width;
+    }
+
+    private int[] page(int code) {
+        int p = code >>> PAGE_SHIFT;
+        return p < pages.length ? pages[p] : null;
+    }
+
+    /**
+     * Gets the glyph index of a code.
+     *
+     * @param code the character code
+     * @return the glyph index or -1 if the code is not mapped
+     */
+    public int getGlyph(int code) {
+        int[] page = page(code);
+        return page == null ? NO_GLYPH : page[2 * (code & PAGE_MASK)];
+    }
+
+    /**
+     * Gets the glyph width of a code.
+     *
+     * @param code the character code
+     * @return the width normalized to 1000 units or 0 if the code is not mapped
+     */
+    public int getWidth(int code) {
+        int[] page = page(code);
+        if (page == null) {
+            return 0;
+        }
+        int i = 2 * (code & PAGE_MASK);
+        return page[i] == NO_GLYPH ? 0 : page[i + 1];
+    }
+
+    /**
+     * Gets the metrics of a code.
+     *
+     * @param code the character code
+     * @return a new <CODE>int[2]</CODE> with the glyph index and the width, or <CODE>null</CODE> if the code is not
+     * mapped
+     */
+    public int[] get(int code) {
+        int[] page = page(code);
+        if (page == null) {
+            return null;
+        }
+        int i = 2 * (code & PAGE_MASK);
+        return page[i] == NO_GLYPH ? null : new int[]{page[i], page[i + 1]};
+    }
+
+    /**
+     * Checks if a code is mapped.
+     *
+     * @param code the character code
+     * @return <CODE>true</CODE> if the code has a glyph
+     */
+    public boolean containsKey(int code) {
+        return getGlyph(code) != NO_GLYPH;
+    }
+
+    /**
+     * Changes the width of a mapped code.
+     *
+     * @param code  the character code
+     * @param width the width normalized to 1000 units
+     * @return <CODE>true</CODE> if the width was set, <CODE>false</CODE> if the code is not mapped
+     */
+    public boolean setWidth(int code, int width) {
+        int[] page = page(code);
+        if (page == null) {
+            return false;
+        }
+        int i = 2 * (code & PAGE_MASK);
+        if (page[i] == NO_GLYPH) {
+            return false;
+        }
+        page[i + 1] = width;
+        return true;
+    }
+
+    /**
+     * @return the number of mapped codes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Calls the visitor for each mapped code, in ascending code order.
+     *
+     * @param visitor the visitor
+     */
+    public void forEach(EntryVisitor visitor) {
+        for (int p = 0; p < pages.length; ++p) {
+            int[] page = pages[p];
+            if (page == null) {
+                continue;
+            }
+            for (int i = 0; i < PAGE_SIZE; ++i) {
+                int glyph = page[2 * i];
+                if (glyph != NO_GLYPH) {
+                    visitor.visit((p << PAGE_SHIFT) | i, glyph, page[2 * i + 1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return an estimate of the heap held by this map, in bytes
+     */
+    long estimateRetainedSize() {
+        long bytes = 16L + 16L + 4L * pages.length;
+        for (int[] page : pages) {
+            if (page != null) {
+                bytes += 16L + 4L * page.length;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Receives the entries of a {@link TrueTypeCmap}.
+     */
+    @FunctionalInterface
+    public interface EntryVisitor {
+
+        /**
+         * @param code  the character code
+         * @param glyph the glyph index
+         * @param width the glyph width normalized to 1000 units
+         */
+        void visit(int code, int glyph, int width);
+    }
+}
@@ -55,8 +55,12 @@ import org.openpdf.text.ExceptionConverter;
 import org.openpdf.text.error_messages.MessageLocalization;
 import java.io.File;
 import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 
@@ -152,6 +156,10 @@ class TrueTypeFont extends BaseFont {
      * The file name.
      */
     protected String fileName;
+    /**
+     * The digest of the font program, see {@link #getFontDataDigest()}.
+     */
+    private volatile String fontDataDigest;
 
     protected boolean cff = false;
 
@@ -191,20 +199,19 @@ class TrueTypeFont extends BaseFont {
 
     protected int[][] bboxes;
     /**
-     * The map containing the code information for the table 'cmap', encoding 1.0. The key is the code and the value is
-     * an <CODE>int[2]</CODE> where position 0 is the glyph number and position 1 is the glyph width normalized to 1000
-     * units.
+     * The map containing the code information for the table 'cmap', encoding 1.0. It maps each code to the glyph number
+     * and the glyph width normalized to 1000 units.
      */
-    protected HashMap<Integer, int[]> cmap10;
+    protected TrueTypeCmap cmap10;
     /**
-     * The map containing the code information for the table 'cmap', encoding 3.1 in Unicode.
-     * <p>
-     * The key is the code and the value is an <CODE>int</CODE>[2] where position 0 is the glyph number and position 1
-     * is the glyph width normalized to 1000 units.
+     * The map containing the code information for the table 'cmap', encoding 3.1 in Unicode. It maps each code to the
+     * glyph number and the glyph width normalized to 1000 units.
      */
-    protected HashMap<Integer, int[]> cmap31;
-
-    protected HashMap<Integer, int[]> cmapExt;
+    protected TrueTypeCmap cmap31;
+    /**
+     * The map containing the code information for the table 'cmap', encoding 3.10, the full Unicode range.
+     */
+    protected TrueTypeCmap cmapExt;
 
     protected HashMap<String, int[]> cmap05;
 
@@ -944,8 +951,8 @@ class TrueTypeFont extends BaseFont {
         return null;
     }
 
-    HashMap<Integer, int[]> readFormat12() throws IOException {
-        HashMap<Integer, int[]> h = new HashMap<>();
+    TrueTypeCmap readFormat12() throws IOException {
+        TrueTypeCmap h = new TrueTypeCmap();
         rf.skipBytes(2);
         rf.readInt();
         rf.skipBytes(4);
@@ -954,11 +961,10 @@ class TrueTypeFont extends BaseFont {
             int startCharCode = rf.readInt();
             int endCharCode = rf.readInt();
             int startGlyphID = rf.readInt();
-            for (int i = startCharCode; i <= endCharCode; i++) {
-                int[] r = new int[2];
-                r[0] = startGlyphID;
-                r[1] = getGlyphWidth(r[0]);
-                h.put(i, r);
+            for (int i = startCharCode; i <= endCharCode && i <= TrueTypeCmap.MAX_CODE; i++) {
+                if (i >= 0) {
+                    h.put(i, startGlyphID, getGlyphWidth(startGlyphID));
+                }
                 startGlyphID++;
             }
         }
@@ -969,17 +975,15 @@ class TrueTypeFont extends BaseFont {
      * The information in the maps of the table 'cmap' is coded in several formats. Format 0 is the Apple standard
      * character to glyph index mapping table.
      *
-     * @return a <CODE>HashMap</CODE> representing this map
+     * @return a <CODE>TrueTypeCmap</CODE> representing this map
      * @throws IOException the font file could not be read
      */
-    HashMap<Integer, int[]> readFormat0() throws IOException {
-        HashMap<Integer, int[]> h = new HashMap<>();
+    TrueTypeCmap readFormat0() throws IOException {
+        TrueTypeCmap h = new TrueTypeCmap();
         rf.skipBytes(4);
         for (int k = 0; k < 256; ++k) {
-            int[] r = new int[2];
-            r[0] = rf.readUnsignedByte();
-            r[1] = getGlyphWidth(r[0]);
-            h.put(k, r);
+            int glyph = rf.readUnsignedByte();
+            h.put(k, glyph, getGlyphWidth(glyph));
         }
         return h;
     }
@@ -988,11 +992,11 @@ class TrueTypeFont extends BaseFont {
      * The information in the maps of the table 'cmap' is coded in several formats. Format 4 is the Microsoft standard
      * character to glyph index mapping table.
      *
-     * @return a <CODE>HashMap</CODE> representing this map
+     * @return a <CODE>TrueTypeCmap</CODE> representing this map
      * @throws IOException the font file could not be read
      */
-    HashMap<Integer, int[]> readFormat4() throws IOException {
-        HashMap<Integer, int[]> h = new HashMap<>();
+    TrueTypeCmap readFormat4() throws IOException {
+        TrueTypeCmap h = new TrueTypeCmap();
         int table_lenght = rf.readUnsignedShort();
         rf.skipBytes(2);
         int segCount = rf.readUnsignedShort() / 2;
@@ -1030,10 +1034,7 @@ class TrueTypeFont extends BaseFont {
                     }
                     glyph = (glyphId[idx] + idDelta[k]) & 0xFFFF;
                 }
-                int[] r = new int[2];
-                r[0] = glyph;
-                r[1] = getGlyphWidth(r[0]);
-                h.put(fontSpecific ? ((j & 0xff00) == 0xf000 ? j & 0xff : j) : j, r);
+                h.put(fontSpecific ? ((j & 0xff00) == 0xf000 ? j & 0xff : j) : j, glyph, getGlyphWidth(glyph));
             }
         }
         return h;
@@ -1043,19 +1044,17 @@ class TrueTypeFont extends BaseFont {
      * The information in the maps of the table 'cmap' is coded in several formats. Format 6 is a trimmed table mapping.
      * It is similar to format 0 but can have less than 256 entries.
      *
-     * @return a <CODE>HashMap</CODE> representing this map
+     * @return a <CODE>TrueTypeCmap</CODE> representing this map
      * @throws IOException the font file could not be read
      */
-    HashMap<Integer, int[]> readFormat6() throws IOException {
-        HashMap<Integer, int[]> h = new HashMap<>();
+    TrueTypeCmap readFormat6() throws IOException {
+        TrueTypeCmap h = new TrueTypeCmap();
         rf.skipBytes(4);
         int start_code = rf.readUnsignedShort();
         int code_count = rf.readUnsignedShort();
         for (int k = 0; k < code_count; ++k) {
-            int[] r = new int[2];
-            r[0] = rf.readUnsignedShort();
-            r[1] = getGlyphWidth(r[0]);
-            h.put(k + start_code, r);
+            int glyph = rf.readUnsignedShort();
+            h.put(k + start_code, glyph, getGlyphWidth(glyph));
         }
         return h;
     }
@@ -1100,16 +1099,14 @@ class TrueTypeFont extends BaseFont {
      * @return the kerning to be applied
      */
     public int getKerning(int char1, int char2) {
-        int[] metrics = getMetricsTT(char1);
-        if (metrics == null) {
+        int c1 = getGlyphTT(char1);
+        if (c1 < 0) {
             return 0;
         }
-        int c1 = metrics[0];
-        metrics = getMetricsTT(char2);
-        if (metrics == null) {
+        int c2 = getGlyphTT(char2);
+        if (c2 < 0) {
             return 0;
         }
-        int c2 = metrics[0];
         return kerning.get((c1 << 16) + c2);
     }
 
@@ -1122,11 +1119,7 @@ class TrueTypeFont extends BaseFont {
      * @return the width of the char
      */
     int getRawWidth(int c, String name) {
-        int[] metric = getMetricsTT(c);
-        if (metric == null) {
-            return 0;
-        }
-        return metric[1];
+        return getWidthTT(c);
     }
 
     /**
@@ -1270,11 +1263,53 @@ class TrueTypeFont extends BaseFont {
         }
     }
 
-    protected void addRangeUni(Map<Integer, int[]> longTag, boolean includeMetrics, boolean subsetp) {
+    /**
+     * Gets the SHA-256 digest of the font program, computed once. It is part of the key of the font in a
+     * {@link FontSubsetCache}, so fonts with the same name but different data, such as fonts made from byte arrays or a
+     * file that changed on disk, never share a cached subset.
+     *
+     * @return the digest, in hexadecimal
+     * @throws IOException on error
+     */
+    String getFontDataDigest() throws IOException {
+        String digest = fontDataDigest;
+        if (digest == null) {
+            try {
+                digest = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(getFullFont()));
+            } catch (NoSuchAlgorithmException e) {
+                throw new ExceptionConverter(e);
+            }
+            fontDataDigest = digest;
+        }
+        return digest;
+    }
+
+    @Override
+    protected long estimateRetainedSize() {
+        long size = 4096;
+        if (rf != null && rf.arrayIn != null) {
+            size += rf.arrayIn.length;
+        }
+        if (GlyphWidths != null) {
+            size += 4L * GlyphWidths.length;
+        }
+        if (bboxes != null) {
+            size += 32L * bboxes.length;
+        }
+        for (TrueTypeCmap cmap : Arrays.asList(cmap10, cmap31, cmapExt)) {
+            if (cmap != null) {
+                size += cmap.estimateRetainedSize();
+            }
+        }
+        size += 32L * kerning.size();
+        return size;
+    }
+
+    protected void addRangeUni(IntObjectHashtable<int[]> longTag, boolean includeMetrics, boolean subsetp) {
         if (!subsetp && (subsetRanges != null || directoryOffset > 0)) {
             int[] rg =
                     (subsetRanges == null && directoryOffset > 0) ? new int[]{0, 0xffff} : compactRanges(subsetRanges);
-            Map<Integer, int[]> usemap;
+            TrueTypeCmap usemap;
             if (!fontSpecific && cmap31 != null) {
                 usemap = cmap31;
             } else if (fontSpecific && cmap10 != null) {
@@ -1284,24 +1319,17 @@ class TrueTypeFont extends BaseFont {
             } else {
                 usemap = cmap10;
             }
-            for (Map.Entry<Integer, int[]> e : usemap.entrySet()) {
-                int[] v = e.getValue();
-                Integer gi = v[0];
+            usemap.forEach((c, gi, width) -> {
                 if (longTag.containsKey(gi)) {
-                    continue;
+                    return;
                 }
-                int c = e.getKey();
-                boolean skip = true;
                 for (int k = 0; k < rg.length; k += 2) {
                     if (c >= rg[k] && rg.length > k + 1 && c <= rg[k + 1]) {
-                        skip = false;
-                        break;
+                        longTag.put(gi, includeMetrics ? new int[]{gi, width, c} : null);
+                        return;
                     }
                 }
-                if (!skip) {
-                    longTag.put(gi, includeMetrics ? new int[]{v[0], v[1], c} : null);
-                }
-            }
+            });
         }
     }
 
@@ -1340,39 +1368,56 @@ class TrueTypeFont extends BaseFont {
                 if (subsetp) {
                     subsetPrefix = createSubsetPrefix();
                 }
-                HashMap<Integer, int[]> glyphs = new HashMap<>();
+                IntObjectHashtable<int[]> glyphs = new IntObjectHashtable<>();
                 for (int k = firstChar; k <= lastChar; ++k) {
                     if (shortTag[k] != 0) {
-                        int[] metrics = null;
+                        int glyph = -1;
                         if (specialMap != null) {
                             int[] cd = GlyphList.nameToUnicode(differences[k]);
                             if (cd != null) {
-                                metrics = getMetricsTT(cd[0]);
+                                glyph = getGlyphTT(cd[0]);
                             }
                         } else {
                             if (fontSpecific) {
-                                metrics = getMetricsTT(k);
+                                glyph = getGlyphTT(k);
                             } else {
-                                metrics = getMetricsTT(unicodeDifferences[k]);
+                                glyph = getGlyphTT(unicodeDifferences[k]);
                             }
                         }
-                        if (metrics != null) {
-                            glyphs.put(metrics[0], null);
+                        if (glyph >= 0) {
+                            glyphs.put(glyph, null);
                         }
                     }
                 }
                 addRangeUni(glyphs, false, subsetp);
-                byte[] b = null;
-                if (subsetp || directoryOffset != 0 || subsetRanges != null) {
-                    TrueTypeFontSubSet sb = new TrueTypeFontSubSet(fileName, new RandomAccessFileOrArray(rf), glyphs,
-                            directoryOffset, true, !subsetp);
-                    b = sb.process();
-                } else {
-                    b = getFullFont();
+                FontSubsetCache cache = writer.getFontSubsetCache();
+                FontSubsetCache.Key key = null;
+                FontSubsetCache.Entry cached = null;
+                if (cache != null) {
+                    key = new FontSubsetCache.Key("TrueType|" + fileName + '|' + getFontDataDigest() + '|' + ttcIndex
+                            + '|' + directoryOffset
+                            + '|' + subsetp + '|' + (subsetRanges != null) + '|' + compressionLevel + '|'
+                            + Document.compress, glyphs.toOrderedKeys());
+                    cached = cache.get(key);
                 }
-                int[] lengths = new int[]{b.length};
-                pobj = new StreamFont(b, lengths, compressionLevel);
-                obj = writer.addToBody(pobj);
+                if (cached == null) {
+                    byte[] b = null;
+                    if (subsetp || directoryOffset != 0 || subsetRanges != null) {
+                        TrueTypeFontSubSet sb = new TrueTypeFontSubSet(fileName, new RandomAccessFileOrArray(rf),
+                                glyphs.getKeys(), directoryOffset, true, !subsetp);
+                        b = sb.process();
+                    } else {
+                        b = getFullFont();
+                    }
+                    int[] lengths = new int[]{b.length};
+                    cached = new FontSubsetCache.Entry(subsetPrefix,
+                            FontSubsetCache.StreamData.of(new StreamFont(b, lengths, compressionLevel)), null, null);
+                    if (cache != null) {
+                        cache.put(key, cached);
+                    }
+                }
+                subsetPrefix = cached.subsetPrefix();
+                obj = writer.addToBody(cached.fontProgram().toStream());
                 ind_font = obj.getIndirectReference();
             }
         }
@@ -1483,25 +1528,72 @@ class TrueTypeFont extends BaseFont {
      * Gets the glyph index and metrics for a character.
      *
      * @param c the character
-     * @return an <CODE>int</CODE> array with {glyph index, width}
+     * @return a new <CODE>int</CODE> array with {glyph index, width} or <CODE>null</CODE> if the character has no
+     * glyph
      */
     public int[] getMetricsTT(int c) {
+        TrueTypeCmap cmap = getCmapTT();
+        if (cmap == null) {
+            return null;
+        }
+        int code = toCmapCodeTT(c);
+        return code < 0 ? null : cmap.get(code);
+    }
+
+    /**
+     * Gets the glyph index of a character, like {@link #getMetricsTT(int)} but without allocating.
+     *
+     * @param c the character
+     * @return the glyph index or -1 if the character has no glyph
+     */
+    int getGlyphTT(int c) {
+        TrueTypeCmap cmap = getCmapTT();
+        if (cmap == null) {
+            return -1;
+        }
+        int code = toCmapCodeTT(c);
+        return code < 0 ? -1 : cmap.getGlyph(code);
+    }
+
+    /**
+     * Gets the width of a character, like {@link #getMetricsTT(int)} but without allocating.
+     *
+     * @param c the character
+     * @return the width normalized to 1000 units or 0 if the character has no glyph
+     */
+    int getWidthTT(int c) {
+        TrueTypeCmap cmap = getCmapTT();
+        if (cmap == null) {
+            return 0;
+        }
+        int code = toCmapCodeTT(c);
+        return code < 0 ? 0 : cmap.getWidth(code);
+    }
+
+    /**
+     * @return the 'cmap' subtable characters are looked up in, or <CODE>null</CODE> if the font has none
+     */
+    TrueTypeCmap getCmapTT() {
         if (cmapExt != null) {
-            return cmapExt.get(c);
+            return cmapExt;
         }
         if (!fontSpecific && cmap31 != null) {
-            return cmap31.get(c);
+            return cmap31;
         }
         if (fontSpecific && cmap10 != null) {
-            return cmap10.get(c);
-        }
-        if (cmap31 != null) {
-            return cmap31.get(c);
+            return cmap10;
         }
-        if (cmap10 != null) {
-            return cmap10.get(c);
-        }
-        return null;
+        return cmap31 != null ? cmap31 : cmap10;
+    }
+
+    /**
+     * Converts a character to the code it has in {@link #getCmapTT()}.
+     *
+     * @param c the character
+     * @return the code or -1 if the character can't be in the subtable
+     */
+    int toCmapCodeTT(int c) {
+        return c;
     }
 
     /**
@@ -1604,22 +1696,20 @@ class TrueTypeFont extends BaseFont {
      * @return <code>true</code> if the kerning was applied, <code>false</code> otherwise
      */
     public boolean setKerning(int char1, int char2, int kern) {
-        int[] metrics = getMetricsTT(char1);
-        if (metrics == null) {
+        int c1 = getGlyphTT(char1);
+        if (c1 < 0) {
             return false;
         }
-        int c1 = metrics[0];
-        metrics = getMetricsTT(char2);
-        if (metrics == null) {
+        int c2 = getGlyphTT(char2);
+        if (c2 < 0) {
             return false;
         }
-        int c2 = metrics[0];
         kerning.put((c1 << 16) + c2, kern);
         return true;
     }
 
     protected int[] getRawCharBBox(int c, String name) {
-        Map<Integer, int[]> map;
+        TrueTypeCmap map;
         if (name == null || cmap31 == null) {
             map = cmap10;
         } else {
@@ -1628,11 +1718,11 @@ class TrueTypeFont extends BaseFont {
         if (map == null) {
             return null;
         }
-        int[] metric = map.get(c);
-        if (metric == null || bboxes == null) {
+        int glyph = map.getGlyph(c);
+        if (glyph < 0 || bboxes == null) {
             return null;
         }
-        return bboxes[metric[0]];
+        return bboxes[glyph];
     }
 
     /**
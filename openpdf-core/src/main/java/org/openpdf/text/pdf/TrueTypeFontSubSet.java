@@ -53,8 +53,8 @@ import org.openpdf.text.DocumentException;
 import org.openpdf.text.ExceptionConverter;
 import org.openpdf.text.error_messages.MessageLocalization;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 
 
@@ -102,8 +102,9 @@ class TrueTypeFontSubSet {
     protected boolean includeExtras;
     protected boolean locaShortTable;
     protected int[] locaTable;
-    protected HashMap<Integer, int[]> glyphsUsed;
-    protected ArrayList<Integer> glyphsInList;
+    protected BitSet glyphsUsed;
+    protected int[] glyphsInList;
+    protected int glyphsInListSize;
     protected int tableGlyphOffset;
     protected int[] newLocaTable;
     protected byte[] newLocaTableOut;
@@ -119,18 +120,37 @@ class TrueTypeFontSubSet {
      *
      * @param directoryOffset The offset from the start of the file to the table directory
      * @param fileName        the file name of the font
-     * @param glyphsUsed      the glyphs used
+     * @param glyphsUsed      the glyphs used, in any order
      * @param includeCmap     <CODE>true</CODE> if the table cmap is to be included in the generated font
      */
-    TrueTypeFontSubSet(String fileName, RandomAccessFileOrArray rf, HashMap<Integer, int[]> glyphsUsed,
+    TrueTypeFontSubSet(String fileName, RandomAccessFileOrArray rf, int[] glyphsUsed,
             int directoryOffset, boolean includeCmap, boolean includeExtras) {
         this.fileName = fileName;
         this.rf = rf;
-        this.glyphsUsed = glyphsUsed;
         this.includeCmap = includeCmap;
         this.includeExtras = includeExtras;
         this.directoryOffset = directoryOffset;
-        glyphsInList = new ArrayList<>(glyphsUsed.keySet());
+        this.glyphsUsed = new BitSet();
+        glyphsInList = new int[Math.max(16, glyphsUsed.length + 1)];
+        for (int glyph : glyphsUsed) {
+            addGlyph(glyph);
+        }
+    }
+
+    /**
+     * Marks a glyph as used and queues it for the composite glyph check.
+     *
+     * @param glyph the glyph index
+     */
+    private void addGlyph(int glyph) {
+        if (glyphsUsed.get(glyph)) {
+            return;
+        }
+        glyphsUsed.set(glyph);
+        if (glyphsInListSize == glyphsInList.length) {
+            glyphsInList = Arrays.copyOf(glyphsInList, glyphsInListSize * 2);
+        }
+        glyphsInList[glyphsInListSize++] = glyph;
     }
 
     /**
@@ -289,25 +309,17 @@ class TrueTypeFontSubSet {
 
     protected void createNewGlyphTables() throws IOException {
         newLocaTable = new int[locaTable.length];
-        int[] activeGlyphs = new int[glyphsInList.size()];
-        for (int k = 0; k < activeGlyphs.length; ++k) {
-            activeGlyphs[k] = glyphsInList.get(k);
-        }
-        Arrays.sort(activeGlyphs);
         int glyfSize = 0;
-        for (int glyph : activeGlyphs) {
+        for (int glyph = glyphsUsed.nextSetBit(0); glyph >= 0; glyph = glyphsUsed.nextSetBit(glyph + 1)) {
             glyfSize += locaTable[glyph + 1] - locaTable[glyph];
         }
         glyfTableRealSize = glyfSize;
         glyfSize = (glyfSize + 3) & (~3);
         newGlyfTable = new byte[glyfSize];
         int glyfPtr = 0;
-        int listGlyf = 0;
         for (int k = 0; k < newLocaTable.length; ++k) {
             newLocaTable[k] = glyfPtr;
-            if (listGlyf < activeGlyphs.length && activeGlyphs[listGlyf] == k) {
-                ++listGlyf;
-                newLocaTable[k] = glyfPtr;
+            if (glyphsUsed.get(k)) {
                 int start = locaTable[k];
                 int len = 0;
                 if (locaTable.length > k + 1) {
@@ -348,16 +360,11 @@ class TrueTypeFontSubSet {
             throw new DocumentException(
                     MessageLocalization.getComposedMessage("table.1.does.not.exist.in.2", "glyf", fileName));
         }
-        Integer glyph0 = 0;
-        if (!glyphsUsed.containsKey(glyph0)) {
-            glyphsUsed.put(glyph0, null);
-            glyphsInList.add(glyph0);
-        }
+        addGlyph(0);
         tableGlyphOffset = tableLocation[TABLE_OFFSET];
-        for (int k = 0; k < glyphsInList.size(); ++k) {
-            // TODO: concurrent List modification error in checkGlyphComposite(glyph)
-            int glyph = glyphsInList.get(k);
-            checkGlyphComposite(glyph);
+        // checkGlyphComposite appends the components of composite glyphs to the list
+        for (int k = 0; k < glyphsInListSize; ++k) {
+            checkGlyphComposite(glyphsInList[k]);
         }
     }
 
@@ -375,11 +382,7 @@ class TrueTypeFontSubSet {
         rf.skipBytes(8);
         for (; ; ) {
             int flags = rf.readUnsignedShort();
-            Integer cGlyph = rf.readUnsignedShort();
-            if (!glyphsUsed.containsKey(cGlyph)) {
-                glyphsUsed.put(cGlyph, null);
-                glyphsInList.add(cGlyph);
-            }
+            addGlyph(rf.readUnsignedShort());
             if ((flags & MORE_COMPONENTS) == 0) {
                 return;
             }
@@ -49,13 +49,13 @@
 
 package org.openpdf.text.pdf;
 
+import org.openpdf.text.Document;
 import org.openpdf.text.DocumentException;
 import org.openpdf.text.Utilities;
 import org.openpdf.text.error_messages.MessageLocalization;
 import java.awt.font.GlyphVector;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -158,7 +158,7 @@ class TrueTypeFontUnicode extends TrueTypeFont implements Comparator<int[]> {
     void readCMaps() throws DocumentException, IOException {
         super.readCMaps();
 
-        Map<Integer, int[]> cmap = null;
+        TrueTypeCmap cmap = null;
         if (cmapExt != null) {
             cmap = cmapExt;
         } else if (cmap31 != null) {
@@ -166,12 +166,9 @@ class TrueTypeFontUnicode extends TrueTypeFont implements Comparator<int[]> {
         }
 
         if (cmap != null) {
-            inverseCmap = new HashMap<>();
-            for (Map.Entry<Integer, int[]> entry : cmap.entrySet()) {
-                Integer code = entry.getKey();
-                int[] metrics = entry.getValue();
-                inverseCmap.put(metrics[0], code);
-            }
+            Map<Integer, Integer> inverse = new HashMap<>();
+            cmap.forEach((code, glyph, width) -> inverse.put(glyph, code));
+            inverseCmap = inverse;
         }
     }
 
@@ -337,10 +334,10 @@ class TrueTypeFontUnicode extends TrueTypeFont implements Comparator<int[]> {
      *
      * @param fontDescriptor the indirect reference to the font descriptor
      * @param subsetPrefix   the subset prefix
-     * @param metrics        the horizontal width metrics
+     * @param widths         the widths array as returned by {@link #getWidths(int[][])}, may be <CODE>null</CODE>
      * @return a stream
      */
-    private PdfDictionary getCIDFontType2(PdfIndirectReference fontDescriptor, String subsetPrefix, int[][] metrics) {
+    private PdfDictionary getCIDFontType2(PdfIndirectReference fontDescriptor, String subsetPrefix, String widths) {
         PdfDictionary dic = new PdfDictionary(PdfName.FONT);
         // sivan; cff
         if (cff) {
@@ -361,33 +358,48 @@ class TrueTypeFontUnicode extends TrueTypeFont implements Comparator<int[]> {
         dic.put(PdfName.CIDSYSTEMINFO, cdic);
         if (!vertical) {
             dic.put(PdfName.DW, new PdfNumber(1000));
-            StringBuilder buf = new StringBuilder("[");
-            int lastNumber = -10;
-            boolean firstTime = true;
-            for (int[] metric : metrics) {
-                if (metric[1] == 1000) {
-                    continue;
-                }
-                int m = metric[0];
-                if (m == lastNumber + 1) {
-                    buf.append(' ').append(metric[1]);
-                } else {
-                    if (!firstTime) {
-                        buf.append(']');
-                    }
-                    firstTime = false;
-                    buf.append(m).append('[').append(metric[1]);
-                }
-                lastNumber = m;
-            }
-            if (buf.length() > 1) {
-                buf.append("]]");
-                dic.put(PdfName.W, new PdfLiteral(buf.toString()));
+            if (widths != null) {
+                dic.put(PdfName.W, new PdfLiteral(widths));
             }
         }
         return dic;
     }
 
+    /**
+     * Generates the widths array of the CIDFont.
+     *
+     * @param metrics the horizontal width metrics
+     * @return the widths array or <CODE>null</CODE> if all glyphs have the default width or the font is vertical
+     */
+    private String getWidths(int[][] metrics) {
+        if (vertical) {
+            return null;
+        }
+        StringBuilder buf = new StringBuilder("[");
+        int lastNumber = -10;
+        boolean firstTime = true;
+        for (int[] metric : metrics) {
+            if (metric[1] == 1000) {
+                continue;
+            }
+            int m = metric[0];
+            if (m == lastNumber + 1) {
+                buf.append(' ').append(metric[1]);
+            } else {
+                if (!firstTime) {
+                    buf.append(']');
+                }
+                firstTime = false;
+                buf.append(m).append('[').append(metric[1]);
+            }
+            lastNumber = m;
+        }
+        if (buf.length() == 1) {
+            return null;
+        }
+        return buf.append("]]").toString();
+    }
+
     /**
      * Generates the font dictionary.
      *
@@ -440,11 +452,14 @@ class TrueTypeFontUnicode extends TrueTypeFont implements Comparator<int[]> {
     @Override
     @SuppressWarnings("unchecked")
     void writeFont(PdfWriter writer, PdfIndirectReference ref, Object[] params) throws DocumentException, IOException {
-        HashMap<Integer, int[]> longTag = (HashMap<Integer, int[]>) params[0];
-        Map<Integer, int[]> fillerCmap = (Map<Integer, int[]>) params[2];
+        IntObjectHashtable<int[]> longTag = (IntObjectHashtable<int[]>) params[0];
+        IntObjectHashtable<int[]> fillerCmap = (IntObjectHashtable<int[]>) params[2];
         addRangeUni(longTag, true, subset);
-        int[][] metrics = longTag.values().toArray(new int[0][]);
-        Arrays.sort(metrics, this);
+        int[] glyphs = longTag.toOrderedKeys();
+        int[][] metrics = new int[glyphs.length][];
+        for (int k = 0; k < glyphs.length; ++k) {
+            metrics[k] = longTag.get(glyphs[k]);
+        }
         PdfIndirectReference indFont;
         PdfObject pobj;
         PdfIndirectObject obj;
@@ -466,47 +481,39 @@ class TrueTypeFontUnicode extends TrueTypeFont implements Comparator<int[]> {
             }
             cidset = writer.addToBody(stream).getIndirectReference();
         }
-        // sivan: cff
-        if (cff) {
-            byte[] b = readCffFont();
-            if (subset || subsetRanges != null) {
-                CFFFontSubset cff = new CFFFontSubset(new RandomAccessFileOrArray(b), longTag);
-                b = cff.Process(cff.getNames()[0]);
+        int[][] cmapMetrics = mergeMetricsAndFillerCmap(metrics, fillerCmap);
+        FontSubsetCache cache = writer.getFontSubsetCache();
+        FontSubsetCache.Key key = null;
+        FontSubsetCache.Entry cached = null;
+        if (cache != null) {
+            key = getSubsetCacheKey(metrics, cmapMetrics);
+            cached = cache.get(key);
+        }
+        if (cached == null) {
+            String subsetPrefix = "";
+            if (subset) {
+                subsetPrefix = createSubsetPrefix();
             }
-            pobj = new StreamFont(b, "CIDFontType0C", compressionLevel);
-            obj = writer.addToBody(pobj);
-            indFont = obj.getIndirectReference();
-        } else {
-            byte[] b;
-            if (subset || directoryOffset != 0) {
-                TrueTypeFontSubSet sb = new TrueTypeFontSubSet(fileName, new RandomAccessFileOrArray(rf), longTag,
-                        directoryOffset, false, false);
-                b = sb.process();
-            } else {
-                b = getFullFont();
+            cached = new FontSubsetCache.Entry(subsetPrefix, FontSubsetCache.StreamData.of(getFontProgram(glyphs)),
+                    getWidths(metrics), FontSubsetCache.StreamData.of(getToUnicode(cmapMetrics)));
+            if (cache != null) {
+                cache.put(key, cached);
             }
-            int[] lengths = new int[]{b.length};
-            pobj = new StreamFont(b, lengths, compressionLevel);
-            obj = writer.addToBody(pobj);
-            indFont = obj.getIndirectReference();
-        }
-        String subsetPrefix = "";
-        if (subset) {
-            subsetPrefix = createSubsetPrefix();
         }
+        obj = writer.addToBody(cached.fontProgram().toStream());
+        indFont = obj.getIndirectReference();
+        String subsetPrefix = cached.subsetPrefix();
         PdfDictionary dic = getFontDescriptor(indFont, subsetPrefix, cidset);
         obj = writer.addToBody(dic);
         indFont = obj.getIndirectReference();
 
-        pobj = getCIDFontType2(indFont, subsetPrefix, metrics);
+        pobj = getCIDFontType2(indFont, subsetPrefix, cached.widths());
         obj = writer.addToBody(pobj);
         indFont = obj.getIndirectReference();
 
-        pobj = getToUnicode(mergeMetricsAndFillerCmap(metrics, fillerCmap));
         PdfIndirectReference toUnicodeRef = null;
-
-        if (pobj != null) {
-            obj = writer.addToBody(pobj);
+        if (cached.toUnicode() != null) {
+            obj = writer.addToBody(cached.toUnicode().toStream());
             toUnicodeRef = obj.getIndirectReference();
         }
 
@@ -514,18 +521,103 @@ class TrueTypeFontUnicode extends TrueTypeFont implements Comparator<int[]> {
         writer.addToBody(pobj, ref);
     }
 
-    public int[][] mergeMetricsAndFillerCmap(int[][] metric, Map<Integer, int[]> fillerCmap) {
-        Map<Integer, int[]> result = new HashMap<>();
-        for (int[] ints : metric) {
-            result.put(ints[0], ints);
+    /**
+     * Subsets the font, if needed, and returns the font program to embed.
+     *
+     * @param glyphs the used glyphs
+     * @return the font program
+     */
+    private PdfStream getFontProgram(int[] glyphs) throws DocumentException, IOException {
+        // sivan: cff
+        if (cff) {
+            byte[] b = readCffFont();
+            if (subset || subsetRanges != null) {
+                CFFFontSubset cff = new CFFFontSubset(new RandomAccessFileOrArray(b), glyphs);
+                b = cff.Process(cff.getNames()[0]);
+            }
+            return new StreamFont(b, "CIDFontType0C", compressionLevel);
         }
+        byte[] b;
+        if (subset || directoryOffset != 0) {
+            TrueTypeFontSubSet sb = new TrueTypeFontSubSet(fileName, new RandomAccessFileOrArray(rf), glyphs,
+                    directoryOffset, false, false);
+            b = sb.process();
+        } else {
+            b = getFullFont();
+        }
+        int[] lengths = new int[]{b.length};
+        return new StreamFont(b, lengths, compressionLevel);
+    }
+
+    /**
+     * Builds the key of a written font in a {@link FontSubsetCache}. Besides the font file and the options that
+     * change the output, the key holds every glyph with its width and the complete Unicode mapping, so a cached
+     * subset is only reused when it would be written exactly the same way.
+     *
+     * @param metrics     the used glyphs sorted by glyph index
+     * @param cmapMetrics the Unicode mapping of the used glyphs sorted by glyph index
+     * @return the key
+     */
+    private FontSubsetCache.Key getSubsetCacheKey(int[][] metrics, int[][] cmapMetrics) throws IOException {
+        String font = "Type0|" + fileName + '|' + getFontDataDigest() + '|' + ttcIndex + '|' + directoryOffset + '|' + cff + '|' + subset + '|'
+                + (subsetRanges != null) + '|' + vertical + '|' + compressionLevel + '|' + Document.compress;
+        int size = 0;
+        for (int[] metric : metrics) {
+            size += metric.length + 1;
+        }
+        for (int[] metric : cmapMetrics) {
+            size += metric.length + 1;
+        }
+        int[] glyphs = new int[size + 1];
+        int p = 0;
+        for (int[] metric : metrics) {
+            glyphs[p++] = metric.length;
+            for (int v : metric) {
+                glyphs[p++] = v;
+            }
+        }
+        // separates the metrics from the Unicode mapping
+        glyphs[p++] = -1;
+        for (int[] metric : cmapMetrics) {
+            glyphs[p++] = metric.length;
+            for (int v : metric) {
+                glyphs[p++] = v;
+            }
+        }
+        return new FontSubsetCache.Key(font, glyphs);
+    }
 
+    public int[][] mergeMetricsAndFillerCmap(int[][] metric, Map<Integer, int[]> fillerCmap) {
+        IntObjectHashtable<int[]> filler = new IntObjectHashtable<>(fillerCmap.size());
         for (Map.Entry<Integer, int[]> entry : fillerCmap.entrySet()) {
-            int[] row = entry.getValue();
-            result.put(entry.getKey(), new int[]{row[0], 0, row[1]});
+            filler.put(entry.getKey(), entry.getValue());
         }
+        return mergeMetricsAndFillerCmap(metric, filler);
+    }
 
-        return result.values().toArray(new int[0][]);
+    /**
+     * Merges the metrics of the used glyphs with the cmap entries of glyphs that were found without a character,
+     * for instance after glyph substitution. The filler entries replace the metrics of the same glyph.
+     *
+     * @param metric     the metrics, metric[0] is the glyph index
+     * @param fillerCmap the filler entries, {glyph index, Unicode code} keyed by glyph index
+     * @return the merged entries sorted by glyph index
+     */
+    public int[][] mergeMetricsAndFillerCmap(int[][] metric, IntObjectHashtable<int[]> fillerCmap) {
+        IntObjectHashtable<int[]> result = new IntObjectHashtable<>(metric.length + fillerCmap.size());
+        for (int[] ints : metric) {
+            result.put(ints[0], ints);
+        }
+        for (int key : fillerCmap.getKeys()) {
+            int[] row = fillerCmap.get(key);
+            result.put(key, new int[]{row[0], 0, row[1]});
+        }
+        int[] keys = result.toOrderedKeys();
+        int[][] merged = new int[keys.length][];
+        for (int k = 0; k < keys.length; ++k) {
+            merged[k] = result.get(keys[k]);
+        }
+        return merged;
     }
 
     /**
@@ -558,35 +650,20 @@ class TrueTypeFontUnicode extends TrueTypeFont implements Comparator<int[]> {
         return null;
     }
 
-    /**
-     * Gets the glyph index and metrics for a character.
-     *
-     * @param c the character
-     * @return an <CODE>int</CODE> array with {glyph index, width}
-     */
     @Override
-    public int[] getMetricsTT(int c) {
+    TrueTypeCmap getCmapTT() {
         if (cmapExt != null) {
-            return cmapExt.get(c);
-        }
-        Map<Integer, int[]> map;
-        if (fontSpecific) {
-            map = cmap10;
-        } else {
-            map = cmap31;
+            return cmapExt;
         }
-        if (map == null) {
-            return null;
-        }
-        if (fontSpecific) {
-            if ((c & 0xffffff00) == 0 || (c & 0xffffff00) == 0xf000) {
-                return map.get(c & 0xff);
-            } else {
-                return null;
-            }
-        } else {
-            return map.get(c);
+        return fontSpecific ? cmap10 : cmap31;
+    }
+
+    @Override
+    int toCmapCodeTT(int c) {
+        if (cmapExt == null && fontSpecific) {
+            return (c & 0xffffff00) == 0 || (c & 0xffffff00) == 0xf000 ? c & 0xff : -1;
         }
+        return c;
     }
 
     /**
@@ -598,7 +675,7 @@ class TrueTypeFontUnicode extends TrueTypeFont implements Comparator<int[]> {
      */
     @Override
     public boolean charExists(int c) {
-        return getMetricsTT(c) != null;
+        return getGlyphTT(c) >= 0;
     }
 
     /**
@@ -611,12 +688,9 @@ class TrueTypeFontUnicode extends TrueTypeFont implements Comparator<int[]> {
      */
     @Override
     public boolean setCharAdvance(int c, int advance) {
-        int[] m = getMetricsTT(c);
-        if (m == null) {
-            return false;
-        }
-        m[1] = advance;
-        return true;
+        TrueTypeCmap cmap = getCmapTT();
+        int code = toCmapCodeTT(c);
+        return cmap != null && code >= 0 && cmap.setWidth(code, advance);
     }
 
     @Override
@@ -624,11 +698,11 @@ class TrueTypeFontUnicode extends TrueTypeFont implements Comparator<int[]> {
         if (bboxes == null) {
             return null;
         }
-        int[] m = getMetricsTT(c);
-        if (m == null) {
+        int glyph = getGlyphTT(c);
+        if (glyph < 0) {
             return null;
         }
-        return bboxes[m[0]];
+        return bboxes[glyph];
     }
 
     /**
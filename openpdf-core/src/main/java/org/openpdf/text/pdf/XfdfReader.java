@@ -54,11 +54,13 @@ import org.openpdf.text.xml.simpleparser.SimpleXMLParser;
 import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Stack;
+import java.util.function.Consumer;
 
 /**
  * Reads a XFDF.
@@ -106,6 +108,25 @@ public class XfdfReader implements SimpleXMLDocHandler, FieldReader {
         SimpleXMLParser.parse(this, new ByteArrayInputStream(xfdfIn));
     }
 
+    private XfdfReader() {
+        foundRoot = true;
+    }
+
+    /**
+     * Reads a stream holding many data sets, one record for each <CODE>fields</CODE> element, and hands every record to
+     * <CODE>handler</CODE> as soon as it is complete. Only the record being parsed is kept in memory, so the stream
+     * can be much larger than the heap. The root element may be <CODE>xfdf</CODE> or any element wrapping several
+     * <CODE>xfdf</CODE> elements; anything else throws like {@link #XfdfReader(byte[])} does. Each record has the file
+     * specification of its <CODE>xfdf</CODE> element.
+     *
+     * @param in      the XFDF stream. It is not closed
+     * @param handler receives the records, in the order of the stream
+     * @throws IOException on error
+     */
+    public static void readRecords(InputStream in, Consumer<? super XfdfReader> handler) throws IOException {
+        SimpleXMLParser.parse(new RecordHandler(handler), in);
+    }
+
     @Override
     public Map<String, String> getAllFields() {
         return fields;
@@ -252,4 +273,73 @@ public class XfdfReader implements SimpleXMLDocHandler, FieldReader {
         val += str;
         fieldValues.push(val);
     }
+
+    /**
+     * Splits a stream into one <CODE>XfdfReader</CODE> per <CODE>fields</CODE> element.
+     */
+    private static class RecordHandler implements SimpleXMLDocHandler {
+
+        private final Consumer<? super XfdfReader> handler;
+        private XfdfReader record;
+        private int depth;
+        private String root;
+        private String fileSpec = "";
+
+        RecordHandler(Consumer<? super XfdfReader> handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startElement(String tag, Map<String, String> h) {
+            if (depth == 0) {
+                root = tag;
+            }
+            // the root is either xfdf or wraps xfdf elements
+            if (depth == (root.equals("xfdf") ? 0 : 1) && !tag.equals("xfdf")) {
+                throw new RuntimeException(MessageLocalization.getComposedMessage("root.element.is.not.xfdf.1", root));
+            }
+            ++depth;
+            if (record != null) {
+                record.startElement(tag, h);
+            } else if (tag.equals("xfdf")) {
+                fileSpec = "";
+            } else if (tag.equals("f")) {
+                fileSpec = h.get("href");
+            } else if (tag.equals("fields")) {
+                record = new XfdfReader();
+                record.startElement(tag, h);
+            }
+        }
+
+        @Override
+        public void endElement(String tag) {
+            --depth;
+            if (record == null) {
+                return;
+            }
+            if (tag.equals("fields")) {
+                XfdfReader complete = record;
+                record = null;
+                complete.fileSpec = fileSpec;
+                handler.accept(complete);
+            } else {
+                record.endElement(tag);
+            }
+        }
+
+        @Override
+        public void startDocument() {
+        }
+
+        @Override
+        public void endDocument() {
+        }
+
+        @Override
+        public void text(String str) {
+            if (record != null) {
+                record.text(str);
+            }
+        }
+    }
 }
@@ -25,9 +25,7 @@ package org.openpdf.text.pdf.fonts.cmaps;
 import org.openpdf.text.error_messages.MessageLocalization;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * This class represents a CMap file.
@@ -38,8 +36,17 @@ import java.util.Map;
 public class CMap {
 
     private List<CodespaceRange> codeSpaceRanges = new ArrayList<>();
-    private Map<Integer, String> singleByteMappings = new HashMap<>();
-    private Map<Integer, String> doubleByteMappings = new HashMap<>();
+    /**
+     * The one byte mappings, indexed by code.
+     */
+    private final String[] singleByteMappings = new String[256];
+    /**
+     * The two byte mappings, indexed by the high byte and then by the low byte of the code. A row is only allocated
+     * when one of its codes is mapped.
+     */
+    private final String[][] doubleByteMappings = new String[256][];
+    private int singleByteCount;
+    private int doubleByteCount;
 
     /**
      * Creates a new instance of CMap.
@@ -54,7 +61,7 @@ public class CMap {
      * @return true If there are any one byte mappings, false otherwise.
      */
     public boolean hasOneByteMappings() {
-        return !singleByteMappings.isEmpty();
+        return singleByteCount > 0;
     }
 
     /**
@@ -63,7 +70,7 @@ public class CMap {
      * @return true If there are any two byte mappings, false otherwise.
      */
     public boolean hasTwoByteMappings() {
-        return !doubleByteMappings.isEmpty();
+        return doubleByteCount > 0;
     }
 
     /**
@@ -77,10 +84,10 @@ public class CMap {
     public String lookup(char code) {
         String result = null;
         if (hasTwoByteMappings()) {
-            result = doubleByteMappings.get((int) code);
+            result = lookupTwoByte(code >> 8, code & 0xff);
         }
-        if (result == null && code <= 0xff && hasOneByteMappings()) {
-            result = singleByteMappings.get(code & 0xff);
+        if (result == null && code <= 0xff) {
+            result = singleByteMappings[code];
         }
         return result;
     }
@@ -94,23 +101,17 @@ public class CMap {
      * @return The string that matches the lookup.
      */
     public String lookup(byte[] code, int offset, int length) {
-
-        String result = null;
-        Integer key = null;
         if (length == 1) {
-
-            key = code[offset] & 0xff;
-            result = singleByteMappings.get(key);
+            return singleByteMappings[code[offset] & 0xff];
         } else if (length == 2) {
-            int intKey = code[offset] & 0xff;
-            intKey <<= 8;
-            intKey += code[offset + 1] & 0xff;
-            key = intKey;
-
-            result = doubleByteMappings.get(key);
+            return lookupTwoByte(code[offset] & 0xff, code[offset + 1] & 0xff);
         }
+        return null;
+    }
 
-        return result;
+    private String lookupTwoByte(int high, int low) {
+        String[] row = doubleByteMappings[high];
+        return row == null ? null : row[low];
     }
 
     /**
@@ -122,12 +123,22 @@ public class CMap {
      */
     public void addMapping(byte[] src, String dest) throws IOException {
         if (src.length == 1) {
-            singleByteMappings.put(src[0] & 0xff, dest);
+            int code = src[0] & 0xff;
+            if (singleByteMappings[code] == null) {
+                ++singleByteCount;
+            }
+            singleByteMappings[code] = dest;
         } else if (src.length == 2) {
-            int intSrc = src[0] & 0xFF;
-            intSrc <<= 8;
-            intSrc |= (src[1] & 0xFF);
-            doubleByteMappings.put(intSrc, dest);
+            String[] row = doubleByteMappings[src[0] & 0xff];
+            if (row == null) {
+                row = new String[256];
+                doubleByteMappings[src[0] & 0xff] = row;
+            }
+            int low = src[1] & 0xff;
+            if (row[low] == null) {
+                ++doubleByteCount;
+            }
+            row[low] = dest;
         } else {
             throw new IOException(
                     MessageLocalization.getComposedMessage("mapping.code.should.be.1.or.two.bytes.and.not.1",
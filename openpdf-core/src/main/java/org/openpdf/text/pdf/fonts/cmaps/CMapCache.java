@@ -0,0 +1,204 @@
+/*
+ * Copyright 2026 OpenPDF
+ *
+ * The contents of this file are subject to the Mozilla Public License Version 1.1
+ * (the "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the License.
+ *
+ * The Original Code is 'iText, a free JAVA-PDF library'.
+ *
+ * The Initial Developer of the Original Code is Bruno Lowagie. Portions created by
+ * the Initial Developer are Copyright (C) 1999, 2000, 2001, 2002 by Bruno Lowagie.
+ * All Rights Reserved.
+ * Co-Developer of the code is Paulo Soares. Portions created by the Co-Developer
+ * are Copyright (C) 2000, 2001, 2002 by Paulo Soares. All Rights Reserved.
+ *
+ * Contributor(s): all the names of the contributors are added in the source code
+ * where applicable.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the
+ * LGPL license (the "GNU LIBRARY GENERAL PUBLIC LICENSE"), in which case the
+ * provisions of LGPL are applicable instead of those above.  If you wish to
+ * allow use of your version of this file only under the terms of the LGPL
+ * License and not to allow others to use your version of this file under
+ * the MPL, indicate your decision by deleting the provisions above and
+ * replace them with the notice and other provisions required by the LGPL.
+ * If you do not delete the provisions above, a recipient may use your version
+ * of this file under either the MPL or the GNU LIBRARY GENERAL PUBLIC LICENSE.
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the MPL as stated above or under the terms of the GNU
+ * Library General Public License as published by the Free Software Foundation;
+ * either version 2 of the License, or any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Library general Public License for more
+ * details.
+ *
+ * If you didn't download this code from the following link, you should check if
+ * you aren't using an obsolete version:
+ * https://github.com/LibrePDF/OpenPDF
+ */
+package org.openpdf.text.pdf.fonts.cmaps;
+
+import org.openpdf.text.error_messages.MessageLocalization;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of parsed CMaps, keyed by a hash of their content.
+ * <p>
+ * Documents made by the same producer usually embed byte-identical ToUnicode CMaps, and text extraction parses the
+ * ToUnicode CMap of every font of every document it reads. With this cache the CMap is parsed once and the parsed
+ * <CODE>CMap</CODE> is shared by all the fonts whose CMap has the same bytes, in any document. The cached instances
+ * are shared between threads and must not be modified.
+ * <p>
+ * The cache keeps at most {@link #getMaxEntries()} CMaps and discards the least recently used ones first. It is
+ * thread-safe.
+ */
+public class CMapCache {
+
+    /**
+     * The default maximum number of cached CMaps.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private static final CMapCache SHARED = new CMapCache(DEFAULT_MAX_ENTRIES);
+
+    private final int maxEntries;
+
+    private final LinkedHashMap<Key, CMap> entries;
+
+    private long hits;
+
+    private long misses;
+
+    /**
+     * Creates a cache holding at most <CODE>maxEntries</CODE> CMaps.
+     *
+     * @param maxEntries the maximum number of cached CMaps
+     */
+    public CMapCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException(
+                    MessageLocalization.getComposedMessage("the.cache.size.must.be.positive.found.1", maxEntries));
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CMap> eldest) {
+                return size() > CMapCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Gets the cache shared by the whole process, used for the ToUnicode CMaps of the fonts read from documents.
+     *
+     * @return the shared cache
+     */
+    public static CMapCache getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Parses a CMap, or returns the CMap parsed before from the same bytes.
+     *
+     * @param cmap the decoded bytes of the CMap
+     * @return the parsed CMap, which must not be modified
+     * @throws IOException on a parsing error
+     */
+    public CMap parse(byte[] cmap) throws IOException {
+        Key key = new Key(digest(cmap), cmap.length);
+        synchronized (this) {
+            CMap cached = entries.get(key);
+            if (cached != null) {
+                ++hits;
+                return cached;
+            }
+            ++misses;
+        }
+        // parse outside the lock; two threads may parse the same CMap, the last one is kept
+        CMap parsed = new CMapParser().parse(new ByteArrayInputStream(cmap));
+        synchronized (this) {
+            entries.put(key, parsed);
+        }
+        return parsed;
+    }
+
+    private static byte[] digest(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Gets the maximum number of cached CMaps.
+     *
+     * @return the maximum number of entries
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Gets the number of cached CMaps.
+     *
+     * @return the number of entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the number of CMaps that were found in the cache.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of CMaps that had to be parsed.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Removes all the cached CMaps and resets the counters.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    private record Key(byte[] hash, int length) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && length == other.length && Arrays.equals(hash, other.hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(hash);
+        }
+    }
+}
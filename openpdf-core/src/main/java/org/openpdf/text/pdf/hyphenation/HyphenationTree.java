@@ -18,7 +18,14 @@
 
 package org.openpdf.text.pdf.hyphenation;
 
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -35,6 +42,20 @@ public class HyphenationTree extends TernaryTree
 
     private static final long serialVersionUID = -7763254239309429432L;
 
+    /**
+     * Magic number at the start of the binary form written by {@link #writeBinary(OutputStream)}: "OPHY".
+     */
+    private static final int BINARY_MAGIC = 0x4F504859;
+
+    /**
+     * Version of the binary form. Increment when the layout changes.
+     */
+    private static final int BINARY_VERSION = 1;
+
+    private static final byte EXCEPTION_STRING = 0;
+
+    private static final byte EXCEPTION_HYPHEN = 1;
+
     /**
      * value space: stores the interletter values
      */
@@ -121,6 +142,134 @@ public class HyphenationTree extends TernaryTree
     }
 
 
+    /**
+     * Writes this tree in a compact binary form that can be loaded much faster than the XML patterns with {@link
+     * #readBinary(ByteBuffer)}. The tree must be completely loaded, i.e. {@link #loadSimplePatterns(InputStream)} must
+     * have returned.
+     *
+     * @param os the stream to write to. It is not closed
+     * @throws IOException on error
+     */
+    public void writeBinary(OutputStream os) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os));
+        out.writeInt(BINARY_MAGIC);
+        out.writeInt(BINARY_VERSION);
+        writeNodes(out);
+        classmap.writeNodes(out);
+        out.writeInt(vspace.length());
+        out.write(vspace.getArray(), 0, vspace.length());
+        out.writeInt(stoplist.size());
+        // the exceptions are alternating strings and hyphens, see addException
+        for (String word : stoplist.keySet()) {
+            writeString(out, word);
+            List<?> parts = stoplist.get(word);
+            out.writeInt(parts.size());
+            for (Object part : parts) {
+                if (part instanceof Hyphen hyphen) {
+                    out.writeByte(EXCEPTION_HYPHEN);
+                    writeString(out, hyphen.preBreak);
+                    writeString(out, hyphen.noBreak);
+                    writeString(out, hyphen.postBreak);
+                } else {
+                    out.writeByte(EXCEPTION_STRING);
+                    writeString(out, (String) part);
+                }
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a tree written by {@link #writeBinary(OutputStream)}.
+     *
+     * @param stream the stream to read from. It is not closed
+     * @return the hyphenation tree
+     * @throws IOException on error or if the data is not a valid binary hyphenation tree
+     */
+    public static HyphenationTree readBinary(InputStream stream) throws IOException {
+        return readBinary(ByteBuffer.wrap(stream.readAllBytes()));
+    }
+
+    /**
+     * Reads a tree written by {@link #writeBinary(OutputStream)}. The buffer may be memory mapped; the data is copied
+     * in bulk into the tree, so the buffer is not referenced once this method returns. The position of the buffer is
+     * not changed.
+     *
+     * @param buffer the buffer holding the binary tree
+     * @return the hyphenation tree
+     * @throws IOException if the data is not a valid binary hyphenation tree
+     */
+    public static HyphenationTree readBinary(ByteBuffer buffer) throws IOException {
+        ByteBuffer in = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+        try {
+            if (in.getInt() != BINARY_MAGIC) {
+                throw new IOException("Not a binary hyphenation tree.");
+            }
+            int version = in.getInt();
+            if (version != BINARY_VERSION) {
+                throw new IOException("Unsupported binary hyphenation tree version: " + version);
+            }
+            HyphenationTree tree = new HyphenationTree();
+            tree.readNodes(in);
+            tree.classmap.readNodes(in);
+            int size = in.getInt();
+            if (size < 1 || size > in.remaining()) {
+                throw new IOException("Invalid hyphenation value space.");
+            }
+            // one extra byte keeps alloc() from growing the array
+            tree.vspace = new ByteVector(size + 1);
+            tree.vspace.alloc(size);
+            in.get(tree.vspace.getArray(), 0, size);
+            tree.vspace.trimToSize();
+            int exceptions = in.getInt();
+            for (int k = 0; k < exceptions; ++k) {
+                String word = readString(in);
+                int count = in.getInt();
+                if (count < 0 || count > in.remaining()) {
+                    throw new IOException("Invalid hyphenation exception.");
+                }
+                ArrayList<Object> parts = new ArrayList<>(count);
+                for (int j = 0; j < count; ++j) {
+                    byte type = in.get();
+                    if (type == EXCEPTION_HYPHEN) {
+                        parts.add(new Hyphen(readString(in), readString(in), readString(in)));
+                    } else if (type == EXCEPTION_STRING) {
+                        parts.add(readString(in));
+                    } else {
+                        throw new IOException("Invalid hyphenation exception.");
+                    }
+                }
+                tree.stoplist.put(word, parts);
+            }
+            return tree;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated binary hyphenation tree.", e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String str) throws IOException {
+        if (str == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(str.length());
+        out.writeChars(str);
+    }
+
+    private static String readString(ByteBuffer in) throws IOException {
+        int len = in.getInt();
+        if (len < 0) {
+            return null;
+        }
+        if (len > in.remaining() / 2) {
+            throw new IOException("Invalid string length in binary hyphenation tree.");
+        }
+        char[] chars = new char[len];
+        in.asCharBuffer().get(chars);
+        in.position(in.position() + len * 2);
+        return new String(chars);
+    }
+
     public String findPattern(String pat) {
         int k = super.find(pat);
         if (k >= 0) {
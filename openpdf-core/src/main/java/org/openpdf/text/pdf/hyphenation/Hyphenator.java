@@ -19,9 +19,16 @@ package org.openpdf.text.pdf.hyphenation;
 import org.openpdf.text.pdf.BaseFont;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
-import java.util.Hashtable;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class is the main entry point to the hyphenation package. You can use only the static methods or create an
@@ -32,14 +39,24 @@ import java.util.Map;
 public class Hyphenator {
 
     private static final String defaultHyphLocation = "com/lowagie/text/pdf/hyphenation/hyph/";
+    /**
+     * File extension of the binary trees written by {@link HyphenationTree#writeBinary(OutputStream)}.
+     */
+    private static final String BINARY_EXTENSION = ".bin";
     /**
      * TODO: Don't use statics
+     * <p>
+     * The trees are loaded lazily, at most once per key, and are read only afterward, so lookups don't lock.
      */
-    private static Map<String, HyphenationTree> hyphenTrees = new Hashtable<>();
+    private static final Map<String, HyphenationTree> hyphenTrees = new ConcurrentHashMap<>();
     /**
      * Holds value of property hyphenDir.
      */
     private static String hyphenDir = "";
+    /**
+     * Holds value of property hyphenCacheDir.
+     */
+    private static volatile String hyphenCacheDir = null;
     private HyphenationTree hyphenTree = null;
     private int remainCharCount = 2;
     private int pushCharCount = 2;
@@ -70,30 +87,113 @@ public class Hyphenator {
             key += "_" + country;
         }
         // first try to find it in the cache
-        if (hyphenTrees.containsKey(key)) {
-            return hyphenTrees.get(key);
+        HyphenationTree hTree = hyphenTrees.get(key);
+        if (hTree == null) {
+            hTree = hyphenTrees.get(lang);
         }
-        if (hyphenTrees.containsKey(lang)) {
-            return hyphenTrees.get(lang);
+        if (hTree != null) {
+            return hTree;
         }
+        // the tree is built only once per key even if several threads ask for it at the same time
+        return hyphenTrees.computeIfAbsent(key, Hyphenator::loadHyphenationTree);
+    }
 
-        HyphenationTree hTree = getResourceHyphenationTree(key);
+    private static HyphenationTree loadHyphenationTree(String key) {
+        HyphenationTree hTree = getCachedHyphenationTree(key);
+        if (hTree != null) {
+            return hTree;
+        }
+        hTree = getResourceHyphenationTree(key);
         if (hTree == null) {
             hTree = getFileHyphenationTree(key);
         }
-        // put it into the pattern cache
         if (hTree != null) {
-            hyphenTrees.put(key, hTree);
+            storeCachedHyphenationTree(key, hTree);
         }
         return hTree;
     }
 
+    /**
+     * Loads a tree from the binary cache directory set with {@link #setHyphenCacheDir(String)}.
+     *
+     * @param key the key of the hyphenation tree
+     * @return the hyphenation tree or <CODE>null</CODE> if there is no cache directory or the tree is not cached
+     */
+    private static HyphenationTree getCachedHyphenationTree(String key) {
+        String cacheDir = hyphenCacheDir;
+        if (cacheDir == null) {
+            return null;
+        }
+        return readBinaryFile(new File(cacheDir, key + BINARY_EXTENSION));
+    }
+
+    /**
+     * Stores a tree parsed from XML in the binary cache directory, so the next JVM doesn't have to parse it again.
+     * Failures are ignored, the cache is only an optimization.
+     */
+    private static void storeCachedHyphenationTree(String key, HyphenationTree hTree) {
+        String cacheDir = hyphenCacheDir;
+        if (cacheDir == null) {
+            return;
+        }
+        Path target = new File(cacheDir, key + BINARY_EXTENSION).toPath();
+        if (Files.exists(target)) {
+            return;
+        }
+        Path temp = null;
+        try {
+            Files.createDirectories(target.getParent());
+            temp = Files.createTempFile(target.getParent(), key, ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                hTree.writeBinary(out);
+            }
+            // other JVMs may be writing the same file, only complete files become visible
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | UnsupportedOperationException e) {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // nothing else to do
+                }
+            }
+        }
+    }
+
+    /**
+     * Memory maps and reads a binary hyphenation tree.
+     *
+     * @param file the file written by {@link HyphenationTree#writeBinary(OutputStream)}
+     * @return the hyphenation tree or <CODE>null</CODE> if the file can't be read
+     */
+    private static HyphenationTree readBinaryFile(File file) {
+        if (!file.canRead()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return HyphenationTree.readBinary(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Removes all the loaded hyphenation trees. They will be loaded again when next used.
+     */
+    public static void clearCache() {
+        hyphenTrees.clear();
+    }
+
     /**
      * @param key A String of the key of the hyphenation tree
      * @return a hyphenation tree
      */
     public static HyphenationTree getResourceHyphenationTree(String key) {
         try {
+            HyphenationTree binaryTree = getResourceBinaryHyphenationTree(key);
+            if (binaryTree != null) {
+                return binaryTree;
+            }
             InputStream stream = BaseFont.getResourceStream(defaultHyphLocation + key + ".xml");
             if (stream == null && key.length() > 2) {
                 stream = BaseFont.getResourceStream(defaultHyphLocation + key.substring(0, 2) + ".xml");
@@ -110,6 +210,25 @@ public class Hyphenator {
     }
 
     /**
+     * Loads a precompiled tree written by {@link HyphenationTree#writeBinary(OutputStream)} from the resources.
+     */
+    private static HyphenationTree getResourceBinaryHyphenationTree(String key) throws IOException {
+        InputStream stream = BaseFont.getResourceStream(defaultHyphLocation + key + BINARY_EXTENSION);
+        if (stream == null && key.length() > 2) {
+            stream = BaseFont.getResourceStream(defaultHyphLocation + key.substring(0, 2) + BINARY_EXTENSION);
+        }
+        if (stream == null) {
+            return null;
+        }
+        try (InputStream in = stream) {
+            return HyphenationTree.readBinary(in);
+        }
+    }
+
+    /**
+     * Loads the tree from the directory set with {@link #setHyphenDir(String)}. A precompiled binary tree
+     * (<CODE>key.bin</CODE>) is memory mapped in preference to the XML patterns (<CODE>key.xml</CODE>).
+     *
      * @param key The language to get the tree from
      * @return a hyphenation tree
      */
@@ -118,6 +237,13 @@ public class Hyphenator {
             if (hyphenDir == null) {
                 return null;
             }
+            HyphenationTree binaryTree = readBinaryFile(new File(hyphenDir, key + BINARY_EXTENSION));
+            if (binaryTree == null && key.length() > 2) {
+                binaryTree = readBinaryFile(new File(hyphenDir, key.substring(0, 2) + BINARY_EXTENSION));
+            }
+            if (binaryTree != null) {
+                return binaryTree;
+            }
             InputStream stream = null;
             File hyphenFile = new File(hyphenDir, key + ".xml");
             if (hyphenFile.canRead()) {
@@ -200,6 +326,26 @@ public class Hyphenator {
         hyphenDir = _hyphenDir;
     }
 
+    /**
+     * Getter for property hyphenCacheDir.
+     *
+     * @return Value of property hyphenCacheDir.
+     */
+    public static String getHyphenCacheDir() {
+        return hyphenCacheDir;
+    }
+
+    /**
+     * Sets a directory where the trees parsed from XML patterns are stored in binary form. Later loads, also from
+     * other JVMs, read the binary form instead of parsing the patterns again. Set to <CODE>null</CODE>, the default,
+     * to disable.
+     *
+     * @param _hyphenCacheDir the cache directory or <CODE>null</CODE>
+     */
+    public static void setHyphenCacheDir(String _hyphenCacheDir) {
+        hyphenCacheDir = _hyphenCacheDir;
+    }
+
     /**
      * @param min Minimum number of characters allowed before the hyphenation point
      */
@@ -16,7 +16,11 @@
 
 package org.openpdf.text.pdf.hyphenation;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.util.Enumeration;
 import java.util.Stack;
 
@@ -438,6 +442,76 @@ public class TernaryTree implements Cloneable, Serializable {
     }
 
 
+    /**
+     * Writes the node arrays and the key vector in a compact binary form. Only the used part of the arrays is
+     * written, so the tree should be trimmed with {@link #trimToSize()} first to get the smallest output. All values
+     * are written big endian, which is the default byte order of {@link ByteBuffer}.
+     *
+     * @param out the stream to write to
+     * @throws IOException on error
+     */
+    protected void writeNodes(DataOutputStream out) throws IOException {
+        int nodes = freenode;
+        out.writeChar(root);
+        out.writeChar(freenode);
+        out.writeInt(length);
+        writeChars(out, lo, nodes);
+        writeChars(out, hi, nodes);
+        writeChars(out, eq, nodes);
+        writeChars(out, sc, nodes);
+        writeChars(out, kv.getArray(), kv.length());
+    }
+
+    /**
+     * Reads the node arrays and the key vector written by {@link #writeNodes(DataOutputStream)}. The arrays are
+     * copied in bulk from the buffer, so this is fast even for memory mapped buffers.
+     *
+     * @param buffer the buffer to read from, positioned at the start of the node data
+     * @throws IOException if the data is truncated or inconsistent
+     */
+    protected void readNodes(ByteBuffer buffer) throws IOException {
+        try {
+            root = buffer.getChar();
+            freenode = buffer.getChar();
+            length = buffer.getInt();
+            int nodes = freenode;
+            lo = readChars(buffer, nodes);
+            hi = readChars(buffer, nodes);
+            eq = readChars(buffer, nodes);
+            sc = readChars(buffer, nodes);
+            kv = new CharVector(readChars(buffer, -1));
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated hyphenation tree data.", e);
+        }
+        if (freenode == 0 || root >= freenode || length < 0) {
+            throw new IOException("Invalid hyphenation tree data.");
+        }
+    }
+
+    private static void writeChars(DataOutputStream out, char[] data, int count) throws IOException {
+        out.writeInt(count);
+        for (int k = 0; k < count; ++k) {
+            out.writeChar(data[k]);
+        }
+    }
+
+    /**
+     * Reads a length prefixed char array.
+     *
+     * @param buffer   the buffer to read from
+     * @param expected the expected number of chars or -1 if any length is allowed
+     */
+    private static char[] readChars(ByteBuffer buffer, int expected) throws IOException {
+        int count = buffer.getInt();
+        if (count < 0 || (expected >= 0 && count != expected) || count > buffer.remaining() / 2) {
+            throw new IOException("Invalid hyphenation tree data.");
+        }
+        char[] data = new char[count];
+        buffer.asCharBuffer().get(data, 0, count);
+        buffer.position(buffer.position() + count * 2);
+        return data;
+    }
+
     public Enumeration keys() {
         return new Iterator();
     }
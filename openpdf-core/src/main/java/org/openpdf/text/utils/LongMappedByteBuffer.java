@@ -85,6 +85,22 @@ public class LongMappedByteBuffer {
         }
     }
 
+    private LongMappedByteBuffer(MappedByteBuffer[] chunks, long size) {
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    /**
+     * Creates a new buffer that shares the mapped content of this buffer but has its own position, starting at 0.
+     * Absolute reads on the shared chunks do not touch their position, so duplicates can be read from different
+     * threads concurrently.
+     *
+     * @return the new buffer
+     */
+    public LongMappedByteBuffer duplicate() {
+        return new LongMappedByteBuffer(chunks, size);
+    }
+
     public byte get() {
         byte b = get(position);
         position++;
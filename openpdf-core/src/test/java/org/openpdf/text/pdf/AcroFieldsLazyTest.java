@@ -0,0 +1,123 @@
+package org.openpdf.text.pdf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.openpdf.text.Document;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Rectangle;
+
+class AcroFieldsLazyTest {
+
+    private static byte[] createForm() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A5);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        document.open();
+        for (int page = 0; page < 3; ++page) {
+            if (page > 0) {
+                document.newPage();
+            }
+            for (int k = 0; k < 5; ++k) {
+                TextField field = new TextField(writer, new Rectangle(36, 500 - 30 * k, 236, 520 - 30 * k),
+                        "field" + page + "_" + k);
+                field.setText("value " + page + "_" + k);
+                writer.addAnnotation(field.getTextField());
+            }
+        }
+        document.close();
+        return out.toByteArray();
+    }
+
+    private static Map<String, String> valuesOf(AcroFields fields) {
+        Map<String, String> values = new HashMap<>();
+        for (String name : fields.getAllFields().keySet()) {
+            values.put(name, fields.getField(name));
+        }
+        return values;
+    }
+
+    @Test
+    void givesTheSameFieldsAsTheEagerConstruction() throws Exception {
+        byte[] form = createForm();
+        PdfReader eager = new PdfReader(form);
+        PdfReader lazy = new PdfReader(form);
+        lazy.setLazyAcroFields(true);
+
+        AcroFields eagerFields = eager.getAcroFields();
+        AcroFields lazyFields = lazy.getAcroFields();
+        assertThat(lazyFields.getAllFields().keySet()).isEqualTo(eagerFields.getAllFields().keySet());
+        assertThat(valuesOf(lazyFields)).isEqualTo(valuesOf(eagerFields)).hasSize(15);
+        assertThat(lazyFields.getFieldPositions("field2_4")).isEqualTo(eagerFields.getFieldPositions("field2_4"));
+        assertThat(lazyFields.getField("missing")).isNull();
+        eager.close();
+        lazy.close();
+    }
+
+    @Test
+    void listsTheFieldNamesWithoutBuildingTheFields() throws Exception {
+        PdfReader reader = new PdfReader(createForm());
+        reader.setLazyAcroFields(true);
+
+        AcroFields.LazyFields fields = (AcroFields.LazyFields) reader.getAcroFields().getAllFields();
+        List<String> names = new ArrayList<>();
+        for (String name : fields.keySet()) {
+            names.add(name);
+        }
+        assertThat(names).hasSize(15).contains("field0_0", "field1_3", "field2_4");
+        assertThat(fields).containsKey("field1_3");
+        assertThat(fields.loadedItems()).isZero();
+
+        assertThat(fields.get("field1_3").getPage(0)).isEqualTo(2);
+        assertThat(fields.loadedItems()).isEqualTo(1);
+        reader.close();
+    }
+
+    @Test
+    void findsTheFieldsAfterARemovedFieldOnTheSamePage() throws Exception {
+        PdfReader reader = new PdfReader(createForm());
+        reader.setLazyAcroFields(true);
+        PdfStamper stamper = new PdfStamper(reader, new ByteArrayOutputStream());
+        AcroFields fields = stamper.getAcroFields();
+
+        assertThat(fields.removeField("field1_0")).isTrue();
+        assertThat(fields.getField("field1_4")).isEqualTo("value 1_4");
+        assertThat(fields.getField("field1_1")).isEqualTo("value 1_1");
+        assertThat(fields.getFieldItem("field1_2").getTabOrder(0)).isEqualTo(1);
+        assertThat(fields.getField("field1_0")).isNull();
+        stamper.close();
+        reader.close();
+    }
+
+    @Test
+    void fillsACopyOfASharedTemplate() throws Exception {
+        try (SharedPdfReader template = new SharedPdfReader(createForm(), null)) {
+            template.setLazyAcroFields(true);
+            AcroFields.FieldIndex index = template.getFieldIndex();
+            assertThat(index.size()).isEqualTo(15);
+
+            for (int k = 0; k < 2; ++k) {
+                PdfReader reader = template.newReader();
+                assertThat(reader.getAcroFieldsIndex()).isSameAs(index);
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                PdfStamper stamper = new PdfStamper(reader, out);
+                AcroFields fields = stamper.getAcroFields();
+                fields.setField("field0_1", "copy " + k);
+                fields.removeField("field2_0");
+                stamper.close();
+
+                PdfReader result = new PdfReader(out.toByteArray());
+                AcroFields filled = result.getAcroFields();
+                assertThat(filled.getField("field0_1")).isEqualTo("copy " + k);
+                assertThat(filled.getField("field0_2")).isEqualTo("value 0_2");
+                assertThat(filled.getAllFields()).hasSize(14).doesNotContainKey("field2_0");
+                result.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.openpdf.text.pdf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.openpdf.text.Document;
+import org.openpdf.text.PageSize;
+
+class BarcodeEncoderTest {
+
+    private static boolean[][] modules(BarcodeSymbol symbol) {
+        boolean[][] dark = new boolean[symbol.getRows()][symbol.getColumns()];
+        int[] rectangles = symbol.getRectangles();
+        for (int k = 0; k < rectangles.length; k += 4) {
+            for (int row = rectangles[k + 1]; row < rectangles[k + 1] + rectangles[k + 3]; ++row) {
+                for (int column = rectangles[k]; column < rectangles[k] + rectangles[k + 2]; ++column) {
+                    assertThat(dark[row][column]).as("overlapping rectangles").isFalse();
+                    dark[row][column] = true;
+                }
+            }
+        }
+        return dark;
+    }
+
+    private static boolean[][] modules(byte[] bits, int columns, int rows) {
+        boolean[][] dark = new boolean[rows][columns];
+        int stride = (columns + 7) / 8;
+        for (int row = 0; row < rows; ++row) {
+            for (int column = 0; column < columns; ++column) {
+                dark[row][column] = (bits[row * stride + column / 8] & (0x80 >> (column % 8))) != 0;
+            }
+        }
+        return dark;
+    }
+
+    @Test
+    void mergesTheModulesOfAPdf417Symbol() {
+        BarcodeSymbol symbol = BarcodeEncoder.pdf417(BarcodePDF417::new).encode("Parcel 0042 to Oslo, NO");
+
+        BarcodePDF417 expected = new BarcodePDF417();
+        expected.setText("Parcel 0042 to Oslo, NO");
+        expected.paintCode();
+        assertThat(symbol.getColumns()).isEqualTo(expected.getBitColumns());
+        assertThat(symbol.getRows()).isEqualTo(expected.getCodeRows());
+        assertThat(modules(symbol)).isDeepEqualTo(
+                modules(expected.getOutBits(), expected.getBitColumns(), expected.getCodeRows()));
+        assertThat(symbol.getSize().getHeight()).isEqualTo(3f * expected.getCodeRows());
+    }
+
+    @Test
+    void mergesTheModulesOfADatamatrixSymbol() throws Exception {
+        BarcodeSymbol symbol = BarcodeEncoder.datamatrix(BarcodeDatamatrix::new).encode("SHIP-123456789");
+
+        BarcodeDatamatrix expected = new BarcodeDatamatrix();
+        expected.generate("SHIP-123456789");
+        assertThat(modules(symbol)).isDeepEqualTo(
+                modules(expected.getImage(), expected.getWidth(), expected.getHeight()));
+        // the solid runs of the rows are merged across rows
+        assertThat(symbol.getRectangleCount()).isLessThan(expected.getWidth() * expected.getHeight() / 2);
+    }
+
+    @Test
+    void drawsOneRectanglePerCode128Bar() {
+        BarcodeSymbol symbol = BarcodeEncoder.code128(() -> {
+            Barcode128 code128 = new Barcode128();
+            code128.setBarHeight(20);
+            return code128;
+        }).encode("ABC-12345");
+
+        byte[] bars = Barcode128.getBarsCode128Raw(Barcode128.getRawText("ABC-12345", false));
+        assertThat(symbol.getRows()).isEqualTo(1);
+        assertThat(symbol.getRectangleCount()).isEqualTo((bars.length + 1) / 2);
+        assertThat(symbol.getSize().getHeight()).isEqualTo(20);
+    }
+
+    @Test
+    void encodesABatchInOrderAndReusesRepeatedPayloads() {
+        BarcodeEncoder encoder = BarcodeEncoder.datamatrix(BarcodeDatamatrix::new);
+        List<String> payloads = new ArrayList<>();
+        for (int k = 0; k < 200; ++k) {
+            payloads.add("LABEL-" + (k % 50));
+        }
+
+        List<BarcodeSymbol> symbols = encoder.encodeAll(payloads, 4);
+
+        assertThat(symbols).hasSize(200);
+        for (int k = 0; k < 200; ++k) {
+            assertThat(modules(symbols.get(k))).isDeepEqualTo(modules(encoder.encode(payloads.get(k))));
+        }
+        assertThat(encoder.encode("LABEL-7")).isSameAs(encoder.encode("LABEL-7"));
+        assertThatThrownBy(() -> encoder.encodeAll(List.of("ok", "é".repeat(3000)), 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void placesRepeatedPayloadsFromOneTemplate() throws Exception {
+        BarcodeEncoder encoder = BarcodeEncoder.pdf417(BarcodePDF417::new);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        document.open();
+        PdfContentByte cb = writer.getDirectContent();
+        BarcodeEncoder.TemplateCache templates = encoder.newTemplateCache(cb, null, 16);
+        for (int k = 0; k < 6; ++k) {
+            templates.place(cb, "BATCH-" + (k % 2), 36, 36 + 100 * k);
+        }
+        assertThat(templates.getTemplate("BATCH-0")).isSameAs(templates.getTemplate("BATCH-0"));
+        document.close();
+
+        PdfReader reader = new PdfReader(out.toByteArray());
+        PdfDictionary xObjects = reader.getPageN(1).getAsDict(PdfName.RESOURCES).getAsDict(PdfName.XOBJECT);
+        assertThat(xObjects.size()).isEqualTo(2);
+        reader.close();
+    }
+}
@@ -5,6 +5,11 @@ import static org.assertj.core.data.Index.atIndex;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
 
@@ -40,6 +45,45 @@ class BaseFontTest {
         assertThat(font.getDescent("byte")).isEqualTo(-264);
     }
 
+    @Test
+    void testConcurrentCreateFontBuildsOnce() throws Exception {
+        byte[] bytes = getTestFontBytes();
+        String name = "single-flight-" + System.nanoTime() + ".ttf";
+        BaseFont.FontCacheStatistics before = BaseFont.getFontCacheStatistics();
+        List<Future<BaseFont>> fonts = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int k = 0; k < 16; ++k) {
+                fonts.add(executor.submit(
+                        () -> BaseFont.createFont(name, BaseFont.IDENTITY_H, true, true, bytes, null)));
+            }
+        }
+        BaseFont first = fonts.get(0).get();
+        for (Future<BaseFont> font : fonts) {
+            assertThat(font.get()).isSameAs(first);
+        }
+        BaseFont.FontCacheStatistics after = BaseFont.getFontCacheStatistics();
+        assertThat(after.builds() - before.builds()).isEqualTo(1);
+        assertThat(after.retainedBytes()).isGreaterThan(before.retainedBytes());
+    }
+
+    @Test
+    void testFontCacheLimitsEvictLeastRecentlyUsedFonts() throws Exception {
+        byte[] bytes = getTestFontBytes();
+        String prefix = "evict-" + System.nanoTime() + "-";
+        try {
+            BaseFont.setFontCacheLimits(1, 0);
+            BaseFont font1 = BaseFont.createFont(prefix + "1.ttf", BaseFont.IDENTITY_H, true, true, bytes, null);
+            BaseFont.createFont(prefix + "2.ttf", BaseFont.IDENTITY_H, true, true, bytes, null);
+            BaseFont helvetica = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.WINANSI, false);
+            assertThat(BaseFont.createFont(prefix + "1.ttf", BaseFont.IDENTITY_H, true, true, bytes, null))
+                    .isNotSameAs(font1);
+            assertThat(BaseFont.createFont(BaseFont.HELVETICA, BaseFont.WINANSI, false)).isSameAs(helvetica);
+            assertThat(BaseFont.getFontCacheStatistics().evictions()).isGreaterThanOrEqualTo(2);
+        } finally {
+            BaseFont.setFontCacheLimits(0, 0);
+        }
+    }
+
     private byte[] getTestFontBytes() throws IOException {
         InputStream resourceStream = BaseFont.getResourceStream("fonts/Viaoda_Libre/ViaodaLibre-Regular.ttf", null);
         assertThat(resourceStream).as("Font could not be loaded").isNotNull();
@@ -2,9 +2,11 @@ package org.openpdf.text.pdf;
 
 import static java.nio.charset.StandardCharsets.ISO_8859_1;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import org.openpdf.text.Document;
 import org.openpdf.text.Paragraph;
+import org.openpdf.text.pdf.PdfWriter.PdfBody.PdfCrossReference;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -35,6 +37,23 @@ public class CrossReferenceTableEncodingTest {
         assertThat(actual).isEqualTo(expected);
     }
 
+    @Test
+    void formatsFixedSizeEntries() throws Exception {
+        byte[] line = new byte[PdfCrossReference.ENTRY_LENGTH];
+        PdfCrossReference.formatEntry(line, 9_999_999_999L, 0);
+        assertThat(new String(line, ISO_8859_1)).isEqualTo("9999999999 00000 n \n");
+        PdfCrossReference.formatEntry(line, 0, PdfWriter.GENERATION_MAX);
+        assertThat(new String(line, ISO_8859_1)).isEqualTo("0000000000 65535 f \n");
+    }
+
+    @Test
+    void rejectsEntriesThatDoNotFit() {
+        byte[] line = new byte[PdfCrossReference.ENTRY_LENGTH];
+        assertThatThrownBy(() -> PdfCrossReference.formatEntry(line, 10_000_000_000L, 0))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("10000000000");
+    }
+
     private String readExpectedFile() throws IOException {
         try (final InputStream expected = getClass().getResourceAsStream(TEST_PDF)) {
             assertThat(expected).isNotNull();
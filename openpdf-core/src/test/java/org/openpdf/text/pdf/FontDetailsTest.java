@@ -39,9 +39,10 @@ class FontDetailsTest {
         String filename = "src/test/resources/fonts/liberation/LiberationSerif-Regular.ttf";
         BaseFont baseFont = BaseFont.createFont(filename, BaseFont.IDENTITY_H, BaseFont.NOT_EMBEDDED);
         FontDetails fontDetails = new FontDetails(null, null, baseFont);
-        assertThat(fontDetails.getFillerCmap()).isNotNull().isEmpty();
+        assertThat(fontDetails.getFillerCmap()).isNotNull();
+        assertThat(fontDetails.getFillerCmap().isEmpty()).isTrue();
         fontDetails.putFillerCmap(1, new int[]{1, 2, 3});
-        assertThat(fontDetails.getFillerCmap()).hasSize(1);
+        assertThat(fontDetails.getFillerCmap().size()).isEqualTo(1);
     }
 
     @Test
@@ -55,11 +56,12 @@ class FontDetailsTest {
         byte[] bytes = fontDetails.convertToBytes(text, options);
 
         assertThat(bytes).isNotNull().isNotEmpty();
-        assertThat(fontDetails.longTag).isNotNull().isNotEmpty();
+        assertThat(fontDetails.longTag).isNotNull();
+        assertThat(fontDetails.longTag.isEmpty()).isFalse();
         // unicode kept
         assertThat(bytes).hasSize(4);
         // convert to 2 glyphs
-        assertThat(fontDetails.longTag).hasSize(2);
+        assertThat(fontDetails.longTag.size()).isEqualTo(2);
     }
 
 }
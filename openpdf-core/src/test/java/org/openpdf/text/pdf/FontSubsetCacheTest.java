@@ -0,0 +1,110 @@
+package org.openpdf.text.pdf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import org.junit.jupiter.api.Test;
+import org.openpdf.text.Document;
+import org.openpdf.text.Font;
+import org.openpdf.text.Paragraph;
+import org.openpdf.text.pdf.parser.PdfTextExtractor;
+
+class FontSubsetCacheTest {
+
+    private static final String FONT = "fonts/liberation/LiberationSerif-Regular.ttf";
+
+    private static byte[] createDocument(FontSubsetCache cache, String encoding, String text) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setFontSubsetCache(cache);
+        document.open();
+        BaseFont bf = BaseFont.createFont(FONT, encoding, BaseFont.EMBEDDED);
+        document.add(new Paragraph(text, new Font(bf, 12)));
+        document.close();
+        return out.toByteArray();
+    }
+
+    private static byte[] fontFile(byte[] pdf) throws Exception {
+        PdfReader reader = new PdfReader(pdf);
+        PdfDictionary font = reader.getPageN(1).getAsDict(PdfName.RESOURCES).getAsDict(PdfName.FONT);
+        PdfDictionary dic = font.getAsDict(font.getKeys().iterator().next());
+        PdfArray descendants = dic.getAsArray(PdfName.DESCENDANTFONTS);
+        if (descendants != null) {
+            dic = descendants.getAsDict(0);
+        }
+        PdfDictionary descriptor = dic.getAsDict(PdfName.FONTDESCRIPTOR);
+        byte[] bytes = PdfReader.getStreamBytes((PRStream) PdfReader.getPdfObject(descriptor.get(PdfName.FONTFILE2)));
+        reader.close();
+        return bytes;
+    }
+
+    @Test
+    void identityEncodedSubsetIsReusedAcrossDocuments() throws Exception {
+        FontSubsetCache cache = new FontSubsetCache();
+        byte[] first = createDocument(cache, BaseFont.IDENTITY_H, "Invoice 1234");
+        byte[] second = createDocument(cache, BaseFont.IDENTITY_H, "Invoice 1234");
+        assertThat(cache.getMisses()).isEqualTo(1);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(fontFile(second)).isEqualTo(fontFile(first));
+        assertThat(new PdfTextExtractor(new PdfReader(second)).getTextFromPage(1)).isEqualTo("Invoice 1234");
+
+        createDocument(cache, BaseFont.IDENTITY_H, "Invoice 5678");
+        assertThat(cache.getMisses()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void simpleTrueTypeSubsetIsReusedAcrossDocuments() throws Exception {
+        FontSubsetCache cache = new FontSubsetCache();
+        byte[] first = createDocument(cache, BaseFont.WINANSI, "Total");
+        byte[] second = createDocument(cache, BaseFont.WINANSI, "Total");
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(fontFile(second)).isEqualTo(fontFile(first));
+        assertThat(fontFile(first)).isEqualTo(fontFile(createDocument(null, BaseFont.WINANSI, "Total")));
+    }
+
+    @Test
+    void leastRecentlyUsedSubsetsAreEvicted() throws Exception {
+        FontSubsetCache cache = new FontSubsetCache();
+        createDocument(cache, BaseFont.IDENTITY_H, "abc");
+        long oneSubset = cache.getCurrentBytes();
+        FontSubsetCache small = new FontSubsetCache(oneSubset + oneSubset / 2);
+        createDocument(small, BaseFont.IDENTITY_H, "abc");
+        createDocument(small, BaseFont.IDENTITY_H, "abd");
+        assertThat(small.size()).isEqualTo(1);
+        assertThat(small.getCurrentBytes()).isLessThanOrEqualTo(small.getMaxBytes());
+        assertThatThrownBy(() -> new FontSubsetCache(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void fontsWithTheSameNameButDifferentDataAreNotMixedUp() throws Exception {
+        FontSubsetCache cache = new FontSubsetCache();
+        byte[] liberation;
+        byte[] sarabun;
+        try (InputStream a = FontSubsetCacheTest.class.getResourceAsStream("/" + FONT);
+                InputStream b = FontSubsetCacheTest.class.getResourceAsStream("/fonts/Sarabun/Sarabun-Regular.ttf")) {
+            liberation = a.readAllBytes();
+            sarabun = b.readAllBytes();
+        }
+        byte[][] pdfs = new byte[2][];
+        int k = 0;
+        for (byte[] data : new byte[][]{liberation, sarabun}) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Document document = new Document();
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setFontSubsetCache(cache);
+            document.open();
+            BaseFont bf = BaseFont.createFont("upload.ttf", BaseFont.IDENTITY_H, BaseFont.EMBEDDED, false, data, null);
+            document.add(new Paragraph("Invoice", new Font(bf, 12)));
+            document.close();
+            pdfs[k++] = out.toByteArray();
+        }
+
+        assertThat(cache.getHits()).isZero();
+        assertThat(cache.getMisses()).isEqualTo(2);
+        assertThat(fontFile(pdfs[1])).isNotEqualTo(fontFile(pdfs[0]));
+    }
+}
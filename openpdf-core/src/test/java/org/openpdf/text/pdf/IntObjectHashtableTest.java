@@ -0,0 +1,37 @@
+package org.openpdf.text.pdf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class IntObjectHashtableTest {
+
+    @Test
+    void growsAndKeepsAllEntries() {
+        IntObjectHashtable<int[]> table = new IntObjectHashtable<>();
+        for (int glyph = 20000; glyph >= 0; glyph -= 3) {
+            table.put(glyph, new int[]{glyph, glyph * 2});
+        }
+        assertThat(table.size()).isEqualTo(6667);
+        assertThat(table.get(3002)).containsExactly(3002, 6004);
+        assertThat(table.get(3001)).isNull();
+        int[] keys = table.toOrderedKeys();
+        assertThat(keys).hasSize(6667).startsWith(2, 5, 8).endsWith(19997, 20000);
+    }
+
+    @Test
+    void distinguishesNullValuesFromMissingKeys() {
+        IntObjectHashtable<int[]> table = new IntObjectHashtable<>(4);
+        assertThat(table.isEmpty()).isTrue();
+        assertThat(table.putIfAbsent(-7, null)).isTrue();
+        assertThat(table.containsKey(-7)).isTrue();
+        assertThat(table.containsKey(7)).isFalse();
+        assertThat(table.putIfAbsent(-7, new int[]{1})).isFalse();
+        assertThat(table.put(-7, new int[]{2})).isNull();
+        assertThat(table.put(-7, new int[]{3})).containsExactly(2);
+        assertThat(table.size()).isEqualTo(1);
+        table.clear();
+        assertThat(table.isEmpty()).isTrue();
+        assertThat(table.containsKey(-7)).isFalse();
+    }
+}
@@ -2,13 +2,16 @@ package org.openpdf.text.pdf;
 
 import org.junit.jupiter.api.Test;
 import org.openpdf.text.Document;
+import org.openpdf.text.Font;
 import org.openpdf.text.Paragraph;
+import org.openpdf.text.pdf.parser.PdfTextExtractor;
 import org.openpdf.text.utils.PdfBatch;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
 
@@ -20,12 +23,16 @@ import static org.junit.jupiter.api.Assertions.*;
 class PdfBatchUtilsTest {
 
     private static Path tinyPdf(String prefix) throws Exception {
+        return tinyPdf(prefix, "Hello OpenPDF");
+    }
+
+    private static Path tinyPdf(String prefix, String text) throws Exception {
         Path p = Files.createTempFile(prefix, ".pdf");
         var doc = new Document();
         try (var out = new FileOutputStream(p.toFile())) {
             PdfWriter.getInstance(doc, out);
             doc.open();
-            doc.add(new Paragraph("Hello OpenPDF"));
+            doc.add(new Paragraph(text));
             doc.close();
         }
         return p;
@@ -86,4 +93,73 @@ class PdfBatchUtilsTest {
         Files.deleteIfExists(b);
         Files.deleteIfExists(merged);
     }
+
+    @Test
+    void mergeWithPrefetch_keepsInputOrder() throws Exception {
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            inputs.add(tinyPdf("in" + i + "-", "Input " + i));
+        }
+        Path merged = Files.createTempFile("merged-prefetch-", ".pdf");
+
+        PdfBatchUtils.merge(inputs, merged, 3);
+
+        try (PdfReader reader = new PdfReader(merged.toString())) {
+            assertEquals(7, reader.getNumberOfPages());
+            PdfTextExtractor extractor = new PdfTextExtractor(reader);
+            for (int i = 0; i < 7; i++) {
+                assertEquals("Input " + i, extractor.getTextFromPage(i + 1).trim());
+            }
+        }
+
+        for (Path in : inputs) {
+            Files.deleteIfExists(in);
+        }
+        Files.deleteIfExists(merged);
+    }
+
+    @Test
+    void mergeWithPrefetch_reportsMissingInput() throws Exception {
+        Path a = tinyPdf("a-");
+        Path missing = a.resolveSibling("does-not-exist-" + System.nanoTime() + ".pdf");
+        Path merged = Files.createTempFile("merged-missing-", ".pdf");
+
+        assertThrows(IOException.class, () -> PdfBatchUtils.merge(List.of(a, missing, a), merged, 2));
+
+        Files.deleteIfExists(a);
+        Files.deleteIfExists(merged);
+    }
+
+    @Test
+    void parallelSplit_writesEveryPageInOrder() throws Exception {
+        Path input = Files.createTempFile("split-", ".pdf");
+        BaseFont bf = BaseFont.createFont("fonts/liberation/LiberationSerif-Regular.ttf", BaseFont.IDENTITY_H,
+                BaseFont.EMBEDDED);
+        var doc = new Document();
+        try (var out = new FileOutputStream(input.toFile())) {
+            PdfWriter.getInstance(doc, out);
+            doc.open();
+            for (int i = 1; i <= 9; i++) {
+                doc.newPage();
+                doc.add(new Paragraph("Page " + i, new Font(bf, 12)));
+            }
+            doc.close();
+        }
+        Path outDir = Files.createTempDirectory("split-out-");
+
+        List<Path> pages = PdfBatchUtils.split(input, outDir, "part", 4);
+
+        assertEquals(9, pages.size());
+        for (int i = 1; i <= 9; i++) {
+            Path page = pages.get(i - 1);
+            assertEquals(outDir.resolve("part_page" + i + ".pdf"), page);
+            try (PdfReader reader = new PdfReader(page.toString())) {
+                assertEquals(1, reader.getNumberOfPages());
+                assertTrue(new PdfTextExtractor(reader).getTextFromPage(1).contains("Page " + i));
+            }
+            Files.delete(page);
+        }
+        Files.delete(outDir);
+        Files.delete(input);
+    }
 }
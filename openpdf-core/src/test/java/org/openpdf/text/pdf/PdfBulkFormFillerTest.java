@@ -0,0 +1,165 @@
+package org.openpdf.text.pdf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+import org.openpdf.text.Document;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Paragraph;
+import org.openpdf.text.Rectangle;
+
+class PdfBulkFormFillerTest {
+
+    private static byte[] createTemplate() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A5);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        document.open();
+        document.add(new Paragraph("Invoice"));
+        writer.addAnnotation(new TextField(writer, new Rectangle(36, 400, 236, 420), "name").getTextField());
+        writer.addAnnotation(new TextField(writer, new Rectangle(36, 360, 236, 380), "city").getTextField());
+        document.close();
+        return out.toByteArray();
+    }
+
+    private static Map<String, String> fieldsOf(byte[] pdf) throws IOException {
+        PdfReader reader = new PdfReader(pdf);
+        try {
+            AcroFields fields = reader.getAcroFields();
+            return Map.of("name", fields.getField("name"), "city", fields.getField("city"));
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static PdfBulkFormFiller.RecordOutput collectInto(Map<Long, ByteArrayOutputStream> outputs) {
+        return (index, record) -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            outputs.put(index, out);
+            return out;
+        };
+    }
+
+    @Test
+    void fillsTheRecordsOfAnXfdfStream() throws Exception {
+        StringBuilder xfdf = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<export>\n");
+        for (int k = 0; k < 50; ++k) {
+            xfdf.append("<xfdf xmlns=\"http://ns.adobe.com/xfdf/\"><fields>")
+                    .append("<field name=\"name\"><value>Customer ").append(k).append("</value></field>")
+                    .append("<field name=\"city\"><value>City ").append(k % 7).append("</value></field>")
+                    .append("</fields></xfdf>\n");
+        }
+        xfdf.append("</export>\n");
+        Map<Long, ByteArrayOutputStream> outputs = new ConcurrentHashMap<>();
+
+        try (SharedPdfReader template = new SharedPdfReader(createTemplate(), null)) {
+            PdfBulkFormFiller filler = new PdfBulkFormFiller(template);
+            filler.setParallelism(4);
+            filler.setQueueCapacity(2);
+            PdfBulkFormFiller.Metrics metrics = filler.fillXfdf(
+                    new ByteArrayInputStream(xfdf.toString().getBytes(StandardCharsets.UTF_8)), collectInto(outputs));
+
+            assertThat(metrics.records()).isEqualTo(50);
+            assertThat(metrics.filled()).isEqualTo(50);
+            assertThat(metrics.failed()).isZero();
+            assertThat(metrics.bytesWritten()).isPositive();
+            assertThat(filler.getMetrics().filled()).isEqualTo(50);
+        }
+        assertThat(outputs).hasSize(50);
+        for (int k = 0; k < 50; ++k) {
+            assertThat(fieldsOf(outputs.get((long) k).toByteArray()))
+                    .containsEntry("name", "Customer " + k)
+                    .containsEntry("city", "City " + k % 7);
+        }
+    }
+
+    @Test
+    void fillsTheRecordsOfACsvFile() throws Exception {
+        String csv = "name,city\r\n"
+                + "\"Smith, John\",Oslo\r\n"
+                + "\"Say \"\"hi\"\"\",\n"
+                + "Plain,\"Two\nLines\"\n";
+        Map<Long, ByteArrayOutputStream> outputs = new ConcurrentHashMap<>();
+
+        try (SharedPdfReader template = new SharedPdfReader(createTemplate(), null)) {
+            PdfBulkFormFiller.Metrics metrics = new PdfBulkFormFiller(template)
+                    .fillCsv(new StringReader(csv), collectInto(outputs));
+            assertThat(metrics.filled()).isEqualTo(3);
+        }
+        assertThat(fieldsOf(outputs.get(0L).toByteArray()))
+                .containsEntry("name", "Smith, John")
+                .containsEntry("city", "Oslo");
+        assertThat(fieldsOf(outputs.get(1L).toByteArray()))
+                .containsEntry("name", "Say \"hi\"")
+                .containsEntry("city", "");
+        assertThat(fieldsOf(outputs.get(2L).toByteArray()))
+                .containsEntry("name", "Plain")
+                .containsEntry("city", "Two\nLines");
+    }
+
+    @Test
+    void reportsFailedRecordsAndGoesOn() throws Exception {
+        List<FieldReader> records = new ArrayList<>();
+        for (int k = 0; k < 5; ++k) {
+            String xfdf = "<?xml version=\"1.0\"?><xfdf><fields><field name=\"name\"><value>" + k
+                    + "</value></field></fields></xfdf>";
+            records.add(new XfdfReader(xfdf.getBytes(StandardCharsets.UTF_8)));
+        }
+        List<Long> failures = new ArrayList<>();
+
+        try (SharedPdfReader template = new SharedPdfReader(createTemplate(), null)) {
+            PdfBulkFormFiller filler = new PdfBulkFormFiller(template);
+            filler.setParallelism(1);
+            filler.setFailureHandler((index, error) -> failures.add(index));
+            PdfBulkFormFiller.Metrics metrics = filler.fill(records, (index, record) -> {
+                if (index == 2) {
+                    throw new IOException("disk full");
+                }
+                return OutputStream.nullOutputStream();
+            });
+
+            assertThat(metrics.filled()).isEqualTo(4);
+            assertThat(metrics.failed()).isEqualTo(1);
+        }
+        assertThat(failures).containsExactly(2L);
+    }
+
+    @Test
+    void stopsTheRunWhenTheFailureHandlerThrows() throws Exception {
+        StringBuilder csv = new StringBuilder("name,city\n");
+        for (int k = 0; k < 20; ++k) {
+            csv.append("Customer ").append(k).append(",Oslo\n");
+        }
+
+        try (SharedPdfReader template = new SharedPdfReader(createTemplate(), null)) {
+            PdfBulkFormFiller filler = new PdfBulkFormFiller(template);
+            filler.setParallelism(1);
+            filler.setQueueCapacity(2);
+            filler.setFailureHandler((index, error) -> {
+                throw new IllegalStateException("record " + index + " failed", error);
+            });
+
+            assertTimeoutPreemptively(Duration.ofSeconds(30), () -> assertThatThrownBy(() -> filler.fillCsv(
+                    new StringReader(csv.toString()), (index, record) -> {
+                        throw new IOException("disk full");
+                    }))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("record 0 failed"));
+            assertThat(filler.getMetrics().failed()).isEqualTo(1);
+            assertThat(filler.getMetrics().records()).isLessThan(20);
+        }
+    }
+}
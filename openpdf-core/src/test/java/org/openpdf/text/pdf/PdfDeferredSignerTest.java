@@ -0,0 +1,123 @@
+package org.openpdf.text.pdf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openpdf.text.DocumentException;
+
+class PdfDeferredSignerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static byte[] emptyPage() throws Exception {
+        try (InputStream is = PdfDeferredSignerTest.class.getResourceAsStream("/EmptyPage.pdf")) {
+            return is.readAllBytes();
+        }
+    }
+
+    @Test
+    void preparesABatchAndInjectsTheSignaturesLater() throws Exception {
+        List<Path> inputs = new ArrayList<>();
+        List<Path> outputs = new ArrayList<>();
+        for (int k = 0; k < 3; ++k) {
+            inputs.add(Files.write(tempDir.resolve("input" + k + ".pdf"), emptyPage()));
+            outputs.add(tempDir.resolve("prepared" + k + ".pdf"));
+        }
+        PdfDeferredSigner signer = new PdfDeferredSigner("SHA-256", 256, sap -> sap.setReason("Batch"));
+
+        List<byte[]> states = new ArrayList<>();
+        for (PdfDeferredSigner.PreparedSignature prepared : signer.prepareAll(inputs, outputs)) {
+            states.add(prepared.toBytes());
+        }
+
+        List<PdfDeferredSigner.PreparedSignature> restored = new ArrayList<>();
+        List<byte[]> cms = new ArrayList<>();
+        for (byte[] state : states) {
+            PdfDeferredSigner.PreparedSignature prepared = PdfDeferredSigner.PreparedSignature.fromBytes(state);
+            restored.add(prepared);
+            // stands in for the CMS signature returned by the HSM
+            cms.add(prepared.getDigest());
+        }
+        PdfDeferredSigner.injectAll(outputs, restored, cms);
+
+        for (int k = 0; k < outputs.size(); ++k) {
+            byte[] signed = Files.readAllBytes(outputs.get(k));
+            PdfReader reader = new PdfReader(signed);
+            AcroFields fields = reader.getAcroFields();
+            String name = fields.getSignedFieldNames().get(0);
+            assertThat(fields.signatureCoversWholeDocument(name)).isTrue();
+            PdfDictionary sig = fields.getSignatureDictionary(name);
+            assertThat(sig.getAsName(PdfName.SUBFILTER)).isEqualTo(PdfName.ADBE_PKCS7_DETACHED);
+            assertThat(sig.getAsString(PdfName.REASON).toUnicodeString()).isEqualTo("Batch");
+            byte[] contents = sig.getAsString(PdfName.CONTENTS).getOriginalBytes();
+            assertThat(contents).hasSize(256);
+            assertThat(Arrays.copyOf(contents, 32)).isEqualTo(cms.get(k));
+
+            PdfArray byteRange = sig.getAsArray(PdfName.BYTERANGE);
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (int r = 0; r < byteRange.size(); r += 2) {
+                digest.update(signed, byteRange.getAsNumber(r).intValue(), byteRange.getAsNumber(r + 1).intValue());
+            }
+            assertThat(digest.digest()).isEqualTo(restored.get(k).getDigest());
+            reader.close();
+        }
+    }
+
+    @Test
+    void deletesTheOutputWhenTheDocumentCannotBePrepared() throws Exception {
+        Path input = Files.write(tempDir.resolve("input.pdf"), emptyPage());
+        Path output = tempDir.resolve("prepared.pdf");
+        PdfDeferredSigner signer = new PdfDeferredSigner("SHA-256", 64, sap -> {
+            throw new IllegalStateException("no certificate");
+        });
+
+        assertThatThrownBy(() -> signer.prepare(input, output))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("no certificate");
+        assertThat(output).doesNotExist();
+    }
+
+    @Test
+    void injectsIntoADocumentHeldInMemory() throws Exception {
+        PdfDeferredSigner signer = new PdfDeferredSigner("SHA-256", 64, null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PdfDeferredSigner.PreparedSignature prepared = signer.prepare(new PdfReader(emptyPage()), out);
+        byte[] document = out.toByteArray();
+        assertThat(prepared.getDocumentLength()).isEqualTo(document.length);
+
+        PdfDeferredSigner.inject(document, prepared, new byte[]{1, 2, 3});
+
+        PdfReader reader = new PdfReader(document);
+        AcroFields fields = reader.getAcroFields();
+        byte[] contents = fields.getSignatureDictionary(fields.getSignedFieldNames().get(0))
+                .getAsString(PdfName.CONTENTS).getOriginalBytes();
+        assertThat(Arrays.copyOf(contents, 4)).containsExactly(1, 2, 3, 0);
+        reader.close();
+    }
+
+    @Test
+    void rejectsSignaturesThatDoNotFitOrDocumentsThatDoNotMatch() throws Exception {
+        PdfDeferredSigner signer = new PdfDeferredSigner("SHA-256", 16, null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PdfDeferredSigner.PreparedSignature prepared = signer.prepare(new PdfReader(emptyPage()), out);
+        byte[] document = out.toByteArray();
+
+        assertThatThrownBy(() -> PdfDeferredSigner.inject(document, prepared, new byte[17]))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PdfDeferredSigner.inject(emptyPage(), prepared, new byte[16]))
+                .isInstanceOf(DocumentException.class);
+        assertThatThrownBy(() -> PdfDeferredSigner.PreparedSignature.fromBytes(new byte[]{9}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,126 @@
+package org.openpdf.text.pdf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.openpdf.text.Document;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Paragraph;
+import org.openpdf.text.Rectangle;
+
+class PdfPagesTreeTest {
+
+    private static byte[] createDocument(int pages, int fanOut) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        if (fanOut > 0) {
+            writer.setPageTreeFanOut(fanOut);
+        }
+        document.open();
+        for (int k = 1; k <= pages; ++k) {
+            // every page gets its own width, so that we can tell them apart when reading
+            document.setPageSize(new Rectangle(100 + k, 200));
+            document.newPage();
+            writer.getDirectContent().rectangle(10, 10, 20, 20);
+            writer.getDirectContent().stroke();
+        }
+        document.close();
+        return out.toByteArray();
+    }
+
+    private static int depth(PdfDictionary node) {
+        PdfArray kids = node.getAsArray(PdfName.KIDS);
+        if (kids == null) {
+            return 0;
+        }
+        int depth = -1;
+        for (int k = 0; k < kids.size(); ++k) {
+            int kidDepth = depth(kids.getAsDict(k));
+            if (depth != -1) {
+                // all the leaves of a balanced tree are at the same depth
+                assertThat(kidDepth).isEqualTo(depth);
+            }
+            depth = kidDepth;
+        }
+        return depth + 1;
+    }
+
+    private static int maxKids(PdfDictionary node) {
+        PdfArray kids = node.getAsArray(PdfName.KIDS);
+        if (kids == null) {
+            return 0;
+        }
+        int max = kids.size();
+        for (int k = 0; k < kids.size(); ++k) {
+            max = Math.max(max, maxKids(kids.getAsDict(k)));
+        }
+        return max;
+    }
+
+    @Test
+    void pageTreeIsBalancedWithConfiguredFanOut() throws Exception {
+        PdfReader reader = new PdfReader(createDocument(1000, 8));
+        PdfDictionary root = reader.getCatalog().getAsDict(PdfName.PAGES);
+        assertThat(root.getAsNumber(PdfName.COUNT).intValue()).isEqualTo(1000);
+        assertThat(maxKids(root)).isLessThanOrEqualTo(8);
+        // 1000 pages in leaves of 8 need 4 levels of nodes
+        assertThat(depth(root)).isEqualTo(4);
+        for (int k = 1; k <= 1000; ++k) {
+            assertThat(reader.getPageSize(k).getWidth()).isEqualTo(100 + k);
+        }
+        reader.close();
+    }
+
+    @Test
+    void largerFanOutGivesShallowerTree() throws Exception {
+        PdfReader defaultReader = new PdfReader(createDocument(1000, 0));
+        PdfReader wideReader = new PdfReader(createDocument(1000, 64));
+        assertThat(depth(defaultReader.getCatalog().getAsDict(PdfName.PAGES))).isEqualTo(3);
+        assertThat(depth(wideReader.getCatalog().getAsDict(PdfName.PAGES))).isEqualTo(2);
+        defaultReader.close();
+        wideReader.close();
+    }
+
+    @Test
+    void partialReaderFindsPagesInAnyOrder() throws Exception {
+        byte[] pdf = createDocument(500, 6);
+        PdfReader reader = new PdfReader(new RandomAccessFileOrArray(pdf), null);
+        assertThat(reader.getNumberOfPages()).isEqualTo(500);
+        List<Integer> order = new ArrayList<>();
+        for (int k = 1; k <= 500; ++k) {
+            order.add(k);
+        }
+        Collections.shuffle(order, new Random(42));
+        // read every page twice, the second time through the page index
+        for (int round = 0; round < 2; ++round) {
+            for (int page : order) {
+                PdfDictionary dic = reader.getPageN(page);
+                assertThat(dic.getAsArray(PdfName.MEDIABOX).getAsNumber(2).floatValue()).isEqualTo(100 + page);
+                assertThat(dic.get(PdfName.RESOURCES)).isNotNull();
+                reader.releasePage(page);
+            }
+        }
+        reader.close();
+    }
+
+    @Test
+    void fanOutIsValidated() {
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, new ByteArrayOutputStream());
+        assertThatIllegalArgumentException().isThrownBy(() -> writer.setPageTreeFanOut(1));
+        document.open();
+        document.add(new Paragraph("Hello"));
+        document.newPage();
+        document.add(new Paragraph("World"));
+        assertThatIllegalStateException().isThrownBy(() -> writer.setPageTreeFanOut(20));
+        document.close();
+    }
+}
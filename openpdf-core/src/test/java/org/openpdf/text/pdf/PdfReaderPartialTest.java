@@ -0,0 +1,44 @@
+package org.openpdf.text.pdf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import org.junit.jupiter.api.Test;
+import org.openpdf.text.Document;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Paragraph;
+
+class PdfReaderPartialTest {
+
+    private static byte[] createDocument(boolean fullCompression) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A5);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        if (fullCompression) {
+            writer.setFullCompression();
+        }
+        document.open();
+        for (int page = 1; page <= 3; ++page) {
+            document.newPage();
+            document.add(new Paragraph("Page " + page));
+        }
+        document.close();
+        return out.toByteArray();
+    }
+
+    @Test
+    void objectsInUseMatchTheObjectsThatCanBeRead() throws Exception {
+        for (boolean fullCompression : new boolean[]{false, true}) {
+            byte[] pdf = createDocument(fullCompression);
+            PdfReader partial = new PdfReader(new RandomAccessFileOrArray(pdf), null);
+            assertThat(partial.isObjectInUse(0)).isFalse();
+            assertThat(partial.isObjectInUse(-1)).isFalse();
+            assertThat(partial.isObjectInUse(partial.getXrefSize())).isFalse();
+            for (int k = 1; k < partial.getXrefSize(); ++k) {
+                boolean inUse = partial.isObjectInUse(k);
+                assertThat(partial.getPdfObjectRelease(k) != null).as("object %d", k).isEqualTo(inUse);
+            }
+            partial.close();
+        }
+    }
+}
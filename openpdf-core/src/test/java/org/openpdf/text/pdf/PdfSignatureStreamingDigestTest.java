@@ -0,0 +1,77 @@
+package org.openpdf.text.pdf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.openpdf.text.DocumentException;
+
+class PdfSignatureStreamingDigestTest {
+
+    private static PdfReader emptyPage() throws Exception {
+        try (InputStream is = PdfSignatureStreamingDigestTest.class.getResourceAsStream("/EmptyPage.pdf")) {
+            return new PdfReader(is);
+        }
+    }
+
+    private static byte[] sign(boolean append, ByteArrayOutputStream out, byte[][] digest) throws Exception {
+        Calendar signDate = Calendar.getInstance();
+        PdfReader reader = emptyPage();
+        PdfStamper stp = PdfStamper.createSignature(reader, out, null, append, MessageDigest.getInstance("SHA-256"));
+        PdfSignatureAppearance sap = stp.getSignatureAppearance();
+        PdfDictionary dic = new PdfDictionary();
+        dic.put(PdfName.FILTER, PdfName.ADOBE_PPKLITE);
+        dic.put(PdfName.M, new PdfDate(signDate));
+        sap.setCryptoDictionary(dic);
+        sap.setSignDate(signDate);
+        sap.setReason("Test");
+        Map<PdfName, Integer> exclusions = new HashMap<>();
+        exclusions.put(PdfName.CONTENTS, 66);
+        sap.preClose(exclusions);
+        digest[0] = sap.getDocumentDigest();
+        assertThatThrownBy(sap::getRangeStream).isInstanceOf(IllegalStateException.class);
+
+        PdfDictionary update = new PdfDictionary();
+        update.put(PdfName.CONTENTS, new PdfString(digest[0]).setHexWriting(true));
+        sap.close(update);
+        return out.toByteArray();
+    }
+
+    @Test
+    void computesTheDigestOfTheSignedRangesWhileWriting() throws Exception {
+        for (boolean append : new boolean[]{false, true}) {
+            byte[][] digest = new byte[1][];
+            byte[] signed = sign(append, new ByteArrayOutputStream(), digest);
+
+            PdfReader reader = new PdfReader(signed);
+            AcroFields fields = reader.getAcroFields();
+            String name = fields.getSignedFieldNames().get(0);
+            assertThat(fields.signatureCoversWholeDocument(name)).isTrue();
+            PdfDictionary sig = fields.getSignatureDictionary(name);
+            PdfArray byteRange = sig.getAsArray(PdfName.BYTERANGE);
+            MessageDigest expected = MessageDigest.getInstance("SHA-256");
+            for (int k = 0; k < byteRange.size(); k += 2) {
+                expected.update(signed, byteRange.getAsNumber(k).intValue(), byteRange.getAsNumber(k + 1).intValue());
+            }
+            assertThat(digest[0]).as("append %s", append).isEqualTo(expected.digest());
+            assertThat(sig.getAsString(PdfName.CONTENTS).getOriginalBytes()).isEqualTo(digest[0]);
+            reader.close();
+        }
+    }
+
+    @Test
+    void rejectsASignatureComputedByTheStamper() throws Exception {
+        PdfReader reader = emptyPage();
+        PdfStamper stp = PdfStamper.createSignature(reader, new ByteArrayOutputStream(), null, true,
+                MessageDigest.getInstance("SHA-256"));
+
+        assertThatThrownBy(() -> stp.getSignatureAppearance().preClose()).isInstanceOf(DocumentException.class);
+        reader.close();
+    }
+}
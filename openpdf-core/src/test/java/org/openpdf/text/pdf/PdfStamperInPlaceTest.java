@@ -0,0 +1,122 @@
+package org.openpdf.text.pdf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openpdf.text.Document;
+import org.openpdf.text.DocumentException;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Paragraph;
+import org.openpdf.text.pdf.parser.PdfTextExtractor;
+
+class PdfStamperInPlaceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path createDocument() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A5);
+        PdfWriter.getInstance(document, out);
+        document.open();
+        document.add(new Paragraph("Original text"));
+        document.close();
+        Path path = tempDir.resolve("document.pdf");
+        Files.write(path, out.toByteArray());
+        return path;
+    }
+
+    @Test
+    void appendsTheNewRevisionToTheSourceFile() throws Exception {
+        Path path = createDocument();
+        byte[] original = Files.readAllBytes(path);
+
+        PdfReader reader = new PdfReader(path.toString());
+        PdfStamper stamper = PdfStamper.appendInPlace(reader);
+        PdfContentByte over = stamper.getOverContent(1);
+        over.beginText();
+        over.setFontAndSize(BaseFont.createFont(), 12);
+        over.showTextAligned(PdfContentByte.ALIGN_LEFT, "Stamped text", 36, 36, 0);
+        over.endText();
+        stamper.close();
+        reader.close();
+
+        byte[] updated = Files.readAllBytes(path);
+        assertThat(updated.length).isGreaterThan(original.length);
+        assertThat(Arrays.copyOf(updated, original.length)).isEqualTo(original);
+        PdfReader result = new PdfReader(updated);
+        assertThat(new PdfTextExtractor(result).getTextFromPage(1))
+                .contains("Original text")
+                .contains("Stamped text");
+        result.close();
+    }
+
+    @Test
+    void signsInPlaceWithAByteRangeCoveringTheWholeFile() throws Exception {
+        Path path = createDocument();
+        byte[] original = Files.readAllBytes(path);
+        Calendar signDate = Calendar.getInstance();
+
+        PdfReader reader = new PdfReader(path.toString());
+        PdfStamper stamper = PdfStamper.createSignatureInPlace(reader);
+        PdfSignatureAppearance sap = stamper.getSignatureAppearance();
+        PdfDictionary dic = new PdfDictionary();
+        dic.put(PdfName.FILTER, PdfName.ADOBE_PPKLITE);
+        dic.put(PdfName.M, new PdfDate(signDate));
+        sap.setCryptoDictionary(dic);
+        sap.setSignDate(signDate);
+        Map<PdfName, Integer> exclusions = new HashMap<>();
+        exclusions.put(PdfName.CONTENTS, 10);
+        sap.preClose(exclusions);
+        PdfDictionary update = new PdfDictionary();
+        update.put(PdfName.CONTENTS, new PdfString("aaaa").setHexWriting(true));
+        sap.close(update);
+        reader.close();
+
+        byte[] signed = Files.readAllBytes(path);
+        assertThat(Arrays.copyOf(signed, original.length)).isEqualTo(original);
+        PdfReader result = new PdfReader(signed);
+        AcroFields fields = result.getAcroFields();
+        assertThat(fields.getSignedFieldNames()).hasSize(1);
+        String name = fields.getSignedFieldNames().get(0);
+        assertThat(fields.signatureCoversWholeDocument(name)).isTrue();
+        PdfArray byteRange = fields.getSignatureDictionary(name).getAsArray(PdfName.BYTERANGE);
+        assertThat(byteRange.getAsNumber(0).intValue()).isZero();
+        assertThat(byteRange.getAsNumber(2).intValue() + byteRange.getAsNumber(3).intValue())
+                .isEqualTo(signed.length);
+        result.close();
+    }
+
+    @Test
+    void rejectsADocumentNotReadFromAFile() throws Exception {
+        PdfReader reader = new PdfReader(Files.readAllBytes(createDocument()));
+
+        assertThatThrownBy(() -> PdfStamper.appendInPlace(reader)).isInstanceOf(DocumentException.class);
+        reader.close();
+    }
+
+    @Test
+    void rejectsAFileModifiedAfterItWasRead() throws Exception {
+        Path path = createDocument();
+        PdfReader reader = new PdfReader(path.toString());
+        try (FileOutputStream out = new FileOutputStream(path.toFile(), true)) {
+            out.write('\n');
+        }
+
+        assertThatThrownBy(() -> PdfStamper.appendInPlace(reader))
+                .isInstanceOf(DocumentException.class)
+                .hasMessageContaining("modified");
+        reader.close();
+    }
+}
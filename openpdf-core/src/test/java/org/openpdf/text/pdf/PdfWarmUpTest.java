@@ -0,0 +1,19 @@
+package org.openpdf.text.pdf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class PdfWarmUpTest {
+
+    @Test
+    void measuresEachStep() throws Exception {
+        PdfWarmUp.Report report = PdfWarmUp.warmUp();
+
+        assertThat(report.steps()).containsOnlyKeys("PdfName", "PdfEncodings", "GlyphList", "BaseFont", "Document");
+        Duration sum = report.steps().values().stream().reduce(Duration.ZERO, Duration::plus);
+        assertThat(report.total()).isGreaterThanOrEqualTo(sum);
+        assertThat(PdfWarmUp.warmUpAsync().get().steps()).hasSize(5);
+    }
+}
@@ -0,0 +1,147 @@
+package org.openpdf.text.pdf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.openpdf.text.Document;
+import org.openpdf.text.PageSize;
+
+class PdfWriterMemoryBudgetTest {
+
+    private static final int PAGES = 20;
+
+    private static byte[] createDocument(long memoryBudget, boolean fullCompression) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setMemoryBudget(memoryBudget);
+        if (fullCompression) {
+            writer.setFullCompression();
+        }
+        document.open();
+        List<PdfTemplate> templates = new ArrayList<>();
+        for (int page = 0; page < PAGES; ++page) {
+            document.newPage();
+            PdfTemplate template = writer.getDirectContent().createTemplate(500, 500);
+            for (int k = 0; k < 200; ++k) {
+                template.rectangle(page, k, 10, 10);
+            }
+            template.stroke();
+            writer.getDirectContent().addTemplate(template, 0, 0);
+            templates.add(template);
+        }
+        // the templates can still be changed after their content was spilled
+        for (PdfTemplate template : templates) {
+            template.moveTo(0, 0);
+            template.lineTo(100, 100);
+            template.stroke();
+        }
+        document.close();
+        return out.toByteArray();
+    }
+
+    private static List<byte[]> templateContents(byte[] pdf) throws Exception {
+        List<byte[]> contents = new ArrayList<>();
+        PdfReader reader = new PdfReader(pdf);
+        for (int page = 1; page <= reader.getNumberOfPages(); ++page) {
+            PdfDictionary xobjects = reader.getPageN(page).getAsDict(PdfName.RESOURCES).getAsDict(PdfName.XOBJECT);
+            for (PdfName name : xobjects.getKeys()) {
+                PRStream stream = (PRStream) PdfReader.getPdfObject(xobjects.get(name));
+                contents.add(PdfReader.getStreamBytes(stream));
+            }
+        }
+        reader.close();
+        return contents;
+    }
+
+    @Test
+    void spilledTemplatesAreWrittenUnchanged() throws Exception {
+        List<byte[]> expected = templateContents(createDocument(0, false));
+        List<byte[]> actual = templateContents(createDocument(1000, false));
+        assertThat(actual).hasSize(PAGES);
+        for (int k = 0; k < PAGES; ++k) {
+            assertThat(actual.get(k)).isEqualTo(expected.get(k));
+        }
+    }
+
+    @Test
+    void spilledTemplatesWithFullCompression() throws Exception {
+        List<byte[]> expected = templateContents(createDocument(0, true));
+        List<byte[]> actual = templateContents(createDocument(1, true));
+        assertThat(actual).hasSize(PAGES);
+        for (int k = 0; k < PAGES; ++k) {
+            assertThat(actual.get(k)).isEqualTo(expected.get(k));
+        }
+    }
+
+    @Test
+    void templatesOverBudgetAreSpilled() throws Exception {
+        Document document = new Document(PageSize.A4);
+        PdfWriter writer = PdfWriter.getInstance(document, new ByteArrayOutputStream());
+        writer.setMemoryBudget(100);
+        document.open();
+        PdfTemplate template = writer.getDirectContent().createTemplate(100, 100);
+        for (int k = 0; k < 50; ++k) {
+            template.rectangle(k, k, 10, 10);
+        }
+        int size = template.size();
+        writer.getDirectContent().addTemplate(template, 0, 0);
+        document.newPage();
+        assertThat(template.memorySize()).isZero();
+        assertThat(template.size()).isEqualTo(size);
+        assertThat(template.getInternalBuffer().size()).isEqualTo(size);
+        assertThat(template.memorySize()).isEqualTo(size);
+        document.close();
+    }
+
+    @Test
+    void residentSizeFollowsTheTemplateContent() throws Exception {
+        Document document = new Document(PageSize.A4);
+        PdfWriter writer = PdfWriter.getInstance(document, new ByteArrayOutputStream());
+        document.open();
+        PdfTemplate first = writer.getDirectContent().createTemplate(100, 100);
+        PdfTemplate second = writer.getDirectContent().createTemplate(100, 100);
+        first.rectangle(0, 0, 10, 10);
+        writer.getDirectContent().addTemplate(first, 0, 0);
+        writer.getDirectContent().addTemplate(second, 0, 0);
+        second.rectangle(0, 0, 20, 20);
+        assertThat(writer.residentTemplateBytes).isEqualTo(first.memorySize() + second.memorySize());
+
+        writer.releaseTemplate(first);
+        assertThat(writer.residentTemplateBytes).isEqualTo(second.memorySize());
+        try (SpillFile file = new SpillFile()) {
+            second.spill(file);
+            assertThat(writer.residentTemplateBytes).isZero();
+            second.stroke();
+            assertThat(writer.residentTemplateBytes).isEqualTo(second.memorySize()).isPositive();
+            document.close();
+        }
+    }
+
+    @Test
+    void restoredContentReusesItsSpace() throws Exception {
+        try (SpillFile file = new SpillFile()) {
+            PdfTemplate template = new PdfTemplate();
+            template.rectangle(0, 0, 10, 10);
+            template.spill(file);
+            long length = file.length();
+            for (int k = 0; k < 5; ++k) {
+                template.getInternalBuffer();
+                template.spill(file);
+            }
+            assertThat(file.length()).isEqualTo(length);
+
+            template.stroke();
+            String expected = "0 0 10 10 re\nS\n";
+            template.spill(file);
+            assertThat(file.length()).isEqualTo(expected.length());
+            assertThat(template.toString()).isEqualTo(expected);
+
+            template.reset();
+            assertThat(file.length()).isZero();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.openpdf.text.pdf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openpdf.text.Document;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Paragraph;
+import org.openpdf.text.pdf.parser.PdfTextExtractor;
+
+class SharedPdfReaderTest {
+
+    private static final int PAGES = 10;
+
+    @TempDir
+    Path tempDir;
+
+    private static byte[] createDocument() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A5);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setFullCompression();
+        document.open();
+        for (int page = 1; page <= PAGES; ++page) {
+            document.newPage();
+            document.add(new Paragraph("Page " + page));
+        }
+        document.close();
+        return out.toByteArray();
+    }
+
+    @Test
+    void concurrentReadersExtractTheSameText() throws Exception {
+        Path file = tempDir.resolve("shared.pdf");
+        Files.write(file, createDocument());
+        try (SharedPdfReader source = new SharedPdfReader(file.toString());
+                ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            assertThat(source.getNumberOfPages()).isEqualTo(PAGES);
+            List<Future<String>> results = new ArrayList<>();
+            for (int task = 0; task < 50; ++task) {
+                int page = task % PAGES + 1;
+                results.add(executor.submit(() -> {
+                    PdfReader reader = source.newReader();
+                    try {
+                        return new PdfTextExtractor(reader).getTextFromPage(page);
+                    } finally {
+                        reader.close();
+                    }
+                }));
+            }
+            for (int task = 0; task < results.size(); ++task) {
+                assertThat(results.get(task).get()).contains("Page " + (task % PAGES + 1));
+            }
+        }
+    }
+
+    @Test
+    void stampingOneReaderDoesNotAffectTheOthers() throws Exception {
+        try (SharedPdfReader source = new SharedPdfReader(createDocument(), null)) {
+            PdfReader stamped = source.newReader();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            PdfStamper stamper = new PdfStamper(stamped, out);
+            stamper.getReader().selectPages("1-2");
+            stamper.close();
+            assertThat(new PdfReader(out.toByteArray()).getNumberOfPages()).isEqualTo(2);
+
+            PdfReader other = source.newReader();
+            assertThat(other.getNumberOfPages()).isEqualTo(PAGES);
+            assertThat(new PdfTextExtractor(other).getTextFromPage(PAGES)).contains("Page " + PAGES);
+            other.close();
+        }
+    }
+}
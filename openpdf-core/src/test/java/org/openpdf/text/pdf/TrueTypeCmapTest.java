@@ -0,0 +1,74 @@
+package org.openpdf.text.pdf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TrueTypeCmapTest {
+
+    @Test
+    void mapsCodesAcrossPages() {
+        TrueTypeCmap cmap = new TrueTypeCmap();
+        cmap.put('A', 36, 722);
+        cmap.put(0x4E00, 1200, 1000);
+        cmap.put(0x1F600, 4000, 1200);
+        cmap.put('A', 37, 700);
+
+        assertThat(cmap.size()).isEqualTo(3);
+        assertThat(cmap.get('A')).containsExactly(37, 700);
+        assertThat(cmap.getGlyph(0x4E00)).isEqualTo(1200);
+        assertThat(cmap.getWidth(0x1F600)).isEqualTo(1200);
+        assertThat(cmap.get('B')).isNull();
+        assertThat(cmap.getGlyph(0x10FFFF)).isEqualTo(-1);
+        assertThat(cmap.getWidth(-5)).isZero();
+        assertThat(cmap.containsKey(0x4E01)).isFalse();
+    }
+
+    @Test
+    void visitsEntriesInCodeOrder() {
+        TrueTypeCmap cmap = new TrueTypeCmap();
+        cmap.put(0x4E00, 2, 1000);
+        cmap.put(0x20, 1, 250);
+        cmap.put(0x21, 0, 0);
+        List<String> entries = new ArrayList<>();
+        cmap.forEach((code, glyph, width) -> entries.add(code + ":" + glyph + ":" + width));
+        assertThat(entries).containsExactly("32:1:250", "33:0:0", "19968:2:1000");
+    }
+
+    @Test
+    void setsWidthsOfMappedCodesOnly() {
+        TrueTypeCmap cmap = new TrueTypeCmap();
+        cmap.put(0x41, 36, 722);
+        assertThat(cmap.setWidth(0x41, 500)).isTrue();
+        assertThat(cmap.setWidth(0x42, 500)).isFalse();
+        assertThat(cmap.setWidth(0x10000, 500)).isFalse();
+        assertThat(cmap.getWidth(0x41)).isEqualTo(500);
+        assertThat(cmap.size()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsCodesOutsideUnicode() {
+        TrueTypeCmap cmap = new TrueTypeCmap();
+        assertThatThrownBy(() -> cmap.put(0x110000, 1, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> cmap.put(-1, 1, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void fontLookupsMatchTheMetrics() throws Exception {
+        BaseFont baseFont = BaseFont.createFont("src/test/resources/fonts/ivs/Hei_MSCS.ttf", BaseFont.IDENTITY_H,
+                BaseFont.NOT_EMBEDDED, false, null, null);
+        TrueTypeFontUnicode font = (TrueTypeFontUnicode) baseFont;
+        for (int c : new int[]{'A', ' ', 0x36C7, 0x4E00, 0xFFFF}) {
+            int[] metrics = font.getMetricsTT(c);
+            assertThat(font.getGlyphTT(c)).isEqualTo(metrics == null ? -1 : metrics[0]);
+            assertThat(font.getWidthTT(c)).isEqualTo(metrics == null ? 0 : metrics[1]);
+            assertThat(font.charExists(c)).isEqualTo(metrics != null);
+        }
+        assertThat(font.setCharAdvance(0x36C7, 777)).isTrue();
+        assertThat(font.getWidth(0x36C7)).isEqualTo(777);
+        assertThat(font.getMetricsTT(0x36C7)[1]).isEqualTo(777);
+    }
+}
@@ -0,0 +1,43 @@
+package org.openpdf.text.pdf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class XfdfReaderTest {
+
+    private static List<XfdfReader> readRecords(String xfdf) throws Exception {
+        List<XfdfReader> records = new ArrayList<>();
+        XfdfReader.readRecords(new ByteArrayInputStream(xfdf.getBytes(StandardCharsets.UTF_8)), records::add);
+        return records;
+    }
+
+    @Test
+    void readsTheRecordsWithTheFileSpecificationOfTheirXfdfElement() throws Exception {
+        List<XfdfReader> records = readRecords("<?xml version=\"1.0\"?>\n<export>"
+                + "<xfdf><f href=\"first.pdf\"/><fields><field name=\"a\"><value>1</value></field></fields></xfdf>"
+                + "<xfdf><fields><field name=\"a\"><value>2</value></field></fields></xfdf>"
+                + "</export>");
+
+        assertThat(records).hasSize(2);
+        assertThat(records.get(0).getFileSpec()).isEqualTo("first.pdf");
+        assertThat(records.get(0).getFieldValue("a")).isEqualTo("1");
+        assertThat(records.get(1).getFileSpec()).isEmpty();
+        assertThat(records.get(1).getFieldValue("a")).isEqualTo("2");
+    }
+
+    @Test
+    void rejectsAStreamThatIsNotXfdf() {
+        assertThatThrownBy(() -> readRecords("<?xml version=\"1.0\"?>\n"
+                + "<fields><field name=\"a\"><value>1</value></field></fields>"))
+                .hasMessage("Root element is not xfdf: fields");
+        assertThatThrownBy(() -> readRecords("<?xml version=\"1.0\"?>\n"
+                + "<export><fields><field name=\"a\"><value>1</value></field></fields></export>"))
+                .hasMessage("Root element is not xfdf: export");
+    }
+}
@@ -0,0 +1,75 @@
+package org.openpdf.text.pdf.fonts.cmaps;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class CMapCacheTest {
+
+    private static byte[] toUnicode(String mappings) {
+        return ("/CIDInit /ProcSet findresource begin\n"
+                + "12 dict begin\n"
+                + "begincmap\n"
+                + "1 begincodespacerange\n<0000> <FFFF>\nendcodespacerange\n"
+                + mappings
+                + "endcmap\n"
+                + "end end\n").getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    @Test
+    void looksUpOneAndTwoByteCodes() throws Exception {
+        CMap cmap = new CMap();
+        cmap.addMapping(new byte[]{0x41}, "A");
+        cmap.addMapping(new byte[]{0x12, 0x34}, "é");
+        cmap.addMapping(new byte[]{(byte) 0xff, (byte) 0xff}, "fi");
+
+        assertThat(cmap.hasOneByteMappings()).isTrue();
+        assertThat(cmap.hasTwoByteMappings()).isTrue();
+        assertThat(cmap.lookup(new byte[]{0x41}, 0, 1)).isEqualTo("A");
+        assertThat(cmap.lookup(new byte[]{0, 0x12, 0x34}, 1, 2)).isEqualTo("é");
+        assertThat(cmap.lookup(new byte[]{0x12, 0x35}, 0, 2)).isNull();
+        assertThat(cmap.lookup((char) 0xffff)).isEqualTo("fi");
+        assertThat(cmap.lookup('A')).isEqualTo("A");
+        assertThat(cmap.lookup('B')).isNull();
+    }
+
+    @Test
+    void sharesCMapsParsedFromTheSameBytes() throws Exception {
+        CMapCache cache = new CMapCache(8);
+        byte[] data = toUnicode("2 beginbfchar\n<0003> <0020>\n<0024> <0041>\nendbfchar\n"
+                + "1 beginbfrange\n<0044> <0046> <0061>\nendbfrange\n");
+
+        CMap first = cache.parse(data);
+        CMap second = cache.parse(data.clone());
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.lookup(new byte[]{0, 0x24}, 0, 2)).isEqualTo("A");
+        assertThat(first.lookup(new byte[]{0, 0x45}, 0, 2)).isEqualTo("b");
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(1);
+
+        CMap other = cache.parse(toUnicode("1 beginbfchar\n<0003> <0021>\nendbfchar\n"));
+        assertThat(other).isNotSameAs(first);
+        assertThat(other.lookup(new byte[]{0, 3}, 0, 2)).isEqualTo("!");
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void discardsTheLeastRecentlyUsedCMaps() throws Exception {
+        CMapCache cache = new CMapCache(2);
+        byte[] a = toUnicode("1 beginbfchar\n<0001> <0041>\nendbfchar\n");
+        byte[] b = toUnicode("1 beginbfchar\n<0001> <0042>\nendbfchar\n");
+        byte[] c = toUnicode("1 beginbfchar\n<0001> <0043>\nendbfchar\n");
+        CMap cmapA = cache.parse(a);
+        cache.parse(b);
+        cache.parse(a);
+        cache.parse(c);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.parse(a)).isSameAs(cmapA);
+        assertThat(cache.getMisses()).isEqualTo(3);
+        cache.parse(b);
+        assertThat(cache.getMisses()).isEqualTo(4);
+    }
+}
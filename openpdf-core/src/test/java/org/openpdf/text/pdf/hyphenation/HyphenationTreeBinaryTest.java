@@ -0,0 +1,148 @@
+package org.openpdf.text.pdf.hyphenation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class HyphenationTreeBinaryTest {
+
+    private static final String PATTERNS = """
+            <?xml version="1.0" encoding="utf-8"?>
+            <hyphenation-info>
+            <hyphen-char value="-"/>
+            <classes>
+            aA
+            bB
+            cC
+            eE
+            hH
+            lL
+            nN
+            oO
+            pP
+            rR
+            tT
+            yY
+            </classes>
+            <exceptions>
+            ta-ble
+            </exceptions>
+            <patterns>
+            .hy3p
+            .re1
+            n2at
+            1tio
+            h1y
+            hy3ph
+            he2n
+            hena4
+            hen5at
+            1na
+            n2at
+            1tio
+            2io
+            o2n
+            </patterns>
+            </hyphenation-info>
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void resetHyphenator() {
+        Hyphenator.setHyphenDir("");
+        Hyphenator.setHyphenCacheDir(null);
+        Hyphenator.clearCache();
+    }
+
+    private static HyphenationTree parseTree() {
+        HyphenationTree tree = new HyphenationTree();
+        tree.loadSimplePatterns(new ByteArrayInputStream(PATTERNS.getBytes(StandardCharsets.UTF_8)));
+        return tree;
+    }
+
+    private static byte[] toBinary(HyphenationTree tree) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        tree.writeBinary(out);
+        return out.toByteArray();
+    }
+
+    @Test
+    void binaryTreeHyphenatesLikeParsedTree() throws IOException {
+        HyphenationTree parsed = parseTree();
+        HyphenationTree loaded = HyphenationTree.readBinary(ByteBuffer.wrap(toBinary(parsed)));
+
+        for (String word : new String[]{"hyphenation", "Hyphenation", "table", "partition"}) {
+            Hyphenation expected = parsed.hyphenate(word, 2, 2);
+            Hyphenation actual = loaded.hyphenate(word, 2, 2);
+            if (expected == null) {
+                assertThat(actual).isNull();
+            } else {
+                assertThat(actual).isNotNull();
+                assertThat(actual.toString()).isEqualTo(expected.toString());
+            }
+        }
+        assertThat(loaded.hyphenate("table", 2, 2).toString()).isEqualTo("ta-ble");
+        assertThat(loaded.findPattern("hy")).isEqualTo(parsed.findPattern("hy"));
+    }
+
+    @Test
+    void binaryTreeRoundTripsThroughStream() throws IOException {
+        byte[] binary = toBinary(parseTree());
+        HyphenationTree loaded = HyphenationTree.readBinary(new ByteArrayInputStream(binary));
+        assertThat(toBinary(loaded)).isEqualTo(binary);
+    }
+
+    @Test
+    void invalidBinaryIsRejected() throws IOException {
+        assertThrows(IOException.class, () -> HyphenationTree.readBinary(ByteBuffer.wrap(new byte[]{1, 2, 3, 4})));
+        byte[] binary = toBinary(parseTree());
+        byte[] truncated = new byte[binary.length / 2];
+        System.arraycopy(binary, 0, truncated, 0, truncated.length);
+        assertThrows(IOException.class, () -> HyphenationTree.readBinary(ByteBuffer.wrap(truncated)));
+    }
+
+    @Test
+    void hyphenatorStoresParsedTreesInCacheDir() throws IOException {
+        Path patternDir = Files.createDirectories(tempDir.resolve("patterns"));
+        Path cacheDir = tempDir.resolve("cache");
+        Files.writeString(patternDir.resolve("xx.xml"), PATTERNS);
+        Hyphenator.setHyphenDir(patternDir.toString());
+        Hyphenator.setHyphenCacheDir(cacheDir.toString());
+
+        HyphenationTree first = Hyphenator.getHyphenationTree("xx", null);
+        assertThat(first).isNotNull();
+        assertThat(Hyphenator.getHyphenationTree("xx", "none")).isSameAs(first);
+        assertThat(cacheDir.resolve("xx.bin")).exists();
+
+        // a new JVM would find the binary tree even without the patterns
+        Files.delete(patternDir.resolve("xx.xml"));
+        Hyphenator.clearCache();
+        HyphenationTree cached = Hyphenator.getHyphenationTree("xx", null);
+        assertThat(cached).isNotNull().isNotSameAs(first);
+        assertThat(cached.hyphenate("table", 2, 2).toString()).isEqualTo("ta-ble");
+    }
+
+    @Test
+    void hyphenatorPrefersBinaryTreeInHyphenDir() throws IOException {
+        try (OutputStream out = Files.newOutputStream(tempDir.resolve("yy.bin"))) {
+            parseTree().writeBinary(out);
+        }
+        Hyphenator.setHyphenDir(tempDir.toString());
+
+        Hyphenator hyphenator = new Hyphenator("yy", "none", 2, 2);
+        assertThat(hyphenator.hyphenate("table").toString()).isEqualTo("ta-ble");
+    }
+}
@@ -0,0 +1,40 @@
+package org.openpdf.extend;
+
+/**
+ * The advances of the characters of a string in one font, measured once so that the width of any substring can be
+ * computed without measuring the substring again.
+ *
+ * @see TextRenderer#getAdvances(FontContext, org.openpdf.render.FSFont, String)
+ */
+public interface TextAdvances {
+
+    /**
+     * Gets the width of a substring followed by a suffix, as {@link TextRenderer#getWidth} would measure
+     * {@code string.substring(start, end) + suffix}.
+     *
+     * @param start  the index of the first character of the substring
+     * @param end    the index after the last character of the substring
+     * @param suffix text measured after the substring, typically a hyphen, may be empty
+     * @return the width
+     */
+    int getWidth(int start, int end, String suffix);
+
+    /**
+     * Finds how much of the string fits in a width.
+     *
+     * @param start the index of the first character
+     * @param avail the available width
+     * @return the largest end such that {@code getWidth(start, end, "") <= avail}, {@code start} if not even the
+     * first character fits
+     */
+    int fit(int start, int avail);
+
+    /**
+     * Gets the advances of the string with text inserted, measuring only the inserted text.
+     *
+     * @param index the index at which the text is inserted
+     * @param text  the inserted text
+     * @return the advances of the new string
+     */
+    TextAdvances insert(int index, String text);
+}
@@ -20,6 +20,7 @@
  */
 package org.openpdf.extend;
 
+import org.jspecify.annotations.Nullable;
 import org.openpdf.render.FSFont;
 import org.openpdf.render.FSFontMetrics;
 import org.openpdf.render.JustificationInfo;
@@ -47,6 +48,17 @@ public interface TextRenderer {
 
     int getWidth(FontContext context, FSFont font, String string);
 
+    /**
+     * Measures the characters of a string once, so that line breaking can get the width of its substrings without
+     * measuring each of them.
+     *
+     * @return the advances, or null if the width of a substring can't be computed from the advances of its
+     * characters with this renderer; the substrings are then measured with {@link #getWidth}
+     */
+    default @Nullable TextAdvances getAdvances(FontContext context, FSFont font, String string) {
+        return null;
+    }
+
     void setFontScale(float scale);
 
     float getFontScale();
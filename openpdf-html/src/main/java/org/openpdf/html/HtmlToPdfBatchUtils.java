@@ -47,6 +47,7 @@
 
 package org.openpdf.html;
 
+import org.openpdf.pdf.HtmlPdfEngine;
 import org.openpdf.pdf.ITextRenderer;
 import org.openpdf.layout.SharedContext;
 import org.openpdf.text.utils.PdfBatch;
@@ -238,6 +239,22 @@ public final class HtmlToPdfBatchUtils {
         renderer.createPDF(outputStream, true);
     }
 
+    /**
+     * Render an HTML string with one of the warm renderers of an engine. Renderer settings belong to the engine,
+     * see {@link HtmlPdfEngine.Builder#configure(Consumer)}.
+     */
+    public static void renderHtmlString(HtmlPdfEngine engine, String html, String baseUri,
+            OutputStream outputStream, String injectCss) {
+        Objects.requireNonNull(engine, "engine");
+        Objects.requireNonNull(html, "html");
+        Objects.requireNonNull(outputStream, "output");
+
+        String finalHtml = injectCss != null && !injectCss.isEmpty()
+                ? injectCssBlock(injectCss).apply(html)
+                : html;
+        engine.render(finalHtml, baseUri != null && !baseUri.isBlank() ? baseUri : null, outputStream);
+    }
+
     /** Render an HTML file (and relatives). */
     public static Path renderHtmlFile(Path htmlFile, Path baseDir, Path output,
             String injectCss,
@@ -316,6 +333,28 @@ public final class HtmlToPdfBatchUtils {
         ).toList(), onSuccess, onFailure);
     }
 
+    /**
+     * Batch-render HTML strings with the warm renderers of an engine instead of a new renderer per job. A job with a
+     * {@code rendererCustomizer} still gets a renderer of its own, because customizing a pooled renderer would affect
+     * the jobs rendered after it.
+     */
+    public static BatchResult<Path> batchHtmlStrings(HtmlPdfEngine engine, List<HtmlStringJob> jobs,
+            Consumer<Path> onSuccess,
+            Consumer<Throwable> onFailure) {
+        Objects.requireNonNull(engine, "engine");
+        return PdfBatch.run(jobs.stream().map(j -> (Callable<Path>) () -> {
+            if (j.rendererCustomizer.isPresent()) {
+                return renderHtmlString(j.html, j.baseUri, j.output, j.injectCss.orElse(null),
+                        j.rendererCustomizer.get());
+            }
+            Files.createDirectories(j.output.getParent());
+            try (var out = new FileOutputStream(j.output.toFile())) {
+                renderHtmlString(engine, j.html, j.baseUri, out, j.injectCss.orElse(null));
+            }
+            return j.output;
+        }).toList(), onSuccess, onFailure);
+    }
+
     public static BatchResult<Path> batchHtmlFiles(List<HtmlFileJob> jobs,
             Consumer<Path> onSuccess,
             Consumer<Throwable> onFailure) {
@@ -19,6 +19,9 @@
  */
 package org.openpdf.layout;
 
+import org.jspecify.annotations.Nullable;
+import org.openpdf.extend.TextAdvances;
+import org.openpdf.render.FSFont;
 import org.w3c.dom.Text;
 
 /**
@@ -36,6 +39,12 @@ public class LineBreakContext {
     private int _width;
     private boolean _endsOnNL;
     private final Text _textNode;
+    @Nullable
+    private FSFont _advancesFont;
+    @Nullable
+    private String _advancesMaster;
+    @Nullable
+    private TextAdvances _advances;
 
     public LineBreakContext(String master, Text textNode) {
         this._master = master;
@@ -76,10 +85,39 @@ public class LineBreakContext {
         _start = start;
     }
 
+    /**
+     * Inserts text in the master string, typically the hyphen of a hyphenated line. The advances cached for the
+     * master string are updated instead of measuring the string again.
+     */
+    public void insert(int index, String text) {
+        boolean measured = _advances != null && _advancesMaster == _master;
+        _master = new StringBuilder(_master).insert(index, text).toString();
+        if (measured) {
+            _advances = _advances.insert(index, text);
+            _advancesMaster = _master;
+        }
+    }
+
     public String getStartSubstring() {
         return _master.substring(_start);
     }
 
+    /**
+     * Gets the advances of the characters of the master string in a font. They are measured once and reused for
+     * every line of the text, as long as the master string and the font don't change.
+     *
+     * @return the advances or null if the text renderer can't provide them
+     */
+    @Nullable
+    public TextAdvances getAdvances(LayoutContext c, FSFont font) {
+        if (_advancesFont != font || _advancesMaster != _master) {
+            _advances = c.getTextRenderer().getAdvances(c.getFontContext(), font, _master);
+            _advancesFont = font;
+            _advancesMaster = _master;
+        }
+        return _advances;
+    }
+
     public String getCalculatedSubstring() {
         // mimic the calculation in InlineText.setSubstring to strip newlines for our width calculations
         // the original text width calculation in InlineBox.calcMaxWidthFromLineLength() excludes the newline character
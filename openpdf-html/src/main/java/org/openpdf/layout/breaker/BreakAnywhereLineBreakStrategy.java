@@ -23,16 +23,23 @@ package org.openpdf.layout.breaker;
  */
 public class BreakAnywhereLineBreakStrategy implements BreakPointsProvider {
 
-    private final String currentString;
+    private final int length;
     private int position = 0;
 
     public BreakAnywhereLineBreakStrategy(String currentString) {
-        this.currentString = currentString;
+        this(currentString, 0);
+    }
+
+    /**
+     * Breaks the end of a string, from {@code start}. The break points are relative to {@code start}.
+     */
+    public BreakAnywhereLineBreakStrategy(String text, int start) {
+        this.length = text.length() - start;
     }
 
     @Override
     public BreakPoint next() {
-        if (position + 1 > currentString.length()) {
+        if (position + 1 > length) {
             return BreakPoint.getDonePoint();
         }
         return new BreakPoint(position++);
@@ -27,6 +27,7 @@ import org.w3c.dom.Node;
 import org.w3c.dom.Text;
 import org.openpdf.css.constants.IdentValue;
 import org.openpdf.css.style.CalculatedStyle;
+import org.openpdf.extend.TextAdvances;
 import org.openpdf.layout.LayoutContext;
 import org.openpdf.layout.LineBreakContext;
 import org.openpdf.layout.TextUtil;
@@ -92,9 +93,9 @@ public class Breaker {
         if (whitespace == IdentValue.PRE ||
                 whitespace == IdentValue.PRE_WRAP ||
                 whitespace == IdentValue.PRE_LINE) {
-            int n = context.getStartSubstring().indexOf(WhitespaceStripper.EOL);
+            int n = context.getMaster().indexOf(WhitespaceStripper.EOL, context.getStart());
             if (n > -1) {
-                context.setEnd(context.getStart() + n + 1);
+                context.setEnd(n + 1);
                 context.setWidth(c.getTextRenderer().getWidth(
                         c.getFontContext(), font, context.getCalculatedSubstring()));
                 context.setNeedsNewLine(true);
@@ -131,6 +132,10 @@ public class Breaker {
         return c.getSharedContext().getLineBreakingStrategy().getBreakPointsProvider(text, getLanguage(c, textNode), style);
     }
 
+    public static BreakPointsProvider getBreakPointsProvider(String text, int start, LayoutContext c, Text textNode, CalculatedStyle style) {
+        return c.getSharedContext().getLineBreakingStrategy().getBreakPointsProvider(text, start, getLanguage(c, textNode), style);
+    }
+
     @CheckReturnValue
     private static String getLanguage(LayoutContext c, @Nullable Element element) {
         String language = element == null ? null : c.getNamespaceHandler().getLang(element);
@@ -155,22 +160,34 @@ public class Breaker {
             LineBreakContext context, int avail, CalculatedStyle style,
             boolean tryToBreakAnywhere) {
         FSFont f = style.getFSFont(c);
-        String currentString = context.getStartSubstring();
-        BreakPointsProvider iterator = getBreakPointsProvider(currentString, c, context.getTextNode(), style);
-        if (tryToBreakAnywhere) {
-            iterator = new BreakAnywhereLineBreakStrategy(currentString);
-        }
+        // measured once per text and font: every break point below is then measured without creating a substring
+        TextAdvances advances = context.getAdvances(c, f);
+        String master = context.getMaster();
+        int start = context.getStart();
+        int last = context.getLast();
+        // the break points are relative to start
+        BreakPointsProvider iterator = tryToBreakAnywhere
+                ? new BreakAnywhereLineBreakStrategy(master, start)
+                : getBreakPointsProvider(master, start, c, context.getTextNode(), style);
+        // the break points before this position fit, unless the hyphen added at the break point doesn't
+        int fitting = advances == null ? -1 : advances.fit(start, avail) - start;
         BreakPoint bp = iterator.next();
         BreakPoint lastBreakPoint = null;
         int right = -1;
         int previousWidth = 0;
         int previousPosition = 0;
         while (bp != null && bp.getPosition() != BreakIterator.DONE) {
-            int currentWidth = getWidth(c, f, currentString.substring(previousPosition, bp.getPosition()) + bp.getHyphen());
-            int widthWithHyphen = previousWidth + currentWidth;
-            previousWidth = widthWithHyphen;
+            boolean fits;
+            if (advances != null) {
+                fits = bp.getPosition() <= fitting && (bp.getHyphen().isEmpty()
+                        || advances.getWidth(start, start + bp.getPosition(), bp.getHyphen()) <= avail);
+            } else {
+                int currentWidth = getWidth(c, f, master.substring(start + previousPosition, start + bp.getPosition()) + bp.getHyphen());
+                previousWidth += currentWidth;
+                fits = previousWidth <= avail;
+            }
             previousPosition = bp.getPosition();
-            if (widthWithHyphen > avail) {
+            if (!fits) {
                 break;
             }
             right = previousPosition;
@@ -179,15 +196,19 @@ public class Breaker {
         }
 
         // add hyphen if needed
+        int hyphenatedWidth = -1;
         if (bp != null && bp.getPosition() != BreakIterator.DONE // it fits
                 && right >= 0 // some break point found
                 && !lastBreakPoint.getHyphen().isEmpty()) {
-            context.setMaster(new StringBuilder(context.getMaster()).insert(context.getStart() + right, lastBreakPoint.getHyphen()).toString());
+            if (advances != null) {
+                hyphenatedWidth = advances.getWidth(start, start + right, lastBreakPoint.getHyphen());
+            }
+            context.insert(start + right, lastBreakPoint.getHyphen());
             right += lastBreakPoint.getHyphen().length();
         }
 
         if (bp != null && bp.getPosition() == BreakIterator.DONE) {
-            context.setWidth(getWidth(c, f, currentString));
+            context.setWidth(advances != null ? advances.getWidth(start, last, "") : getWidth(c, f, master.substring(start)));
             context.setEnd(context.getMaster().length());
             //It fits!
             return;
@@ -203,16 +224,29 @@ public class Breaker {
 
         if (right > 0) { // found a place to wrap
             context.setEnd(context.getStart() + right);
-            context.setWidth(getWidth(c, f, context.getMaster().substring(context.getStart(), context.getStart() + right)));
+            if (hyphenatedWidth >= 0) {
+                context.setWidth(hyphenatedWidth);
+            } else if (advances != null) {
+                context.setWidth(advances.getWidth(start, start + right, ""));
+            } else {
+                context.setWidth(getWidth(c, f, context.getMaster().substring(context.getStart(), context.getStart() + right)));
+            }
             return;
         }
 
         // unbreakable string
-        context.setEnd(context.getStart() + currentString.length());
+        context.setEnd(last);
         context.setUnbreakable(true);
-        context.setWidth(getWidth(c, f, context.getCalculatedSubstring()));
+        if (advances != null) {
+            int end = context.getEnd();
+            // like getCalculatedSubstring(), without the trailing newline
+            if (end > start && context.getMaster().charAt(end - 1) == WhitespaceStripper.EOLC) {
+                end--;
+            }
+            context.setWidth(advances.getWidth(start, end, ""));
+        } else {
+            context.setWidth(getWidth(c, f, context.getCalculatedSubstring()));
+        }
     }
 
 }
-
-
@@ -27,4 +27,13 @@ public interface LineBreakingStrategy {
 
     BreakPointsProvider getBreakPointsProvider(String text, String lang, CalculatedStyle style);
 
+    /**
+     * Gets the break points of the end of a string, from {@code start}, as if {@code text.substring(start)} was
+     * passed to {@link #getBreakPointsProvider(String, String, CalculatedStyle)}: the positions are relative to
+     * {@code start}. Line breaking calls this for every line of a text, so implementations should avoid copying it.
+     */
+    default BreakPointsProvider getBreakPointsProvider(String text, int start, String lang, CalculatedStyle style) {
+        return getBreakPointsProvider(text.substring(start), lang, style);
+    }
+
 }
@@ -4,6 +4,7 @@ import org.jspecify.annotations.Nullable;
 
 import java.text.BreakIterator;
 import java.text.CharacterIterator;
+import java.text.StringCharacterIterator;
 
 /**
  * BreakIterator implementation that improves line breaking for URLs. Break points are supported
@@ -23,6 +24,14 @@ public class UrlAwareLineBreakIterator extends BreakIterator {
         setText(text);
     }
 
+    /**
+     * Creates an iterator over the end of a string, from {@code start}, without copying it. The break points are
+     * indexes in the whole string.
+     */
+    public UrlAwareLineBreakIterator(String text, int start) {
+        setText(text, start);
+    }
+
     @Override
     public int preceding(int offset) {
         throw new UnsupportedOperationException("Not yet implemented");
@@ -141,7 +150,15 @@ public class UrlAwareLineBreakIterator extends BreakIterator {
 
     @Override
     public final void setText(String newText) {
-        delegate.setText(newText);
+        setText(newText, 0);
+    }
+
+    private void setText(String newText, int start) {
+        if (start == 0) {
+            delegate.setText(newText);
+        } else {
+            delegate.setText(new StringCharacterIterator(newText, start, newText.length(), start));
+        }
         text = newText;
         currentRange = new Range(delegate.current(), delegate.current());
     }
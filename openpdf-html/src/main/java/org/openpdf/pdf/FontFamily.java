@@ -25,6 +25,12 @@ public class FontFamily {
     }
 
     public void addFontDescription(FontDescription description) {
+        for (FontDescription existing : _fontDescriptions) {
+            if (existing.getFont() == description.getFont() && existing.getWeight() == description.getWeight()
+                    && existing.getStyle() == description.getStyle()) {
+                return;
+            }
+        }
         _fontDescriptions.add(description);
         _fontDescriptions.sort(comparingInt(FontDescription::getWeight));
     }
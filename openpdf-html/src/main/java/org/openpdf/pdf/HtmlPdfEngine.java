@@ -0,0 +1,345 @@
+package org.openpdf.pdf;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import org.jspecify.annotations.Nullable;
+import org.openpdf.text.DocumentException;
+import org.w3c.dom.Document;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Renders many HTML documents to PDF, reusing warm renderers.
+ * <p>
+ * Creating an {@link ITextRenderer} is cheap, but every new renderer starts with empty font, stylesheet and image
+ * caches, so the fonts and the CSS of a template are loaded again for every document. The engine keeps a pool of
+ * renderers that have already rendered documents: each render borrows one renderer for its own exclusive use (layout
+ * state is never shared between two renders running at the same time) and gives it back afterwards, with its caches
+ * intact. Documents made from the same few templates therefore only pay for loading fonts and stylesheets once per
+ * pooled renderer.
+ * <p>
+ * The engine is thread-safe and renders at most {@link Builder#parallelism(int)} documents at the same time; further
+ * renders wait for a renderer, so any number of virtual threads can share one engine.
+ * {@link #renderAll(List, String)} renders a batch on virtual threads.
+ *
+ * <pre>{@code
+ * HtmlPdfEngine engine = HtmlPdfEngine.builder()
+ *         .configure(renderer -> renderer.getFontResolver().addFont(invoiceFont, "fonts/Inter.ttf", null))
+ *         .build();
+ * engine.warmUp(List.of(invoiceTemplate), baseUrl);
+ * byte[] pdf = engine.render(invoiceHtml, baseUrl);
+ * }</pre>
+ */
+public final class HtmlPdfEngine {
+
+    private final Supplier<ITextRenderer> rendererFactory;
+    private final Consumer<ITextRenderer> configurer;
+    private final int parallelism;
+    private final int maxIdleRenderers;
+
+    private final Semaphore permits;
+    private final ConcurrentLinkedQueue<ITextRenderer> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    private final long startNanos = System.nanoTime();
+    private final LongAdder renders = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder renderersCreated = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    private HtmlPdfEngine(Builder builder) {
+        this.rendererFactory = builder.rendererFactory;
+        this.configurer = builder.configurer;
+        this.parallelism = builder.parallelism;
+        this.maxIdleRenderers = builder.maxIdleRenderers < 0 ? parallelism : builder.maxIdleRenderers;
+        this.permits = new Semaphore(parallelism);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Renders an XHTML document given as a string.
+     *
+     * @param html    the XHTML markup
+     * @param baseUrl the URL relative links, images and stylesheets are resolved against, may be null
+     * @return the PDF
+     */
+    public byte[] render(String html, @Nullable String baseUrl) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        render(html, baseUrl, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Renders an XHTML document given as a string to a stream. The stream is not closed.
+     *
+     * @param html    the XHTML markup
+     * @param baseUrl the URL relative links, images and stylesheets are resolved against, may be null
+     * @param out     where the PDF is written to
+     */
+    public void render(String html, @Nullable String baseUrl, OutputStream out) {
+        requireNonNull(html, "html");
+        render(renderer -> renderer.setDocumentFromString(html, baseUrl), out);
+    }
+
+    /**
+     * Renders a parsed document.
+     *
+     * @param doc     the document
+     * @param baseUrl the URL relative links, images and stylesheets are resolved against, may be null
+     * @return the PDF
+     */
+    public byte[] render(Document doc, @Nullable String baseUrl) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        render(doc, baseUrl, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Renders a parsed document to a stream. The stream is not closed.
+     *
+     * @param doc     the document
+     * @param baseUrl the URL relative links, images and stylesheets are resolved against, may be null
+     * @param out     where the PDF is written to
+     */
+    public void render(Document doc, @Nullable String baseUrl, OutputStream out) {
+        requireNonNull(doc, "doc");
+        render(renderer -> renderer.setDocument(doc, baseUrl), out);
+    }
+
+    /**
+     * Renders a batch of XHTML documents on virtual threads.
+     *
+     * @param documents the XHTML markup of each document
+     * @param baseUrl   the URL relative links, images and stylesheets are resolved against, may be null
+     * @return the PDFs, in the order of {@code documents}
+     */
+    public List<byte[]> renderAll(List<String> documents, @Nullable String baseUrl) {
+        int n = documents.size();
+        byte[][] results = new byte[n][];
+        AtomicInteger next = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>();
+        try (ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < Math.min(parallelism, n); w++) {
+                workers.add(exec.submit(() -> {
+                    try {
+                        for (int i = next.getAndIncrement(); i < n; i = next.getAndIncrement()) {
+                            results[i] = render(documents.get(i), baseUrl);
+                        }
+                    } catch (RuntimeException e) {
+                        // stop the other workers
+                        next.set(n);
+                        throw e;
+                    }
+                }));
+            }
+        }
+        for (Future<?> worker : workers) {
+            awaitWorker(worker);
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Fills the renderer pool before the first real render: each template is rendered once on every renderer that can
+     * be kept idle, so their fonts, stylesheets and images are loaded up front. The results are discarded and not
+     * counted in the {@linkplain #getMetrics() metrics}.
+     *
+     * @param templates sample XHTML documents, typically one per template
+     * @param baseUrl   the URL relative links, images and stylesheets are resolved against, may be null
+     */
+    public void warmUp(Collection<String> templates, @Nullable String baseUrl) {
+        List<ITextRenderer> warmed = new ArrayList<>();
+        try {
+            for (int i = 0; i < maxIdleRenderers; i++) {
+                ITextRenderer renderer = borrow();
+                for (String template : templates) {
+                    renderer.getOutputDevice().reset();
+                    renderer.setDocumentFromString(template, baseUrl);
+                    renderer.layout();
+                    renderer.createPDF(OutputStream.nullOutputStream());
+                }
+                warmed.add(renderer);
+            }
+        } finally {
+            warmed.forEach(this::release);
+        }
+    }
+
+    /**
+     * @return a snapshot of the counters of this engine
+     */
+    public Metrics getMetrics() {
+        long count = renders.sum();
+        long elapsed = System.nanoTime() - startNanos;
+        return new Metrics(count, failures.sum(), renderersCreated.sum(), idleCount.get(),
+                Duration.ofNanos(count == 0 ? 0 : totalNanos.sum() / count),
+                Duration.ofNanos(maxNanos.get()),
+                elapsed <= 0 ? 0 : count * 1e9 / elapsed);
+    }
+
+    private void render(Consumer<ITextRenderer> setDocument, OutputStream out) {
+        long start = System.nanoTime();
+        try {
+            permits.acquire();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new DocumentException(ie);
+        }
+        ITextRenderer renderer = null;
+        boolean done = false;
+        try {
+            renderer = borrow();
+            renderer.getOutputDevice().reset();
+            setDocument.accept(renderer);
+            renderer.layout();
+            renderer.createPDF(out);
+            done = true;
+        } finally {
+            if (done) {
+                release(renderer);
+            } else {
+                // the renderer may be left half-way through a document: don't reuse it
+                failures.increment();
+            }
+            permits.release();
+            long nanos = System.nanoTime() - start;
+            renders.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    private ITextRenderer borrow() {
+        ITextRenderer renderer = idle.poll();
+        if (renderer != null) {
+            idleCount.decrementAndGet();
+            return renderer;
+        }
+        renderer = rendererFactory.get();
+        configurer.accept(renderer);
+        renderersCreated.increment();
+        return renderer;
+    }
+
+    private void release(ITextRenderer renderer) {
+        if (idleCount.incrementAndGet() <= maxIdleRenderers) {
+            idle.offer(renderer);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    private static void awaitWorker(Future<?> future) {
+        try {
+            future.get();
+        } catch (ExecutionException ee) {
+            if (ee.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(ee.getCause());
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ie);
+        }
+    }
+
+    /**
+     * Counters of an engine since it was built.
+     *
+     * @param renders          the number of documents rendered, failed ones included
+     * @param failures         the number of renders that threw an exception
+     * @param renderersCreated the number of renderers created; low compared to {@code renders} means the pool works
+     * @param idleRenderers    the number of warm renderers waiting in the pool
+     * @param averageLatency   the average time of a render, including the time spent waiting for a renderer
+     * @param maxLatency       the longest time of a render, including the time spent waiting for a renderer
+     * @param rendersPerSecond the number of renders per second since the engine was built
+     */
+    public record Metrics(long renders, long failures, long renderersCreated, int idleRenderers,
+            Duration averageLatency, Duration maxLatency, double rendersPerSecond) {
+    }
+
+    /**
+     * Builds an {@link HtmlPdfEngine}.
+     */
+    public static final class Builder {
+
+        private Supplier<ITextRenderer> rendererFactory = ITextRenderer::new;
+        private Consumer<ITextRenderer> configurer = renderer -> { };
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private int maxIdleRenderers = -1;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets how new renderers are created. Defaults to {@code new ITextRenderer()}.
+         */
+        @CanIgnoreReturnValue
+        public Builder rendererFactory(Supplier<ITextRenderer> rendererFactory) {
+            this.rendererFactory = requireNonNull(rendererFactory, "rendererFactory");
+            return this;
+        }
+
+        /**
+         * Sets a callback that configures each new renderer once, before its first document: fonts, PDF version,
+         * encryption, media and so on. Settings made here stay with the renderer for all its documents.
+         */
+        @CanIgnoreReturnValue
+        public Builder configure(Consumer<ITextRenderer> configurer) {
+            this.configurer = requireNonNull(configurer, "configurer");
+            return this;
+        }
+
+        /**
+         * Sets the number of documents rendered at the same time, which is also the number of renderers in use at
+         * once. Defaults to the number of processors.
+         */
+        @CanIgnoreReturnValue
+        public Builder parallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("parallelism must be > 0, was " + parallelism);
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets the number of warm renderers kept between renders. Each one holds its own font, stylesheet and image
+         * caches. Defaults to the {@linkplain #parallelism(int) parallelism}.
+         */
+        @CanIgnoreReturnValue
+        public Builder maxIdleRenderers(int maxIdleRenderers) {
+            if (maxIdleRenderers < 0) {
+                throw new IllegalArgumentException("maxIdleRenderers must be >= 0, was " + maxIdleRenderers);
+            }
+            this.maxIdleRenderers = maxIdleRenderers;
+            return this;
+        }
+
+        public HtmlPdfEngine build() {
+            return new HtmlPdfEngine(this);
+        }
+    }
+}
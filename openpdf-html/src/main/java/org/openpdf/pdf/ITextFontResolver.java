@@ -45,12 +45,16 @@ import org.openpdf.util.XRLog;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -80,6 +84,19 @@ public class ITextFontResolver implements FontResolver {
     private final Map<String, FontFamily> _fontFamilies = new HashMap<>();
     private final Map<String, FontDescription> _fontCache = new ConcurrentHashMap<>();
 
+    /**
+     * The fonts created for the {@code @font-face} rules of earlier documents, so that a renderer that renders the
+     * same template again does not create its fonts again. The families and descriptions are still flushed for every
+     * document by {@link #flushFontFaceFonts()}.
+     */
+    private final Map<FontFaceKey, BaseFont> _fontFaceFonts = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<FontFaceKey, BaseFont> eldest) {
+            return size() > MAX_FONT_FACE_FONTS;
+        }
+    };
+    private static final int MAX_FONT_FACE_FONTS = 32;
+
     public Map<String, FontFamily> getFonts() {
         if (_fontFamilies.isEmpty()) {
             synchronized (_fontFamilies) {
@@ -421,7 +438,13 @@ public class ITextFontResolver implements FontResolver {
                                  String encoding, boolean embedded, byte[] ttfAfm, byte @Nullable [] pfb)
             throws DocumentException, IOException {
         String fontName = getFontName(uri, format, fontFamilyNameOverride);
-        BaseFont font = BaseFont.createFont(fontName, encoding, embedded, false, ttfAfm, pfb);
+        FontFaceKey key = new FontFaceKey(fontName, encoding, embedded, sha256(ttfAfm),
+                pfb == null ? null : sha256(pfb));
+        BaseFont font = _fontFaceFonts.get(key);
+        if (font == null) {
+            font = BaseFont.createFont(fontName, encoding, embedded, false, ttfAfm, pfb);
+            _fontFaceFonts.put(key, font);
+        }
 
         Collection<String> fontFamilyNames = getFontFamilyNames(font, fontFamilyNameOverride);
 
@@ -438,6 +461,18 @@ public class ITextFontResolver implements FontResolver {
         return extractDescription(uri, ttfAfm, font, true, fontWeightOverride, fontStyleOverride);
     }
 
+    private record FontFaceKey(String fontName, String encoding, boolean embedded, String dataDigest,
+                               @Nullable String metricsDigest) {
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private byte[] readFile(String path) throws IOException {
         return IOUtil.readBytes(Paths.get(path));
     }
@@ -1132,6 +1132,18 @@ public class ITextOutputDevice extends AbstractOutputDevice implements OutputDev
         }
     }
 
+    /**
+     * Forgets the per-document state, so that the next document rendered with
+     * this output device doesn't inherit the default destination, bookmarks,
+     * metadata (such as the title) or link target areas of the previous one.
+     */
+    public void reset() {
+        _defaultDestination = null;
+        _bookmarks = new ArrayList<>();
+        _metadata.clear();
+        _linkTargetAreas.clear();
+    }
+
     /**
      * Searches the metadata name/content pairs of the current document and
      * returns the content value from the first pair with a matching name. The
@@ -23,12 +23,14 @@ import org.openpdf.text.pdf.BaseFont;
 import org.openpdf.extend.FSGlyphVector;
 import org.openpdf.extend.FontContext;
 import org.openpdf.extend.OutputDevice;
+import org.openpdf.extend.TextAdvances;
 import org.openpdf.extend.TextRenderer;
 import org.openpdf.render.FSFont;
 import org.openpdf.render.FSFontMetrics;
 import org.openpdf.render.JustificationInfo;
 
 import java.awt.*;
+import java.util.Arrays;
 
 public class ITextTextRenderer implements TextRenderer {
     private static final float TEXT_MEASURING_DELTA = 0.01f;
@@ -70,7 +72,10 @@ public class ITextTextRenderer implements TextRenderer {
     @Override
     public int getWidth(FontContext context, FSFont font, String string) {
         BaseFont bf = ((ITextFSFont) font).getFontDescription().getFont();
-        float result = bf.getWidthPoint(string, font.getSize2D());
+        return toWidth(bf.getWidthPoint(string, font.getSize2D()));
+    }
+
+    private static int toWidth(float result) {
         if (result - Math.floor(result) < TEXT_MEASURING_DELTA) {
             return (int) result;
         } else {
@@ -78,6 +83,11 @@ public class ITextTextRenderer implements TextRenderer {
         }
     }
 
+    @Override
+    public TextAdvances getAdvances(FontContext context, FSFont font, String string) {
+        return new ITextTextAdvances(((ITextFSFont) font).getFontDescription().getFont(), font.getSize2D(), string);
+    }
+
     @Override
     public void setFontScale(float scale) {
     }
@@ -110,4 +120,102 @@ public class ITextTextRenderer implements TextRenderer {
     public void drawGlyphVector(OutputDevice outputDevice, FSGlyphVector vector, float x, float y) {
         throw new UnsupportedOperationException("Unsupported operation: drawGlyphVector");
     }
+
+    /**
+     * Prefix sums of the widths of the characters of a string, in the normalized 1000 units of the font. The width of
+     * a string is the sum of the widths of its characters, so a substring is measured with one subtraction and
+     * rounded like {@link #getWidth}.
+     */
+    private static final class ITextTextAdvances implements TextAdvances {
+        private final BaseFont font;
+        private final float size;
+        private final int[] prefix;
+        private String lastSuffix = "";
+        private int lastSuffixWidth;
+
+        private ITextTextAdvances(BaseFont font, float size, String string) {
+            this(font, size, new int[string.length() + 1]);
+            measure(font, string, prefix, 0);
+        }
+
+        private ITextTextAdvances(BaseFont font, float size, int[] prefix) {
+            this.font = font;
+            this.size = size;
+            this.prefix = prefix;
+        }
+
+        /**
+         * Adds the widths of the characters of a string to the prefix sums, from {@code prefix[offset]}.
+         */
+        private static void measure(BaseFont font, String string, int[] prefix, int offset) {
+            int length = string.length();
+            int[] latin1 = new int[256];
+            Arrays.fill(latin1, -1);
+            int i = 0;
+            while (i < length) {
+                char ch = string.charAt(i);
+                int width;
+                int count = 1;
+                if (ch < 256) {
+                    width = latin1[ch];
+                    if (width < 0) {
+                        width = font.getWidth(String.valueOf(ch));
+                        latin1[ch] = width;
+                    }
+                } else {
+                    if (Character.isHighSurrogate(ch) && i + 1 < length
+                            && Character.isLowSurrogate(string.charAt(i + 1))) {
+                        count = 2;
+                    }
+                    width = font.getWidth(string.substring(i, i + count));
+                }
+                prefix[offset + i + 1] = prefix[offset + i] + width;
+                if (count == 2) {
+                    prefix[offset + i + 2] = prefix[offset + i + 1];
+                }
+                i += count;
+            }
+        }
+
+        @Override
+        public TextAdvances insert(int index, String text) {
+            int length = text.length();
+            int[] grown = new int[prefix.length + length];
+            System.arraycopy(prefix, 0, grown, 0, index + 1);
+            measure(font, text, grown, index);
+            int shift = grown[index + length] - prefix[index];
+            for (int i = index + 1; i < prefix.length; i++) {
+                grown[i + length] = prefix[i] + shift;
+            }
+            return new ITextTextAdvances(font, size, grown);
+        }
+
+        @Override
+        public int getWidth(int start, int end, String suffix) {
+            int units = prefix[end] - prefix[start];
+            if (!suffix.isEmpty()) {
+                if (!suffix.equals(lastSuffix)) {
+                    lastSuffixWidth = font.getWidth(suffix);
+                    lastSuffix = suffix;
+                }
+                units += lastSuffixWidth;
+            }
+            return toWidth(units * 0.001f * size);
+        }
+
+        @Override
+        public int fit(int start, int avail) {
+            int low = start;
+            int high = prefix.length - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (getWidth(start, mid, "") <= avail) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        }
+    }
 }
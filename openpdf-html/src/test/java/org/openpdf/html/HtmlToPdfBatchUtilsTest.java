@@ -215,4 +215,29 @@ class HtmlToPdfBatchUtilsTest {
                         (java.io.OutputStream) null, null, null)
         );
     }
+
+    @Test
+    void testBatchHtmlStringsWithEngineReusesRenderers() throws Exception {
+        String html = "<html><head></head><body><h1>Engine batch test</h1></body></html>";
+        var engine = org.openpdf.pdf.HtmlPdfEngine.builder().parallelism(2).build();
+
+        List<Path> outputs = new java.util.ArrayList<>();
+        List<HtmlToPdfBatchUtils.HtmlStringJob> jobs = new java.util.ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Path out = Files.createTempFile("engine-batch-" + i + "-", ".pdf");
+            outputs.add(out);
+            jobs.add(new HtmlToPdfBatchUtils.HtmlStringJob(html, null, out,
+                    Optional.of(HtmlToPdfBatchUtils.CSS_A4_20MM), Optional.empty()));
+        }
+
+        var result = HtmlToPdfBatchUtils.batchHtmlStrings(engine, jobs, p -> {}, t -> fail(t));
+
+        assertTrue(result.isAllSuccessful(), "All batch jobs should succeed");
+        assertEquals(6, engine.getMetrics().renders());
+        assertTrue(engine.getMetrics().renderersCreated() <= 2, "At most one renderer per concurrent render");
+        for (Path p : outputs) {
+            assertEquals("%PDF", new String(Files.readAllBytes(p), 0, 4), "Output should be a valid PDF");
+            Files.deleteIfExists(p);
+        }
+    }
 }
@@ -106,6 +106,20 @@ public class UrlAwareLineBreakIteratorTest {
                 new String[] {"http://"});
     }
 
+    @Test
+    public void breaksTheEndOfAStringLikeItsSubstring() {
+        String input = "Some text before http://www.example.com/path/to/page and after";
+        for (int start = 0; start < input.length(); start += 5) {
+            BreakIterator substring = new UrlAwareLineBreakIterator(input.substring(start));
+            BreakIterator offset = new UrlAwareLineBreakIterator(input, start);
+            int breakpoint;
+            do {
+                breakpoint = substring.next();
+                int expected = breakpoint == BreakIterator.DONE ? breakpoint : start + breakpoint;
+                assertThat(offset.next()).as("from " + start).isEqualTo(expected);
+            } while (breakpoint != BreakIterator.DONE);
+        }
+    }
 
     private void assertBreaksCorrectly(String input, String[] segments) {
         BreakIterator iterator = new UrlAwareLineBreakIterator(input);
@@ -0,0 +1,171 @@
+package org.openpdf.pdf;
+
+import org.junit.jupiter.api.Test;
+import org.openpdf.text.pdf.PdfArray;
+import org.openpdf.text.pdf.PdfDictionary;
+import org.openpdf.text.pdf.PdfIndirectReference;
+import org.openpdf.text.pdf.PdfName;
+import org.openpdf.text.pdf.PdfReader;
+import org.openpdf.text.pdf.parser.PdfTextExtractor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HtmlPdfEngineTest {
+
+    private static String invoice(int number) {
+        return """
+                <html>
+                  <head>
+                    <title>Invoice %d</title>
+                    <style>body { font-family: serif; font-size: 14pt; } h1 { color: navy; }</style>
+                  </head>
+                  <body><h1>Invoice %d</h1><p>Total: %d.00</p></body>
+                </html>
+                """.formatted(number, number, number * 10);
+    }
+
+    private static String text(byte[] pdf) throws Exception {
+        PdfReader reader = new PdfReader(pdf);
+        try {
+            return new PdfTextExtractor(reader).getTextFromPage(1);
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    void rendersABatchWithAFewRenderers() throws Exception {
+        HtmlPdfEngine engine = HtmlPdfEngine.builder().parallelism(3).maxIdleRenderers(3).build();
+        List<String> documents = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            documents.add(invoice(i));
+        }
+
+        List<byte[]> pdfs = engine.renderAll(documents, null);
+
+        assertThat(pdfs).hasSize(24);
+        for (int i = 0; i < pdfs.size(); i++) {
+            assertThat(text(pdfs.get(i))).contains("Invoice " + i).contains("Total: " + i * 10 + ".00");
+        }
+        HtmlPdfEngine.Metrics metrics = engine.getMetrics();
+        assertThat(metrics.renders()).isEqualTo(24);
+        assertThat(metrics.failures()).isZero();
+        assertThat(metrics.renderersCreated()).isLessThanOrEqualTo(3);
+        assertThat(metrics.idleRenderers()).isEqualTo((int) metrics.renderersCreated());
+        assertThat(metrics.maxLatency()).isGreaterThanOrEqualTo(metrics.averageLatency());
+    }
+
+    @Test
+    void doesNotCarryMetadataOverToTheNextDocument() throws Exception {
+        HtmlPdfEngine engine = HtmlPdfEngine.builder().maxIdleRenderers(1).build();
+        engine.render(invoice(1), null);
+        byte[] second = engine.render(invoice(2), null);
+
+        PdfReader reader = new PdfReader(second);
+        try {
+            assertThat(reader.getInfo()).containsEntry("Title", "Invoice 2");
+        } finally {
+            reader.close();
+        }
+        assertThat(engine.getMetrics().renderersCreated()).isEqualTo(1);
+    }
+
+    @Test
+    void pointsTheDefaultDestinationAtThePageOfTheNextDocument() throws Exception {
+        String withBookmark = """
+                <html>
+                  <head>
+                    <bookmarks><bookmark name="Top" href="#nowhere"/></bookmarks>
+                    <style>@page { size: %s; }</style>
+                  </head>
+                  <body><p>Page</p></body>
+                </html>
+                """;
+        HtmlPdfEngine engine = HtmlPdfEngine.builder().maxIdleRenderers(1).build();
+        engine.render(withBookmark.formatted("letter"), null);
+        byte[] second = engine.render(withBookmark.formatted("A4 landscape"), null);
+
+        PdfReader reader = new PdfReader(second);
+        try {
+            PdfDictionary outlines = reader.getCatalog().getAsDict(PdfName.OUTLINES);
+            PdfArray destination = outlines.getAsDict(PdfName.FIRST).getAsArray(PdfName.DEST);
+            PdfIndirectReference page = destination.getAsIndirectObject(0);
+            assertThat(page.getNumber()).isEqualTo(reader.getPageOrigRef(1).getNumber());
+            assertThat(destination.getAsName(1)).isEqualTo(PdfName.FITH);
+            assertThat(destination.getAsNumber(2).floatValue()).isCloseTo(595.28f, within(0.01f));
+        } finally {
+            reader.close();
+        }
+        assertThat(engine.getMetrics().renderersCreated()).isEqualTo(1);
+    }
+
+    @Test
+    void warmsUpThePoolWithoutCountingRenders() {
+        HtmlPdfEngine engine = HtmlPdfEngine.builder().maxIdleRenderers(2).build();
+        engine.warmUp(List.of(invoice(0)), null);
+
+        engine.render(invoice(1), null);
+
+        HtmlPdfEngine.Metrics metrics = engine.getMetrics();
+        assertThat(metrics.renders()).isEqualTo(1);
+        assertThat(metrics.renderersCreated()).isEqualTo(2);
+        assertThat(metrics.idleRenderers()).isEqualTo(2);
+    }
+
+    @Test
+    void dropsTheRendererOfAFailedRender() {
+        HtmlPdfEngine engine = HtmlPdfEngine.builder().build();
+
+        assertThatThrownBy(() -> engine.render("<html><body>not closed", null)).isInstanceOf(RuntimeException.class);
+
+        HtmlPdfEngine.Metrics metrics = engine.getMetrics();
+        assertThat(metrics.failures()).isEqualTo(1);
+        assertThat(metrics.idleRenderers()).isZero();
+    }
+
+    @Test
+    void keepsFontFacesToTheirOwnDocument() {
+        String withFontFace = """
+                <html>
+                  <head>
+                    <style>
+                      @font-face { font-family: "Jacquard 24"; src: url("classpath:fonts/Jacquard24-Regular.ttf"); }
+                      body { font-family: "Jacquard 24"; }
+                    </style>
+                  </head>
+                  <body><p>Label</p></body>
+                </html>
+                """;
+        ITextRenderer renderer = new ITextRenderer();
+
+        renderer.setDocumentFromString(withFontFace, null);
+        FontDescription first = renderer.getFontResolver().getFonts().get("Jacquard 24").getFontDescriptions().get(0);
+        renderer.setDocumentFromString(withFontFace, null);
+        List<FontDescription> second = renderer.getFontResolver().getFonts().get("Jacquard 24").getFontDescriptions();
+
+        assertThat(second).hasSize(1);
+        assertThat(second.get(0).getFont()).isSameAs(first.getFont());
+        renderer.setDocumentFromString(invoice(1), null);
+        assertThat(renderer.getFontResolver().getFonts()).doesNotContainKey("Jacquard 24");
+    }
+
+    @Test
+    void releasesThePermitWhenNoRendererCanBeMade() {
+        HtmlPdfEngine engine = HtmlPdfEngine.builder()
+                .parallelism(1)
+                .rendererFactory(() -> {
+                    throw new IllegalStateException("no renderer");
+                })
+                .build();
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> engine.render(invoice(1), null)).hasMessage("no renderer");
+        }
+        assertThat(engine.getMetrics().failures()).isEqualTo(3);
+    }
+}
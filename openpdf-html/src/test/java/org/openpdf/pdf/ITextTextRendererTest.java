@@ -0,0 +1,72 @@
+package org.openpdf.pdf;
+
+import org.junit.jupiter.api.Test;
+import org.openpdf.extend.TextAdvances;
+import org.openpdf.text.pdf.BaseFont;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ITextTextRendererTest {
+
+    private static final String TEXT = "Ligne de texte assez longue, avec des accents: é à ü, et un emoji 😀 à la fin.";
+
+    private final ITextTextRenderer renderer = new ITextTextRenderer();
+
+    private void assertAdvancesMatchWidths(BaseFont baseFont) {
+        ITextFSFont font = new ITextFSFont(new FontDescription(baseFont), 11.5f);
+        TextAdvances advances = renderer.getAdvances(null, font, TEXT);
+
+        for (int start = 0; start < TEXT.length(); start += 7) {
+            for (int end = start; end <= TEXT.length(); end += 3) {
+                if (end < TEXT.length() && Character.isLowSurrogate(TEXT.charAt(end))) {
+                    continue;
+                }
+                String substring = TEXT.substring(start, end);
+                assertThat(advances.getWidth(start, end, "")).as(substring)
+                        .isEqualTo(renderer.getWidth(null, font, substring));
+                assertThat(advances.getWidth(start, end, "-")).as(substring)
+                        .isEqualTo(renderer.getWidth(null, font, substring + "-"));
+            }
+        }
+    }
+
+    @Test
+    void advancesOfABuiltInFontMatchTheWidths() throws Exception {
+        assertAdvancesMatchWidths(BaseFont.createFont(BaseFont.HELVETICA, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED));
+    }
+
+    @Test
+    void advancesOfATrueTypeFontMatchTheWidths() throws Exception {
+        assertAdvancesMatchWidths(BaseFont.createFont("src/test/resources/org/openpdf/pdf/fonts/arimo/Arimo-Regular.ttf",
+                BaseFont.IDENTITY_H, BaseFont.EMBEDDED));
+    }
+
+    @Test
+    void fitsTheLongestSubstring() throws Exception {
+        ITextFSFont font = new ITextFSFont(new FontDescription(
+                BaseFont.createFont(BaseFont.COURIER, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED)), 10f);
+        TextAdvances advances = renderer.getAdvances(null, font, "0123456789");
+
+        // Courier characters are 6pt wide at 10pt.
+        assertThat(advances.fit(0, 30)).isEqualTo(5);
+        assertThat(advances.fit(2, 29)).isEqualTo(6);
+        assertThat(advances.fit(0, 5)).isZero();
+        assertThat(advances.fit(3, 1000)).isEqualTo(10);
+    }
+
+    @Test
+    void insertedTextIsMeasuredLikeTheNewString() throws Exception {
+        ITextFSFont font = new ITextFSFont(new FontDescription(
+                BaseFont.createFont(BaseFont.HELVETICA, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED)), 11.5f);
+        String text = "hyphenation of a rather long word";
+        TextAdvances inserted = renderer.getAdvances(null, font, text).insert(6, "-");
+        String hyphenated = text.substring(0, 6) + "-" + text.substring(6);
+
+        for (int start = 0; start <= hyphenated.length(); start += 4) {
+            for (int end = start; end <= hyphenated.length(); end++) {
+                assertThat(inserted.getWidth(start, end, ""))
+                        .isEqualTo(renderer.getWidth(null, font, hyphenated.substring(start, end)));
+            }
+        }
+    }
+}
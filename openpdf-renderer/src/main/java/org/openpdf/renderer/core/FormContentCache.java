@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 the OpenPDF contributors.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package org.openpdf.renderer.core;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openpdf.text.pdf.PdfObject;
+
+/**
+ * Per-document cache of parsed Form XObject content streams, keyed by the
+ * form's indirect reference.
+ *
+ * <p>A form such as a letterhead, a table grid or a map symbol is typically
+ * drawn many times per page and on every page. Each entry holds the form's
+ * operators exactly as {@link org.openpdf.text.pdf.PdfContentParser} returned
+ * them (operands followed by the operator literal), so repeated {@code Do}
+ * invocations replay the list instead of decoding and tokenizing the stream
+ * again.</p>
+ *
+ * <p>The cache is bounded by the total number of cached operands and
+ * operators; the least recently used forms are dropped first. Instances are
+ * not thread-safe, like the {@link OpenPdfCoreRenderer} that owns them.</p>
+ */
+final class FormContentCache {
+
+    /**
+     * Default maximum number of operands (operators included) kept in the cache.
+     */
+    static final int DEFAULT_MAX_OPERANDS = 1 << 20;
+
+    private final int maxOperands;
+    private final Map<Long, List<List<PdfObject>>> forms = new LinkedHashMap<>(16, 0.75f, true);
+    private int operands;
+    private int hits;
+    private int misses;
+
+    FormContentCache(int maxOperands) {
+        this.maxOperands = maxOperands;
+    }
+
+    /**
+     * @return the parsed operators of the form, or {@code null} if not cached
+     */
+    List<List<PdfObject>> get(int number, int generation) {
+        List<List<PdfObject>> ops = forms.get(key(number, generation));
+        if (ops == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return ops;
+    }
+
+    /**
+     * Stores the parsed operators of a form. Forms larger than the whole cache
+     * are not stored.
+     */
+    void put(int number, int generation, List<List<PdfObject>> ops) {
+        int size = weight(ops);
+        if (size > maxOperands) {
+            return;
+        }
+        List<List<PdfObject>> old = forms.put(key(number, generation), ops);
+        if (old != null) {
+            operands -= weight(old);
+        }
+        operands += size;
+        Iterator<List<List<PdfObject>>> it = forms.values().iterator();
+        while (operands > maxOperands && it.hasNext()) {
+            operands -= weight(it.next());
+            it.remove();
+        }
+    }
+
+    int size() {
+        return forms.size();
+    }
+
+    int getOperandCount() {
+        return operands;
+    }
+
+    int getHits() {
+        return hits;
+    }
+
+    int getMisses() {
+        return misses;
+    }
+
+    void clear() {
+        forms.clear();
+        operands = 0;
+    }
+
+    private static long key(int number, int generation) {
+        return ((long) number << 32) | (generation & 0xFFFFFFFFL);
+    }
+
+    private static int weight(List<List<PdfObject>> ops) {
+        int size = 0;
+        for (List<PdfObject> op : ops) {
+            size += op.size();
+        }
+        return size;
+    }
+}
@@ -26,20 +26,26 @@ import java.awt.image.WritableRaster;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.InflaterInputStream;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 
 import org.openpdf.text.pdf.CMapAwareDocumentFont;
 import org.openpdf.text.pdf.PRIndirectReference;
@@ -164,8 +170,28 @@ final class OpenPdfCorePageRenderer {
      */
     private static final String INLINE_IMAGE_PREFIX = "__inline_image__";
 
+    /**
+     * The user-space area an image is drawn into.
+     */
+    private static final Rectangle2D UNIT_SQUARE = new Rectangle2D.Float(0, 0, 1, 1);
+
     private final Graphics2D g2;
     private final PdfDictionary resources;
+    /**
+     * Parsed Form XObject content shared by every page of the document, or {@code null} to parse
+     * each form on every use.
+     */
+    private final FormContentCache formCache;
+    /**
+     * Receives the drawing calls when compiling a {@link PageDisplayList}, or {@code null} to draw
+     * straight onto {@link #g2}.
+     */
+    private final PageDisplayList.Builder recorder;
+    /**
+     * Device-space area being rendered when only a region of the page is drawn, or {@code null}
+     * for the whole page. Paths, text, images and forms entirely outside it are skipped.
+     */
+    private Rectangle2D cullBounds;
     private final Map<String, CMapAwareDocumentFont> fontCache = new HashMap<>();
     /**
      * Embedded-font program cache keyed by the FontDescriptor's identity. Re-parsing a
@@ -203,9 +229,12 @@ final class OpenPdfCorePageRenderer {
     private AffineTransform textMatrix;
     private AffineTransform textLineMatrix;
 
-    private OpenPdfCorePageRenderer(Graphics2D g2, PdfDictionary resources) {
+    private OpenPdfCorePageRenderer(Graphics2D g2, PdfDictionary resources, FormContentCache formCache,
+            PageDisplayList.Builder recorder) {
         this.g2 = g2;
         this.resources = resources;
+        this.formCache = formCache;
+        this.recorder = recorder;
         this.state = new GState();
     }
 
@@ -218,18 +247,95 @@ final class OpenPdfCorePageRenderer {
      * @param targetWidth  destination width in pixels
      * @param targetHeight destination height in pixels
      * @param dpi          target resolution
+     * @param formCache    parsed Form XObjects of the document, or {@code null} for none
      * @throws IOException if the page content cannot be read
      */
     static void render(PdfReader reader, int pageNumber, Graphics2D g2,
-            int targetWidth, int targetHeight, float dpi) throws IOException {
+            int targetWidth, int targetHeight, float dpi, FormContentCache formCache) throws IOException {
+
+        PdfDictionary pageDict = reader.getPageN(pageNumber);
+        PdfDictionary resources = pageDict == null ? null : pageDict.getAsDict(PdfName.RESOURCES);
+
+        fillBackground(g2, targetWidth, targetHeight);
+        applyRenderingHints(g2);
+        g2.transform(pageTransform(reader, pageNumber, dpi / PDF_USER_SPACE_DPI));
+
+        OpenPdfCorePageRenderer renderer = new OpenPdfCorePageRenderer(g2, resources, formCache, null);
+        renderer.processContent(reader.getPageContent(pageNumber));
+    }
 
+    /**
+     * Renders the part of the page that falls in {@code area} of the page image at {@code dpi} to
+     * {@code g2}, with the area's top-left corner at the origin of {@code g2}. Content whose bounds
+     * lie entirely outside the area is not drawn at all.
+     *
+     * @param reader     the open PDF
+     * @param pageNumber 1-based page number
+     * @param g2         the destination graphics, at least {@code area.width x area.height} pixels;
+     *                   will be transformed and clipped
+     * @param area       the pixels of the full page image to render
+     * @param dpi        target resolution
+     * @param formCache  parsed Form XObjects of the document, or {@code null} for none
+     * @throws IOException if the page content cannot be read
+     */
+    static void renderArea(PdfReader reader, int pageNumber, Graphics2D g2, java.awt.Rectangle area,
+            float dpi, FormContentCache formCache) throws IOException {
         PdfDictionary pageDict = reader.getPageN(pageNumber);
         PdfDictionary resources = pageDict == null ? null : pageDict.getAsDict(PdfName.RESOURCES);
 
-        // Background: opaque white, matching legacy behavior.
+        fillBackground(g2, area.width, area.height);
+        applyRenderingHints(g2);
+        g2.clip(new Rectangle2D.Float(0, 0, area.width, area.height));
+        Rectangle2D cullBounds = g2.getTransform()
+                .createTransformedShape(new Rectangle2D.Float(0, 0, area.width, area.height)).getBounds2D();
+        g2.translate(-area.x, -area.y);
+        g2.transform(pageTransform(reader, pageNumber, dpi / PDF_USER_SPACE_DPI));
+
+        OpenPdfCorePageRenderer renderer = new OpenPdfCorePageRenderer(g2, resources, formCache, null);
+        renderer.cullBounds = cullBounds;
+        renderer.processContent(reader.getPageContent(pageNumber));
+    }
+
+    /**
+     * Compiles the given page into a {@link PageDisplayList} in 72 DPI page space. The page is drawn
+     * once onto a graphics context that only tracks the transform and clip, and every drawing call is
+     * recorded instead of rasterized.
+     *
+     * @param reader     the open PDF
+     * @param pageNumber 1-based page number
+     * @param formCache  parsed Form XObjects of the document, or {@code null} for none
+     * @return the page's display list
+     * @throws IOException if the page content cannot be read
+     */
+    static PageDisplayList compile(PdfReader reader, int pageNumber, FormContentCache formCache)
+            throws IOException {
+        PdfDictionary pageDict = reader.getPageN(pageNumber);
+        PdfDictionary resources = pageDict == null ? null : pageDict.getAsDict(PdfName.RESOURCES);
+        org.openpdf.text.Rectangle pageSize = reader.getPageSizeWithRotation(pageNumber);
+
+        Graphics2D g2 = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        try {
+            applyRenderingHints(g2);
+            g2.transform(pageTransform(reader, pageNumber, 1f));
+            PageDisplayList.Builder recorder = new PageDisplayList.Builder();
+            OpenPdfCorePageRenderer renderer = new OpenPdfCorePageRenderer(g2, resources, formCache, recorder);
+            renderer.processContent(reader.getPageContent(pageNumber));
+            return recorder.build(pageSize.getWidth(), pageSize.getHeight());
+        } finally {
+            g2.dispose();
+        }
+    }
+
+    /**
+     * Paints the opaque white page background, matching legacy behavior.
+     */
+    static void fillBackground(Graphics2D g2, int width, int height) {
         g2.setComposite(AlphaComposite.SrcOver);
         g2.setColor(Color.WHITE);
-        g2.fillRect(0, 0, targetWidth, targetHeight);
+        g2.fillRect(0, 0, width, height);
+    }
+
+    static void applyRenderingHints(Graphics2D g2) {
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
                 RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
@@ -241,11 +347,14 @@ final class OpenPdfCorePageRenderer {
         // of antialiased pixels and looks fuzzy / grey.
         g2.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL,
                 RenderingHints.VALUE_STROKE_NORMALIZE);
+    }
 
-        // Map PDF user space (origin bottom-left, Y up) to image pixels (origin top-left, Y down),
-        // applying page rotation and DPI scaling.
+    /**
+     * Maps PDF user space (origin bottom-left, Y up) to image pixels (origin top-left, Y down),
+     * applying page rotation and the given scale.
+     */
+    static AffineTransform pageTransform(PdfReader reader, int pageNumber, float scale) {
         org.openpdf.text.Rectangle pageSize = reader.getPageSizeWithRotation(pageNumber);
-        float scale = dpi / PDF_USER_SPACE_DPI;
         int rotation = reader.getPageRotation(pageNumber) % 360;
         if (rotation < 0) {
             rotation += 360;
@@ -277,13 +386,19 @@ final class OpenPdfCorePageRenderer {
                 initial.scale(1, -1);
                 break;
         }
-        g2.transform(initial);
-
-        OpenPdfCorePageRenderer renderer = new OpenPdfCorePageRenderer(g2, resources);
-        renderer.processContent(reader.getPageContent(pageNumber));
+        return initial;
     }
 
     private void processContent(byte[] contentBytes) throws IOException {
+        processContent(contentBytes, null);
+    }
+
+    /**
+     * Parses and dispatches a content stream. When {@code recorded} is not {@code null}, a copy of every
+     * parsed operator (operands followed by the operator literal) is appended to it, ready for
+     * {@link #replayContent(List)}.
+     */
+    private void processContent(byte[] contentBytes, List<List<PdfObject>> recorded) throws IOException {
         byte[] sanitized = preprocessInlineImages(contentBytes);
         PdfContentParser parser = new PdfContentParser(new PRTokeniser(sanitized));
         List<PdfObject> operands = new ArrayList<>();
@@ -300,14 +415,31 @@ final class OpenPdfCorePageRenderer {
             if (parsed.isEmpty()) {
                 return;
             }
-            PdfLiteral op = (PdfLiteral) parsed.get(parsed.size() - 1);
-            try {
-                dispatch(op.toString(), parsed);
-            } catch (RuntimeException e) {
-                // A malformed operator must not abort the whole page; log for diagnostics.
-                LOG.log(Level.FINE, "Skipping operator ''{0}'' due to: {1}",
-                        new Object[]{op, e});
+            if (recorded != null) {
+                recorded.add(List.copyOf(parsed));
             }
+            dispatchParsed(parsed);
+        }
+    }
+
+    /**
+     * Dispatches operators recorded by {@link #processContent(byte[], List)} without tokenizing
+     * the content stream again.
+     */
+    private void replayContent(List<List<PdfObject>> operators) {
+        for (List<PdfObject> parsed : operators) {
+            dispatchParsed(parsed);
+        }
+    }
+
+    private void dispatchParsed(List<PdfObject> parsed) {
+        PdfLiteral op = (PdfLiteral) parsed.get(parsed.size() - 1);
+        try {
+            dispatch(op.toString(), parsed);
+        } catch (RuntimeException e) {
+            // A malformed operator must not abort the whole page; log for diagnostics.
+            LOG.log(Level.FINE, "Skipping operator ''{0}'' due to: {1}",
+                    new Object[]{op, e});
         }
     }
 
@@ -963,11 +1095,25 @@ final class OpenPdfCorePageRenderer {
     // ---------- Path painting helpers ----------
 
     private void strokePath() {
-        g2.setColor(state.strokeColor);
-        g2.setStroke(new BasicStroke(
+        BasicStroke stroke = new BasicStroke(
                 effectiveLineWidth(),
                 state.lineCap, state.lineJoin, state.miterLimit,
-                state.dashPattern, state.dashPhase));
+                state.dashPattern, state.dashPhase);
+        // Miter joins may reach up to miterLimit * width / 2 past the path.
+        double margin = stroke.getLineWidth() * Math.max(stroke.getMiterLimit(), 1f) / 2;
+        Rectangle2D path = currentPath.getBounds2D();
+        Rectangle2D bounds = deviceBounds(new Rectangle2D.Double(path.getX() - margin, path.getY() - margin,
+                path.getWidth() + 2 * margin, path.getHeight() + 2 * margin));
+        if (isCulled(bounds)) {
+            return;
+        }
+        if (recorder != null) {
+            recorder.stroke(g2, bounds, (Shape) currentPath.clone(), state.strokeColor, stroke,
+                    state.lineWidth <= 0f);
+            return;
+        }
+        g2.setColor(state.strokeColor);
+        g2.setStroke(stroke);
         g2.draw(currentPath);
     }
 
@@ -987,7 +1133,13 @@ final class OpenPdfCorePageRenderer {
         if (state.lineWidth > 0f) {
             return state.lineWidth;
         }
-        AffineTransform ctm = g2.getTransform();
+        return hairlineWidth(g2.getTransform());
+    }
+
+    /**
+     * @return the user-space width of a stroke one device pixel wide under {@code ctm}
+     */
+    static float hairlineWidth(AffineTransform ctm) {
         // Use the larger of the X/Y scale factors so that a 1-device-pixel width
         // is preserved under non-uniform scaling. The scaling we care about is
         // |det|^(1/2) for general transforms, but for the common rectilinear
@@ -1004,10 +1156,35 @@ final class OpenPdfCorePageRenderer {
     private void fillPath(int windingRule) {
         Path2D.Float p = (Path2D.Float) currentPath.clone();
         p.setWindingRule(windingRule);
+        Rectangle2D bounds = deviceBounds(p.getBounds2D());
+        if (isCulled(bounds)) {
+            return;
+        }
+        if (recorder != null) {
+            recorder.fill(g2, bounds, p, state.fillColor);
+            return;
+        }
         g2.setColor(state.fillColor);
         g2.fill(p);
     }
 
+    /**
+     * @return the bounds of a user-space rectangle in device space
+     */
+    private Rectangle2D deviceBounds(Rectangle2D userBounds) {
+        return g2.getTransform().createTransformedShape(userBounds).getBounds2D();
+    }
+
+    /**
+     * Returns whether content with the given device bounds lies entirely outside the region being
+     * rendered. Edges count as inside, so zero-width bounds of straight lines are kept.
+     */
+    private boolean isCulled(Rectangle2D deviceBounds) {
+        return cullBounds != null
+                && (deviceBounds.getMaxX() < cullBounds.getMinX() || deviceBounds.getMinX() > cullBounds.getMaxX()
+                || deviceBounds.getMaxY() < cullBounds.getMinY() || deviceBounds.getMinY() > cullBounds.getMaxY());
+    }
+
     private void resetPath() {
         if (state.hasPendingClip) {
             Path2D.Float clip = (Path2D.Float) currentPath.clone();
@@ -1133,7 +1310,10 @@ final class OpenPdfCorePageRenderer {
     private void doXObject(String name) {
         BufferedImage inline = inlineImages.get(name);
         if (inline != null) {
-            drawUnitSquareImage(inline);
+            Rectangle2D bounds = deviceBounds(UNIT_SQUARE);
+            if (!isCulled(bounds)) {
+                drawUnitSquareImage(inline, bounds);
+            }
             return;
         }
         if (resources == null) {
@@ -1151,7 +1331,7 @@ final class OpenPdfCorePageRenderer {
         }
         PdfName subtype = stream.getAsName(PdfName.SUBTYPE);
         if (PdfName.FORM.equals(subtype)) {
-            renderForm(stream);
+            renderForm(stream, ref instanceof PRIndirectReference ind ? ind : null);
         } else if (PdfName.IMAGE.equals(subtype)) {
             renderImage(stream);
         }
@@ -1163,8 +1343,13 @@ final class OpenPdfCorePageRenderer {
      * {@code /Matrix} entry applied on top of the current CTM. The current
      * graphics state and CTM are saved and restored around the call so the
      * form's content can't leak out.
+     *
+     * <p>Forms referenced indirectly are parsed once per document: their
+     * operators are kept in the {@link FormContentCache} and replayed on later
+     * uses. Forms with inline images are not cached, because the decoded
+     * images belong to the renderer that parsed them.</p>
      */
-    private void renderForm(PRStream form) {
+    private void renderForm(PRStream form, PRIndirectReference ref) {
         AffineTransform savedTx = g2.getTransform();
         Shape savedClip = g2.getClip();
         GState savedState = state;
@@ -1185,15 +1370,32 @@ final class OpenPdfCorePageRenderer {
                 float w = floatAt(bbox, 2) - x;
                 float h = floatAt(bbox, 3) - y;
                 if (w > 0 && h > 0) {
-                    g2.clip(new Rectangle2D.Float(x, y, w, h));
+                    Rectangle2D.Float box = new Rectangle2D.Float(x, y, w, h);
+                    if (isCulled(deviceBounds(box))) {
+                        return;
+                    }
+                    g2.clip(box);
                 }
             }
             PdfDictionary formResources = form.getAsDict(PdfName.RESOURCES);
             PdfDictionary effective = formResources != null ? formResources : resources;
-            OpenPdfCorePageRenderer nested = new OpenPdfCorePageRenderer(g2, effective);
+            OpenPdfCorePageRenderer nested = new OpenPdfCorePageRenderer(g2, effective, formCache, recorder);
             nested.state = state;
-            byte[] body = PdfReader.getStreamBytes(form);
-            nested.processContent(body);
+            nested.cullBounds = cullBounds;
+            if (formCache == null || ref == null) {
+                nested.processContent(PdfReader.getStreamBytes(form));
+                return;
+            }
+            List<List<PdfObject>> cached = formCache.get(ref.getNumber(), ref.getGeneration());
+            if (cached != null) {
+                nested.replayContent(cached);
+                return;
+            }
+            List<List<PdfObject>> recorded = new ArrayList<>();
+            nested.processContent(PdfReader.getStreamBytes(form), recorded);
+            if (nested.inlineImages.isEmpty()) {
+                formCache.put(ref.getNumber(), ref.getGeneration(), recorded);
+            }
         } catch (IOException | RuntimeException e) {
             LOG.log(Level.FINE, "Skipping Form XObject due to: {0}", e);
         } finally {
@@ -1209,25 +1411,45 @@ final class OpenPdfCorePageRenderer {
      * supplying the actual placement/size.
      */
     private void renderImage(PRStream image) {
-        BufferedImage img = decodeImage(image);
+        Rectangle2D bounds = deviceBounds(UNIT_SQUARE);
+        if (isCulled(bounds)) {
+            return;
+        }
+        int stepX = 1;
+        int stepY = 1;
+        // A display list may be replayed at any resolution, so it keeps every source sample.
+        if (recorder == null) {
+            AffineTransform ctm = g2.getTransform();
+            stepX = subsamplingStep(intValue(image, PdfName.WIDTH),
+                    Math.hypot(ctm.getScaleX(), ctm.getShearY()));
+            stepY = subsamplingStep(intValue(image, PdfName.HEIGHT),
+                    Math.hypot(ctm.getShearX(), ctm.getScaleY()));
+        }
+        BufferedImage img = decodeImage(image, stepX, stepY);
         if (img == null) {
             return;
         }
-        drawUnitSquareImage(img);
+        drawUnitSquareImage(img, bounds);
     }
 
     /**
      * Draws a decoded image into the standard PDF image area: the (0,0)-(1,1) unit
      * square in user space, with the CTM supplying placement/size. Honors the current
      * fill alpha; saves and restores the {@link Graphics2D} transform.
+     *
+     * @param bounds the device bounds of the unit square, for the display list
      */
-    private void drawUnitSquareImage(BufferedImage img) {
+    private void drawUnitSquareImage(BufferedImage img, Rectangle2D bounds) {
         AffineTransform saved = g2.getTransform();
         try {
             // PDF images map (0,0)-(1,1) in user space to the full image, with Y running up.
             // Java2D draws top-to-bottom, so we translate up by 1 and flip Y back.
             g2.translate(0, 1);
             g2.scale(1.0 / img.getWidth(), -1.0 / img.getHeight());
+            if (recorder != null) {
+                recorder.image(g2, bounds, img, state.fillAlpha);
+                return;
+            }
             Composite saveComposite = null;
             if (state.fillAlpha < 1f) {
                 saveComposite = g2.getComposite();
@@ -1245,7 +1467,29 @@ final class OpenPdfCorePageRenderer {
         }
     }
 
-    private BufferedImage decodeImage(PRStream stream) {
+    private static int intValue(PdfDictionary dict, PdfName key) {
+        PdfNumber n = dict.getAsNumber(key);
+        return n == null ? 0 : n.intValue();
+    }
+
+    /**
+     * Returns how many source samples can be skipped per decoded sample when an image
+     * {@code sourceSize} samples wide is drawn {@code deviceSize} device pixels wide, keeping
+     * at least one decoded sample per device pixel. Drawing a large scan as a thumbnail then
+     * only allocates about as many pixels as the thumbnail has.
+     */
+    static int subsamplingStep(int sourceSize, double deviceSize) {
+        if (sourceSize <= 1 || Double.isNaN(deviceSize) || Double.isInfinite(deviceSize)) {
+            return 1;
+        }
+        return Math.max(1, (int) (sourceSize / Math.max(deviceSize, 1.0)));
+    }
+
+    /**
+     * Decodes an Image XObject, keeping only every {@code stepX}-th column and
+     * {@code stepY}-th row of samples.
+     */
+    private BufferedImage decodeImage(PRStream stream, int stepX, int stepY) {
         PdfNumber widthN = stream.getAsNumber(PdfName.WIDTH);
         PdfNumber heightN = stream.getAsNumber(PdfName.HEIGHT);
         if (widthN == null || heightN == null) {
@@ -1258,13 +1502,13 @@ final class OpenPdfCorePageRenderer {
         }
         PdfObject filterObj = stream.get(PdfName.FILTER);
         if (hasFilter(filterObj, PdfName.DCTDECODE) || hasFilter(filterObj, PdfName.JPXDECODE)) {
-            return decodeViaImageIO(stream);
+            return decodeViaImageIO(stream, stepX, stepY);
         }
         PdfArray indexedCs = asIndexedColorSpace(stream.get(PdfName.COLORSPACE));
         if (indexedCs != null) {
-            return decodeIndexedImage(stream, width, height, indexedCs);
+            return decodeIndexedImage(stream, width, height, indexedCs, stepX, stepY);
         }
-        return decodeRawRaster(stream, width, height);
+        return decodeRawRaster(stream, width, height, stepX, stepY);
     }
 
     /**
@@ -1287,9 +1531,10 @@ final class OpenPdfCorePageRenderer {
      * indices and DeviceGray / DeviceRGB / DeviceCMYK base color spaces (the overwhelming
      * majority of indexed images produced by PNG-to-PDF conversion).
      */
-    private BufferedImage decodeIndexedImage(PRStream stream, int width, int height, PdfArray indexedCs) {
+    private BufferedImage decodeIndexedImage(PRStream stream, int width, int height, PdfArray indexedCs,
+            int stepX, int stepY) {
         try {
-            return decodeIndexedImageOrThrow(stream, width, height, indexedCs);
+            return decodeIndexedImageOrThrow(stream, width, height, indexedCs, stepX, stepY);
         } catch (IOException | RuntimeException e) {
             LOG.log(Level.FINE, "Skipping indexed image due to: {0}", e);
             return null;
@@ -1297,7 +1542,7 @@ final class OpenPdfCorePageRenderer {
     }
 
     private BufferedImage decodeIndexedImageOrThrow(PRStream stream, int width, int height,
-            PdfArray indexedCs) throws IOException {
+            PdfArray indexedCs, int stepX, int stepY) throws IOException {
         // Bit-packed indices (1/2/4-bit) are legal but rare; not yet supported.
         int bpc = readBitsPerComponent(stream);
         if (bpc != 8) {
@@ -1308,13 +1553,14 @@ final class OpenPdfCorePageRenderer {
         if (baseComponents == 0 || lookup == null || lookup.length == 0) {
             return null;
         }
-        byte[] indices = PdfReader.getStreamBytes(stream);
-        int pixels = width * height;
-        if (indices.length < pixels) {
+        byte[] indices = readSamples(stream, width, height, 1, stepX, stepY);
+        if (indices == null) {
             return null;
         }
-        byte[] expanded = expandIndexedPalette(indices, lookup, pixels, baseComponents);
-        return buildImageForBaseComponents(expanded, width, height, baseComponents);
+        int outWidth = sampledSize(width, stepX);
+        int outHeight = sampledSize(height, stepY);
+        byte[] expanded = expandIndexedPalette(indices, lookup, outWidth * outHeight, baseComponents);
+        return buildImageForBaseComponents(expanded, outWidth, outHeight, baseComponents);
     }
 
     private static int readBitsPerComponent(PRStream stream) {
@@ -1387,30 +1633,139 @@ final class OpenPdfCorePageRenderer {
     }
 
     /**
-     * Decodes DCT/JPX-encoded image streams via the JRE's {@link ImageIO}.
+     * Decodes DCT/JPX-encoded image streams via the JRE's {@link ImageIO}, letting the
+     * image reader skip the samples that subsampling drops.
      */
-    private BufferedImage decodeViaImageIO(PRStream stream) {
+    private BufferedImage decodeViaImageIO(PRStream stream, int stepX, int stepY) {
         try {
             byte[] raw = PdfReader.getStreamBytesRaw(stream);
-            BufferedImage img = ImageIO.read(new ByteArrayInputStream(raw));
+            BufferedImage img = readImage(raw, stepX, stepY);
             if (img != null) {
                 return img;
             }
             // Some PDFs apply additional filters before DCTDecode; fall back to fully decoded bytes.
             byte[] decoded = PdfReader.getStreamBytes(stream);
-            return ImageIO.read(new ByteArrayInputStream(decoded));
+            return readImage(decoded, stepX, stepY);
         } catch (IOException | RuntimeException e) {
             LOG.log(Level.FINE, "Skipping JPEG/JPX image XObject due to: {0}", e);
             return null;
         }
     }
 
+    private static BufferedImage readImage(byte[] data, int stepX, int stepY) throws IOException {
+        if (stepX == 1 && stepY == 1) {
+            return ImageIO.read(new ByteArrayInputStream(data));
+        }
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(stepX, stepY, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static int sampledSize(int size, int step) {
+        return (size + step - 1) / step;
+    }
+
+    /**
+     * Reads the decoded samples of an image with {@code bytesPerPixel} bytes per pixel, keeping
+     * every {@code stepX}-th pixel of every {@code stepY}-th row. Unfiltered and plain Flate
+     * streams are inflated row by row so that the full-resolution raster never exists in memory;
+     * other filters (and Flate with a predictor, which needs the previous row) are decoded in full
+     * first.
+     *
+     * @return the kept samples, row by row, or {@code null} if the stream holds fewer samples
+     *         than the image dimensions require
+     */
+    private static byte[] readSamples(PRStream stream, int width, int height, int bytesPerPixel,
+            int stepX, int stepY) throws IOException {
+        int rowBytes = width * bytesPerPixel;
+        if (stepX == 1 && stepY == 1) {
+            byte[] decoded = PdfReader.getStreamBytes(stream);
+            return decoded.length < rowBytes * height ? null : decoded;
+        }
+        byte[] out = new byte[sampledSize(width, stepX) * sampledSize(height, stepY) * bytesPerPixel];
+        InputStream in = openSampleStream(stream);
+        if (in != null) {
+            try (in) {
+                byte[] row = new byte[rowBytes];
+                int o = 0;
+                for (int y = 0; y < height; y++) {
+                    if (in.readNBytes(row, 0, rowBytes) < rowBytes) {
+                        return null;
+                    }
+                    if (y % stepY == 0) {
+                        o = copySamples(row, 0, rowBytes, bytesPerPixel, stepX, out, o);
+                    }
+                }
+                return out;
+            } catch (IOException e) {
+                // Damaged or truncated Flate data: PdfReader's decoder is more forgiving, retry through it.
+                LOG.log(Level.FINE, "Decoding whole image after: {0}", e);
+            }
+        }
+        byte[] decoded = PdfReader.getStreamBytes(stream);
+        if (decoded.length < rowBytes * height) {
+            return null;
+        }
+        int o = 0;
+        for (int y = 0; y < height; y += stepY) {
+            o = copySamples(decoded, y * rowBytes, rowBytes, bytesPerPixel, stepX, out, o);
+        }
+        return out;
+    }
+
+    private static int copySamples(byte[] row, int offset, int rowBytes, int bytesPerPixel, int stepX,
+            byte[] out, int o) {
+        int pixelStep = stepX * bytesPerPixel;
+        for (int x = 0; x < rowBytes; x += pixelStep) {
+            System.arraycopy(row, offset + x, out, o, bytesPerPixel);
+            o += bytesPerPixel;
+        }
+        return o;
+    }
+
+    /**
+     * Opens the decoded samples of an unfiltered or plain Flate image as a stream, or returns
+     * {@code null} for any other filter chain.
+     */
+    private static InputStream openSampleStream(PRStream stream) throws IOException {
+        PdfObject filter = PdfReader.getPdfObject(stream.get(PdfName.FILTER));
+        if (filter instanceof PdfArray arr) {
+            if (arr.size() > 1) {
+                return null;
+            }
+            filter = arr.isEmpty() ? null : PdfReader.getPdfObject(arr.getPdfObject(0));
+        }
+        PdfObject parms = PdfReader.getPdfObject(stream.get(PdfName.DECODEPARMS));
+        if (parms != null && !parms.isNull()) {
+            return null;
+        }
+        if (filter == null || filter.isNull()) {
+            return new ByteArrayInputStream(PdfReader.getStreamBytesRaw(stream));
+        }
+        if (PdfName.FLATEDECODE.equals(filter)) {
+            return new InflaterInputStream(new ByteArrayInputStream(PdfReader.getStreamBytesRaw(stream)));
+        }
+        return null;
+    }
+
     /**
      * Decodes an uncompressed / Flate-decoded image XObject into a {@link BufferedImage}.
      * Supports 8-bit DeviceGray, DeviceRGB and DeviceCMYK; bit depths and color spaces
      * outside that set yield {@code null}.
      */
-    private BufferedImage decodeRawRaster(PRStream stream, int width, int height) {
+    private BufferedImage decodeRawRaster(PRStream stream, int width, int height, int stepX, int stepY) {
         try {
             PdfNumber bpcN = stream.getAsNumber(PdfName.BITSPERCOMPONENT);
             int bpc = bpcN == null ? 8 : bpcN.intValue();
@@ -1421,19 +1776,19 @@ final class OpenPdfCorePageRenderer {
             if (components <= 0) {
                 return null;
             }
-            byte[] decoded = PdfReader.getStreamBytes(stream);
-            int rowBytes = width * components;
-            int expected = rowBytes * height;
-            if (decoded.length < expected) {
+            byte[] decoded = readSamples(stream, width, height, components, stepX, stepY);
+            if (decoded == null) {
                 return null;
             }
+            int outWidth = sampledSize(width, stepX);
+            int outHeight = sampledSize(height, stepY);
             switch (components) {
                 case 1:
-                    return buildGrayImage(decoded, width, height);
+                    return buildGrayImage(decoded, outWidth, outHeight);
                 case 3:
-                    return buildRgbImage(decoded, width, height);
+                    return buildRgbImage(decoded, outWidth, outHeight);
                 case 4:
-                    return buildCmykImage(decoded, width, height);
+                    return buildCmykImage(decoded, outWidth, outHeight);
                 default:
                     return null;
             }
@@ -1564,6 +1919,7 @@ final class OpenPdfCorePageRenderer {
         Font awtFont = mapFont(state.font, state.fontSize);
         g2.setFont(awtFont);
         g2.setColor(state.fillColor);
+        float advance = computeTextAdvance(text);
 
         AffineTransform saved = g2.getTransform();
         try {
@@ -1574,14 +1930,25 @@ final class OpenPdfCorePageRenderer {
             if (state.textRise != 0f) {
                 g2.translate(0, state.textRise);
             }
-            g2.scale(1, -1);
-            g2.drawString(text, 0f, 0f);
+            // Generous glyph bounds: one font size of slack around the advance, since
+            // neither the AWT font's nor the PDF font's bounding box is exact.
+            float size = Math.max(state.fontSize, 0.1f);
+            float runWidth = state.horizontalScaling == 0f ? 0f : advance / state.horizontalScaling;
+            Rectangle2D bounds = deviceBounds(new Rectangle2D.Float(Math.min(0f, runWidth) - size, -size,
+                    Math.abs(runWidth) + 2 * size, 3 * size));
+            if (!isCulled(bounds)) {
+                g2.scale(1, -1);
+                if (recorder != null) {
+                    recorder.text(g2, bounds, text, awtFont, state.fillColor);
+                } else {
+                    g2.drawString(text, 0f, 0f);
+                }
+            }
         } finally {
             g2.setTransform(saved);
         }
 
         // Advance text matrix using actual PDF font widths + char/word spacing.
-        float advance = computeTextAdvance(text);
         AffineTransform adv = new AffineTransform(textMatrix);
         adv.translate(advance, 0);
         textMatrix = adv;
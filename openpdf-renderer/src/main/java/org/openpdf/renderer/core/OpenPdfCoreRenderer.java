@@ -54,6 +54,10 @@ import org.openpdf.text.pdf.parser.PdfTextExtractor;
  *   <li>Page rasterization: {@link OpenPdfCorePageRenderer}, which parses the
  *       page content stream with {@link PdfContentParser} and dispatches PDF
  *       operators directly to a {@link Graphics2D}.</li>
+ *   <li>Render-once, rasterize-many: {@link #compilePage(int)} records the
+ *       same drawing calls into an immutable {@link PageDisplayList}.</li>
+ *   <li>Large pages: {@link #renderRegion(int, float, Rectangle2D)} and
+ *       {@link #getTiles(int, float, int)} rasterize only part of a page.</li>
  * </ul>
  *
  * <p>The legacy in-tree parser is no longer used by this class.</p>
@@ -80,6 +84,7 @@ public class OpenPdfCoreRenderer implements Closeable {
     private static final float PDF_USER_SPACE_DPI = 72f;
 
     private final PdfReader reader;
+    private final FormContentCache formCache = new FormContentCache(FormContentCache.DEFAULT_MAX_OPERANDS);
     private boolean closed;
 
     /**
@@ -275,13 +280,98 @@ public class OpenPdfCoreRenderer implements Closeable {
         BufferedImage out = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
         Graphics2D g2 = out.createGraphics();
         try {
-            OpenPdfCorePageRenderer.render(reader, pageNumber, g2, width, height, dpi);
+            OpenPdfCorePageRenderer.render(reader, pageNumber, g2, width, height, dpi, formCache);
         } finally {
             g2.dispose();
         }
         return out;
     }
 
+    /**
+     * Renders only the part of the requested page inside {@code region}, as it
+     * would appear in {@link #renderPage(int, float)} at the same DPI. Paths,
+     * text, images and Form XObjects whose bounds fall entirely outside the
+     * region are skipped, so memory and time scale with the region rather
+     * than the page.
+     *
+     * @param pageNumber 1-based page number
+     * @param dpi        target resolution in dots per inch
+     * @param region     the area to render in page points (1/72 inch), with
+     *                   the origin at the top-left corner of the displayed page
+     *                   and Y growing down, like {@link #getPageSize(int)}
+     * @return an image of the region with an opaque white background
+     * @throws IOException if reading the page fails
+     * @throws IllegalArgumentException if {@code dpi <= 0} or {@code pageNumber}
+     *         is out of range
+     * @throws IllegalStateException if this renderer has been closed
+     */
+    public BufferedImage renderRegion(int pageNumber, float dpi, Rectangle2D region) throws IOException {
+        Objects.requireNonNull(region, "region");
+        if (dpi <= 0f) {
+            throw new IllegalArgumentException("dpi must be > 0, was " + dpi);
+        }
+        return renderArea(pageNumber, dpi, PageTile.pixelArea(region, dpi));
+    }
+
+    /**
+     * Splits the image of the requested page at {@code dpi} into tiles of at
+     * most {@code tileSize x tileSize} pixels, in row-major order, for
+     * {@link #renderTile(int, PageTile)}.
+     *
+     * <p>This renderer is not thread-safe. To render tiles in parallel,
+     * compile the page once with {@link #compilePage(int)} and render the
+     * tiles of the returned {@link PageDisplayList} from several threads.</p>
+     *
+     * @param pageNumber 1-based page number
+     * @param dpi        target resolution in dots per inch
+     * @param tileSize   the maximum tile width and height in pixels
+     * @return the page's tiles
+     * @throws IllegalArgumentException if {@code dpi} or {@code tileSize} is
+     *         not positive, or {@code pageNumber} is out of range
+     * @throws IllegalStateException if this renderer has been closed
+     */
+    public List<PageTile> getTiles(int pageNumber, float dpi, int tileSize) {
+        ensureOpen();
+        checkPageNumber(pageNumber);
+        Rectangle2D size = getPageSize(pageNumber);
+        return PageTile.grid((float) size.getWidth(), (float) size.getHeight(), dpi, tileSize);
+    }
+
+    /**
+     * Renders one tile of the requested page; see {@link #getTiles(int, float, int)}.
+     *
+     * @param pageNumber 1-based page number
+     * @param tile       a tile of that page
+     * @return an image of {@code tile.getWidth() x tile.getHeight()} pixels
+     * @throws IOException if reading the page fails
+     * @throws IllegalStateException if this renderer has been closed
+     */
+    public BufferedImage renderTile(int pageNumber, PageTile tile) throws IOException {
+        Objects.requireNonNull(tile, "tile");
+        return renderArea(pageNumber, tile.getDpi(), tile.getPixels());
+    }
+
+    private BufferedImage renderArea(int pageNumber, float dpi, java.awt.Rectangle area) throws IOException {
+        ensureOpen();
+        checkPageNumber(pageNumber);
+        BufferedImage out = new BufferedImage(area.width, area.height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = out.createGraphics();
+        try {
+            OpenPdfCorePageRenderer.renderArea(reader, pageNumber, g2, area, dpi, formCache);
+        } finally {
+            g2.dispose();
+        }
+        return out;
+    }
+
+    private void checkPageNumber(int pageNumber) {
+        int numPages = getNumPages();
+        if (pageNumber < 1 || pageNumber > numPages) {
+            throw new IllegalArgumentException(
+                    "pageNumber " + pageNumber + " out of range [1, " + numPages + "]");
+        }
+    }
+
     /**
      * Renders the requested page directly onto the supplied {@link Graphics2D},
      * scaled to fit a target box of {@code targetWidth x targetHeight} pixels.
@@ -329,13 +419,40 @@ public class OpenPdfCoreRenderer implements Closeable {
         java.awt.geom.AffineTransform savedTx = g2.getTransform();
         java.awt.Shape savedClip = g2.getClip();
         try {
-            OpenPdfCorePageRenderer.render(reader, pageNumber, g2, targetWidth, targetHeight, dpi);
+            OpenPdfCorePageRenderer.render(reader, pageNumber, g2, targetWidth, targetHeight, dpi, formCache);
         } finally {
             g2.setTransform(savedTx);
             g2.setClip(savedClip);
         }
     }
 
+    /**
+     * Compiles the requested page into a {@link PageDisplayList}: the content
+     * stream is read and parsed once, and the resulting paths, text runs,
+     * and images can then be rasterized at any resolution, or drawn onto any
+     * {@link Graphics2D} under any transform, without going back to the PDF.
+     *
+     * <p>Use this when the same page is rendered several times, e.g. as a
+     * thumbnail, a preview and zoomed tiles. The returned list does not
+     * reference this renderer and may be replayed after it is closed and from
+     * several threads at once.</p>
+     *
+     * @param pageNumber 1-based page number
+     * @return the page's display list
+     * @throws IOException if reading the page fails
+     * @throws IllegalArgumentException if {@code pageNumber} is out of range
+     * @throws IllegalStateException if this renderer has been closed
+     */
+    public PageDisplayList compilePage(int pageNumber) throws IOException {
+        ensureOpen();
+        int numPages = getNumPages();
+        if (pageNumber < 1 || pageNumber > numPages) {
+            throw new IllegalArgumentException(
+                    "pageNumber " + pageNumber + " out of range [1, " + numPages + "]");
+        }
+        return OpenPdfCorePageRenderer.compile(reader, pageNumber, formCache);
+    }
+
     /**
      * Renders all pages of the document to a list of {@link BufferedImage}s at
      * the given DPI. Convenience for batch use cases; for large documents,
@@ -367,12 +484,20 @@ public class OpenPdfCoreRenderer implements Closeable {
         return reader;
     }
 
+    /**
+     * @return the cache of parsed Form XObjects shared by the pages of this document
+     */
+    FormContentCache getFormContentCache() {
+        return formCache;
+    }
+
     @Override
     public void close() {
         if (closed) {
             return;
         }
         closed = true;
+        formCache.clear();
         reader.close();
     }
 
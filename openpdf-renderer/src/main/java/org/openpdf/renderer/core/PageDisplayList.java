@@ -0,0 +1,393 @@
+/*
+ * Copyright 2026 the OpenPDF contributors.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package org.openpdf.renderer.core;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Paint;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A page compiled once into an immutable, device-independent list of drawing
+ * operations: filled and stroked paths, text runs with their resolved AWT
+ * fonts, and decoded images, each with the transform, clip and color that
+ * were current when the page's content stream drew it.
+ *
+ * <p>The list is expressed in page space at 72 DPI: the origin is the
+ * top-left corner of the (rotated) page, Y grows down and one unit is one PDF
+ * point. Replaying it at another resolution only scales that space, so a page
+ * shown as a thumbnail, a preview and zoomed tiles is read and parsed once
+ * instead of once per resolution. Zero-width ("hairline") strokes are resolved
+ * at replay time so they stay one device pixel wide at every scale.</p>
+ *
+ * <p>Instances are immutable and may be replayed concurrently from several
+ * threads, each onto its own {@link Graphics2D}.</p>
+ *
+ * <pre>{@code
+ * PageDisplayList page = renderer.compilePage(1);
+ * BufferedImage thumbnail = page.render(24f);
+ * BufferedImage preview = page.render(96f);
+ * }</pre>
+ *
+ * @see OpenPdfCoreRenderer#compilePage(int)
+ */
+public final class PageDisplayList {
+
+    private static final float PDF_USER_SPACE_DPI = 72f;
+
+    /**
+     * Slack around hairline strokes when culling, in page points.
+     */
+    private static final double HAIRLINE_MARGIN = 1.0;
+
+    private final float width;
+    private final float height;
+    private final List<Op> ops;
+
+    private PageDisplayList(float width, float height, List<Op> ops) {
+        this.width = width;
+        this.height = height;
+        this.ops = ops;
+    }
+
+    /**
+     * @return the page width in PDF points, with the page rotation applied
+     */
+    public float getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the page height in PDF points, with the page rotation applied
+     */
+    public float getHeight() {
+        return height;
+    }
+
+    /**
+     * @return the number of recorded drawing operations
+     */
+    public int size() {
+        return ops.size();
+    }
+
+    /**
+     * Rasterizes the page at the given resolution, producing the same image as
+     * {@link OpenPdfCoreRenderer#renderPage(int, float)}.
+     *
+     * @param dpi target resolution in dots per inch
+     * @return a {@link BufferedImage#TYPE_INT_ARGB} image with an opaque white background
+     * @throws IllegalArgumentException if {@code dpi <= 0}
+     */
+    public BufferedImage render(float dpi) {
+        if (dpi <= 0f) {
+            throw new IllegalArgumentException("dpi must be > 0, was " + dpi);
+        }
+        float scale = dpi / PDF_USER_SPACE_DPI;
+        return renderArea(new Rectangle(0, 0,
+                Math.max(1, Math.round(width * scale)), Math.max(1, Math.round(height * scale))), dpi);
+    }
+
+    /**
+     * Rasterizes the part of the page inside {@code region} at the given
+     * resolution. Operations whose bounds lie entirely outside the region are
+     * skipped.
+     *
+     * @param dpi    target resolution in dots per inch
+     * @param region the area to render in page points, with the origin at the
+     *               top-left corner of the displayed page and Y growing down
+     * @return an image of the region with an opaque white background
+     * @throws IllegalArgumentException if {@code dpi <= 0}
+     */
+    public BufferedImage renderRegion(float dpi, Rectangle2D region) {
+        Objects.requireNonNull(region, "region");
+        if (dpi <= 0f) {
+            throw new IllegalArgumentException("dpi must be > 0, was " + dpi);
+        }
+        return renderArea(PageTile.pixelArea(region, dpi), dpi);
+    }
+
+    /**
+     * Splits the page image at {@code dpi} into tiles of at most
+     * {@code tileSize x tileSize} pixels, for {@link #renderTile(PageTile)}.
+     *
+     * @param dpi      target resolution in dots per inch
+     * @param tileSize the maximum tile width and height in pixels
+     * @return the tiles in row-major order
+     * @throws IllegalArgumentException if {@code dpi} or {@code tileSize} is not positive
+     */
+    public List<PageTile> getTiles(float dpi, int tileSize) {
+        return PageTile.grid(width, height, dpi, tileSize);
+    }
+
+    /**
+     * Rasterizes one tile of the page. Tiles of the same list may be rendered
+     * concurrently.
+     *
+     * @param tile a tile of this page, see {@link #getTiles(float, int)}
+     * @return an image of {@code tile.getWidth() x tile.getHeight()} pixels
+     */
+    public BufferedImage renderTile(PageTile tile) {
+        Objects.requireNonNull(tile, "tile");
+        return renderArea(tile.getPixels(), tile.getDpi());
+    }
+
+    private BufferedImage renderArea(Rectangle area, float dpi) {
+        float scale = dpi / PDF_USER_SPACE_DPI;
+        BufferedImage out = new BufferedImage(area.width, area.height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = out.createGraphics();
+        try {
+            OpenPdfCorePageRenderer.fillBackground(g2, area.width, area.height);
+            OpenPdfCorePageRenderer.applyRenderingHints(g2);
+            g2.clip(new Rectangle(0, 0, area.width, area.height));
+            AffineTransform transform = AffineTransform.getTranslateInstance(-area.x, -area.y);
+            transform.scale(scale, scale);
+            draw(g2, transform);
+        } finally {
+            g2.dispose();
+        }
+        return out;
+    }
+
+    /**
+     * Replays the page onto {@code g2}. The {@code transform} maps page space
+     * (72 DPI, origin top-left, Y down) onto the current user space of
+     * {@code g2}; use a scale for another resolution, and add a translation to
+     * draw a region of the page into a tile. Operations entirely outside the
+     * clip of {@code g2} are skipped. The background is not painted and the
+     * transform, clip, paint, stroke, font and composite of {@code g2} are
+     * restored before returning.
+     *
+     * @param g2        the destination graphics
+     * @param transform page space to the user space of {@code g2}
+     */
+    public void draw(Graphics2D g2, AffineTransform transform) {
+        Objects.requireNonNull(g2, "g2");
+        Objects.requireNonNull(transform, "transform");
+        AffineTransform savedTx = g2.getTransform();
+        Shape savedClip = g2.getClip();
+        Paint savedPaint = g2.getPaint();
+        Stroke savedStroke = g2.getStroke();
+        Font savedFont = g2.getFont();
+        Composite savedComposite = g2.getComposite();
+        AffineTransform base = new AffineTransform(savedTx);
+        base.concatenate(transform);
+        Rectangle2D visible = visibleArea(savedTx, savedClip, base);
+        Shape currentClip = null;
+        try {
+            for (Op op : ops) {
+                if (visible != null && !intersects(op.bounds(), visible)) {
+                    continue;
+                }
+                if (op.clip() != currentClip) {
+                    g2.setTransform(savedTx);
+                    g2.setClip(savedClip);
+                    if (op.clip() != null) {
+                        g2.setTransform(base);
+                        g2.clip(op.clip());
+                    }
+                    currentClip = op.clip();
+                }
+                AffineTransform tx = new AffineTransform(base);
+                tx.concatenate(op.transform());
+                g2.setTransform(tx);
+                op.draw(g2);
+            }
+        } finally {
+            g2.setTransform(savedTx);
+            g2.setClip(savedClip);
+            g2.setPaint(savedPaint);
+            g2.setStroke(savedStroke);
+            g2.setFont(savedFont);
+            g2.setComposite(savedComposite);
+        }
+    }
+
+    /**
+     * Returns the page-space bounds of the clip, or {@code null} to draw everything.
+     */
+    private static Rectangle2D visibleArea(AffineTransform savedTx, Shape savedClip, AffineTransform base) {
+        if (savedClip == null) {
+            return null;
+        }
+        try {
+            Shape device = savedTx.createTransformedShape(savedClip);
+            return base.createInverse().createTransformedShape(device.getBounds2D()).getBounds2D();
+        } catch (NoninvertibleTransformException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Rectangle intersection that counts touching edges, so the zero-width
+     * bounds of straight lines still intersect.
+     */
+    private static boolean intersects(Rectangle2D a, Rectangle2D b) {
+        return a.getMaxX() >= b.getMinX() && a.getMinX() <= b.getMaxX()
+                && a.getMaxY() >= b.getMinY() && a.getMinY() <= b.getMaxY();
+    }
+
+    /**
+     * Records the drawing calls of an {@link OpenPdfCorePageRenderer}. Every
+     * operation captures the transform and clip of the renderer's graphics at
+     * the time of the call; consecutive operations under an equal clip share
+     * one clip instance.
+     */
+    static final class Builder {
+
+        private final List<Op> ops = new ArrayList<>();
+        private Shape lastClip;
+
+        void fill(Graphics2D g2, Rectangle2D bounds, Shape shape, Color color) {
+            ops.add(new Fill(g2.getTransform(), clip(g2), bounds, shape, color));
+        }
+
+        void stroke(Graphics2D g2, Rectangle2D bounds, Shape shape, Color color, BasicStroke stroke,
+                boolean hairline) {
+            // A hairline is one device pixel wide at replay, which may be wider than recorded.
+            Rectangle2D b = hairline
+                    ? new Rectangle2D.Double(bounds.getX() - HAIRLINE_MARGIN, bounds.getY() - HAIRLINE_MARGIN,
+                            bounds.getWidth() + 2 * HAIRLINE_MARGIN, bounds.getHeight() + 2 * HAIRLINE_MARGIN)
+                    : bounds;
+            ops.add(new Draw(g2.getTransform(), clip(g2), b, shape, color, stroke, hairline));
+        }
+
+        void text(Graphics2D g2, Rectangle2D bounds, String text, Font font, Color color) {
+            ops.add(new Text(g2.getTransform(), clip(g2), bounds, text, font, color));
+        }
+
+        void image(Graphics2D g2, Rectangle2D bounds, BufferedImage image, float alpha) {
+            ops.add(new Image(g2.getTransform(), clip(g2), bounds, image, alpha));
+        }
+
+        PageDisplayList build(float width, float height) {
+            return new PageDisplayList(width, height, List.copyOf(ops));
+        }
+
+        /**
+         * Returns the clip of {@code g2} in page space, reusing the previous
+         * instance when the clip has not changed.
+         */
+        private Shape clip(Graphics2D g2) {
+            Shape userClip = g2.getClip();
+            if (userClip == null) {
+                lastClip = null;
+                return null;
+            }
+            Shape clip = g2.getTransform().createTransformedShape(userClip);
+            if (lastClip == null || !sameShape(lastClip, clip)) {
+                lastClip = clip;
+            }
+            return lastClip;
+        }
+
+        private static boolean sameShape(Shape a, Shape b) {
+            PathIterator ia = a.getPathIterator(null);
+            PathIterator ib = b.getPathIterator(null);
+            if (ia.getWindingRule() != ib.getWindingRule()) {
+                return false;
+            }
+            double[] ca = new double[6];
+            double[] cb = new double[6];
+            while (!ia.isDone() && !ib.isDone()) {
+                int type = ia.currentSegment(ca);
+                if (type != ib.currentSegment(cb) || !Arrays.equals(ca, cb)) {
+                    return false;
+                }
+                ia.next();
+                ib.next();
+            }
+            return ia.isDone() && ib.isDone();
+        }
+    }
+
+    /**
+     * A drawing operation; {@link #transform()} maps the operation's user space
+     * to page space, {@link #clip()} is in page space, or {@code null}, and
+     * {@link #bounds()} holds everything the operation may paint, in page space.
+     */
+    private sealed interface Op permits Fill, Draw, Text, Image {
+
+        AffineTransform transform();
+
+        Shape clip();
+
+        Rectangle2D bounds();
+
+        /**
+         * Draws the operation; {@code g2} already has the transform and clip set.
+         */
+        void draw(Graphics2D g2);
+    }
+
+    private record Fill(AffineTransform transform, Shape clip, Rectangle2D bounds, Shape shape, Color color)
+            implements Op {
+
+        @Override
+        public void draw(Graphics2D g2) {
+            g2.setColor(color);
+            g2.fill(shape);
+        }
+    }
+
+    private record Draw(AffineTransform transform, Shape clip, Rectangle2D bounds, Shape shape, Color color,
+            BasicStroke stroke, boolean hairline) implements Op {
+
+        @Override
+        public void draw(Graphics2D g2) {
+            g2.setColor(color);
+            if (hairline) {
+                g2.setStroke(new BasicStroke(OpenPdfCorePageRenderer.hairlineWidth(g2.getTransform()),
+                        stroke.getEndCap(), stroke.getLineJoin(), stroke.getMiterLimit(),
+                        stroke.getDashArray(), stroke.getDashPhase()));
+            } else {
+                g2.setStroke(stroke);
+            }
+            g2.draw(shape);
+        }
+    }
+
+    private record Text(AffineTransform transform, Shape clip, Rectangle2D bounds, String text, Font font,
+            Color color) implements Op {
+
+        @Override
+        public void draw(Graphics2D g2) {
+            g2.setFont(font);
+            g2.setColor(color);
+            g2.drawString(text, 0f, 0f);
+        }
+    }
+
+    private record Image(AffineTransform transform, Shape clip, Rectangle2D bounds, BufferedImage image,
+            float alpha) implements Op {
+
+        @Override
+        public void draw(Graphics2D g2) {
+            g2.setComposite(alpha < 1f
+                    ? AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha)
+                    : AlphaComposite.SrcOver);
+            g2.drawImage(image, 0, 0, null);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2026 the OpenPDF contributors.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package org.openpdf.renderer.core;
+
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One tile of a page rasterized at a given resolution. The tiles of a page
+ * form a grid over the image that {@link OpenPdfCoreRenderer#renderPage(int, float)}
+ * would produce at the same resolution: rendering every tile and drawing it at
+ * ({@link #getX()}, {@link #getY()}) gives the whole page, but only one tile
+ * has to be in memory at a time.
+ *
+ * <p>Instances are immutable.</p>
+ *
+ * @see OpenPdfCoreRenderer#getTiles(int, float, int)
+ * @see PageDisplayList#getTiles(float, int)
+ */
+public final class PageTile {
+
+    private static final float PDF_USER_SPACE_DPI = 72f;
+
+    private final int column;
+    private final int row;
+    private final float dpi;
+    private final Rectangle pixels;
+
+    private PageTile(int column, int row, float dpi, Rectangle pixels) {
+        this.column = column;
+        this.row = row;
+        this.dpi = dpi;
+        this.pixels = pixels;
+    }
+
+    /**
+     * Splits the page image of a {@code width x height} point page at
+     * {@code dpi} into tiles of at most {@code tileSize x tileSize} pixels, in
+     * row-major order.
+     */
+    static List<PageTile> grid(float width, float height, float dpi, int tileSize) {
+        if (dpi <= 0f) {
+            throw new IllegalArgumentException("dpi must be > 0, was " + dpi);
+        }
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("tileSize must be > 0, was " + tileSize);
+        }
+        float scale = dpi / PDF_USER_SPACE_DPI;
+        int imageWidth = Math.max(1, Math.round(width * scale));
+        int imageHeight = Math.max(1, Math.round(height * scale));
+        List<PageTile> tiles = new ArrayList<>();
+        for (int y = 0, row = 0; y < imageHeight; y += tileSize, row++) {
+            for (int x = 0, column = 0; x < imageWidth; x += tileSize, column++) {
+                Rectangle pixels = new Rectangle(x, y,
+                        Math.min(tileSize, imageWidth - x), Math.min(tileSize, imageHeight - y));
+                tiles.add(new PageTile(column, row, dpi, pixels));
+            }
+        }
+        return Collections.unmodifiableList(tiles);
+    }
+
+    /**
+     * Returns the pixel area of the page image at {@code dpi} that covers
+     * {@code region}, given in page points.
+     */
+    static Rectangle pixelArea(Rectangle2D region, float dpi) {
+        float scale = dpi / PDF_USER_SPACE_DPI;
+        int x0 = (int) Math.floor(region.getMinX() * scale);
+        int y0 = (int) Math.floor(region.getMinY() * scale);
+        int x1 = (int) Math.ceil(region.getMaxX() * scale);
+        int y1 = (int) Math.ceil(region.getMaxY() * scale);
+        return new Rectangle(x0, y0, Math.max(1, x1 - x0), Math.max(1, y1 - y0));
+    }
+
+    /**
+     * @return the 0-based column of the tile in the grid
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * @return the 0-based row of the tile in the grid
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * @return the resolution the tile is rendered at
+     */
+    public float getDpi() {
+        return dpi;
+    }
+
+    /**
+     * @return the left edge of the tile in the page image, in pixels
+     */
+    public int getX() {
+        return pixels.x;
+    }
+
+    /**
+     * @return the top edge of the tile in the page image, in pixels
+     */
+    public int getY() {
+        return pixels.y;
+    }
+
+    /**
+     * @return the width of the tile in pixels
+     */
+    public int getWidth() {
+        return pixels.width;
+    }
+
+    /**
+     * @return the height of the tile in pixels
+     */
+    public int getHeight() {
+        return pixels.height;
+    }
+
+    /**
+     * @return the area of the page image covered by the tile, in pixels
+     */
+    Rectangle getPixels() {
+        return new Rectangle(pixels);
+    }
+
+    /**
+     * Returns the part of the page covered by the tile in page points, with
+     * the origin at the top-left corner of the displayed page and Y growing
+     * down.
+     *
+     * @return the tile's page region
+     */
+    public Rectangle2D getRegion() {
+        float scale = dpi / PDF_USER_SPACE_DPI;
+        return new Rectangle2D.Double(pixels.x / scale, pixels.y / scale,
+                pixels.width / scale, pixels.height / scale);
+    }
+
+    @Override
+    public String toString() {
+        return "PageTile[" + column + "," + row + " " + pixels.x + "," + pixels.y + " "
+                + pixels.width + "x" + pixels.height + " @" + dpi + "dpi]";
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 the OpenPDF contributors.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package org.openpdf.renderer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.openpdf.text.Document;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Rectangle;
+import org.openpdf.text.pdf.PdfContentByte;
+import org.openpdf.text.pdf.PdfLiteral;
+import org.openpdf.text.pdf.PdfNumber;
+import org.openpdf.text.pdf.PdfObject;
+import org.openpdf.text.pdf.PdfTemplate;
+import org.openpdf.text.pdf.PdfWriter;
+
+/**
+ * Checks that Form XObjects are parsed once per document and replayed from
+ * {@link FormContentCache} afterwards.
+ */
+class FormContentCacheTest {
+
+    private static byte[] pdfWithRepeatedForm() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (Document doc = new Document(new Rectangle(PageSize.A6))) {
+            PdfWriter pdf = PdfWriter.getInstance(doc, baos);
+            doc.open();
+            PdfTemplate symbol = pdf.getDirectContent().createTemplate(20, 20);
+            symbol.setColorFill(Color.RED);
+            symbol.rectangle(0, 0, 20, 20);
+            symbol.fill();
+            for (int page = 0; page < 2; page++) {
+                if (page > 0) {
+                    doc.newPage();
+                }
+                PdfContentByte cb = pdf.getDirectContent();
+                for (int i = 0; i < 5; i++) {
+                    cb.addTemplate(symbol, 20 + i * 30, 100);
+                }
+            }
+        }
+        return baos.toByteArray();
+    }
+
+    private static int countRedPixels(BufferedImage img) {
+        int count = 0;
+        for (int y = 0; y < img.getHeight(); y++) {
+            for (int x = 0; x < img.getWidth(); x++) {
+                int argb = img.getRGB(x, y);
+                if (((argb >> 16) & 0xFF) > 200 && ((argb >> 8) & 0xFF) < 60 && (argb & 0xFF) < 60) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static List<List<PdfObject>> operators(int operandsPerOperator) {
+        List<PdfObject> op = new ArrayList<>();
+        for (int i = 0; i < operandsPerOperator - 1; i++) {
+            op.add(new PdfNumber(i));
+        }
+        op.add(new PdfLiteral("re"));
+        return List.of(List.copyOf(op));
+    }
+
+    @Test
+    void parsesEachFormOncePerDocument() throws Exception {
+        try (OpenPdfCoreRenderer r = new OpenPdfCoreRenderer(pdfWithRepeatedForm())) {
+            BufferedImage first = r.renderPage(1, 72f);
+            BufferedImage second = r.renderPage(2, 72f);
+
+            FormContentCache cache = r.getFormContentCache();
+            assertThat(cache.size()).isEqualTo(1);
+            assertThat(cache.getMisses()).isEqualTo(1);
+            assertThat(cache.getHits()).isEqualTo(9);
+            assertThat(countRedPixels(first)).isGreaterThan(5 * 300);
+            assertThat(countRedPixels(second)).isEqualTo(countRedPixels(first));
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedFormsByOperandCount() {
+        FormContentCache cache = new FormContentCache(10);
+        cache.put(1, 0, operators(4));
+        cache.put(2, 0, operators(4));
+        assertThat(cache.get(1, 0)).isNotNull();
+
+        cache.put(3, 0, operators(4));
+
+        assertThat(cache.get(2, 0)).isNull();
+        assertThat(cache.get(1, 0)).isNotNull();
+        assertThat(cache.get(3, 0)).isNotNull();
+        assertThat(cache.getOperandCount()).isEqualTo(8);
+    }
+
+    @Test
+    void skipsFormsLargerThanTheCache() {
+        FormContentCache cache = new FormContentCache(3);
+        cache.put(1, 0, operators(4));
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getOperandCount()).isZero();
+    }
+}
@@ -274,6 +274,57 @@ class OpenPdfCorePageRendererOperatorsTest {
         }
     }
 
+    private static BufferedImage halfRedHalfBlue(int width, int height) {
+        BufferedImage source = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        java.awt.Graphics2D gs = source.createGraphics();
+        try {
+            gs.setColor(Color.RED);
+            gs.fillRect(0, 0, width / 2, height);
+            gs.setColor(Color.BLUE);
+            gs.fillRect(width / 2, 0, width - width / 2, height);
+        } finally {
+            gs.dispose();
+        }
+        return source;
+    }
+
+    @Test
+    void subsamplingStepKeepsOneSamplePerDevicePixel() {
+        assertThat(OpenPdfCorePageRenderer.subsamplingStep(6000, 150.0)).isEqualTo(40);
+        assertThat(OpenPdfCorePageRenderer.subsamplingStep(6000, 151.0)).isEqualTo(39);
+        assertThat(OpenPdfCorePageRenderer.subsamplingStep(100, 400.0)).isEqualTo(1);
+        assertThat(OpenPdfCorePageRenderer.subsamplingStep(100, 0.2)).isEqualTo(100);
+        assertThat(OpenPdfCorePageRenderer.subsamplingStep(100, Double.NaN)).isEqualTo(1);
+    }
+
+    @Test
+    void rendersLargeImagesSubsampledAtLowResolution() throws Exception {
+        // A Flate-compressed raw RGB image and a JPEG, both far larger than the
+        // 100x50 pixel area they are drawn into at 72 DPI, decoded subsampled.
+        org.openpdf.text.Image raw = org.openpdf.text.Image.getInstance(halfRedHalfBlue(2000, 1000), null);
+        ByteArrayOutputStream jpegOut = new ByteArrayOutputStream();
+        ImageIO.write(halfRedHalfBlue(1600, 800), "jpg", jpegOut);
+        org.openpdf.text.Image jpeg = org.openpdf.text.Image.getInstance(jpegOut.toByteArray());
+
+        byte[] pdf = buildPdf(cb -> {
+            cb.addImage(raw, 100f, 0f, 0f, 50f, 20f, 300f);
+            cb.addImage(jpeg, 100f, 0f, 0f, 50f, 20f, 200f);
+        });
+
+        try (OpenPdfCoreRenderer r = new OpenPdfCoreRenderer(pdf)) {
+            BufferedImage img = r.renderPage(1, 72f);
+            int pageHeight = img.getHeight();
+            for (int top : new int[]{pageHeight - 350, pageHeight - 250}) {
+                Color left = new Color(img.getRGB(45, top + 25));
+                Color right = new Color(img.getRGB(95, top + 25));
+                assertThat(left.getRed()).as("left half at y=%s", top).isGreaterThan(200);
+                assertThat(left.getBlue()).as("left half at y=%s", top).isLessThan(60);
+                assertThat(right.getBlue()).as("right half at y=%s", top).isGreaterThan(200);
+                assertThat(right.getRed()).as("right half at y=%s", top).isLessThan(60);
+            }
+        }
+    }
+
     @Test
     void rendersFormXObjectViaNestedContentStream() throws Exception {
         // Form XObjects embed their own content stream. Wrap a colored rectangle
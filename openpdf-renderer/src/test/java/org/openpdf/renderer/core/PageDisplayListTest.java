@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 the OpenPDF contributors.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package org.openpdf.renderer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.openpdf.text.Document;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Rectangle;
+import org.openpdf.text.pdf.BaseFont;
+import org.openpdf.text.pdf.PdfContentByte;
+import org.openpdf.text.pdf.PdfWriter;
+
+/**
+ * Checks that a compiled {@link PageDisplayList} replays to the same pixels as
+ * rendering the page directly.
+ */
+class PageDisplayListTest {
+
+    private static byte[] buildPdf() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (Document doc = new Document(new Rectangle(PageSize.A6))) {
+            PdfWriter pdf = PdfWriter.getInstance(doc, baos);
+            doc.open();
+            PdfContentByte cb = pdf.getDirectContent();
+            cb.setColorFill(Color.BLUE);
+            cb.rectangle(20, 20, 100, 60);
+            cb.fill();
+            cb.saveState();
+            cb.rectangle(150, 20, 50, 50);
+            cb.clip();
+            cb.newPath();
+            cb.setColorFill(Color.RED);
+            cb.circle(175, 45, 40);
+            cb.fill();
+            cb.restoreState();
+            cb.setLineWidth(0f);
+            cb.moveTo(20, 200);
+            cb.lineTo(250, 200);
+            cb.stroke();
+            cb.beginText();
+            cb.setFontAndSize(BaseFont.createFont(), 18);
+            cb.setColorFill(Color.BLACK);
+            cb.setTextMatrix(20, 300);
+            cb.showText("Display list");
+            cb.endText();
+        }
+        return baos.toByteArray();
+    }
+
+    private static double differingPixels(BufferedImage a, BufferedImage b) {
+        assertThat(a.getWidth()).isEqualTo(b.getWidth());
+        assertThat(a.getHeight()).isEqualTo(b.getHeight());
+        int differing = 0;
+        for (int y = 0; y < a.getHeight(); y++) {
+            for (int x = 0; x < a.getWidth(); x++) {
+                if (a.getRGB(x, y) != b.getRGB(x, y)) {
+                    differing++;
+                }
+            }
+        }
+        return differing / (double) (a.getWidth() * a.getHeight());
+    }
+
+    @Test
+    void replaysLikeDirectRenderingAtSeveralResolutions() throws Exception {
+        try (OpenPdfCoreRenderer r = new OpenPdfCoreRenderer(buildPdf())) {
+            PageDisplayList page = r.compilePage(1);
+            assertThat(page.size()).isGreaterThanOrEqualTo(4);
+            assertThat(page.getWidth()).isEqualTo(PageSize.A6.getWidth());
+
+            for (float dpi : new float[]{36f, 72f, 150f}) {
+                assertThat(differingPixels(page.render(dpi), r.renderPage(1, dpi)))
+                        .as("dpi %s", dpi)
+                        .isLessThan(0.001);
+            }
+        }
+    }
+
+    @Test
+    void drawsUnderACallerTransform() throws Exception {
+        PageDisplayList page;
+        try (OpenPdfCoreRenderer r = new OpenPdfCoreRenderer(buildPdf())) {
+            page = r.compilePage(1);
+        }
+        BufferedImage full = page.render(144f);
+        // The bottom-right quarter of the page at 144 DPI, drawn into its own tile.
+        int w = full.getWidth() / 2;
+        int h = full.getHeight() / 2;
+        BufferedImage tile = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = tile.createGraphics();
+        try {
+            OpenPdfCorePageRenderer.fillBackground(g2, w, h);
+            OpenPdfCorePageRenderer.applyRenderingHints(g2);
+            AffineTransform tx = AffineTransform.getTranslateInstance(-w, -h);
+            tx.scale(2, 2);
+            page.draw(g2, tx);
+        } finally {
+            g2.dispose();
+        }
+        assertThat(differingPixels(tile, full.getSubimage(w, h, w, h))).isLessThan(0.001);
+    }
+
+    @Test
+    void replaysConcurrently() throws Exception {
+        PageDisplayList page;
+        try (OpenPdfCoreRenderer r = new OpenPdfCoreRenderer(buildPdf())) {
+            page = r.compilePage(1);
+        }
+        BufferedImage expected = page.render(100f);
+        try (ExecutorService exec = Executors.newFixedThreadPool(4)) {
+            List<Future<BufferedImage>> images = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                images.add(exec.submit(() -> page.render(100f)));
+            }
+            for (Future<BufferedImage> image : images) {
+                assertThat(differingPixels(image.get(), expected)).isZero();
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2026 the OpenPDF contributors.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ */
+package org.openpdf.renderer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.openpdf.text.Document;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Rectangle;
+import org.openpdf.text.pdf.BaseFont;
+import org.openpdf.text.pdf.PdfContentByte;
+import org.openpdf.text.pdf.PdfTemplate;
+import org.openpdf.text.pdf.PdfWriter;
+
+/**
+ * Checks region and tile rendering against whole-page rendering.
+ */
+class PageTileTest {
+
+    private static byte[] buildPdf() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (Document doc = new Document(new Rectangle(PageSize.A6))) {
+            PdfWriter pdf = PdfWriter.getInstance(doc, baos);
+            doc.open();
+            PdfContentByte cb = pdf.getDirectContent();
+            cb.setColorFill(Color.BLUE);
+            cb.rectangle(20, 20, 200, 100);
+            cb.fill();
+            cb.setColorStroke(Color.GREEN);
+            cb.setLineWidth(3f);
+            cb.moveTo(10, 380);
+            cb.lineTo(280, 150);
+            cb.stroke();
+            cb.beginText();
+            cb.setFontAndSize(BaseFont.createFont(), 24);
+            cb.setColorFill(Color.BLACK);
+            cb.setTextMatrix(30, 300);
+            cb.showText("Tiles");
+            cb.endText();
+            // A form only in the bottom-right corner of the page.
+            PdfTemplate corner = cb.createTemplate(20, 20);
+            corner.setColorFill(Color.RED);
+            corner.rectangle(0, 0, 20, 20);
+            corner.fill();
+            cb.addTemplate(corner, 270, 10);
+        }
+        return baos.toByteArray();
+    }
+
+    private static double differingPixels(BufferedImage a, BufferedImage b) {
+        assertThat(a.getWidth()).isEqualTo(b.getWidth());
+        assertThat(a.getHeight()).isEqualTo(b.getHeight());
+        int differing = 0;
+        for (int y = 0; y < a.getHeight(); y++) {
+            for (int x = 0; x < a.getWidth(); x++) {
+                if (a.getRGB(x, y) != b.getRGB(x, y)) {
+                    differing++;
+                }
+            }
+        }
+        return differing / (double) (a.getWidth() * a.getHeight());
+    }
+
+    private static BufferedImage stitch(int width, int height, List<PageTile> tiles, List<BufferedImage> images) {
+        BufferedImage out = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = out.createGraphics();
+        try {
+            for (int i = 0; i < tiles.size(); i++) {
+                g2.drawImage(images.get(i), tiles.get(i).getX(), tiles.get(i).getY(), null);
+            }
+        } finally {
+            g2.dispose();
+        }
+        return out;
+    }
+
+    @Test
+    void tilesCoverThePageImage() {
+        List<PageTile> tiles = PageTile.grid(300f, 200f, 144f, 256);
+        // 600 x 400 pixels: 3 columns, 2 rows.
+        assertThat(tiles).hasSize(6);
+        PageTile last = tiles.get(5);
+        assertThat(last.getColumn()).isEqualTo(2);
+        assertThat(last.getRow()).isEqualTo(1);
+        assertThat(last.getX()).isEqualTo(512);
+        assertThat(last.getY()).isEqualTo(256);
+        assertThat(last.getWidth()).isEqualTo(88);
+        assertThat(last.getHeight()).isEqualTo(144);
+        assertThat(last.getRegion()).isEqualTo(new Rectangle2D.Double(256, 128, 44, 72));
+    }
+
+    @Test
+    void stitchedTilesMatchTheWholePage() throws Exception {
+        try (OpenPdfCoreRenderer r = new OpenPdfCoreRenderer(buildPdf())) {
+            BufferedImage page = r.renderPage(1, 100f);
+            List<PageTile> tiles = r.getTiles(1, 100f, 128);
+            List<BufferedImage> images = new ArrayList<>();
+            for (PageTile tile : tiles) {
+                BufferedImage image = r.renderTile(1, tile);
+                assertThat(image.getWidth()).isEqualTo(tile.getWidth());
+                assertThat(image.getHeight()).isEqualTo(tile.getHeight());
+                images.add(image);
+            }
+            assertThat(differingPixels(stitch(page.getWidth(), page.getHeight(), tiles, images), page))
+                    .isLessThan(0.002);
+        }
+    }
+
+    @Test
+    void rendersARegion() throws Exception {
+        try (OpenPdfCoreRenderer r = new OpenPdfCoreRenderer(buildPdf())) {
+            BufferedImage page = r.renderPage(1, 144f);
+            BufferedImage region = r.renderRegion(1, 144f, new Rectangle2D.Double(10, 100, 150, 120));
+            assertThat(differingPixels(region, page.getSubimage(20, 200, 300, 240))).isLessThan(0.002);
+        }
+    }
+
+    @Test
+    void skipsFormsOutsideTheRegion() throws Exception {
+        try (OpenPdfCoreRenderer r = new OpenPdfCoreRenderer(buildPdf())) {
+            r.renderRegion(1, 72f, new Rectangle2D.Double(0, 0, 100, 100));
+            assertThat(r.getFormContentCache().getMisses()).isZero();
+
+            r.renderRegion(1, 72f, new Rectangle2D.Double(250, 370, 40, 40));
+            assertThat(r.getFormContentCache().getMisses()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void rendersDisplayListTilesConcurrently() throws Exception {
+        PageDisplayList page;
+        try (OpenPdfCoreRenderer r = new OpenPdfCoreRenderer(buildPdf())) {
+            page = r.compilePage(1);
+        }
+        BufferedImage whole = page.render(150f);
+        List<PageTile> tiles = page.getTiles(150f, 100);
+        List<BufferedImage> images = new ArrayList<>();
+        try (ExecutorService exec = Executors.newFixedThreadPool(4)) {
+            List<Future<BufferedImage>> futures = new ArrayList<>();
+            for (PageTile tile : tiles) {
+                futures.add(exec.submit(() -> page.renderTile(tile)));
+            }
+            for (Future<BufferedImage> future : futures) {
+                images.add(future.get());
+            }
+        }
+        assertThat(differingPixels(stitch(whole.getWidth(), whole.getHeight(), tiles, images), whole))
+                .isLessThan(0.002);
+    }
+}
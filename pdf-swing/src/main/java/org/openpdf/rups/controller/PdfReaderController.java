@@ -20,6 +20,7 @@
 
 package org.openpdf.rups.controller;
 
+import org.openpdf.rups.model.IndirectObjectFactory;
 import org.openpdf.rups.model.ObjectLoader;
 import org.openpdf.rups.model.PdfFile;
 import org.openpdf.rups.model.TreeNodeFactory;
@@ -88,6 +89,10 @@ public class PdfReaderController extends Observable implements Observer {
      * The factory producing tree nodes.
      */
     protected TreeNodeFactory nodes;
+    /**
+     * The indirect objects of the document that is open.
+     */
+    protected IndirectObjectFactory objects;
 
     /**
      * Constructs the PdfReaderController. This is an Observable object to which all iText related GUI components are
@@ -176,6 +181,7 @@ public class PdfReaderController extends Observable implements Observer {
      * @param file the wrapper object that holds the PdfReader as member variable
      */
     public void startObjectLoader(PdfFile file) {
+        closeObjects();
         setChanged();
         notifyObservers();
         setChanged();
@@ -192,6 +198,7 @@ public class PdfReaderController extends Observable implements Observer {
     @Override
     public void notifyObservers(Object obj) {
         if (obj instanceof ObjectLoader loader) {
+            objects = loader.getObjects();
             nodes = loader.getNodes();
             PdfTrailerTreeNode root = pdfTree.getRoot();
             root.setTrailer(loader.getReader().getTrailer());
@@ -201,6 +208,16 @@ public class PdfReaderController extends Observable implements Observer {
         super.notifyObservers(obj);
     }
 
+    /**
+     * Stops the background work on the objects of the document that was open, if any.
+     */
+    private void closeObjects() {
+        if (objects != null) {
+            objects.close();
+            objects = null;
+        }
+    }
+
     /**
      * Selects a node in the PdfTree.
      *
@@ -262,6 +279,7 @@ public class PdfReaderController extends Observable implements Observer {
             setChanged();
             notifyObservers(null);
             nodes = null;
+            closeObjects();
         }
         if (obj instanceof PdfObjectTreeNode node) {
             nodes.expandNode(node);
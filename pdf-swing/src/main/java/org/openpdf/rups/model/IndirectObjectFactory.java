@@ -20,19 +20,35 @@
 
 package org.openpdf.rups.model;
 
-import org.openpdf.text.pdf.IntHashtable;
-import org.openpdf.text.pdf.PdfDictionary;
-import org.openpdf.text.pdf.PdfName;
 import org.openpdf.text.pdf.PdfNull;
 import org.openpdf.text.pdf.PdfObject;
 import org.openpdf.text.pdf.PdfReader;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingUtilities;
 
 /**
- * A factory that can produce all the indirect objects in a PDF file.
+ * A factory that can produce all the indirect objects in a PDF file. Only the object numbers are listed up front (from
+ * the cross-reference table, without parsing anything); the objects themselves are read when they are needed, and only
+ * the most recently used ones are kept in memory.
  */
 public class IndirectObjectFactory {
 
+    /**
+     * The number of loaded objects that are kept in memory.
+     */
+    public static final int CACHED_OBJECTS = 4096;
+    /**
+     * The number of object descriptions prepared in background that are kept in memory.
+     */
+    public static final int CACHED_DESCRIPTIONS = 16384;
+
     /**
      * The reader object.
      */
@@ -46,17 +62,40 @@ public class IndirectObjectFactory {
      */
     protected int n;
     /**
-     * A list of all the indirect objects in a PDF file.
+     * The reference numbers of the objects in use, in ascending order. The index in this array is the index in the
+     * indirect object list.
+     */
+    protected int[] refs = new int[64];
+    /**
+     * The number of objects in use found so far.
+     */
+    protected int size;
+    /**
+     * The objects that were loaded most recently, by reference number.
+     */
+    protected Map<Integer, PdfObject> objects = new LruMap<>(CACHED_OBJECTS);
+    /**
+     * Descriptions of objects that were read in background, by reference number.
+     */
+    protected Map<Integer, String> descriptions = new LruMap<>(CACHED_DESCRIPTIONS);
+
+    /**
+     * A copy of the reader, used by the prefetch thread so it never moves the file pointer of the main reader.
+     */
+    private PdfReader prefetchReader;
+    /**
+     * Runs one prefetch at a time; the thread goes away when there is nothing to do.
      */
-    protected ArrayList<PdfObject> objects = new ArrayList<>();
+    private final ExecutorService prefetcher;
     /**
-     * Mapping between the index in the objects list and the reference number in the xref table.
+     * Incremented on each prefetch request; a running prefetch stops as soon as a newer one was asked for.
      */
-    protected IntHashtable idxToRef = new IntHashtable();
+    private final AtomicInteger prefetchRequest = new AtomicInteger();
     /**
-     * Mapping between the reference number in the xref table and the index in the objects list .
+     * The range of the last prefetch request.
      */
-    protected IntHashtable refToIdx = new IntHashtable();
+    private int prefetchFrom = -1;
+    private int prefetchTo = -1;
 
     /**
      * Creates a list that will contain all the indirect objects in a PDF document.
@@ -67,6 +106,11 @@ public class IndirectObjectFactory {
         this.reader = reader;
         current = -1;
         n = reader.getXrefSize();
+        prefetcher = new ThreadPoolExecutor(0, 1, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "RUPS object prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     /**
@@ -89,43 +133,25 @@ public class IndirectObjectFactory {
     }
 
     /**
-     * Stores the next object of the XRef table. As soon as this method returns false, it makes no longer sense calling
-     * it as all the objects have been stored.
+     * Registers the next object of the XRef table. The object isn't read, only its number is stored. As soon as this
+     * method returns false, it makes no longer sense calling it as all the objects have been registered.
      *
      * @return false if there are no objects left to check.
      */
     public boolean storeNextObject() {
         while (current < n) {
             current++;
-            PdfObject object = reader.getPdfObjectRelease(current);
-            if (object != null) {
-                int idx = size();
-                idxToRef.put(idx, current);
-                refToIdx.put(current, idx);
-                store(object);
+            if (reader.isObjectInUse(current)) {
+                if (size == refs.length) {
+                    refs = Arrays.copyOf(refs, size * 2);
+                }
+                refs[size++] = current;
                 return true;
             }
         }
         return false;
     }
 
-    /**
-     * If we store all the objects, we might run out of memory; that's why we'll only store the objects that are
-     * necessary to construct other objects (for instance the page table).
-     *
-     * @param object an object we might want to store
-     */
-    private void store(PdfObject object) {
-        if (object.isDictionary()) {
-            PdfDictionary dict = (PdfDictionary) object;
-            if (PdfName.PAGE.equals(dict.get(PdfName.TYPE))) {
-                objects.add(dict);
-                return;
-            }
-        }
-        objects.add(PdfNull.PDFNULL);
-    }
-
     /**
      * Gets the total number of indirect objects in the PDF file. This isn't necessarily the same number as returned by
      * getXRefMaximum(). The PDF specification allows gaps between object numbers.
@@ -133,17 +159,18 @@ public class IndirectObjectFactory {
      * @return the total number of indirect objects in the PDF.
      */
     public int size() {
-        return objects.size();
+        return size;
     }
 
     /**
      * Gets the index of an object based on its number in the xref table.
      *
      * @param ref a number in the xref table
-     * @return the index in the list of indirect objects
+     * @return the index in the list of indirect objects, or -1 if there is no object with that number
      */
     public int getIndexByRef(int ref) {
-        return refToIdx.get(ref);
+        int idx = Arrays.binarySearch(refs, 0, size, ref);
+        return idx < 0 ? -1 : idx;
     }
 
     /**
@@ -153,27 +180,28 @@ public class IndirectObjectFactory {
      * @return the corresponding reference number in the xref table
      */
     public int getRefByIndex(int i) {
-        return idxToRef.get(i);
+        return refs[i];
     }
 
     /**
-     * Gets an object based on its index in the indirect object list.
+     * Gets an object based on its index in the indirect object list, if it is loaded.
      *
      * @param i an index in the indirect object list
-     * @return a PDF object
+     * @return a PDF object, or PdfNull if the object isn't in memory
      */
     public PdfObject getObjectByIndex(int i) {
         return getObjectByReference(getRefByIndex(i));
     }
 
     /**
-     * Gets an object based on its reference number in the xref table.
+     * Gets an object based on its reference number in the xref table, if it is loaded.
      *
      * @param ref a number in the xref table
-     * @return a PDF object
+     * @return a PDF object, or PdfNull if the object isn't in memory
      */
-    public PdfObject getObjectByReference(int ref) {
-        return objects.get(getIndexByRef(ref));
+    public synchronized PdfObject getObjectByReference(int ref) {
+        PdfObject object = objects.get(ref);
+        return object == null ? PdfNull.PDFNULL : object;
     }
 
     /**
@@ -182,13 +210,116 @@ public class IndirectObjectFactory {
      * @param ref a reference number in the xref table.
      * @return a PDF object
      */
-    public PdfObject loadObjectByReference(int ref) {
-        PdfObject object = getObjectByReference(ref);
-        if (object instanceof PdfNull) {
-            int idx = getIndexByRef(ref);
+    public synchronized PdfObject loadObjectByReference(int ref) {
+        PdfObject object = objects.get(ref);
+        if (object == null) {
             object = reader.getPdfObject(ref);
-            objects.set(idx, object);
+            if (object == null) {
+                return PdfNull.PDFNULL;
+            }
+            objects.put(ref, object);
         }
         return object;
     }
+
+    /**
+     * Gets the description of an object that was read in background by {@link #prefetch(int, int, Runnable)}.
+     *
+     * @param i an index in the indirect object list
+     * @return the description of the object, or null if it wasn't read yet
+     */
+    public synchronized String getDescriptionByIndex(int i) {
+        return descriptions.get(getRefByIndex(i));
+    }
+
+    /**
+     * Reads the objects with an index in a range in background, so they can be described without blocking the GUI.
+     * A new request replaces the one that is still running.
+     *
+     * @param from     the first index in the indirect object list
+     * @param to       the index after the last one to read
+     * @param whenDone called on the event dispatching thread once the objects are read
+     */
+    public synchronized void prefetch(int from, int to, Runnable whenDone) {
+        if (prefetcher.isShutdown()) {
+            return;
+        }
+        from = Math.max(0, from);
+        to = Math.min(size, to);
+        if (from >= to || (from == prefetchFrom && to == prefetchTo)) {
+            return;
+        }
+        prefetchFrom = from;
+        prefetchTo = to;
+        if (prefetchReader == null) {
+            prefetchReader = new PdfReader(reader);
+        }
+        PdfReader source = prefetchReader;
+        int request = prefetchRequest.incrementAndGet();
+        int first = from;
+        int last = to;
+        prefetcher.execute(() -> {
+            boolean changed = false;
+            for (int i = first; i < last && prefetchRequest.get() == request; i++) {
+                changed |= describe(source, getRefByIndex(i));
+            }
+            if (changed && whenDone != null) {
+                SwingUtilities.invokeLater(whenDone);
+            }
+        });
+    }
+
+    /**
+     * Stops the prefetch thread and closes the copy of the reader it uses. Called when the document is closed.
+     */
+    public synchronized void close() {
+        // a running prefetch stops after the object it is reading, then the reader is closed on the same thread
+        prefetchRequest.incrementAndGet();
+        PdfReader copy = prefetchReader;
+        prefetchReader = null;
+        if (copy != null) {
+            prefetcher.execute(copy::close);
+        }
+        prefetcher.shutdown();
+    }
+
+    /**
+     * Reads one object with the prefetch reader and stores its description.
+     *
+     * @param source the prefetch reader
+     * @param ref    the reference number of the object
+     * @return true if a new description was stored
+     */
+    private boolean describe(PdfReader source, int ref) {
+        synchronized (this) {
+            if (descriptions.containsKey(ref) || objects.containsKey(ref)) {
+                return false;
+            }
+        }
+        PdfObject object = source.getPdfObjectRelease(ref);
+        String description = object == null ? PdfNull.PDFNULL.toString() : object.toString();
+        synchronized (this) {
+            descriptions.put(ref, description);
+        }
+        return true;
+    }
+
+    /**
+     * A map that forgets the least recently used entries beyond a fixed size.
+     */
+    private static class LruMap<K, V> extends LinkedHashMap<K, V> {
+
+        private static final long serialVersionUID = 1L;
+        private final int capacity;
+
+        LruMap(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > capacity;
+        }
+    }
 }
@@ -21,15 +21,16 @@
 package org.openpdf.rups.model;
 
 import org.openpdf.rups.view.itext.treenodes.PdfObjectTreeNode;
-import org.openpdf.rups.view.itext.treenodes.PdfPagesTreeNode;
 import org.openpdf.text.pdf.PdfArray;
 import org.openpdf.text.pdf.PdfDictionary;
 import org.openpdf.text.pdf.PdfIndirectReference;
 import org.openpdf.text.pdf.PdfName;
-import org.openpdf.text.pdf.PdfNull;
 import org.openpdf.text.pdf.PdfObject;
-import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * A factory that creates TreeNode objects corresponding with PDF objects.
@@ -41,9 +42,10 @@ public class TreeNodeFactory {
      */
     protected IndirectObjectFactory objects;
     /**
-     * An list containing the nodes of every indirect object.
+     * The nodes of the indirect objects that were needed so far, by reference number. Nodes are only created when an
+     * object is shown in the tree.
      */
-    protected ArrayList<PdfObjectTreeNode> nodes = new ArrayList<>();
+    protected Map<Integer, PdfObjectTreeNode> nodes = new HashMap<>();
 
     /**
      * Creates a factory that can produce TreeNode objects corresponding with PDF objects.
@@ -52,10 +54,6 @@ public class TreeNodeFactory {
      */
     public TreeNodeFactory(IndirectObjectFactory objects) {
         this.objects = objects;
-        for (int i = 0; i < objects.size(); i++) {
-            int ref = objects.getRefByIndex(i);
-            nodes.add(PdfObjectTreeNode.getInstance(PdfNull.PDFNULL, ref));
-        }
     }
 
     /**
@@ -65,13 +63,34 @@ public class TreeNodeFactory {
      * @return the TreeNode representing the PDF object
      */
     public PdfObjectTreeNode getNode(int ref) {
-        int idx = objects.getIndexByRef(ref);
-        PdfObjectTreeNode node = nodes.get(idx);
-        if (node.getPdfObject().isNull()) {
-            node = PdfObjectTreeNode.getInstance(objects.loadObjectByReference(ref), ref);
-            nodes.set(idx, node);
+        return nodes.computeIfAbsent(ref,
+                number -> PdfObjectTreeNode.getInstance(objects.loadObjectByReference(number), number));
+    }
+
+    /**
+     * Gets the TreeNode of a page, expanding only the branch of the page tree that leads to it.
+     *
+     * @param trailer the root node of the tree
+     * @param ref     the reference number of the page dictionary
+     * @return the TreeNode representing the page
+     */
+    public PdfObjectTreeNode getPageNode(PdfObjectTreeNode trailer, int ref) {
+        // the chain of /Parent references, from the root of the page tree down to the page
+        Deque<Integer> parents = new ArrayDeque<>();
+        PdfObject object = objects.loadObjectByReference(ref);
+        while (object instanceof PdfDictionary dict
+                && dict.get(PdfName.PARENT) instanceof PdfIndirectReference parent
+                && !parents.contains(parent.getNumber())) {
+            parents.push(parent.getNumber());
+            object = objects.loadObjectByReference(parent.getNumber());
+        }
+        PdfObjectTreeNode catalog = getChildNode(trailer, PdfName.ROOT);
+        if (catalog != null && getChildNode(catalog, PdfName.PAGES) != null) {
+            for (int parent : parents) {
+                expandNode(getNode(parent));
+            }
         }
-        return node;
+        return getNode(ref);
     }
 
     /**
@@ -90,9 +109,6 @@ public class TreeNodeFactory {
                 PdfIndirectReference ref = (PdfIndirectReference) object;
                 leaf = getNode(ref.getNumber());
                 addNodes(node, leaf);
-                if (leaf instanceof PdfPagesTreeNode) {
-                    expandNode(leaf);
-                }
                 return;
             case PdfObject.ARRAY:
                 PdfArray array = (PdfArray) object;
@@ -25,15 +25,10 @@ import org.openpdf.rups.model.ObjectLoader;
 import org.openpdf.rups.model.TreeNodeFactory;
 import org.openpdf.rups.view.PageSelectionListener;
 import org.openpdf.rups.view.itext.treenodes.PdfObjectTreeNode;
-import org.openpdf.rups.view.itext.treenodes.PdfPageTreeNode;
-import org.openpdf.rups.view.itext.treenodes.PdfPagesTreeNode;
-import org.openpdf.rups.view.itext.treenodes.PdfTrailerTreeNode;
 import org.openpdf.rups.view.models.JTableAutoModel;
 import org.openpdf.rups.view.models.JTableAutoModelInterface;
-import org.openpdf.text.pdf.PdfName;
 import org.openpdf.text.pdf.PdfPageLabels;
-import java.util.ArrayList;
-import java.util.Enumeration;
+import org.openpdf.text.pdf.PdfReader;
 import java.util.Observable;
 import java.util.Observer;
 import javax.swing.JTable;
@@ -41,7 +36,8 @@ import javax.swing.event.ListSelectionEvent;
 
 /**
  * A JTable listing all the pages in a PDF file: the object number of each page dictionary and the page numbers (with
- * label information if present).
+ * label information if present). Rows are resolved when they are shown; the page tree is only expanded up to a page
+ * when that page is selected.
  */
 public class PagesTable extends JTable implements JTableAutoModelInterface, Observer {
 
@@ -50,9 +46,17 @@ public class PagesTable extends JTable implements JTableAutoModelInterface, Obse
      */
     private static final long serialVersionUID = -6523261089453886508L;
     /**
-     * A list with page nodes.
+     * The reader of the PDF file, or null if no file is open.
      */
-    protected ArrayList<PdfPageTreeNode> list = new ArrayList<>();
+    protected transient PdfReader reader;
+    /**
+     * The factory that creates the node of a page when it is selected.
+     */
+    protected transient TreeNodeFactory factory;
+    /**
+     * The page labels, or null if the document doesn't have any.
+     */
+    protected transient String[] pagelabels;
     /**
      * Nodes in the FormTree correspond with nodes in the main PdfTree.
      */
@@ -76,38 +80,17 @@ public class PagesTable extends JTable implements JTableAutoModelInterface, Obse
      */
     public void update(Observable observable, Object obj) {
         if (obj == null) {
-            list = new ArrayList<>();
+            reader = null;
+            factory = null;
+            pagelabels = null;
             repaint();
             return;
         }
         if (obj instanceof ObjectLoader) {
             ObjectLoader loader = (ObjectLoader) obj;
-            String[] pagelabels = PdfPageLabels.getPageLabels(loader.getReader());
-            int i = 0;
-            TreeNodeFactory factory = loader.getNodes();
-            PdfTrailerTreeNode trailer = controller.getPdfTree().getRoot();
-            PdfObjectTreeNode catalog = factory.getChildNode(trailer, PdfName.ROOT);
-            PdfPagesTreeNode pages = (PdfPagesTreeNode) factory.getChildNode(catalog, PdfName.PAGES);
-            if (pages == null) {
-                return;
-            }
-            Enumeration p = pages.depthFirstEnumeration();
-            PdfObjectTreeNode child;
-            StringBuffer buf;
-            while (p.hasMoreElements()) {
-                child = (PdfObjectTreeNode) p.nextElement();
-                if (child instanceof PdfPageTreeNode) {
-                    buf = new StringBuffer("Page ");
-                    buf.append(++i);
-                    if (pagelabels != null) {
-                        buf.append(" ( ");
-                        buf.append(pagelabels[i - 1]);
-                        buf.append(" )");
-                    }
-                    child.setUserObject(buf.toString());
-                    list.add((PdfPageTreeNode) child);
-                }
-            }
+            reader = loader.getReader();
+            factory = loader.getNodes();
+            pagelabels = PdfPageLabels.getPageLabels(reader);
         }
         setModel(new JTableAutoModel(this));
     }
@@ -123,7 +106,10 @@ public class PagesTable extends JTable implements JTableAutoModelInterface, Obse
      * @see javax.swing.JTable#getRowCount()
      */
     public int getRowCount() {
-        return list.size();
+        if (reader == null) {
+            return 0;
+        }
+        return reader.getNumberOfPages();
     }
 
     /**
@@ -135,13 +121,30 @@ public class PagesTable extends JTable implements JTableAutoModelInterface, Obse
         }
         switch (columnIndex) {
             case 0:
-                return "Object " + list.get(rowIndex).getNumber();
+                return "Object " + reader.getPageOrigRef(rowIndex + 1).getNumber();
             case 1:
-                return list.get(rowIndex);
+                return getPageCaption(rowIndex);
         }
         return null;
     }
 
+    /**
+     * Gets the caption of a page: its number and its label if present.
+     *
+     * @param rowIndex the row of the page
+     * @return a caption such as "Page 3 ( iii )"
+     */
+    protected String getPageCaption(int rowIndex) {
+        StringBuilder buf = new StringBuilder("Page ");
+        buf.append(rowIndex + 1);
+        if (pagelabels != null) {
+            buf.append(" ( ");
+            buf.append(pagelabels[rowIndex]);
+            buf.append(" )");
+        }
+        return buf.toString();
+    }
+
     /**
      * @see javax.swing.JTable#getColumnName(int)
      */
@@ -167,10 +170,14 @@ public class PagesTable extends JTable implements JTableAutoModelInterface, Obse
         if (controller == null) {
             return;
         }
-        if (getRowCount() > 0) {
-            controller.selectNode(list.get(getSelectedRow()));
+        if (getRowCount() > 0 && getSelectedRow() >= 0) {
+            int row = getSelectedRow();
+            PdfObjectTreeNode node = factory.getPageNode(controller.getPdfTree().getRoot(),
+                    reader.getPageOrigRef(row + 1).getNumber());
+            node.setUserObject(getPageCaption(row));
+            controller.selectNode(node);
             if (listener != null) {
-                listener.gotoPage(getSelectedRow() + 1);
+                listener.gotoPage(row + 1);
             }
         }
     }
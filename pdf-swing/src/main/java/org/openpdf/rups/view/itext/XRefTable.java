@@ -27,6 +27,8 @@ import org.openpdf.rups.view.models.JTableAutoModel;
 import org.openpdf.rups.view.models.JTableAutoModelInterface;
 import org.openpdf.text.pdf.PdfNull;
 import org.openpdf.text.pdf.PdfObject;
+import java.awt.Point;
+import java.awt.Rectangle;
 import java.util.Observable;
 import java.util.Observer;
 import javax.swing.JTable;
@@ -34,7 +36,8 @@ import javax.swing.event.ListSelectionEvent;
 import javax.swing.table.TableColumn;
 
 /**
- * A JTable that shows the indirect objects of a PDF xref table.
+ * A JTable that shows the indirect objects of a PDF xref table. Objects are read when their rows scroll into view: the
+ * rows around the visible ones are read in background, and the table is repainted when their descriptions are ready.
  */
 public class XRefTable extends JTable implements JTableAutoModelInterface, Observer {
 
@@ -42,6 +45,10 @@ public class XRefTable extends JTable implements JTableAutoModelInterface, Obser
      * A serial version UID.
      */
     private static final long serialVersionUID = -382184619041375537L;
+    /**
+     * The number of rows read in background before and after the visible ones.
+     */
+    protected static final int PREFETCH_ROWS = 100;
     /**
      * The factory that can produce all the indirect objects.
      */
@@ -129,10 +136,31 @@ public class XRefTable extends JTable implements JTableAutoModelInterface, Obser
      */
     protected String getObjectDescriptionByRow(int rowIndex) {
         PdfObject object = objects.getObjectByIndex(rowIndex);
-        if (object instanceof PdfNull) {
-            return "Indirect object";
+        if (!(object instanceof PdfNull)) {
+            return object.toString();
+        }
+        String description = objects.getDescriptionByIndex(rowIndex);
+        if (description != null) {
+            return description;
         }
-        return object.toString();
+        prefetchVisibleRows();
+        return "Indirect object";
+    }
+
+    /**
+     * Asks the object factory to read the objects in and around the visible rows in background.
+     */
+    protected void prefetchVisibleRows() {
+        Rectangle visible = getVisibleRect();
+        int first = rowAtPoint(visible.getLocation());
+        int last = rowAtPoint(new Point(visible.x, visible.y + visible.height - 1));
+        if (first < 0) {
+            first = 0;
+        }
+        if (last < 0) {
+            last = getRowCount() - 1;
+        }
+        objects.prefetch(first - PREFETCH_ROWS, last + 1 + PREFETCH_ROWS, this::repaint);
     }
 
     /**
@@ -166,6 +194,9 @@ public class XRefTable extends JTable implements JTableAutoModelInterface, Obser
      */
     public void selectRowByReference(int ref) {
         int row = objects.getIndexByRef(ref);
+        if (row < 0) {
+            return;
+        }
         setRowSelectionInterval(row, row);
         scrollRectToVisible(getCellRect(row, 1, true));
         valueChanged(null);